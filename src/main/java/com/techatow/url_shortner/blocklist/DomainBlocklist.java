@@ -0,0 +1,119 @@
+package com.techatow.url_shortner.blocklist;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Lista de domínios maliciosos carregada de um arquivo local. Cada versão vira um SuffixIndex
+// mapeado em memória; a recarga monta o índice novo à parte e troca a referência volátil, então
+// leitores nunca esperam nem veem um índice pela metade.
+public class DomainBlocklist {
+    private static final Logger logger = LoggerFactory.getLogger(DomainBlocklist.class);
+
+    private final Path source;
+    private final Path indexDir;
+    private final Counter hits;
+    private volatile SuffixIndex index = SuffixIndex.EMPTY;
+    private volatile Path indexFile;
+    private FileTime loadedModified;
+    private long loadedSize = -1;
+
+    private DomainBlocklist(Path source, Path indexDir, MeterRegistry meterRegistry) {
+        this.source = source;
+        this.indexDir = indexDir;
+        this.hits = meterRegistry == null ? null
+                : Counter.builder("blocklist.hits").register(meterRegistry);
+        if (meterRegistry != null) {
+            Gauge.builder("blocklist.entries", this, DomainBlocklist::size)
+                    .register(meterRegistry);
+        }
+    }
+
+    public static DomainBlocklist disabled() {
+        return new DomainBlocklist(null, null, null);
+    }
+
+    public static DomainBlocklist load(Path source, Path indexDir, MeterRegistry meterRegistry) {
+        DomainBlocklist blocklist = new DomainBlocklist(source, indexDir, meterRegistry);
+        blocklist.reloadIfChanged();
+        return blocklist;
+    }
+
+    public boolean isBlocked(String host) {
+        boolean blocked = index.matches(host);
+        if (blocked && hits != null) {
+            hits.increment();
+        }
+        return blocked;
+    }
+
+    // Para URLs já validadas no encurtamento: o host fica entre "://" e o próximo / ? # ou :
+    public boolean isBlockedUrl(String url) {
+        int start = url.indexOf("://");
+        if (start < 0 || index.size() == 0) {
+            return false;
+        }
+        start += 3;
+        int end = start;
+        while (end < url.length() && "/?#:".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return isBlocked(url.substring(start, end));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.blocklist.reload-interval:30s}")
+    public synchronized void reloadIfChanged() {
+        if (source == null) {
+            return;
+        }
+        try {
+            if (!Files.exists(source)) {
+                if (loadedSize < 0) {
+                    logger.warn("Arquivo de blocklist {} não encontrado", source);
+                    loadedSize = 0;
+                }
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(source);
+            long size = Files.size(source);
+            if (modified.equals(loadedModified) && size == loadedSize) {
+                return;
+            }
+
+            Path target = Files.createTempFile(indexDir, "blocklist-", ".idx");
+            long started = System.nanoTime();
+            SuffixIndex rebuilt;
+            try {
+                rebuilt = SuffixIndex.build(source, target);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(target);
+                throw e;
+            }
+            Path previousFile = indexFile;
+            index = rebuilt;
+            indexFile = target;
+            loadedModified = modified;
+            loadedSize = size;
+            logger.info("Blocklist carregada: {} domínios em {} ms", rebuilt.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+
+            // O mapeamento anterior segue válido até ser coletado, mesmo sem o arquivo
+            if (previousFile != null) {
+                Files.deleteIfExists(previousFile);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Falha ao recarregar a blocklist; mantendo a versão atual", e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.techatow.url_shortner.blocklist;
+
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.IDN;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Índice imutável de domínios com os rótulos invertidos ("evil.example.com" vira
+// "com.example.evil"), ordenados e gravados num arquivo mapeado em memória: o conteúdo fica no
+// page cache do SO, fora do heap. Um host casa se ele ou qualquer domínio pai estiver no índice,
+// o que vira uma busca binária por fronteira de rótulo do nome invertido.
+//
+// Layout: magic, quantidade n, n + 1 offsets (int) e os bytes ASCII das entradas concatenados.
+final class SuffixIndex {
+
+    static final int MAGIC = 0x424c4b31;
+
+    static final SuffixIndex EMPTY =
+            new SuffixIndex(ByteBuffer.allocate(8).putInt(MAGIC).putInt(0));
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int dataStart;
+
+    private SuffixIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Índice de blocklist inválido");
+        }
+        this.count = buffer.getInt(4);
+        this.dataStart = 8 + (count + 1) * Integer.BYTES;
+    }
+
+    static SuffixIndex open(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois de fechar o canal
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SuffixIndex(mapped);
+        }
+    }
+
+    // Lê a lista (um domínio por linha, formato hosts aceito, '#' inicia comentário), grava o
+    // índice em target e o mapeia. As entradas ordenadas só ficam no heap durante a construção.
+    static SuffixIndex build(Path source, Path target) throws IOException {
+        List<byte[]> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                byte[] entry = parseLine(line);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        entries.sort(Arrays::compareUnsigned);
+
+        // Remove repetidos e subdomínios de um domínio já presente logo antes
+        List<byte[]> kept = new ArrayList<>(entries.size());
+        byte[] previous = null;
+        for (byte[] entry : entries) {
+            if (previous != null && (Arrays.equals(previous, entry) || isParent(previous, entry))) {
+                continue;
+            }
+            kept.add(entry);
+            previous = entry;
+        }
+
+        try (OutputStream file = Files.newOutputStream(target);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(kept.size());
+            int offset = 0;
+            for (byte[] entry : kept) {
+                out.writeInt(offset);
+                offset += entry.length;
+            }
+            out.writeInt(offset);
+            for (byte[] entry : kept) {
+                out.write(entry);
+            }
+        }
+        return open(target);
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean matches(String host) {
+        if (count == 0 || host == null || host.isEmpty()) {
+            return false;
+        }
+        byte[] key = reversedLabels(host);
+        if (key == null) {
+            return false;
+        }
+        // Testa "com", "com.example", "com.example.evil"... do domínio mais amplo ao host
+        for (int length = 1; length <= key.length; length++) {
+            if ((length == key.length || key[length] == '.') && contains(key, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(byte[] key, int keyLength) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareEntry(mid, key, keyLength);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int compareEntry(int index, byte[] key, int keyLength) {
+        int start = dataStart + buffer.getInt(8 + index * Integer.BYTES);
+        int end = dataStart + buffer.getInt(8 + (index + 1) * Integer.BYTES);
+        int entryLength = end - start;
+        int common = Math.min(entryLength, keyLength);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(entryLength, keyLength);
+    }
+
+    private static boolean isParent(byte[] parent, byte[] entry) {
+        return entry.length > parent.length && entry[parent.length] == '.'
+                && Arrays.equals(parent, 0, parent.length, entry, 0, parent.length);
+    }
+
+    static byte[] parseLine(String line) {
+        int comment = line.indexOf('#');
+        String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+        if (content.isEmpty()) {
+            return null;
+        }
+        // Formato hosts ("0.0.0.0 evil.com"): o domínio é o último campo
+        String[] fields = content.split("\\s+");
+        String domain = fields[fields.length - 1];
+        if (domain.startsWith("*.")) {
+            domain = domain.substring(2);
+        }
+        try {
+            domain = IDN.toASCII(domain, IDN.ALLOW_UNASSIGNED);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return reversedLabels(domain);
+    }
+
+    // "Evil.Example.com." -> "com.example.evil" em ASCII minúsculo; null se não for um domínio
+    static byte[] reversedLabels(String host) {
+        String domain = host.toLowerCase(Locale.ROOT);
+        int end = domain.length();
+        while (end > 0 && domain.charAt(end - 1) == '.') {
+            end--;
+        }
+        int start = 0;
+        while (start < end && domain.charAt(start) == '.') {
+            start++;
+        }
+        if (start == end) {
+            return null;
+        }
+        byte[] reversed = new byte[end - start];
+        int out = 0;
+        int labelEnd = end;
+        for (int i = end - 1; i >= start - 1; i--) {
+            if (i == start - 1 || domain.charAt(i) == '.') {
+                if (labelEnd - i - 1 == 0) {
+                    return null;
+                }
+                for (int j = i + 1; j < labelEnd; j++) {
+                    char c = domain.charAt(j);
+                    if (!isHostChar(c)) {
+                        return null;
+                    }
+                    reversed[out++] = (byte) c;
+                }
+                if (i > start - 1) {
+                    reversed[out++] = '.';
+                }
+                labelEnd = i;
+            }
+        }
+        return reversed;
+    }
+
+    private static boolean isHostChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
@@ -0,0 +1,53 @@
+package com.techatow.url_shortner.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.utils.CoarseClock;
+
+// expiresAtMillis é derivado de expiresAt uma vez, na criação: as checagens do redirect comparam
+// só dois longs, sem LocalDateTime.now(). slidingTtlMillis é 0 em links de expiração fixa
+public record CachedUrl(String originalUrl, LocalDateTime expiresAt, long expiresAtMillis,
+        long slidingTtlMillis) {
+
+    public CachedUrl(String originalUrl, LocalDateTime expiresAt) {
+        this(originalUrl, expiresAt, Duration.ZERO);
+    }
+
+    public CachedUrl(String originalUrl, LocalDateTime expiresAt, Duration slidingTtl) {
+        this(originalUrl, expiresAt,
+                expiresAt == null ? Long.MAX_VALUE : CoarseClock.toMillis(expiresAt),
+                slidingTtl.toMillis());
+    }
+
+    public static CachedUrl of(ShortenedUrl url) {
+        Long slidingTtl = url.getSlidingTtlSeconds();
+        return new CachedUrl(url.getOriginalUrl(), url.getExpiresAt(),
+                slidingTtl == null ? Duration.ZERO : Duration.ofSeconds(slidingTtl));
+    }
+
+    public boolean isExpired() {
+        return CoarseClock.millis() > expiresAtMillis;
+    }
+
+    public boolean isSliding() {
+        return slidingTtlMillis > 0;
+    }
+
+    // Mesma entrada com a expiração renovada para nowMillis + janela deslizante
+    public CachedUrl extendedFrom(long nowMillis) {
+        long expiresAt = nowMillis + slidingTtlMillis;
+        return new CachedUrl(originalUrl, CoarseClock.toLocalDateTime(expiresAt), expiresAt,
+                slidingTtlMillis);
+    }
+
+    // TTL da entrada limitado pela expiração do próprio link. Fora do caminho quente, então usa
+    // o relógio exato: o atraso do CoarseClock estenderia o TTL além da expiração
+    public Duration ttl(Duration maxTtl) {
+        if (expiresAt == null) {
+            return maxTtl;
+        }
+        Duration remaining = Duration.ofMillis(expiresAtMillis - System.currentTimeMillis());
+        return remaining.compareTo(maxTtl) < 0 ? remaining : maxTtl;
+    }
+}
@@ -0,0 +1,78 @@
+package com.techatow.url_shortner.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+// Cache L1 em processo. O Caffeine usa admissão W-TinyLFU, que favorece os links mais
+// frequentes quando o limite de memória é atingido.
+public class CaffeineUrlCache implements UrlCache {
+
+    // Estimativa do custo fixo por entrada (nó do Caffeine, record, LocalDateTime, Strings)
+    static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Cache<String, CachedUrl> cache;
+
+    public CaffeineUrlCache(long maxWeightBytes, Duration maxTtl) {
+        this(maxWeightBytes, maxTtl, ForkJoinPool.commonPool());
+    }
+
+    CaffeineUrlCache(long maxWeightBytes, Duration maxTtl, Executor executor) {
+        // O Caffeine já organiza as expirações numa timing wheel própria; o scheduler faz a
+        // limpeza rodar no prazo, sem depender de novas leituras ou escritas no cache
+        this.cache = Caffeine.newBuilder().executor(executor)
+                .scheduler(Scheduler.systemScheduler()).maximumWeight(maxWeightBytes)
+                .weigher((String shortCode, CachedUrl url) -> weigh(shortCode, url))
+                .expireAfter(new Expiry<String, CachedUrl>() {
+                    @Override
+                    public long expireAfterCreate(String shortCode, CachedUrl url,
+                            long currentTime) {
+                        return Math.max(url.ttl(maxTtl).toNanos(), 0);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String shortCode, CachedUrl url,
+                            long currentTime, long currentDuration) {
+                        return expireAfterCreate(shortCode, url, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String shortCode, CachedUrl url, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                }).build();
+    }
+
+    @Override
+    public Optional<CachedUrl> get(String shortCode) {
+        return Optional.ofNullable(cache.getIfPresent(shortCode));
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl url) {
+        if (url.isExpired()) {
+            return;
+        }
+        cache.put(shortCode, url);
+    }
+
+    @Override
+    public void evict(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+
+    public long estimatedSize() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    static int weigh(String shortCode, CachedUrl url) {
+        return ENTRY_OVERHEAD_BYTES + shortCode.length() + url.originalUrl().length();
+    }
+}
@@ -0,0 +1,52 @@
+package com.techatow.url_shortner.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.techatow.url_shortner.utils.CoarseClock;
+import com.techatow.url_shortner.utils.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Agenda a expiração de cada short code posto num cache em processo e avisa os caches inscritos
+// quando o prazo passa, para que entradas mortas saiam da memória sem esperar uma leitura.
+@Component
+public class ExpiryWheel {
+
+    private final TimingWheel<String> wheel;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final Counter fired;
+
+    public ExpiryWheel(@Value("${app.cache.expiry-wheel.tick:1s}") Duration tick,
+            MeterRegistry meterRegistry) {
+        this.wheel = new TimingWheel<>(tick.toMillis(), CoarseClock.millis());
+        this.fired = Counter.builder("cache.expiry.fired").register(meterRegistry);
+        Gauge.builder("cache.expiry.scheduled", wheel, TimingWheel::size)
+                .register(meterRegistry);
+    }
+
+    public void schedule(String shortCode, long deadlineMillis) {
+        wheel.schedule(shortCode, deadlineMillis);
+    }
+
+    // O listener recebe só o short code e deve conferir se a própria entrada venceu: o código
+    // pode ter sido regravado com outro prazo ou agendado por outro cache
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedRateString = "${app.cache.expiry-wheel.tick:1s}")
+    public void tick() {
+        int expired = wheel.advance(CoarseClock.millis(), shortCode -> {
+            for (Consumer<String> listener : listeners) {
+                listener.accept(shortCode);
+            }
+        });
+        fired.increment(expired);
+    }
+}
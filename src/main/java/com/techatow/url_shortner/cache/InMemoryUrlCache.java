@@ -0,0 +1,73 @@
+package com.techatow.url_shortner.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import com.techatow.url_shortner.utils.CoarseClock;
+
+// Substituto em processo do Redis, usado em testes e em execução local sem Redis. Com a
+// ExpiryWheel as entradas vencidas saem no tick do prazo; sem ela, só na próxima leitura.
+public class InMemoryUrlCache implements UrlCache {
+
+    private record Entry(CachedUrl url, long deadlineMillis) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration maxTtl;
+    private final ExpiryWheel expiryWheel;
+
+    public InMemoryUrlCache(Duration maxTtl) {
+        this(maxTtl, null);
+    }
+
+    public InMemoryUrlCache(Duration maxTtl, ExpiryWheel expiryWheel) {
+        this.maxTtl = maxTtl;
+        this.expiryWheel = expiryWheel;
+        if (expiryWheel != null) {
+            expiryWheel.subscribe(this::expire);
+        }
+    }
+
+    @Override
+    public Optional<CachedUrl> get(String shortCode) {
+        Entry entry = entries.get(shortCode);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (CoarseClock.millis() >= entry.deadlineMillis()) {
+            entries.remove(shortCode, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.url());
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl url) {
+        Duration ttl = url.ttl(maxTtl);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        long deadline = CoarseClock.millis() + ttl.toMillis();
+        entries.put(shortCode, new Entry(url, deadline));
+        if (expiryWheel != null) {
+            expiryWheel.schedule(shortCode, deadline);
+        }
+    }
+
+    @Override
+    public void evict(String shortCode) {
+        entries.remove(shortCode);
+    }
+
+    // Disparo da roda: remove só se a entrada atual venceu (pode ter sido regravada depois)
+    void expire(String shortCode) {
+        long now = CoarseClock.millis();
+        entries.computeIfPresent(shortCode,
+                (code, entry) -> now >= entry.deadlineMillis() ? null : entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
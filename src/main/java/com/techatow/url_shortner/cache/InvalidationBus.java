@@ -0,0 +1,22 @@
+package com.techatow.url_shortner.cache;
+
+import java.util.function.Consumer;
+
+public interface InvalidationBus {
+
+    void publish(String shortCode);
+
+    void subscribe(Consumer<String> listener);
+
+    // Verdadeiro quando toda publicação chega aos ouvintes antes de publish() retornar. O
+    // pub/sub do Redis é assíncrono e pode perder mensagens, então os outros nós podem atrasar
+    default boolean deliversSynchronously() {
+        return false;
+    }
+
+    // Verdadeiro se o código foi publicado há pouco em qualquer nó, mesmo que a mensagem não
+    // tenha chegado a este. Só o barramento de criações guarda esse registro
+    default boolean recentlyPublished(String shortCode) {
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.techatow.url_shortner.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Barramento de um único nó (e dos testes): entrega a invalidação aos ouvintes locais
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String shortCode) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(shortCode);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean deliversSynchronously() {
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package com.techatow.url_shortner.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+
+// Snapshot curto das estatísticas por short code. Os cliques podem ficar atrasados em até
+// o TTL configurado.
+public class LocalStatsCache {
+
+    private final Cache<String, UrlDetailsResponse> cache;
+
+    public LocalStatsCache(long maxEntries, Duration ttl) {
+        this.cache = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+    }
+
+    public UrlDetailsResponse get(String shortCode,
+            Function<String, UrlDetailsResponse> loader) {
+        return cache.get(shortCode, loader);
+    }
+
+    public void evict(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+}
@@ -0,0 +1,74 @@
+package com.techatow.url_shortner.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+// Propaga invalidações para todos os nós via pub/sub do Redis. Com remember positivo, cada
+// publicação também grava uma chave com esse TTL, consultável por recentlyPublished mesmo quando
+// a mensagem atrasa ou se perde.
+public class RedisInvalidationBus implements InvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(RedisInvalidationBus.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChannelTopic topic;
+    private final Duration remember;
+    private final LocalInvalidationBus localBus = new LocalInvalidationBus();
+
+    public RedisInvalidationBus(StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer, String channel) {
+        this(redisTemplate, listenerContainer, channel, Duration.ZERO);
+    }
+
+    public RedisInvalidationBus(StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer, String channel, Duration remember) {
+        this.redisTemplate = redisTemplate;
+        this.topic = new ChannelTopic(channel);
+        this.remember = remember;
+        listenerContainer.addMessageListener((message, pattern) -> localBus
+                .publish(new String(message.getBody(), StandardCharsets.UTF_8)), topic);
+    }
+
+    @Override
+    public void publish(String shortCode) {
+        // Invalida o nó atual mesmo que o Redis esteja fora; os demais recebem pelo canal
+        localBus.publish(shortCode);
+        try {
+            if (remember.isPositive()) {
+                redisTemplate.opsForValue().set(key(shortCode), "1", remember);
+            }
+            redisTemplate.convertAndSend(topic.getTopic(), shortCode);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao publicar invalidação de {}: {}", shortCode, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        localBus.subscribe(listener);
+    }
+
+    // Redis fora do ar: responde que pode existir, e a busca normal decide
+    @Override
+    public boolean recentlyPublished(String shortCode) {
+        if (!remember.isPositive()) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(key(shortCode)));
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao consultar publicação de {}: {}", shortCode, e.getMessage());
+            return true;
+        }
+    }
+
+    private String key(String shortCode) {
+        return topic.getTopic() + ":" + shortCode;
+    }
+}
@@ -0,0 +1,85 @@
+package com.techatow.url_shortner.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+public class RedisUrlCache implements UrlCache {
+    private static final Logger logger = LoggerFactory.getLogger(RedisUrlCache.class);
+
+    static final String KEY_PREFIX = "url:";
+    private static final String NO_EXPIRY = "-";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration maxTtl;
+
+    public RedisUrlCache(StringRedisTemplate redisTemplate, Duration maxTtl) {
+        this.redisTemplate = redisTemplate;
+        this.maxTtl = maxTtl;
+    }
+
+    @Override
+    public Optional<CachedUrl> get(String shortCode) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + shortCode);
+            return Optional.ofNullable(value).map(RedisUrlCache::decode);
+        } catch (DataAccessException e) {
+            // Redis indisponível não pode derrubar o redirect: trata como miss
+            logger.warn("Falha ao ler cache para {}: {}", shortCode, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl url) {
+        Duration ttl = url.ttl(maxTtl);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + shortCode, encode(url), ttl);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao gravar cache para {}: {}", shortCode, e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(String shortCode) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + shortCode);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao invalidar cache para {}: {}", shortCode, e.getMessage());
+        }
+    }
+
+    // Formato: "<expiresAt em epoch millis ou '-'>[;<janela deslizante em ms>]|<url original>"
+    static String encode(CachedUrl url) {
+        String expiresAt = url.expiresAt() == null ? NO_EXPIRY
+                : String.valueOf(url.expiresAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        String sliding = url.isSliding() ? ";" + url.slidingTtlMillis() : "";
+        return expiresAt + sliding + "|" + url.originalUrl();
+    }
+
+    static CachedUrl decode(String value) {
+        int separator = value.indexOf('|');
+        String header = value.substring(0, separator);
+        String originalUrl = value.substring(separator + 1);
+        Duration slidingTtl = Duration.ZERO;
+        int slidingSeparator = header.indexOf(';');
+        if (slidingSeparator >= 0) {
+            slidingTtl = Duration.ofMillis(Long.parseLong(header.substring(slidingSeparator + 1)));
+            header = header.substring(0, slidingSeparator);
+        }
+        if (NO_EXPIRY.equals(header)) {
+            return new CachedUrl(originalUrl, null, slidingTtl);
+        }
+        return new CachedUrl(originalUrl, LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(Long.parseLong(header)), ZoneOffset.UTC), slidingTtl);
+    }
+}
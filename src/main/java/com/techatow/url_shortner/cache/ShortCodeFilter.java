@@ -0,0 +1,148 @@
+package com.techatow.url_shortner.cache;
+
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.replicas.ReplicaRoutingDataSource;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Cache negativo: responde "não existe" sem tocar no banco para códigos fora do filtro.
+// Deleções não saem do filtro; a reconstrução periódica as descarta.
+//
+// O filtro pode atrasar: códigos criados em outro nó só chegam pelo createdCodesBus. Quando o
+// barramento não entrega de forma síncrona (Redis), uma resposta negativa é confirmada no
+// registro de criações recentes do próprio barramento antes do 404, nunca no banco: o código
+// encontrado entra no filtro, cobrindo mensagens atrasadas ou perdidas até a reconstrução.
+@Component
+public class ShortCodeFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ShortCodeFilter.class);
+
+    private final UrlStore urlStore;
+    private final InvalidationBus createdCodesBus;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+    private final boolean enabled;
+    private final boolean confirmNegatives;
+    private final Counter rejected;
+    private final Counter falsePositives;
+    private final Counter stale;
+
+    // null até a primeira carga: enquanto isso todo código "pode existir"
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    public ShortCodeFilter(UrlStore urlStore,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Qualifier("createdCodesBus") InvalidationBus createdCodesBus,
+            @Value("${app.filter.enabled:true}") boolean enabled,
+            @Value("${app.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.urlStore = urlStore;
+        this.createdCodesBus = createdCodesBus;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rejected = meterRegistry.counter("shortcode.filter.rejected");
+        this.falsePositives = meterRegistry.counter("shortcode.filter.false.positives");
+        this.stale = meterRegistry.counter("shortcode.filter.stale");
+        this.confirmNegatives = !createdCodesBus.deliversSynchronously();
+
+        Gauge.builder("shortcode.filter.expected.fpp", this,
+                filter -> filter.current == null ? 1.0 : filter.current.expectedFalsePositiveRate())
+                .description("Taxa de falso positivo esperada pela ocupação do filtro")
+                .register(meterRegistry);
+        Gauge.builder("shortcode.filter.observed.fpp", this,
+                ShortCodeFilter::observedFalsePositiveRate)
+                .description("Falsos positivos / consultas de códigos inexistentes")
+                .register(meterRegistry);
+        Gauge.builder("shortcode.filter.memory", this,
+                filter -> filter.current == null ? 0 : filter.current.memoryBytes())
+                .baseUnit("bytes").register(meterRegistry);
+
+        // Um código criado em qualquer nó invalida a resposta negativa deste nó
+        createdCodesBus.subscribe(this::add);
+    }
+
+    public boolean mightExist(String shortCode) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(shortCode)) {
+            return true;
+        }
+        if (confirmNegatives && createdCodesBus.recentlyPublished(shortCode)) {
+            // Criado em outro nó e a mensagem do barramento ainda não chegou (ou se perdeu)
+            add(shortCode);
+            stale.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void add(String shortCode) {
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(shortCode);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(shortCode);
+        }
+    }
+
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.filter.rebuild-interval:30m}",
+            fixedDelayString = "${app.filter.rebuild-interval:30m}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        // No primário: uma réplica atrasada omitiria códigos recém-criados e o filtro passaria a
+        // responder 404 para eles
+        ReplicaRoutingDataSource.onPrimary(this::rebuildFromDatabase);
+    }
+
+    private void rebuildFromDatabase() {
+        long startedAt = System.nanoTime();
+        long expected = Math.max(urlStore.count() * 2, 10_000);
+        BloomFilter next = BloomFilter.create(expected, falsePositiveRate);
+        // Códigos criados durante a varredura entram direto no filtro novo
+        building = next;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> codes = urlStore.streamAllShortCodes()) {
+                    codes.forEach(next::put);
+                }
+            });
+            current = next;
+            logger.info("Filtro de short codes reconstruído: {} bytes em {} ms",
+                    next.memoryBytes(), (System.nanoTime() - startedAt) / 1_000_000);
+        } finally {
+            building = null;
+        }
+    }
+
+    double observedFalsePositiveRate() {
+        double negatives = rejected.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+}
@@ -0,0 +1,42 @@
+package com.techatow.url_shortner.cache;
+
+import java.util.Optional;
+
+// L1 em processo na frente do cache remoto (L2). Invalidações passam pelo barramento para
+// limpar o L1 de todos os nós.
+public class TieredUrlCache implements UrlCache {
+
+    private final UrlCache local;
+    private final UrlCache remote;
+    private final InvalidationBus invalidationBus;
+
+    public TieredUrlCache(UrlCache local, UrlCache remote, InvalidationBus invalidationBus) {
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.invalidationBus.subscribe(local::evict);
+    }
+
+    @Override
+    public Optional<CachedUrl> get(String shortCode) {
+        Optional<CachedUrl> cached = local.get(shortCode);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        cached = remote.get(shortCode);
+        cached.ifPresent(url -> local.put(shortCode, url));
+        return cached;
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl url) {
+        remote.put(shortCode, url);
+        local.put(shortCode, url);
+    }
+
+    @Override
+    public void evict(String shortCode) {
+        remote.evict(shortCode);
+        invalidationBus.publish(shortCode);
+    }
+}
@@ -0,0 +1,187 @@
+package com.techatow.url_shortner.clicks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.techatow.url_shortner.storage.ClickDelta;
+import com.techatow.url_shortner.storage.UrlStore;
+import jakarta.annotation.PreDestroy;
+
+// Agrega cliques em memória e aplica os deltas no UrlStore em lote, fora da thread do request.
+@Component
+public class ClickAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(ClickAggregator.class);
+
+    private static final Function<String, Counter> NEW_COUNTER = shortCode -> new Counter();
+
+    static final class Counter {
+        final LongAdder clicks = new LongAdder();
+        final LongAccumulator lastAccessedAt = new LongAccumulator(Math::max, 0L);
+    }
+
+    record Delta(String shortCode, long clicks, long lastAccessedAt) {
+    }
+
+    static final class Generation {
+        final Map<String, Counter> counters = new ConcurrentHashMap<>();
+        final LongAdder entered = new LongAdder();
+        final LongAdder exited = new LongAdder();
+
+        // Lê as saídas antes das entradas: toda saída contada tem a sua entrada contada
+        boolean quiescent() {
+            long out = exited.sum();
+            return entered.sum() == out;
+        }
+    }
+
+    private final UrlStore urlStore;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+
+    // Geração ativa recebe os cliques. No flush ela é trocada e só é drenada depois que todas
+    // as threads que ainda seguravam a referência antiga terminaram o incremento.
+    private volatile Generation active = new Generation();
+
+    public ClickAggregator(UrlStore urlStore,
+            @Value("${app.clicks.batch-size:500}") int batchSize,
+            @Value("${app.clicks.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.urlStore = urlStore;
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public void record(String shortCode) {
+        record(shortCode, System.currentTimeMillis());
+    }
+
+    public void record(String shortCode, long timestampMillis) {
+        while (true) {
+            Generation generation = active;
+            generation.entered.increment();
+            try {
+                // Trocada entre a leitura e a entrada: o flush pode já estar drenando
+                if (generation != active) {
+                    continue;
+                }
+                Counter counter = generation.counters.get(shortCode);
+                if (counter == null) {
+                    counter = generation.counters.computeIfAbsent(shortCode, NEW_COUNTER);
+                }
+                counter.clicks.increment();
+                counter.lastAccessedAt.accumulate(timestampMillis);
+                return;
+            } finally {
+                generation.exited.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.clicks.flush-interval:5s}")
+    public synchronized void flush() {
+        Generation retired = active;
+        active = new Generation();
+        while (!retired.quiescent()) {
+            Thread.onSpinWait();
+        }
+
+        Map<String, Delta> deltas = new HashMap<>();
+        drain(retired.counters, deltas);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Delta> batch = new ArrayList<>(Math.min(batchSize, deltas.size()));
+        for (Delta delta : deltas.values()) {
+            batch.add(delta);
+            if (batch.size() == batchSize) {
+                apply(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            apply(batch);
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> drain = executor.submit(this::flush);
+            drain.get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Drenagem de cliques excedeu {}; cliques pendentes perdidos",
+                    shutdownTimeout);
+        } catch (ExecutionException e) {
+            logger.error("Falha ao drenar cliques no desligamento", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public long pendingClicks() {
+        long pending = 0;
+        for (Counter counter : active.counters.values()) {
+            pending += counter.clicks.sum();
+        }
+        return pending;
+    }
+
+    private static void drain(Map<String, Counter> counters, Map<String, Delta> deltas) {
+        counters.forEach((shortCode, counter) -> {
+            long clicks = counter.clicks.sumThenReset();
+            if (clicks == 0) {
+                return;
+            }
+            long lastAccessedAt = counter.lastAccessedAt.get();
+            deltas.merge(shortCode, new Delta(shortCode, clicks, lastAccessedAt),
+                    (a, b) -> new Delta(shortCode, a.clicks() + b.clicks(),
+                            Math.max(a.lastAccessedAt(), b.lastAccessedAt())));
+        });
+    }
+
+    private void apply(List<Delta> batch) {
+        try {
+            urlStore.incrementClicks(batch.stream()
+                    .map(delta -> new ClickDelta(delta.shortCode(), delta.clicks(),
+                            toLocalDateTime(delta.lastAccessedAt())))
+                    .toList());
+        } catch (DataAccessException e) {
+            // Devolve os deltas para a geração ativa; serão reaplicados no próximo flush
+            logger.warn("Falha ao aplicar {} deltas de cliques: {}", batch.size(), e.getMessage());
+            for (Delta delta : batch) {
+                Counter counter =
+                        active.counters.computeIfAbsent(delta.shortCode(), NEW_COUNTER);
+                counter.clicks.add(delta.clicks());
+                counter.lastAccessedAt.accumulate(delta.lastAccessedAt());
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,40 @@
+package com.techatow.url_shortner.clicks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
+
+// Resolução dos buckets de cliques. O nome em minúsculas é o valor gravado em click_buckets e
+// também a unidade do date_trunc usado nos rollups
+public enum ClickGranularity {
+    MINUTE(ChronoUnit.MINUTES), HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    ClickGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public static ClickGranularity parse(String value) {
+        for (ClickGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new InvalidParameterException("Granularidade inválida: " + value);
+    }
+
+    public String sqlName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public Duration duration() {
+        return unit.getDuration();
+    }
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
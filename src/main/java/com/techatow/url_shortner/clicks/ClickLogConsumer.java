@@ -0,0 +1,191 @@
+package com.techatow.url_shortner.clicks;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.events.ClickEventLog;
+import com.techatow.url_shortner.events.LogPosition;
+import com.techatow.url_shortner.storage.JpaUrlStore;
+import jakarta.annotation.PreDestroy;
+
+// Modo "log": lê o ClickEventLog a partir do offset salvo e aplica os cliques em shortened_urls.
+// Os deltas e o novo offset são gravados na mesma transação, então cada evento conta exatamente
+// uma vez, mesmo quando o processo cai no meio e o log é relido do último offset na subida.
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class ClickLogConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(ClickLogConsumer.class);
+
+    static final String CREATE_SQL = "create table if not exists event_log_offsets ("
+            + "consumer varchar(100) primary key, segment_id bigint not null, "
+            + "record_offset int not null)";
+
+    static final String SELECT_SQL =
+            "select segment_id, record_offset from event_log_offsets where consumer = ?";
+
+    static final String INSERT_SQL = "insert into event_log_offsets "
+            + "(consumer, segment_id, record_offset) values (?, ?, ?)";
+
+    static final String UPDATE_OFFSET_SQL = "update event_log_offsets "
+            + "set segment_id = ?, record_offset = ? where consumer = ?";
+
+    private final ClickEventLog eventLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final String consumer;
+    private final int batchSize;
+    private final Duration retention;
+
+    private LogPosition position;
+
+    public ClickLogConsumer(ClickEventLog eventLog, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.events.node-id:}") String nodeId,
+            @Value("${app.events.batch-size:10000}") int batchSize,
+            @Value("${app.events.retention:24h}") Duration retention) {
+        this.eventLog = eventLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // Cada nó tem o seu diretório de log e, portanto, o seu próprio offset
+        this.consumer = eventLog.isEnabled() ? nodeId(nodeId) + ":clicks" : null;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.consume-interval:1s}")
+    public synchronized void consume() {
+        if (!eventLog.isEnabled()) {
+            return;
+        }
+        try {
+            initialize();
+            int applied;
+            do {
+                applied = consumeBatch();
+            } while (applied == batchSize);
+        } catch (DataAccessException e) {
+            // O offset não avançou: os mesmos eventos são relidos na próxima execução
+            logger.warn("Falha ao aplicar cliques do log a partir de {}: {}", position,
+                    e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void consumeOnShutdown() {
+        consume();
+    }
+
+    public LogPosition position() {
+        return position;
+    }
+
+    private int consumeBatch() {
+        Map<String, long[]> deltas = new HashMap<>();
+        int[] events = new int[1];
+        LogPosition next = eventLog.read(position, batchSize, event -> {
+            long[] delta = deltas.computeIfAbsent(event.shortCode(), shortCode -> new long[2]);
+            delta[0]++;
+            delta[1] = Math.max(delta[1], event.timestampMillis());
+            events[0]++;
+        });
+        if (next.equals(position)) {
+            return 0;
+        }
+
+        List<Object[]> updates = deltas.entrySet().stream().map(entry -> {
+            Timestamp lastAccessedAt = Timestamp.valueOf(toLocalDateTime(entry.getValue()[1]));
+            return new Object[] {entry.getValue()[0], lastAccessedAt, lastAccessedAt,
+                    entry.getKey()};
+        }).toList();
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(JpaUrlStore.INCREMENT_CLICKS_SQL, updates);
+            jdbcTemplate.update(UPDATE_OFFSET_SQL, next.segment(), next.offset(), consumer);
+        });
+        position = next;
+        return events[0];
+    }
+
+    // O force fica fora do caminho do redirect: até sync-interval de cliques pode se perder
+    // numa queda do sistema operacional, nunca numa queda só do processo
+    @Scheduled(fixedDelayString = "${app.events.sync-interval:1s}")
+    public void sync() {
+        eventLog.force();
+    }
+
+    // Segmentos ainda não consumidos nunca são removidos, mesmo além da retenção
+    @Scheduled(fixedDelayString = "${app.events.cleanup-interval:10m}")
+    public synchronized void purgeConsumed() {
+        if (!eventLog.isEnabled() || position == null) {
+            return;
+        }
+        int removed = eventLog.purge(retention, position.segment());
+        if (removed > 0) {
+            logger.info("{} segmentos do log de cliques removidos", removed);
+        }
+    }
+
+    private void initialize() {
+        if (position != null) {
+            return;
+        }
+        jdbcTemplate.execute(CREATE_SQL);
+        List<LogPosition> stored = jdbcTemplate.query(SELECT_SQL,
+                (row, rowNum) -> new LogPosition(row.getLong(1), row.getInt(2)), consumer);
+        if (stored.isEmpty()) {
+            jdbcTemplate.update(INSERT_SQL, consumer, LogPosition.START.segment(),
+                    LogPosition.START.offset());
+            position = LogPosition.START;
+        } else {
+            position = stored.getFirst();
+        }
+        if (position.segment() >= eventLog.openedSegment()) {
+            // Diretório do log apagado ou trocado: os ids recomeçaram abaixo do offset salvo, que
+            // pularia eventos novos e deixaria o purge apagar segmentos nunca lidos
+            logger.warn("Offset {} do consumidor {} está além do log atual (segmento {}); "
+                    + "relendo desde o início", position, consumer, eventLog.openedSegment());
+            jdbcTemplate.update(UPDATE_OFFSET_SQL, LogPosition.START.segment(),
+                    LogPosition.START.offset(), consumer);
+            position = LogPosition.START;
+        }
+        logger.info("Consumidor {} retomando o log de cliques em {}", consumer, position);
+    }
+
+    // Sem id configurado usa o hostname: um valor fixo faria todos os nós disputarem a mesma
+    // linha de offset, cada um aplicando o seu log a partir da posição do outro
+    static String nodeId(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured.strip();
+        }
+        try {
+            String hostname = InetAddress.getLocalHost().getHostName();
+            if (!hostname.isBlank()) {
+                return hostname;
+            }
+        } catch (UnknownHostException e) {
+            logger.debug("Hostname indisponível: {}", e.getMessage());
+        }
+        throw new IllegalStateException(
+                "app.events.node-id (EVENT_LOG_NODE_ID) é obrigatório com app.clicks.mode=log");
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,369 @@
+package com.techatow.url_shortner.clicks;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.exceptions.FeatureUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Série temporal de cliques por short code. O redirect só faz um CAS num anel de 64 minutos do
+// código (sem lock nem alocação depois do primeiro clique); o flush drena os slots para
+// click_buckets em lote e o rollup agrega minutos em horas e horas em dias conforme envelhecem.
+// Com app.storage.type=embedded não há banco: o StorageConfig registra unavailable().
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class ClickTimeSeries {
+    private static final Logger logger = LoggerFactory.getLogger(ClickTimeSeries.class);
+
+    static final String CREATE_SQL = "create table if not exists click_buckets ("
+            + "short_code varchar(6) not null, granularity varchar(6) not null, "
+            + "bucket_start timestamp not null, clicks bigint not null, "
+            + "primary key (short_code, granularity, bucket_start))";
+
+    static final String POSTGRES_UPSERT_SQL = "insert into click_buckets "
+            + "(short_code, granularity, bucket_start, clicks) values (?, ?, ?, ?) "
+            + "on conflict (short_code, granularity, bucket_start) "
+            + "do update set clicks = click_buckets.clicks + excluded.clicks";
+
+    static final String H2_UPSERT_SQL = "merge into click_buckets t using (select "
+            + "cast(? as varchar(6)) short_code, cast(? as varchar(6)) granularity, "
+            + "cast(? as timestamp) bucket_start, cast(? as bigint) clicks) s "
+            + "on t.short_code = s.short_code and t.granularity = s.granularity "
+            + "and t.bucket_start = s.bucket_start "
+            + "when matched then update set clicks = t.clicks + s.clicks "
+            + "when not matched then insert values "
+            + "(s.short_code, s.granularity, s.bucket_start, s.clicks)";
+
+    // Move e agrega num único statement: um rollup concorrente em outro nó espera os locks das
+    // linhas apagadas e não as conta de novo
+    static final String POSTGRES_ROLLUP_SQL = "with moved as (delete from click_buckets "
+            + "where granularity = ? and bucket_start < ? "
+            + "returning short_code, bucket_start, clicks) "
+            + "insert into click_buckets (short_code, granularity, bucket_start, clicks) "
+            + "select short_code, ?, date_trunc(?, bucket_start), sum(clicks) from moved "
+            + "group by 1, 3 on conflict (short_code, granularity, bucket_start) "
+            + "do update set clicks = click_buckets.clicks + excluded.clicks";
+
+    static final String H2_ROLLUP_SQL = "merge into click_buckets t using (select short_code, "
+            + "date_trunc(%1$s, bucket_start) bucket_start, sum(clicks) clicks "
+            + "from click_buckets where granularity = ? and bucket_start < ? "
+            + "group by short_code, date_trunc(%1$s, bucket_start)) s "
+            + "on t.short_code = s.short_code and t.granularity = '%2$s' "
+            + "and t.bucket_start = s.bucket_start "
+            + "when matched then update set clicks = t.clicks + s.clicks "
+            + "when not matched then insert values "
+            + "(s.short_code, '%2$s', s.bucket_start, s.clicks)";
+
+    static final String DELETE_OLDER_SQL =
+            "delete from click_buckets where granularity = ? and bucket_start < ?";
+
+    static final String DELETE_CODE_SQL = "delete from click_buckets where short_code = ?";
+
+    static final String SELECT_SQL = "select bucket_start, clicks from click_buckets "
+            + "where short_code = ? and bucket_start >= ? and bucket_start < ?";
+
+    private static final int RING_MINUTES = 64;
+    private static final int RING_MASK = RING_MINUTES - 1;
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    // Anel sem cliques há mais que isso sai do mapa; o flush seguinte ainda o drena uma vez
+    private static final long IDLE_MINUTES = 5;
+
+    private static final Function<String, MinuteRing> NEW_RING = shortCode -> new MinuteRing();
+
+    // Um slot por minuto: época do minuto nos 32 bits altos e cliques ainda não gravados nos
+    // baixos, para que um único CAS troque o minuto e zere a contagem ao mesmo tempo
+    static final class MinuteRing {
+        final AtomicLongArray slots = new AtomicLongArray(RING_MINUTES);
+    }
+
+    record Bucket(String shortCode, long minute, long clicks) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+    private final Counter dropped;
+
+    private final Map<String, MinuteRing> rings = new ConcurrentHashMap<>();
+    // Anéis removidos por inatividade: só acessado pela thread do flush
+    private Map<String, MinuteRing> retired = new HashMap<>();
+    private volatile boolean postgres;
+    private volatile boolean initialized;
+
+    public ClickTimeSeries(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.clicks.series.enabled:true}") boolean enabled,
+            @Value("${app.clicks.batch-size:500}") int batchSize,
+            @Value("${app.clicks.series.minute-retention:2d}") Duration minuteRetention,
+            @Value("${app.clicks.series.hour-retention:30d}") Duration hourRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = transactionManager == null ? null
+                : new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+        this.dropped = Counter.builder("clicks.series.dropped").register(meterRegistry);
+    }
+
+    // Não grava nada e recusa consultas, em vez de devolver uma série vazia como se o link não
+    // tivesse cliques
+    public static ClickTimeSeries unavailable(MeterRegistry meterRegistry) {
+        return new ClickTimeSeries(null, null, meterRegistry, false, 1, Duration.ZERO,
+                Duration.ZERO);
+    }
+
+    public void record(String shortCode) {
+        record(shortCode, System.currentTimeMillis());
+    }
+
+    public void record(String shortCode, long timestampMillis) {
+        if (!enabled) {
+            return;
+        }
+        MinuteRing ring = rings.get(shortCode);
+        if (ring == null) {
+            ring = rings.computeIfAbsent(shortCode, NEW_RING);
+        }
+        long lost = add(ring, timestampMillis / 60_000, 1);
+        if (lost > 0) {
+            dropped.increment(lost);
+        }
+    }
+
+    // Devolve os cliques perdidos: os deste minuto, se o slot já é de um minuto mais novo, ou os
+    // de um minuto antigo ainda não drenado que foi sobrescrito (flush parado por uma hora)
+    private static long add(MinuteRing ring, long minute, long clicks) {
+        int index = (int) (minute & RING_MASK);
+        while (true) {
+            long current = ring.slots.get(index);
+            long slotMinute = current >>> COUNT_BITS;
+            long next;
+            if (slotMinute == minute) {
+                next = current + clicks;
+            } else if (slotMinute < minute) {
+                next = (minute << COUNT_BITS) | clicks;
+            } else {
+                return clicks;
+            }
+            if (ring.slots.compareAndSet(index, current, next)) {
+                return slotMinute == minute ? 0 : current & COUNT_MASK;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.clicks.series.flush-interval:10s}")
+    public synchronized void flush() {
+        long idleBefore = System.currentTimeMillis() / 60_000 - IDLE_MINUTES;
+        List<Bucket> drained = new ArrayList<>();
+
+        Map<String, MinuteRing> lastRetired = retired;
+        retired = new HashMap<>();
+        lastRetired.forEach((shortCode, ring) -> drain(shortCode, ring, drained));
+
+        rings.forEach((shortCode, ring) -> {
+            if (drain(shortCode, ring, drained) == 0 && newestMinute(ring) < idleBefore
+                    && rings.remove(shortCode, ring)) {
+                retired.put(shortCode, ring);
+            }
+        });
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        for (int start = 0; start < drained.size(); start += batchSize) {
+            apply(drained.subList(start, Math.min(start + batchSize, drained.size())));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static long drain(String shortCode, MinuteRing ring, List<Bucket> drained) {
+        long total = 0;
+        for (int i = 0; i < RING_MINUTES; i++) {
+            long current;
+            do {
+                current = ring.slots.get(i);
+            } while ((current & COUNT_MASK) != 0
+                    && !ring.slots.compareAndSet(i, current, current & ~COUNT_MASK));
+            long clicks = current & COUNT_MASK;
+            if (clicks > 0) {
+                drained.add(new Bucket(shortCode, current >>> COUNT_BITS, clicks));
+                total += clicks;
+            }
+        }
+        return total;
+    }
+
+    private static long newestMinute(MinuteRing ring) {
+        long newest = 0;
+        for (int i = 0; i < RING_MINUTES; i++) {
+            newest = Math.max(newest, ring.slots.get(i) >>> COUNT_BITS);
+        }
+        return newest;
+    }
+
+    private void apply(List<Bucket> batch) {
+        try {
+            initialize();
+            String granularity = ClickGranularity.MINUTE.sqlName();
+            jdbcTemplate.batchUpdate(postgres ? POSTGRES_UPSERT_SQL : H2_UPSERT_SQL,
+                    batch.stream().map(bucket -> new Object[] {bucket.shortCode(), granularity,
+                            Timestamp.valueOf(toLocalDateTime(bucket.minute())),
+                            bucket.clicks()}).toList());
+        } catch (DataAccessException | IllegalStateException e) {
+            // Devolve os cliques aos anéis; serão regravados no próximo flush
+            logger.warn("Falha ao gravar {} buckets de cliques: {}", batch.size(),
+                    e.getMessage());
+            for (Bucket bucket : batch) {
+                MinuteRing ring = rings.computeIfAbsent(bucket.shortCode(), NEW_RING);
+                long lost = add(ring, bucket.minute(), bucket.clicks());
+                if (lost > 0) {
+                    dropped.increment(lost);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.clicks.series.rollup-interval:1h}")
+    public void rollup() {
+        if (!enabled) {
+            return;
+        }
+        initialize();
+        LocalDateTime now = LocalDateTime.now();
+        rollup(ClickGranularity.MINUTE, ClickGranularity.HOUR,
+                ClickGranularity.HOUR.truncate(now.minus(minuteRetention)));
+        rollup(ClickGranularity.HOUR, ClickGranularity.DAY,
+                ClickGranularity.DAY.truncate(now.minus(hourRetention)));
+    }
+
+    // Agrega em "to" os buckets "from" anteriores a cutoff, que deve estar alinhado a "to"
+    void rollup(ClickGranularity from, ClickGranularity to, LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        try {
+            if (postgres) {
+                jdbcTemplate.update(POSTGRES_ROLLUP_SQL, from.sqlName(), before, to.sqlName(),
+                        to.sqlName());
+                return;
+            }
+            String sql = String.format(H2_ROLLUP_SQL, "'" + to.sqlName() + "'", to.sqlName());
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.update(sql, from.sqlName(), before);
+                jdbcTemplate.update(DELETE_OLDER_SQL, from.sqlName(), before);
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Falha no rollup de cliques para {}: {}", to.sqlName(), e.getMessage());
+        }
+    }
+
+    // Buckets cujo início está em [from, to), já agregados na granularidade pedida. Inclui os
+    // cliques ainda não gravados; buckets mais grossos que a granularidade (dados antigos já
+    // agregados) aparecem no seu próprio início
+    public SortedMap<LocalDateTime, Long> query(String shortCode, LocalDateTime from,
+            LocalDateTime to, ClickGranularity granularity) {
+        if (jdbcTemplate == null) {
+            throw new FeatureUnavailableException(
+                    "Série de cliques exige app.storage.type=jpa");
+        }
+        SortedMap<LocalDateTime, Long> buckets = new TreeMap<>();
+        if (!enabled) {
+            return buckets;
+        }
+        initialize();
+        jdbcTemplate.query(SELECT_SQL, row -> {
+            buckets.merge(granularity.truncate(row.getTimestamp(1).toLocalDateTime()),
+                    row.getLong(2), Long::sum);
+        }, shortCode, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        MinuteRing ring = rings.get(shortCode);
+        if (ring != null) {
+            for (int i = 0; i < RING_MINUTES; i++) {
+                long slot = ring.slots.get(i);
+                LocalDateTime start = toLocalDateTime(slot >>> COUNT_BITS);
+                if ((slot & COUNT_MASK) != 0 && !start.isBefore(from) && start.isBefore(to)) {
+                    buckets.merge(granularity.truncate(start), slot & COUNT_MASK, Long::sum);
+                }
+            }
+        }
+        return buckets;
+    }
+
+    // Short code apagado: a série não deve reaparecer se o código for reutilizado
+    public void delete(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        rings.remove(shortCode);
+        initialize();
+        jdbcTemplate.update(DELETE_CODE_SQL, shortCode);
+    }
+
+    // Lote de códigos expirados do ExpiryReaper, num único batch JDBC
+    public void delete(Collection<String> shortCodes) {
+        if (!enabled || shortCodes.isEmpty()) {
+            return;
+        }
+        shortCodes.forEach(rings::remove);
+        initialize();
+        jdbcTemplate.batchUpdate(DELETE_CODE_SQL,
+                shortCodes.stream().map(shortCode -> new Object[] {shortCode}).toList());
+    }
+
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        postgres = "PostgreSQL".equals(databaseProductName());
+        jdbcTemplate.execute(CREATE_SQL);
+        initialized = true;
+    }
+
+    private String databaseProductName() {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Falha ao identificar o banco de dados", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMinute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60),
+                ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,68 @@
+package com.techatow.url_shortner.clicks;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+// Modo exato: incrementa, valida a expiração e devolve a URL num único statement atômico,
+// sem SELECT prévio nem perda de incrementos concorrentes. Links deslizantes têm a expiração
+// renovada no mesmo UPDATE, já que este modo escreve a cada acesso de qualquer forma. Só existe
+// com app.clicks.mode=exact: nos outros modos a subida não depende do dialeto nem do banco.
+@Component
+@ConditionalOnProperty(name = "app.clicks.mode", havingValue = "exact")
+public class ExactClickCounter {
+
+    static final String UPDATE_SQL = "update shortened_urls set clicks = clicks + 1, "
+            + "last_accessed_at = ?, expires_at = case when sliding_ttl_seconds is null "
+            + "then expires_at else %s end where short_code = ? "
+            + "and (expires_at is null or expires_at > ?)";
+
+    static final String POSTGRES_SQL = String.format(UPDATE_SQL,
+            "cast(? as timestamp) + sliding_ttl_seconds * interval '1 second'")
+            + " returning original_url";
+
+    static final String H2_SQL = "select original_url from final table (" + String.format(
+            UPDATE_SQL, "dateadd(SECOND, sliding_ttl_seconds, cast(? as timestamp))") + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+
+    public ExactClickCounter(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = sqlFor(databaseProductName(dataSource));
+    }
+
+    // Vazio quando o código não existe ou já expirou
+    public Optional<String> incrementAndResolve(String shortCode, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<String> urls = jdbcTemplate.queryForList(sql, String.class, timestamp, timestamp,
+                shortCode, timestamp);
+        return urls.stream().findFirst();
+    }
+
+    static String sqlFor(String databaseProductName) {
+        return switch (databaseProductName) {
+            case "PostgreSQL" -> POSTGRES_SQL;
+            case "H2" -> H2_SQL;
+            default -> throw new IllegalStateException(
+                    "Modo exato de cliques não suportado em " + databaseProductName);
+        };
+    }
+
+    private static String databaseProductName(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Falha ao identificar o banco de dados", e);
+        }
+    }
+}
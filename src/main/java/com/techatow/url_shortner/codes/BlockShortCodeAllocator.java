@@ -0,0 +1,65 @@
+package com.techatow.url_shortner.codes;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
+import com.techatow.url_shortner.utils.PermutedBase62;
+
+// Reserva blocos de ids na fonte compartilhada e os consome localmente, sem consultar o banco
+// por código. Ids nunca se repetem entre nós; o PermutedBase62 os torna não sequenciais.
+// Ids restantes de um bloco são descartados quando o processo termina.
+public class BlockShortCodeAllocator implements ShortCodeAllocator {
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    private final BlockSource source;
+    private final int blockSize;
+    private final PermutedBase62 encoder;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private volatile Block current = new Block(0, 0);
+
+    public BlockShortCodeAllocator(BlockSource source, int blockSize, PermutedBase62 encoder) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Tamanho de bloco deve ser positivo: " + blockSize);
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+        this.encoder = encoder;
+    }
+
+    @Override
+    public String nextCode() {
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return encode(id);
+            }
+            // Só uma thread busca o próximo bloco; as demais esperam e usam o bloco novo
+            leaseLock.lock();
+            try {
+                if (current == block) {
+                    long start = source.lease(blockSize);
+                    current = new Block(start, start + blockSize);
+                }
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+    }
+
+    private String encode(long id) {
+        if (id >= PermutedBase62.CAPACITY) {
+            throw new ShortCodeGenerationException("Espaço de short codes esgotado");
+        }
+        return encoder.encode(id);
+    }
+}
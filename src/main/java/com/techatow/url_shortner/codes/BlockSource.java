@@ -0,0 +1,8 @@
+package com.techatow.url_shortner.codes;
+
+// Fonte compartilhada entre os nós: cada chamada reserva um intervalo exclusivo de ids
+public interface BlockSource {
+
+    // Devolve o primeiro id do bloco [início, início + size)
+    long lease(int size);
+}
@@ -0,0 +1,51 @@
+package com.techatow.url_shortner.codes;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Contador num arquivo, para o armazenamento embarcado de um único nó. O fim do bloco é gravado
+// com fsync e rename atômico antes de o bloco ser entregue: um reinício nunca repete ids.
+public class FileBlockSource implements BlockSource {
+
+    private final Path file;
+    private long next = -1;
+
+    public FileBlockSource(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized long lease(int size) {
+        try {
+            if (next < 0) {
+                next = Files.exists(file) ? Long.parseLong(Files.readString(file).strip()) : 0;
+            }
+            long start = next;
+            write(start + size);
+            next = start + size;
+            return start;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao reservar bloco de ids em " + file, e);
+        }
+    }
+
+    private void write(long end) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(end).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,15 @@
+package com.techatow.url_shortner.codes;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Substituto local do contador compartilhado, para testes e um único nó sem persistência:
+// recomeça do zero a cada início.
+public class InMemoryBlockSource implements BlockSource {
+
+    private final AtomicLong next = new AtomicLong();
+
+    @Override
+    public long lease(int size) {
+        return next.getAndAdd(size);
+    }
+}
@@ -0,0 +1,29 @@
+package com.techatow.url_shortner.codes;
+
+import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.ShortCodeGenerator;
+
+// Estratégia original: código aleatório com verificação de existência no banco a cada tentativa
+public class RandomShortCodeAllocator implements ShortCodeAllocator {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final UrlStore urlStore;
+
+    public RandomShortCodeAllocator(UrlStore urlStore) {
+        this.urlStore = urlStore;
+    }
+
+    @Override
+    public String nextCode() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String code = ShortCodeGenerator.generateRandomCode();
+            if (!urlStore.existsByShortCode(code)) {
+                return code;
+            }
+        }
+        throw new ShortCodeGenerationException(
+                "Falha ao gerar código único após " + MAX_ATTEMPTS + " tentativas");
+    }
+}
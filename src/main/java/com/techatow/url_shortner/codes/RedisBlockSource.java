@@ -0,0 +1,24 @@
+package com.techatow.url_shortner.codes;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+// INCRBY é atômico no Redis: o valor devolvido é o fim exclusivo do bloco reservado
+public class RedisBlockSource implements BlockSource {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+
+    public RedisBlockSource(StringRedisTemplate redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public long lease(int size) {
+        Long end = redisTemplate.opsForValue().increment(key, size);
+        if (end == null) {
+            throw new IllegalStateException("INCRBY sem resposta para " + key);
+        }
+        return end - size;
+    }
+}
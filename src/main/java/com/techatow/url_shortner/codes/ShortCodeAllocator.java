@@ -0,0 +1,6 @@
+package com.techatow.url_shortner.codes;
+
+public interface ShortCodeAllocator {
+
+    String nextCode();
+}
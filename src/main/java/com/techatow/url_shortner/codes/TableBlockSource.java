@@ -0,0 +1,61 @@
+package com.techatow.url_shortner.codes;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Contador numa tabela do próprio banco. O UPDATE trava a linha até o commit, então o SELECT
+// seguinte na mesma transação enxerga só o próprio incremento. A transação é sempre nova: o
+// bloco fica reservado mesmo que o insert que pediu o código seja desfeito, e a linha não fica
+// travada enquanto ele roda.
+public class TableBlockSource implements BlockSource {
+
+    static final String CREATE_SQL = "create table if not exists short_code_blocks "
+            + "(name varchar(64) primary key, next_value bigint not null)";
+    static final String INSERT_SQL =
+            "insert into short_code_blocks (name, next_value) values (?, 0)";
+    static final String UPDATE_SQL =
+            "update short_code_blocks set next_value = next_value + ? where name = ?";
+    static final String SELECT_SQL = "select next_value from short_code_blocks where name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final String name;
+    private volatile boolean initialized;
+
+    public TableBlockSource(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, String name) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.name = name;
+    }
+
+    @Override
+    public long lease(int size) {
+        initialize();
+        Long end = transaction.execute(status -> {
+            jdbcTemplate.update(UPDATE_SQL, size, name);
+            return jdbcTemplate.queryForObject(SELECT_SQL, Long.class, name);
+        });
+        return end - size;
+    }
+
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        transaction.executeWithoutResult(status -> jdbcTemplate.execute(CREATE_SQL));
+        if (transaction.execute(status -> jdbcTemplate.queryForList(SELECT_SQL, Long.class, name))
+                .isEmpty()) {
+            try {
+                transaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, name));
+            } catch (DuplicateKeyException e) {
+                // Outro nó criou a linha primeiro
+            }
+        }
+        initialized = true;
+    }
+}
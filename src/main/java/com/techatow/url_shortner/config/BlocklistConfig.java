@@ -0,0 +1,27 @@
+package com.techatow.url_shortner.config;
+
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.techatow.url_shortner.blocklist.DomainBlocklist;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class BlocklistConfig {
+
+    @Value("${app.blocklist.file:}")
+    private String file;
+
+    @Value("${app.blocklist.index-dir:${java.io.tmpdir}}")
+    private String indexDir;
+
+    // Sem arquivo configurado nenhum domínio é bloqueado
+    @Bean
+    public DomainBlocklist domainBlocklist(MeterRegistry meterRegistry) {
+        if (file.isBlank()) {
+            return DomainBlocklist.disabled();
+        }
+        return DomainBlocklist.load(Path.of(file), Path.of(indexDir), meterRegistry);
+    }
+}
@@ -0,0 +1,115 @@
+package com.techatow.url_shortner.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.unit.DataSize;
+import com.techatow.url_shortner.cache.CaffeineUrlCache;
+import com.techatow.url_shortner.cache.ExpiryWheel;
+import com.techatow.url_shortner.cache.InMemoryUrlCache;
+import com.techatow.url_shortner.cache.InvalidationBus;
+import com.techatow.url_shortner.cache.LocalInvalidationBus;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.RedisInvalidationBus;
+import com.techatow.url_shortner.cache.RedisUrlCache;
+import com.techatow.url_shortner.cache.TieredUrlCache;
+import com.techatow.url_shortner.cache.UrlCache;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${app.cache.type:redis}")
+    private String cacheType;
+
+    @Value("${app.cache.invalidation:redis}")
+    private String invalidation;
+
+    @Value("${app.cache.ttl:1h}")
+    private Duration cacheTtl;
+
+    @Value("${app.cache.local.enabled:true}")
+    private boolean localCacheEnabled;
+
+    @Value("${app.cache.local.max-size:8MB}")
+    private DataSize localCacheMaxSize;
+
+    @Value("${app.cache.local.stats-ttl:5s}")
+    private Duration statsTtl;
+
+    @Value("${app.cache.local.stats-max-entries:10000}")
+    private long statsMaxEntries;
+
+    @Value("${app.filter.rebuild-interval:30m}")
+    private Duration filterRebuildInterval;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation", havingValue = "redis",
+            matchIfMissing = true)
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    // Remoções e expirações: limpa os caches locais de todos os nós
+    @Bean
+    @Primary
+    public InvalidationBus urlInvalidationBus(ObjectProvider<StringRedisTemplate> redisTemplate,
+            ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+            @Value("${app.cache.invalidation-channel:url-invalidations}") String channel) {
+        return newBus(redisTemplate, listenerContainer, channel, Duration.ZERO);
+    }
+
+    // Criações: invalidam a resposta negativa do filtro de short codes de todos os nós. Cada
+    // código fica registrado por duas reconstruções do filtro: uma mensagem perdida durante a
+    // varredura só é coberta pela reconstrução seguinte
+    @Bean
+    public InvalidationBus createdCodesBus(ObjectProvider<StringRedisTemplate> redisTemplate,
+            ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+            @Value("${app.cache.created-channel:url-created}") String channel) {
+        return newBus(redisTemplate, listenerContainer, channel,
+                filterRebuildInterval.multipliedBy(2));
+    }
+
+    private InvalidationBus newBus(ObjectProvider<StringRedisTemplate> redisTemplate,
+            ObjectProvider<RedisMessageListenerContainer> listenerContainer, String channel,
+            Duration remember) {
+        return switch (invalidation) {
+            case "redis" -> new RedisInvalidationBus(redisTemplate.getObject(),
+                    listenerContainer.getObject(), channel, remember);
+            case "local" -> new LocalInvalidationBus();
+            default -> throw new IllegalStateException(
+                    "app.cache.invalidation inválido: " + invalidation);
+        };
+    }
+
+    @Bean
+    public UrlCache urlCache(ObjectProvider<StringRedisTemplate> redisTemplate,
+            InvalidationBus invalidationBus, ExpiryWheel expiryWheel) {
+        UrlCache remote = switch (cacheType) {
+            case "redis" -> new RedisUrlCache(redisTemplate.getObject(), cacheTtl);
+            case "memory" -> new InMemoryUrlCache(cacheTtl, expiryWheel);
+            default -> throw new IllegalStateException("app.cache.type inválido: " + cacheType);
+        };
+        if (!localCacheEnabled) {
+            return remote;
+        }
+        UrlCache local = new CaffeineUrlCache(localCacheMaxSize.toBytes(), cacheTtl);
+        return new TieredUrlCache(local, remote, invalidationBus);
+    }
+
+    @Bean
+    public LocalStatsCache localStatsCache(InvalidationBus invalidationBus) {
+        LocalStatsCache statsCache = new LocalStatsCache(statsMaxEntries, statsTtl);
+        invalidationBus.subscribe(statsCache::evict);
+        return statsCache;
+    }
+}
@@ -0,0 +1,54 @@
+package com.techatow.url_shortner.config;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.techatow.url_shortner.limits.ConcurrencyLimiter;
+import com.techatow.url_shortner.limits.LimitedDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean
+    public ConcurrencyLimiter databaseLimiter(MeterRegistry meterRegistry,
+            @Value("${app.limits.database.max-concurrent:10}") int maxConcurrent,
+            @Value("${app.limits.database.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter("database", maxConcurrent, acquireTimeout, meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimiter dnsLimiter(MeterRegistry meterRegistry,
+            @Value("${app.limits.dns.max-concurrent:8}") int maxConcurrent,
+            @Value("${app.limits.dns.acquire-timeout:1s}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter("dns", maxConcurrent, acquireTimeout, meterRegistry);
+    }
+
+    // Cada exportação segura uma conexão até o fim da varredura; as excedentes recebem 503
+    @Bean
+    public ConcurrencyLimiter exportLimiter(MeterRegistry meterRegistry,
+            @Value("${app.limits.export.max-concurrent:1}") int maxConcurrent) {
+        return new ConcurrencyLimiter("export", maxConcurrent, Duration.ZERO, meterRegistry);
+    }
+
+    // Envolve o DataSource do Boot (Hikari) antes de ser entregue ao JPA e ao JdbcTemplate
+    @Bean
+    public static BeanPostProcessor limitedDataSourcePostProcessor(
+            @Qualifier("databaseLimiter") ObjectProvider<ConcurrencyLimiter> databaseLimiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof LimitedDataSource)) {
+                    return new LimitedDataSource(dataSource, databaseLimiter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.techatow.url_shortner.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.techatow.url_shortner.dns.CachingHostResolver;
+import com.techatow.url_shortner.limits.ConcurrencyLimiter;
+import com.techatow.url_shortner.limits.LimitedHostResolver;
+import com.techatow.url_shortner.utils.CidrTrie;
+import com.techatow.url_shortner.utils.HostResolver;
+import com.techatow.url_shortner.utils.UrlValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class DnsConfig {
+
+    @Value("${app.dns.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.dns.cache.positive-ttl:60s}")
+    private Duration positiveTtl;
+
+    @Value("${app.dns.cache.negative-ttl:10s}")
+    private Duration negativeTtl;
+
+    @Value("${app.dns.cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${app.dns.timeout:2s}")
+    private Duration timeout;
+
+    @Value("${app.security.blocked-cidrs:}")
+    private List<String> extraBlockedRanges;
+
+    // Só lookups que passam pelo cache ocupam o limitador de DNS
+    @Bean
+    public HostResolver hostResolver(@Qualifier("dnsLimiter") ConcurrencyLimiter dnsLimiter,
+            MeterRegistry meterRegistry) {
+        HostResolver limited = new LimitedHostResolver(HostResolver.SYSTEM, dnsLimiter);
+        if (!cacheEnabled) {
+            return limited;
+        }
+        return new CachingHostResolver(limited, positiveTtl, negativeTtl, timeout, maxEntries,
+                meterRegistry);
+    }
+
+    // Faixas padrão do UrlValidator mais as configuradas; nenhuma das padrão pode ser removida
+    @Bean
+    public CidrTrie blockedAddressRanges() {
+        List<String> ranges = new ArrayList<>(UrlValidator.DEFAULT_BLOCKED_RANGES);
+        extraBlockedRanges.stream().filter(range -> !range.isBlank()).forEach(ranges::add);
+        return CidrTrie.of(ranges);
+    }
+}
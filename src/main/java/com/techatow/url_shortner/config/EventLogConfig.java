@@ -0,0 +1,38 @@
+package com.techatow.url_shortner.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import com.techatow.url_shortner.events.ClickEventLog;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class EventLogConfig {
+
+    @Value("${app.clicks.mode:async}")
+    private String clickMode;
+
+    // Fora do tmpdir: o log guarda cliques ainda não aplicados e precisa sobreviver ao reboot
+    @Value("${app.events.dir:data/events}")
+    private String dir;
+
+    @Value("${app.events.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    // O log só recebe cliques no modo "log"; nos demais nenhum arquivo é criado
+    @Bean(destroyMethod = "close")
+    public ClickEventLog clickEventLog(MeterRegistry meterRegistry) {
+        if (!"log".equals(clickMode)) {
+            return ClickEventLog.disabled();
+        }
+        try {
+            return ClickEventLog.open(Path.of(dir), segmentSize.toBytes(), meterRegistry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o log de cliques em " + dir, e);
+        }
+    }
+}
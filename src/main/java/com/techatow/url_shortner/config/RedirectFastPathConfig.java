@@ -0,0 +1,33 @@
+package com.techatow.url_shortner.config;
+
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import com.techatow.url_shortner.controllers.RedirectFastPathFilter;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+import tools.jackson.databind.json.JsonMapper;
+
+@Configuration
+@ConditionalOnProperty(name = "app.redirect.fast-path.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class RedirectFastPathConfig {
+
+    @Value("${app.redirect.fast-path.reserved-paths:api,actuator,error}")
+    private Set<String> reservedPaths;
+
+    // Depois dos filtros de observabilidade do Boot, antes do DispatcherServlet
+    @Bean
+    public FilterRegistrationBean<RedirectFastPathFilter> redirectFastPathFilter(
+            ShortenedUrlService urlService, JsonMapper jsonMapper) {
+        FilterRegistrationBean<RedirectFastPathFilter> registration =
+                new FilterRegistrationBean<>(
+                        new RedirectFastPathFilter(urlService, jsonMapper, reservedPaths));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,94 @@
+package com.techatow.url_shortner.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import com.techatow.url_shortner.limits.LimitedDataSource;
+import com.techatow.url_shortner.replicas.ReplicaPool;
+import com.techatow.url_shortner.replicas.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class ReplicaConfig {
+
+    // Sem URLs configuradas o pool fica vazio e o DataSource do Boot é usado como está
+    @Bean
+    public ReplicaPool replicaPool(MeterRegistry meterRegistry,
+            @Value("${app.datasource.replicas.urls:}") List<String> urls,
+            @Value("${app.datasource.replicas.username:}") String username,
+            @Value("${app.datasource.replicas.password:}") String password,
+            @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+            @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replicas.connection-timeout:1s}") Duration timeout) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(name);
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            if (!driverClassName.isBlank()) {
+                config.setDriverClassName(driverClassName);
+            }
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            // Réplica lenta ou fora do ar não pode segurar a requisição nem impedir a subida
+            config.setConnectionTimeout(timeout.toMillis());
+            config.setValidationTimeout(Math.min(timeout.toMillis(), 1000));
+            config.setInitializationFailTimeout(-1);
+            replicas.put(name, new HikariDataSource(config));
+        }
+        return new ReplicaPool(replicas, timeout, meterRegistry);
+    }
+
+    // Roda antes do LimitedDataSource (sem ordem), que passa a envolver o roteamento inteiro. O
+    // tipo de retorno precisa expor Ordered: o Spring classifica os post-processors antes de
+    // criá-los
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(
+            ObjectProvider<ReplicaPool> replicaPool) {
+        return new ReplicaRoutingPostProcessor(replicaPool);
+    }
+
+    static final class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaPool> replicaPool;
+
+        ReplicaRoutingPostProcessor(ObjectProvider<ReplicaPool> replicaPool) {
+            this.replicaPool = replicaPool;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)
+                    && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                ReplicaPool replicas = replicaPool.getObject();
+                if (!replicas.isEmpty()) {
+                    return new LazyConnectionDataSourceProxy(
+                            new ReplicaRoutingDataSource(dataSource, replicas));
+                }
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
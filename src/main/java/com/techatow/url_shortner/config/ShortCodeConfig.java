@@ -0,0 +1,89 @@
+package com.techatow.url_shortner.config;
+
+import java.nio.file.Path;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.techatow.url_shortner.codes.BlockShortCodeAllocator;
+import com.techatow.url_shortner.codes.BlockSource;
+import com.techatow.url_shortner.codes.FileBlockSource;
+import com.techatow.url_shortner.codes.InMemoryBlockSource;
+import com.techatow.url_shortner.codes.RandomShortCodeAllocator;
+import com.techatow.url_shortner.codes.RedisBlockSource;
+import com.techatow.url_shortner.codes.ShortCodeAllocator;
+import com.techatow.url_shortner.codes.TableBlockSource;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.PermutedBase62;
+
+@Configuration
+public class ShortCodeConfig {
+
+    private static final String SEQUENCE_NAME = "short-codes";
+
+    @Value("${app.codes.strategy:block}")
+    private String strategy;
+
+    @Value("${app.codes.block.backend:table}")
+    private String backend;
+
+    @Value("${app.storage.type:jpa}")
+    private String storageType;
+
+    @Value("${app.storage.embedded.dir:data/urls}")
+    private String storageDir;
+
+    @Value("${app.codes.block.size:1000}")
+    private int blockSize;
+
+    // Sem padrão: uma chave conhecida deixa qualquer um inverter a permutação
+    @Value("${app.codes.secret:}")
+    private String secret;
+
+    @Bean
+    public ShortCodeAllocator shortCodeAllocator(UrlStore urlStore,
+            ObjectProvider<JdbcTemplate> jdbcTemplate,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            ObjectProvider<StringRedisTemplate> redisTemplate) {
+        return switch (strategy) {
+            case "random" -> new RandomShortCodeAllocator(urlStore);
+            case "block" -> new BlockShortCodeAllocator(
+                    blockSource(jdbcTemplate, transactionManager, redisTemplate), blockSize,
+                    new PermutedBase62(secret()));
+            default -> throw new IllegalStateException("app.codes.strategy inválido: " + strategy);
+        };
+    }
+
+    private long secret() {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("app.codes.secret (SHORT_CODE_SECRET) é obrigatório "
+                    + "com app.codes.strategy=block");
+        }
+        try {
+            return Long.parseLong(secret.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("app.codes.secret inválido: " + secret, e);
+        }
+    }
+
+    private BlockSource blockSource(ObjectProvider<JdbcTemplate> jdbcTemplate,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            ObjectProvider<StringRedisTemplate> redisTemplate) {
+        // Sem banco no modo embarcado, o contador fica num arquivo ao lado do log de links
+        if ("table".equals(backend) && "embedded".equals(storageType)) {
+            return new FileBlockSource(Path.of(storageDir).resolve(SEQUENCE_NAME));
+        }
+        return switch (backend) {
+            case "table" -> new TableBlockSource(jdbcTemplate.getObject(),
+                    transactionManager.getObject(), SEQUENCE_NAME);
+            case "redis" -> new RedisBlockSource(redisTemplate.getObject(),
+                    "url-shortner:" + SEQUENCE_NAME);
+            case "memory" -> new InMemoryBlockSource();
+            default -> throw new IllegalStateException(
+                    "app.codes.block.backend inválido: " + backend);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.techatow.url_shortner.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import com.techatow.url_shortner.clicks.ClickTimeSeries;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import com.techatow.url_shortner.storage.JpaUrlStore;
+import com.techatow.url_shortner.storage.LogUrlStore;
+import com.techatow.url_shortner.storage.NoOpTransactionManager;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.visitors.UniqueVisitorTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class StorageConfig {
+
+    @Value("${app.storage.type:jpa}")
+    private String storageType;
+
+    @Value("${app.storage.embedded.dir:data/urls}")
+    private String dir;
+
+    @Value("${app.storage.embedded.compaction-min-size:64MB}")
+    private DataSize compactionMinSize;
+
+    @Value("${app.storage.embedded.compaction-ratio:2.0}")
+    private double compactionRatio;
+
+    @Value("${app.clicks.mode:async}")
+    private String clickMode;
+
+    @Value("${app.expiry.mode:delete}")
+    private String expiryMode;
+
+    @Bean
+    public UrlStore urlStore(ObjectProvider<ShortenedUrlRepository> urlRepository,
+            ObjectProvider<JdbcTemplate> jdbcTemplate,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            MeterRegistry meterRegistry) {
+        return switch (storageType) {
+            case "jpa" -> new JpaUrlStore(urlRepository.getObject(), jdbcTemplate.getObject(),
+                    transactionManager.getObject());
+            case "embedded" -> openEmbedded(meterRegistry);
+            default -> throw new IllegalStateException(
+                    "app.storage.type inválido: " + storageType);
+        };
+    }
+
+    // Sem DataSource o Boot não cria gerenciador de transações (StorageEnvironmentPostProcessor)
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.type", havingValue = "embedded")
+    public PlatformTransactionManager transactionManager() {
+        return new NoOpTransactionManager();
+    }
+
+    // Série de cliques e visitantes únicos vivem em tabelas SQL: sem banco ficam desligados e
+    // as consultas respondem 501
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.type", havingValue = "embedded")
+    public ClickTimeSeries clickTimeSeries(MeterRegistry meterRegistry) {
+        return ClickTimeSeries.unavailable(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.type", havingValue = "embedded")
+    public UniqueVisitorTracker uniqueVisitorTracker() {
+        return UniqueVisitorTracker.unavailable();
+    }
+
+    // Os modos exact e log gravam cliques direto em shortened_urls, fora do UrlStore, e o
+    // arquivo de expirados é a tabela expired_urls
+    private LogUrlStore openEmbedded(MeterRegistry meterRegistry) {
+        if (!"async".equals(clickMode)) {
+            throw new IllegalStateException(
+                    "app.clicks.mode=" + clickMode + " exige app.storage.type=jpa");
+        }
+        if ("archive".equals(expiryMode)) {
+            throw new IllegalStateException("app.expiry.mode=archive exige app.storage.type=jpa");
+        }
+        try {
+            return LogUrlStore.open(Path.of(dir), compactionMinSize.toBytes(), compactionRatio,
+                    meterRegistry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o armazenamento em " + dir, e);
+        }
+    }
+}
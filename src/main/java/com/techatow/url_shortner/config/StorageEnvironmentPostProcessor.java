@@ -0,0 +1,39 @@
+package com.techatow.url_shortner.config;
+
+import java.util.Map;
+import org.springframework.boot.EnvironmentPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+// Com app.storage.type=embedded a aplicação sobe sem banco: o DataSource do Boot sai da
+// configuração automática e, com ele, JPA, JdbcTemplate e o gerenciador de transações JDBC.
+// Roda depois do carregamento do application.properties para enxergar o valor configurado.
+public class StorageEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    static final String DATA_SOURCE_AUTO_CONFIGURATION =
+            "org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration";
+
+    private static final String EXCLUDE = "spring.autoconfigure.exclude";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment,
+            SpringApplication application) {
+        if (!"embedded".equals(environment.getProperty("app.storage.type"))) {
+            return;
+        }
+        // Uma fonte com precedência maior substitui a lista inteira, então mantém a do usuário
+        String excluded = environment.getProperty(EXCLUDE, "");
+        String exclude = excluded.isBlank() ? DATA_SOURCE_AUTO_CONFIGURATION
+                : excluded + "," + DATA_SOURCE_AUTO_CONFIGURATION;
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("embeddedStorage", Map.of(EXCLUDE, exclude)));
+    }
+
+    @Override
+    public int getOrder() {
+        return ConfigDataEnvironmentPostProcessor.ORDER + 1;
+    }
+}
@@ -0,0 +1,129 @@
+package com.techatow.url_shortner.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.techatow.url_shortner.dtos.HotLinkResponse;
+import com.techatow.url_shortner.limits.ConcurrencyLimiter;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+import com.techatow.url_shortner.services.UrlExportService;
+
+@RestController
+@RequestMapping(path = "/api/admin")
+public class AdminController {
+
+    private static final String EXPORT_PERMIT = AdminController.class.getName() + ".permit";
+
+    private final ShortenedUrlService urlService;
+    private final UrlExportService exportService;
+    private final ConcurrencyLimiter exportLimiter;
+    private final Duration exportTimeout;
+
+    public AdminController(ShortenedUrlService urlService, UrlExportService exportService,
+            @Qualifier("exportLimiter") ConcurrencyLimiter exportLimiter,
+            @Value("${app.export.request-timeout:30m}") Duration exportTimeout) {
+        this.urlService = urlService;
+        this.exportService = exportService;
+        this.exportLimiter = exportLimiter;
+        this.exportTimeout = exportTimeout;
+    }
+
+    @GetMapping("/hot-links")
+    public ResponseEntity<List<HotLinkResponse>> hotLinks(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(urlService.getHotLinks(Math.max(0, limit)));
+    }
+
+    // Dump completo em NDJSON ou CSV, comprimido quando o cliente aceita gzip. A permissão é
+    // obtida antes da resposta começar, para que o excesso receba 503 e não um corpo truncado.
+    // O corpo pode nunca rodar (timeout na fila, cliente que desconecta), então a permissão
+    // também é devolvida no fim do processamento assíncrono, o que acontecer primeiro
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresFrom,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresTo,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding, NativeWebRequest request) {
+        UrlExportService.Format exportFormat = UrlExportService.Format.parse(format);
+        UrlExportService.Filter filter =
+                new UrlExportService.Filter(createdFrom, createdTo, expiresFrom, expiresTo);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        exportLimiter.acquire();
+        Runnable release = releaseOnce();
+        try {
+            AsyncTimeouts.apply(request, exportTimeout);
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(
+                    EXPORT_PERMIT, new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest completed,
+                                Callable<T> task) {
+                            release.run();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+        StreamingResponseBody stream = output -> {
+            try {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024);
+                    exportService.export(filter, exportFormat, compressed);
+                    compressed.finish();
+                } else {
+                    exportService.export(filter, exportFormat, output);
+                }
+            } finally {
+                release.run();
+            }
+        };
+
+        boolean csv = exportFormat == UrlExportService.Format.CSV;
+        MediaType contentType = csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"urls." + (csv ? "csv" : "ndjson") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(stream);
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                exportLimiter.release();
+            }
+        };
+    }
+}
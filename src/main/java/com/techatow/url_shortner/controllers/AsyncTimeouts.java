@@ -0,0 +1,21 @@
+package com.techatow.url_shortner.controllers;
+
+import java.time.Duration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+// Timeout assíncrono por endpoint: vale só para a requisição atual, no lugar do
+// spring.mvc.async.request-timeout global que alcançaria todo StreamingResponseBody
+final class AsyncTimeouts {
+
+    private AsyncTimeouts() {}
+
+    // Precisa rodar no handler, antes do retorno iniciar o processamento assíncrono
+    static void apply(NativeWebRequest request, Duration timeout) {
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(timeout.toMillis());
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.techatow.url_shortner.controllers;
 
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.servlet.view.RedirectView;
 import com.techatow.url_shortner.services.ShortenedUrlService;
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 public class RedirectController {
 
+    // Corpo pré-alocado para códigos descartados pelo filtro: sem exceção nem stack trace
+    private static final ResponseEntity<byte[]> NOT_FOUND = ResponseEntity
+            .status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+            .body("{\"status\":404,\"error\":\"Short code não encontrado\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+
     private final ShortenedUrlService urlService;
 
     public RedirectController(ShortenedUrlService urlService) {
@@ -17,14 +27,18 @@ public class RedirectController {
     }
 
     @GetMapping("/{shortCode}")
-    public RedirectView redirect(@PathVariable String shortCode) {
-        String originalUrl = urlService.resolveShortCode(shortCode);
+    public ResponseEntity<byte[]> redirect(@PathVariable String shortCode,
+            HttpServletRequest request) {
+        if (!urlService.mightExist(shortCode)) {
+            return NOT_FOUND;
+        }
 
-        RedirectView redirectView = new RedirectView();
-        redirectView.setUrl(originalUrl);
-        redirectView.setStatusCode(HttpStatus.FOUND);
+        String originalUrl = urlService.resolveShortCode(shortCode);
+        urlService.recordVisit(shortCode, request.getRemoteAddr(),
+                request.getHeader(HttpHeaders.USER_AGENT), request.getHeader(HttpHeaders.REFERER));
 
-        return redirectView;
+        return ResponseEntity.status(HttpStatus.FOUND).header(HttpHeaders.LOCATION, originalUrl)
+                .build();
     }
 
 }
@@ -0,0 +1,125 @@
+package com.techatow.url_shortner.controllers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import com.techatow.url_shortner.dtos.CustomErrorResponse;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import com.techatow.url_shortner.exceptions.UrlBlockedException;
+import com.techatow.url_shortner.exceptions.UrlExpiredException;
+import com.techatow.url_shortner.exceptions.UrlNotFoundException;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+// Atende GET /{shortCode} antes do DispatcherServlet, escrevendo status e Location direto na
+// resposta. Qualquer outra requisição segue para o Spring MVC (e para o RedirectController).
+public class RedirectFastPathFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(RedirectFastPathFilter.class);
+
+    static final int MAX_CODE_LENGTH = 16;
+
+    private static final byte[] FILTERED_NOT_FOUND_BODY =
+            "{\"status\":404,\"error\":\"Short code não encontrado\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final ShortenedUrlService urlService;
+    private final JsonMapper jsonMapper;
+    private final Set<String> reservedPaths;
+
+    public RedirectFastPathFilter(ShortenedUrlService urlService, JsonMapper jsonMapper,
+            Set<String> reservedPaths) {
+        this.urlService = urlService;
+        this.jsonMapper = jsonMapper;
+        this.reservedPaths = reservedPaths;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+
+        String shortCode = "GET".equals(request.getMethod())
+                ? extractShortCode(request.getRequestURI(), request.getContextPath().length())
+                : null;
+        if (shortCode == null) {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        if (!urlService.mightExist(shortCode)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setContentLength(FILTERED_NOT_FOUND_BODY.length);
+            response.getOutputStream().write(FILTERED_NOT_FOUND_BODY);
+            return;
+        }
+
+        try {
+            String originalUrl = urlService.resolveShortCode(shortCode);
+            urlService.recordVisit(shortCode, request.getRemoteAddr(),
+                    request.getHeader(HttpHeaders.USER_AGENT),
+                    request.getHeader(HttpHeaders.REFERER));
+            response.setStatus(HttpServletResponse.SC_FOUND);
+            response.setHeader(HttpHeaders.LOCATION, originalUrl);
+        } catch (UrlNotFoundException e) {
+            writeError(response, HttpStatus.NOT_FOUND, e.getMessage(), request.getRequestURI());
+        } catch (UrlExpiredException e) {
+            writeError(response, HttpStatus.GONE, e.getMessage(), request.getRequestURI());
+        } catch (UrlBlockedException e) {
+            writeError(response, HttpStatus.FORBIDDEN, e.getMessage(), request.getRequestURI());
+        } catch (ServiceOverloadedException | CannotCreateTransactionException
+                | CannotGetJdbcConnectionException e) {
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Serviço sobrecarregado; tente novamente", request.getRequestURI());
+        } catch (RuntimeException e) {
+            logger.error("Erro inesperado capturado", e);
+            writeError(response, HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno do servidor",
+                    request.getRequestURI());
+        }
+    }
+
+    // Devolve o código quando o caminho é um único segmento alfanumérico não reservado
+    String extractShortCode(String uri, int offset) {
+        int length = uri.length() - offset;
+        if (length < 2 || length > MAX_CODE_LENGTH + 1 || uri.charAt(offset) != '/') {
+            return null;
+        }
+        for (int i = offset + 1; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            boolean alphanumeric = (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z')
+                    || (c >= 'a' && c <= 'z');
+            if (!alphanumeric) {
+                return null;
+            }
+        }
+        String shortCode = uri.substring(offset + 1);
+        return reservedPaths.contains(shortCode) ? null : shortCode;
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message,
+            String path) throws IOException {
+        CustomErrorResponse error =
+                new CustomErrorResponse(Instant.now(), status.value(), message, path);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        jsonMapper.writeValue(response.getOutputStream(), error);
+    }
+}
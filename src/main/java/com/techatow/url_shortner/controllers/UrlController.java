@@ -1,10 +1,17 @@
 package com.techatow.url_shortner.controllers;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,9 +19,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.techatow.url_shortner.dtos.ClickSeriesResponse;
+import com.techatow.url_shortner.dtos.CursorPage;
 import com.techatow.url_shortner.dtos.ShortenUrlRequest;
+import com.techatow.url_shortner.dtos.UniqueVisitorsResponse;
 import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+import com.techatow.url_shortner.services.BulkShortenService;
 import com.techatow.url_shortner.services.ShortenedUrlService;
 import jakarta.validation.Valid;
 
@@ -24,25 +38,64 @@ import jakarta.validation.Valid;
 public class UrlController {
 
     private final ShortenedUrlService urlService;
+    private final BulkShortenService bulkShortenService;
+    private final Duration batchTimeout;
 
-    public UrlController(ShortenedUrlService urlService) {
+    public UrlController(ShortenedUrlService urlService, BulkShortenService bulkShortenService,
+            @Value("${app.batch.request-timeout:30m}") Duration batchTimeout) {
         this.urlService = urlService;
+        this.bulkShortenService = bulkShortenService;
+        this.batchTimeout = batchTimeout;
     }
 
     @PostMapping
     public ResponseEntity<UrlDetailsResponse> shortenUrl(
             @Valid @RequestBody ShortenUrlRequest request) {
-        UrlDetailsResponse response = urlService.shortenUrl(request.url());
+        UrlDetailsResponse response = urlService.shortenUrl(request.url(), request.ttl(),
+                request.sliding());
         URI location = URI.create("/api/urls/" + response.shortCode());
         return ResponseEntity.created(location).body(response);
     }
 
+    // Entrada NDJSON ou array JSON; a resposta sai em NDJSON, uma linha por item gravado
+    @PostMapping(path = "/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> shortenBatch(InputStream body,
+            NativeWebRequest request) {
+        AsyncTimeouts.apply(request, batchTimeout);
+        StreamingResponseBody stream = output -> bulkShortenService.shorten(body, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
+
     @GetMapping("/{shortCode}")
     public ResponseEntity<UrlDetailsResponse> getStats(@PathVariable String shortCode) {
         UrlDetailsResponse urlResponseEntity = urlService.getStats(shortCode);
         return ResponseEntity.ok(urlResponseEntity);
     }
 
+    // ?granularity=minute|hour|day; from e to em ISO-8601 (padrão: últimas 24 horas)
+    @GetMapping("/{shortCode}/clicks")
+    public ResponseEntity<ClickSeriesResponse> getClicks(@PathVariable String shortCode,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "hour") String granularity) {
+        return ResponseEntity.ok(urlService.getClicks(shortCode, from, to, granularity));
+    }
+
+    // from e to em ISO-8601 (datas, inclusivos; padrão: últimos 30 dias)
+    @GetMapping("/{shortCode}/visitors")
+    public ResponseEntity<UniqueVisitorsResponse> getUniqueVisitors(
+            @PathVariable String shortCode,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(
+                    iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(urlService.getUniqueVisitors(shortCode, from, to));
+    }
+
     @GetMapping
     public ResponseEntity<Page<UrlDetailsResponse>> listUrls(@PageableDefault(size = 20,
             sort = "createdAt", direction = Direction.DESC) Pageable pageable) {
@@ -51,6 +104,15 @@ public class UrlController {
         return ResponseEntity.ok(urls);
     }
 
+    // Paginação por cursor: ?cursor= (vazio) pede a primeira página e cada resposta traz o
+    // nextCursor da seguinte. Sem OFFSET nem total, o custo não cresce com a profundidade
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<UrlDetailsResponse>> listUrlsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(urlService.listUrls(cursor, size));
+    }
+
     @DeleteMapping("/{shortCode}")
     public ResponseEntity<Void> deleteUrl(@PathVariable String shortCode) {
         urlService.deleteUrl(shortCode);
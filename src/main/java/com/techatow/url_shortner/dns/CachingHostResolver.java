@@ -0,0 +1,102 @@
+package com.techatow.url_shortner.dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.techatow.url_shortner.exceptions.HostResolutionTimeoutException;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import com.techatow.url_shortner.utils.HostResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Cache limitado de resoluções DNS na frente do resolvedor real. Respostas positivas e negativas
+// (host inexistente) ficam com TTLs próprios; falhas do resolvedor (limitador cheio) não são
+// guardadas. Consultas simultâneas ao mesmo host compartilham o mesmo lookup, e quem espera além
+// do timeout desiste com 503 sem cancelar o lookup, que ainda preenche o cache ao terminar.
+// Timeout nunca vira UnknownHostException: quem valida trata essa exceção como host inexistente.
+public class CachingHostResolver implements HostResolver {
+
+    private record Resolution(List<InetAddress> addresses) {
+        boolean found() {
+            return !addresses.isEmpty();
+        }
+    }
+
+    private static final Resolution NOT_FOUND = new Resolution(List.of());
+
+    private final HostResolver delegate;
+    private final Duration timeout;
+    private final AsyncCache<String, Resolution> cache;
+
+    public CachingHostResolver(HostResolver delegate, Duration positiveTtl, Duration negativeTtl,
+            Duration timeout, long maxEntries, MeterRegistry meterRegistry) {
+        this(delegate, positiveTtl, negativeTtl, timeout, maxEntries, meterRegistry,
+                Ticker.systemTicker());
+    }
+
+    CachingHostResolver(HostResolver delegate, Duration positiveTtl, Duration negativeTtl,
+            Duration timeout, long maxEntries, MeterRegistry meterRegistry, Ticker ticker) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        // O lookup do JDK bloqueia; cada um roda na sua virtual thread, sem pool a esgotar
+        Executor executor =
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dns-", 0).factory());
+        this.cache = Caffeine.newBuilder().maximumSize(maxEntries).ticker(ticker)
+                .executor(executor).recordStats()
+                .expireAfter(Expiry.creating((String host, Resolution resolution) -> resolution
+                        .found() ? positiveTtl : negativeTtl))
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "dns");
+    }
+
+    @Override
+    public List<InetAddress> resolve(String host) throws UnknownHostException {
+        String key = host.toLowerCase(Locale.ROOT);
+        CompletableFuture<Resolution> lookup = cache.get(key,
+                (k, executor) -> CompletableFuture.supplyAsync(() -> lookup(k), executor));
+
+        Resolution resolution;
+        try {
+            resolution = lookup.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new HostResolutionTimeoutException("Tempo esgotado resolvendo " + host);
+        } catch (ExecutionException e) {
+            // O Caffeine descarta futures com falha de forma assíncrona; remove já para que a
+            // próxima chamada tente de novo
+            cache.asMap().remove(key, lookup);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrompido resolvendo " + host);
+        }
+
+        if (!resolution.found()) {
+            throw new UnknownHostException(host);
+        }
+        return resolution.addresses();
+    }
+
+    private Resolution lookup(String host) {
+        try {
+            List<InetAddress> addresses = delegate.resolve(host);
+            return addresses.isEmpty() ? NOT_FOUND : new Resolution(List.copyOf(addresses));
+        } catch (UnknownHostException e) {
+            return NOT_FOUND;
+        }
+    }
+}
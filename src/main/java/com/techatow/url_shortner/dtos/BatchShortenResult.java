@@ -0,0 +1,18 @@
+package com.techatow.url_shortner.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Uma linha da resposta NDJSON do encurtamento em lote, na mesma ordem da entrada
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchShortenResult(int index, String url, String shortCode, String shortUrl,
+        Boolean created, String error) {
+
+    public static BatchShortenResult success(int index, String url, String shortCode,
+            String shortUrl, boolean created) {
+        return new BatchShortenResult(index, url, shortCode, shortUrl, created, null);
+    }
+
+    public static BatchShortenResult failure(int index, String url, String error) {
+        return new BatchShortenResult(index, url, null, null, null, error);
+    }
+}
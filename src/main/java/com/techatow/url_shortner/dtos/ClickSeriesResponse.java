@@ -0,0 +1,13 @@
+package com.techatow.url_shortner.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import com.techatow.url_shortner.clicks.ClickGranularity;
+
+// Só os buckets com cliques, em ordem cronológica; o intervalo é semiaberto [from, to)
+public record ClickSeriesResponse(String shortCode, ClickGranularity granularity,
+        LocalDateTime from, LocalDateTime to, long total, List<Bucket> buckets) {
+
+    public record Bucket(LocalDateTime start, long clicks) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.dtos;
+
+import java.util.List;
+
+// Página da listagem por cursor; nextCursor nulo indica a última página
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
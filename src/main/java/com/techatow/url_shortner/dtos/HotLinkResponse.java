@@ -0,0 +1,5 @@
+package com.techatow.url_shortner.dtos;
+
+public record HotLinkResponse(String shortCode, long estimatedHits, double ratePerSecond,
+        boolean pinned) {
+}
@@ -3,6 +3,13 @@ package com.techatow.url_shortner.dtos;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+// ttl: duração ISO-8601 (ex.: "PT12H", "P30D") ou "never"; ausente usa o TTL padrão.
+// sliding: cada acesso renova a expiração para agora + ttl
 public record ShortenUrlRequest(@NotBlank(message = "URL não pode estar vazia") @Size(max = 2048,
-        message = "URL muito longa") String url) {
+        message = "URL muito longa") String url,
+        @Size(max = 32, message = "TTL inválido") String ttl, Boolean sliding) {
+
+    public ShortenUrlRequest(String url) {
+        this(url, null, null);
+    }
 }
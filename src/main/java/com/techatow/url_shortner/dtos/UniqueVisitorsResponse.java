@@ -0,0 +1,8 @@
+package com.techatow.url_shortner.dtos;
+
+import java.time.LocalDate;
+
+// Estimativa por HyperLogLog (erro típico de 1,6% na precisão padrão); from e to inclusivos
+public record UniqueVisitorsResponse(String shortCode, LocalDate from, LocalDate to,
+        long uniqueVisitors) {
+}
@@ -2,7 +2,8 @@ package com.techatow.url_shortner.dtos;
 
 import java.time.LocalDateTime;
 
+// slidingTtlSeconds só vem preenchido em links com expiração deslizante
 public record UrlDetailsResponse(Long id, String shortCode, String originalUrl, String shortUrl,
         Long clicks, LocalDateTime createdAt, LocalDateTime lastAccessedAt, LocalDateTime expiresAt,
-        boolean expired) {
+        boolean expired, Long slidingTtlSeconds) {
 }
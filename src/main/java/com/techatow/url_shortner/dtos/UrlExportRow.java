@@ -0,0 +1,9 @@
+package com.techatow.url_shortner.dtos;
+
+import java.time.LocalDateTime;
+
+// Linha da exportação, projetada direto da consulta: nenhuma entidade entra no contexto de
+// persistência durante a varredura
+public record UrlExportRow(Long id, String shortCode, String originalUrl, Long clicks,
+        LocalDateTime createdAt, LocalDateTime lastAccessedAt, LocalDateTime expiresAt) {
+}
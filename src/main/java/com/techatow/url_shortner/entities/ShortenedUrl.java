@@ -6,15 +6,26 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import com.techatow.url_shortner.utils.UrlDigest;
 
 @Entity
-@Table(name = "shortened_urls")
+// Índice da listagem por cursor, na mesma ordem da consulta, e o de expires_at usado pelo
+// ExpiryReaper para achar os expirados sem varrer a tabela
+@Table(name = "shortened_urls", indexes = {
+        @Index(name = "idx_shortened_urls_created_at_id", columnList = "createdAt DESC, id DESC"),
+        @Index(name = "idx_shortened_urls_expires_at", columnList = "expiresAt")})
 public class ShortenedUrl {
 
+    // Sequence em vez de IDENTITY: o Hibernate reserva 50 ids por consulta e pode agrupar os
+    // inserts em lotes JDBC (hibernate.jdbc.batch_size), o que IDENTITY desabilita
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shortened_urls_seq")
+    @SequenceGenerator(name = "shortened_urls_seq", sequenceName = "shortened_urls_seq",
+            allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 6)
@@ -23,6 +34,10 @@ public class ShortenedUrl {
     @Column(nullable = false, length = 2048)
     private String originalUrl;
 
+    // Nulo apenas em linhas anteriores ao digest (até o backfill) ou em colisão de SHA-256
+    @Column(unique = true, length = UrlDigest.LENGTH)
+    private String urlDigest;
+
     @Column(nullable = false)
     private Long clicks = 0L;
 
@@ -31,16 +46,20 @@ public class ShortenedUrl {
 
     private LocalDateTime lastAccessedAt;
 
+    // Nulo: o link nunca expira
     private LocalDateTime expiresAt;
 
+    // Preenchido só em links com expiração deslizante: cada acesso empurra expiresAt para
+    // agora + esta janela. A política é aplicada pelo serviço (LinkExpiry)
+    private Long slidingTtlSeconds;
+
     public ShortenedUrl() {
-        expiresAt = LocalDateTime.now().plusDays(7);
     }
 
     public ShortenedUrl(String shortCode, String originalUrl) {
-        this();
         this.shortCode = shortCode;
         this.originalUrl = originalUrl;
+        this.urlDigest = UrlDigest.of(originalUrl);
     }
 
     @PrePersist
@@ -72,6 +91,14 @@ public class ShortenedUrl {
         this.originalUrl = originalUrl;
     }
 
+    public String getUrlDigest() {
+        return urlDigest;
+    }
+
+    public void setUrlDigest(String urlDigest) {
+        this.urlDigest = urlDigest;
+    }
+
     public Long getClicks() {
         return clicks;
     }
@@ -84,6 +111,11 @@ public class ShortenedUrl {
         return createdAt;
     }
 
+    // Para o armazenamento embarcado; no JPA o @PrePersist sempre define o valor
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public LocalDateTime getLastAccessedAt() {
         return lastAccessedAt;
     }
@@ -100,6 +132,14 @@ public class ShortenedUrl {
         this.expiresAt = expiresAt;
     }
 
+    public Long getSlidingTtlSeconds() {
+        return slidingTtlSeconds;
+    }
+
+    public void setSlidingTtlSeconds(Long slidingTtlSeconds) {
+        this.slidingTtlSeconds = slidingTtlSeconds;
+    }
+
     public boolean isExpired() {
         return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
     }
@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.events;
+
+// Evento de clique como gravado no log: referrer e user agent só como hash de 64 bits (0 quando
+// ausentes)
+public record ClickEvent(String shortCode, long timestampMillis, long referrerHash,
+        long userAgentHash) {
+}
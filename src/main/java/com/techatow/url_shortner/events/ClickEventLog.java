@@ -0,0 +1,309 @@
+package com.techatow.url_shortner.events;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Log de cliques só de anexação, em segmentos de tamanho fixo mapeados em memória. O writer
+// reserva o espaço do registro com um getAndAdd no segmento atual, preenche os campos e publica
+// o cabeçalho por último (store com release), sem lock nem alocação; quem reserva exatamente o
+// fim do segmento cria o próximo. Como os dados ficam no page cache, sobrevivem à queda do
+// processo; o force periódico cobre a queda do SO.
+//
+// Registro (40 bytes): cabeçalho int (MAGIC | tamanho do código), int reservado, timestamp,
+// hash do referrer, hash do user agent e o short code em ASCII (8 bytes).
+public final class ClickEventLog implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ClickEventLog.class);
+
+    static final int RECORD_SIZE = 40;
+    static final int MAX_CODE_LENGTH = 8;
+    private static final int MAGIC = 0x434c4b00;
+    private static final String SUFFIX = ".log";
+
+    private static final VarHandle INT_VIEW =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    static final class Segment {
+        final long id;
+        final Path file;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        // Segmentos de uma execução anterior: um cabeçalho zerado é o fim dos dados (registros
+        // reservados e não publicados antes da queda são perdidos)
+        final boolean recovered;
+        final AtomicInteger reserved = new AtomicInteger();
+
+        Segment(long id, Path file, MappedByteBuffer buffer, int capacity, boolean recovered) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.recovered = recovered;
+        }
+
+        int header(int offset) {
+            return (int) INT_VIEW.getAcquire(buffer, offset);
+        }
+    }
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Counter appendFailures;
+    private volatile Segment current;
+    private long openedSegment;
+
+    private ClickEventLog(Path directory, int segmentCapacity, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+        this.appendFailures = meterRegistry == null ? null
+                : Counter.builder("events.append.failures").register(meterRegistry);
+        if (meterRegistry != null) {
+            Gauge.builder("events.segments", segments, Map::size).register(meterRegistry);
+        }
+    }
+
+    public static ClickEventLog disabled() {
+        return new ClickEventLog(null, 0, null);
+    }
+
+    // Reabre os segmentos existentes só para leitura e sempre começa a escrever num novo
+    public static ClickEventLog open(Path directory, long segmentBytes,
+            MeterRegistry meterRegistry) throws IOException {
+        long records = Math.max(1, Math.min(segmentBytes, Integer.MAX_VALUE) / RECORD_SIZE);
+        ClickEventLog log =
+                new ClickEventLog(directory, (int) (records * RECORD_SIZE), meterRegistry);
+        Files.createDirectories(directory);
+        long lastId = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                long id = parseId(file);
+                if (id > 0) {
+                    log.segments.put(id, log.map(id, file, true));
+                    lastId = Math.max(lastId, id);
+                }
+            }
+        }
+        log.current = log.createSegment(lastId + 1);
+        log.openedSegment = lastId + 1;
+        return log;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    // Primeiro segmento criado nesta execução: uma posição salva antes da subida está sempre
+    // abaixo dele, a menos que os arquivos tenham sido apagados e os ids recomeçado
+    public long openedSegment() {
+        return openedSegment;
+    }
+
+    // false quando o log está desabilitado ou não conseguiu criar um segmento novo
+    public boolean append(String shortCode, long timestampMillis, long referrerHash,
+            long userAgentHash) {
+        int length = shortCode.length();
+        if (length > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Short code longo demais para o log: " + shortCode);
+        }
+        while (true) {
+            Segment segment = current;
+            if (segment == null) {
+                if (appendFailures != null) {
+                    appendFailures.increment();
+                }
+                return false;
+            }
+            int offset = segment.reserved.getAndAdd(RECORD_SIZE);
+            if (offset <= segment.capacity - RECORD_SIZE) {
+                MappedByteBuffer buffer = segment.buffer;
+                buffer.putLong(offset + 8, timestampMillis);
+                buffer.putLong(offset + 16, referrerHash);
+                buffer.putLong(offset + 24, userAgentHash);
+                for (int i = 0; i < length; i++) {
+                    buffer.put(offset + 32 + i, (byte) shortCode.charAt(i));
+                }
+                INT_VIEW.setRelease(buffer, offset, MAGIC | length);
+                return true;
+            }
+            if (offset == segment.capacity) {
+                rotate(segment);
+            } else {
+                // Outro writer está criando o próximo segmento
+                while (current == segment) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+
+    private void rotate(Segment full) {
+        try {
+            current = createSegment(full.id + 1);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Falha ao criar segmento do log de cliques; anexação desativada", e);
+            current = null;
+        }
+    }
+
+    // Entrega ao handler até maxEvents eventos publicados a partir de from e devolve a posição
+    // seguinte ao último entregue. Para no primeiro registro reservado e ainda não publicado,
+    // preservando a ordem
+    public LogPosition read(LogPosition from, int maxEvents, Consumer<ClickEvent> handler) {
+        if (!isEnabled()) {
+            return from;
+        }
+        LogPosition position = from;
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        if (first != null && position.segment() < first.getKey()) {
+            if (position.compareTo(LogPosition.START) > 0) {
+                logger.warn("Posição {} já removida pela retenção; continuando do segmento {}",
+                        position, first.getKey());
+            }
+            position = new LogPosition(first.getKey(), 0);
+        }
+
+        int delivered = 0;
+        byte[] code = new byte[MAX_CODE_LENGTH];
+        while (delivered < maxEvents) {
+            Segment segment = segments.get(position.segment());
+            int offset = position.offset();
+            int header = segment == null || offset > segment.capacity - RECORD_SIZE ? 0
+                    : segment.header(offset);
+            if (header == 0) {
+                boolean ended = segment == null || offset > segment.capacity - RECORD_SIZE
+                        || (segment != current
+                                && (segment.recovered || offset >= segment.reserved.get()));
+                Long next = ended ? segments.higherKey(position.segment()) : null;
+                if (next == null) {
+                    break;
+                }
+                position = new LogPosition(next, 0);
+                continue;
+            }
+            if ((header & 0xFFFFFF00) != MAGIC) {
+                logger.error("Registro corrompido em {}; pulando o restante do segmento",
+                        position);
+                position = new LogPosition(position.segment(), segment.capacity);
+                continue;
+            }
+            int length = Math.min(header & 0xFF, MAX_CODE_LENGTH);
+            MappedByteBuffer buffer = segment.buffer;
+            for (int i = 0; i < length; i++) {
+                code[i] = buffer.get(offset + 32 + i);
+            }
+            handler.accept(new ClickEvent(new String(code, 0, length, StandardCharsets.US_ASCII),
+                    buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                    buffer.getLong(offset + 24)));
+            position = new LogPosition(position.segment(), offset + RECORD_SIZE);
+            delivered++;
+        }
+        return position;
+    }
+
+    // Remove segmentos anteriores a keepFrom (o consumidor mais atrasado) e sem escrita há mais
+    // que retention. O mapeamento de quem ainda lê segue válido até ser coletado
+    public int purge(Duration retention, long keepFrom) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        int removed = 0;
+        for (Segment segment : segments.values()) {
+            if (segment.id >= keepFrom || segment == current) {
+                break;
+            }
+            try {
+                FileTime modified = Files.getLastModifiedTime(segment.file);
+                if (modified.toInstant().isAfter(cutoff)) {
+                    break;
+                }
+                segments.remove(segment.id);
+                Files.deleteIfExists(segment.file);
+                removed++;
+            } catch (IOException e) {
+                logger.warn("Falha ao remover segmento {}: {}", segment.file, e.getMessage());
+                break;
+            }
+        }
+        return removed;
+    }
+
+    public void force() {
+        Segment segment = current;
+        if (segment != null) {
+            segment.buffer.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    // Hash de 64 bits para referrer e user agent (FNV-1a seguido do SplitMix64); 0 para ausente
+    public static long hash(CharSequence value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", id, SUFFIX));
+        Segment segment = map(id, file, false);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Segment map(long id, Path file, boolean recovered) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+                FileChannel channel = raf.getChannel()) {
+            int capacity = recovered ? (int) (channel.size() / RECORD_SIZE * RECORD_SIZE)
+                    : segmentCapacity;
+            if (!recovered) {
+                // Arquivo esparso: os blocos só são alocados conforme os registros chegam
+                raf.setLength(capacity);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.order(ByteOrder.nativeOrder());
+            return new Segment(id, file, buffer, capacity, recovered);
+        }
+    }
+
+    private static long parseId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
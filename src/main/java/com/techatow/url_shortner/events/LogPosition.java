@@ -0,0 +1,13 @@
+package com.techatow.url_shortner.events;
+
+// Posição de leitura no log: próximo registro a consumir dentro do segmento
+public record LogPosition(long segment, int offset) implements Comparable<LogPosition> {
+
+    public static final LogPosition START = new LogPosition(0, 0);
+
+    @Override
+    public int compareTo(LogPosition other) {
+        int bySegment = Long.compare(segment, other.segment);
+        return bySegment != 0 ? bySegment : Integer.compare(offset, other.offset);
+    }
+}
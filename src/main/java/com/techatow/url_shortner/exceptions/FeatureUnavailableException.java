@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.exceptions;
+
+public class FeatureUnavailableException extends RuntimeException {
+    public FeatureUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.techatow.url_shortner.exceptions;
+
+// DNS que não respondeu a tempo: não é NXDOMAIN, então a URL não pode ser aceita às cegas
+public class HostResolutionTimeoutException extends ServiceOverloadedException {
+    public HostResolutionTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.exceptions;
+
+public class InvalidParameterException extends RuntimeException {
+    public InvalidParameterException(String message) {
+        super(message);
+    }
+}
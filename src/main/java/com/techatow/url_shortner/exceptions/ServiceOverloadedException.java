@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.exceptions;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
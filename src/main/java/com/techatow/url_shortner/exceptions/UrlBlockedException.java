@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.exceptions;
+
+public class UrlBlockedException extends RuntimeException {
+    public UrlBlockedException(String message) {
+        super(message);
+    }
+}
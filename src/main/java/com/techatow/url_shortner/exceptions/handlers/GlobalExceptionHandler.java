@@ -9,12 +9,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import com.techatow.url_shortner.dtos.CustomErrorResponse;
+import com.techatow.url_shortner.exceptions.FeatureUnavailableException;
+import com.techatow.url_shortner.exceptions.InvalidCursorException;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
 import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
+import com.techatow.url_shortner.exceptions.UrlBlockedException;
 import com.techatow.url_shortner.exceptions.UrlExpiredException;
 import com.techatow.url_shortner.exceptions.UrlNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -37,6 +45,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<CustomErrorResponse> handleInvalidCursorException(
+            InvalidCursorException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        return buildErrorResponse(e, status, request);
+    }
+
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<CustomErrorResponse> handleInvalidParameterException(
+            InvalidParameterException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        return buildErrorResponse(e, status, request);
+    }
+
+    // Parâmetro de query que não converte para o tipo esperado (data, número)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<CustomErrorResponse> handleTypeMismatch(
+            MethodArgumentTypeMismatchException e, HttpServletRequest request) {
+        return buildErrorResponse(new RuntimeException("Parâmetro inválido: " + e.getName()),
+                HttpStatus.BAD_REQUEST, request);
+    }
+
     @ExceptionHandler(ShortCodeGenerationException.class)
     public ResponseEntity<CustomErrorResponse> handleShortCodeGenerationException(
             ShortCodeGenerationException e, HttpServletRequest request) {
@@ -44,6 +74,31 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(e, status, request);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<CustomErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        return buildErrorResponse(e, status, request);
+    }
+
+    // Sem conexão disponível (limitador ou pool esgotado): falha temporária, não erro interno
+    @ExceptionHandler({CannotCreateTransactionException.class,
+            CannotGetJdbcConnectionException.class})
+    public ResponseEntity<CustomErrorResponse> handleConnectionUnavailable(Exception e,
+            HttpServletRequest request) {
+        logger.warn("Conexão com o banco indisponível: {}", e.getMessage());
+        return buildErrorResponse(new RuntimeException("Serviço sobrecarregado; tente novamente"),
+                HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    // Recurso que depende do banco, com app.storage.type=embedded
+    @ExceptionHandler(FeatureUnavailableException.class)
+    public ResponseEntity<CustomErrorResponse> handleFeatureUnavailableException(
+            FeatureUnavailableException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_IMPLEMENTED;
+        return buildErrorResponse(e, status, request);
+    }
+
     @ExceptionHandler(UrlNotFoundException.class)
     public ResponseEntity<CustomErrorResponse> handleUrlNotFoundException(UrlNotFoundException e,
             HttpServletRequest request) {
@@ -58,6 +113,13 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(e, status, request);
     }
 
+    @ExceptionHandler(UrlBlockedException.class)
+    public ResponseEntity<CustomErrorResponse> handleUrlBlockedException(UrlBlockedException e,
+            HttpServletRequest request) {
+        HttpStatus status = HttpStatus.FORBIDDEN;
+        return buildErrorResponse(e, status, request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CustomErrorResponse> handleGeneral(Exception e,
             HttpServletRequest request) {
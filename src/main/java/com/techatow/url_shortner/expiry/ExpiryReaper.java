@@ -0,0 +1,124 @@
+package com.techatow.url_shortner.expiry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.clicks.ClickTimeSeries;
+import com.techatow.url_shortner.hotkeys.HotKeyTracker;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.visitors.UniqueVisitorTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Remove (ou arquiva) links expirados em lotes curtos pelo UrlStore. No JpaUrlStore cada lote
+// é uma transação própria que trava só as linhas escolhidas com SKIP LOCKED: vários nós rodando
+// ao mesmo tempo dividem o trabalho em vez de esperar uns pelos outros, e o redirect nunca fica
+// atrás de um delete longo.
+@Component
+public class ExpiryReaper {
+    private static final Logger logger = LoggerFactory.getLogger(ExpiryReaper.class);
+
+    private final UrlStore urlStore;
+    private final UrlCache urlCache;
+    private final LocalStatsCache statsCache;
+    private final HotKeyTracker hotKeys;
+    private final ClickTimeSeries clickTimeSeries;
+    private final UniqueVisitorTracker uniqueVisitors;
+    private final Counter reclaimed;
+    private final boolean enabled;
+    private final boolean archive;
+    private final Duration grace;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration pause;
+
+    public ExpiryReaper(UrlStore urlStore, UrlCache urlCache, LocalStatsCache statsCache,
+            HotKeyTracker hotKeys, ClickTimeSeries clickTimeSeries,
+            UniqueVisitorTracker uniqueVisitors, MeterRegistry meterRegistry,
+            @Value("${app.expiry.enabled:true}") boolean enabled,
+            @Value("${app.expiry.mode:delete}") String mode,
+            @Value("${app.expiry.grace:0s}") Duration grace,
+            @Value("${app.expiry.batch-size:500}") int batchSize,
+            @Value("${app.expiry.max-batches:100}") int maxBatches,
+            @Value("${app.expiry.pause:100ms}") Duration pause) {
+        this.urlStore = urlStore;
+        this.urlCache = urlCache;
+        this.statsCache = statsCache;
+        this.hotKeys = hotKeys;
+        this.clickTimeSeries = clickTimeSeries;
+        this.uniqueVisitors = uniqueVisitors;
+        this.reclaimed = Counter.builder("expiry.reclaimed").register(meterRegistry);
+        this.enabled = enabled;
+        this.archive = switch (mode) {
+            case "delete" -> false;
+            case "archive" -> true;
+            default -> throw new IllegalStateException("app.expiry.mode inválido: " + mode);
+        };
+        this.grace = grace;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pause = pause;
+    }
+
+    // Devolve quantos links foram removidos na execução. Para em max-batches para que um
+    // acúmulo grande seja drenado ao longo de várias execuções
+    @Scheduled(fixedDelayString = "${app.expiry.interval:5m}",
+            initialDelayString = "${app.expiry.initial-delay:1m}")
+    public synchronized int reap() {
+        if (!enabled) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int removed = reapBatch(LocalDateTime.now().minus(grace));
+                total += removed;
+                if (removed < batchSize) {
+                    break;
+                }
+                Thread.sleep(pause.toMillis());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao remover links expirados: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (total > 0) {
+            logger.info("{} links expirados {} em {} ms", total,
+                    archive ? "arquivados" : "removidos",
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
+        return total;
+    }
+
+    private int reapBatch(LocalDateTime cutoff) {
+        List<String> expired = urlStore.deleteExpired(cutoff, batchSize, archive);
+
+        // Depois do commit: o cache remoto e o barramento limpam a entrada em todos os nós
+        for (String shortCode : expired) {
+            urlCache.evict(shortCode);
+            statsCache.evict(shortCode);
+            hotKeys.evict(shortCode);
+        }
+        // Como no deleteUrl: a série e os visitantes não podem reaparecer se o código voltar a
+        // ser usado. Uma falha aqui não interrompe a remoção dos próximos lotes
+        try {
+            clickTimeSeries.delete(expired);
+            uniqueVisitors.delete(expired);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao limpar série e visitantes de {} links expirados: {}",
+                    expired.size(), e.getMessage());
+        }
+        reclaimed.increment(expired.size());
+        return expired.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.techatow.url_shortner.expiry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
+
+// Política de expiração de um link: ttl nulo nunca expira; sliding renova a cada acesso
+public record LinkExpiry(Duration ttl, boolean sliding) {
+
+    static final String NEVER = "never";
+    static final Duration MIN_TTL = Duration.ofMinutes(1);
+
+    public static LinkExpiry fixed(Duration ttl) {
+        return new LinkExpiry(ttl, false);
+    }
+
+    public static LinkExpiry parse(String ttl, Boolean sliding, Duration defaultTtl,
+            Duration maxTtl) {
+        boolean isSliding = Boolean.TRUE.equals(sliding);
+        if (ttl == null || ttl.isBlank()) {
+            return new LinkExpiry(defaultTtl, isSliding);
+        }
+        if (NEVER.equalsIgnoreCase(ttl)) {
+            if (isSliding) {
+                throw new InvalidParameterException(
+                        "Expiração deslizante exige um TTL finito");
+            }
+            return new LinkExpiry(null, false);
+        }
+        Duration parsed;
+        try {
+            parsed = Duration.parse(ttl);
+        } catch (DateTimeParseException e) {
+            throw new InvalidParameterException("TTL inválido: " + ttl);
+        }
+        if (parsed.compareTo(MIN_TTL) < 0 || parsed.compareTo(maxTtl) > 0) {
+            throw new InvalidParameterException(
+                    "TTL deve estar entre " + MIN_TTL + " e " + maxTtl + ": " + ttl);
+        }
+        return new LinkExpiry(parsed, isSliding);
+    }
+
+    public void applyTo(ShortenedUrl url, LocalDateTime now) {
+        url.setExpiresAt(ttl == null ? null : now.plus(ttl));
+        url.setSlidingTtlSeconds(sliding ? ttl.toSeconds() : null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.techatow.url_shortner.expiry;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.techatow.url_shortner.cache.CachedUrl;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.hotkeys.HotKeyTracker;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.CoarseClock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Renova a expiração de links deslizantes sem escrever no banco a cada acesso. O redirect só
+// marca o código quando já consumiu parte da janela (refresh-threshold) e cada código fica no
+// máximo uma vez na fila: milhares de hits no mesmo link viram uma única escrita por flush.
+@Component
+public class SlidingExpiryExtender {
+    private static final Logger logger = LoggerFactory.getLogger(SlidingExpiryExtender.class);
+
+    private final UrlStore urlStore;
+    private final UrlCache urlCache;
+    private final LocalStatsCache statsCache;
+    private final HotKeyTracker hotKeys;
+    private final Counter extended;
+    private final double refreshThreshold;
+
+    private final Map<String, CachedUrl> pending = new ConcurrentHashMap<>();
+
+    public SlidingExpiryExtender(UrlStore urlStore, UrlCache urlCache,
+            LocalStatsCache statsCache, HotKeyTracker hotKeys, MeterRegistry meterRegistry,
+            @Value("${app.links.sliding.refresh-threshold:0.5}") double refreshThreshold) {
+        this.urlStore = urlStore;
+        this.urlCache = urlCache;
+        this.statsCache = statsCache;
+        this.hotKeys = hotKeys;
+        this.extended = Counter.builder("links.sliding.extended").register(meterRegistry);
+        this.refreshThreshold = refreshThreshold;
+    }
+
+    // Caminho quente: uma leitura volátil e, no máximo, um putIfAbsent por código por flush
+    public void touch(String shortCode, CachedUrl url) {
+        long now = CoarseClock.millis();
+        if (url.expiresAtMillis() - now > url.slidingTtlMillis() * refreshThreshold) {
+            return;
+        }
+        pending.putIfAbsent(shortCode, url.extendedFrom(now));
+    }
+
+    int pending() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.links.sliding.flush-interval:5s}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<String, CachedUrl> batch = new LinkedHashMap<>();
+        for (String shortCode : pending.keySet()) {
+            CachedUrl url = pending.remove(shortCode);
+            if (url != null) {
+                batch.put(shortCode, url);
+            }
+        }
+
+        Map<String, LocalDateTime> expiresAt = new LinkedHashMap<>();
+        batch.forEach((shortCode, url) -> expiresAt.put(shortCode, url.expiresAt()));
+        try {
+            // O store nunca encurta: um flush atrasado não desfaz uma renovação mais recente
+            urlStore.extendExpiry(expiresAt);
+        } catch (DataAccessException e) {
+            // Devolve à fila: toques mais novos do mesmo código prevalecem
+            batch.forEach(pending::putIfAbsent);
+            logger.warn("Falha ao renovar {} links deslizantes: {}", batch.size(),
+                    e.getMessage());
+            return 0;
+        }
+
+        // O evict propaga a invalidação aos outros nós; o put deixa a nova expiração no cache
+        batch.forEach((shortCode, url) -> {
+            urlCache.evict(shortCode);
+            urlCache.put(shortCode, url);
+            statsCache.evict(shortCode);
+            hotKeys.evict(shortCode);
+        });
+        extended.increment(batch.size());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,4 @@
+package com.techatow.url_shortner.hotkeys;
+
+public record HotKey(String shortCode, long estimatedHits, double ratePerSecond, boolean pinned) {
+}
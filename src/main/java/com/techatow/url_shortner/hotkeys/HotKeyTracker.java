@@ -0,0 +1,237 @@
+package com.techatow.url_shortner.hotkeys;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.techatow.url_shortner.cache.CachedUrl;
+import com.techatow.url_shortner.cache.InvalidationBus;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.CountMinSketch;
+
+// Rastreia os short codes mais acessados (count-min sketch + top-K no estilo Space-Saving) e mantém
+// as URLs deles fixadas em memória, fora da política de evicção dos caches. O redirect só escreve o
+// código num buffer circular com perdas; sketch, top-K e pinos são atualizados pelo refresh
+// agendado, numa única thread.
+@Component
+public class HotKeyTracker {
+
+    private static final int BUFFER_CAPACITY = 1024;
+    private static final int BUFFER_MASK = BUFFER_CAPACITY - 1;
+    private static final double RATE_TIME_CONSTANT_SECONDS = 10;
+
+    static final class Buffer {
+        final AtomicReferenceArray<String> slots = new AtomicReferenceArray<>(BUFFER_CAPACITY);
+        final AtomicLong tail = new AtomicLong();
+        long head;
+    }
+
+    static final class Entry {
+        final String shortCode;
+        long estimatedHits;
+        long windowHits;
+        double ratePerSecond;
+
+        Entry(String shortCode) {
+            this.shortCode = shortCode;
+        }
+    }
+
+    private final UrlCache urlCache;
+    private final UrlStore urlStore;
+    private final boolean enabled;
+    private final int topK;
+    private final long decayIntervalNanos;
+
+    private final Buffer[] buffers;
+    private final CountMinSketch sketch;
+
+    // Estado do refresh: só acessado pela thread que executa refresh()
+    private final Map<String, Entry> top = new HashMap<>();
+    // Limite inferior da menor contagem do top-K: contagens só crescem entre os decaimentos
+    private long minHits;
+    private long lastRefreshNanos = System.nanoTime();
+    private long lastDecayNanos = lastRefreshNanos;
+
+    private final AtomicReference<Map<String, CachedUrl>> pinned = new AtomicReference<>(Map.of());
+    private final Set<String> invalidated = ConcurrentHashMap.newKeySet();
+    private volatile List<HotKey> snapshot = List.of();
+
+    public HotKeyTracker(UrlCache urlCache, UrlStore urlStore,
+            InvalidationBus invalidationBus,
+            @Value("${app.hot-keys.enabled:true}") boolean enabled,
+            @Value("${app.hot-keys.top-k:100}") int topK,
+            @Value("${app.hot-keys.decay-interval:1m}") Duration decayInterval) {
+        this.urlCache = urlCache;
+        this.urlStore = urlStore;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.decayIntervalNanos = decayInterval.toNanos();
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Integer.highestOneBit(processors * 4 - 1) << 1;
+        this.buffers = new Buffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            buffers[i] = new Buffer();
+        }
+        this.sketch = new CountMinSketch(8192, 4);
+
+        // Deleções em qualquer nó removem o pino local
+        invalidationBus.subscribe(this::evict);
+    }
+
+    // Caminho quente: um incremento atômico e uma escrita no buffer da thread, sem locks.
+    // Se o refresh não acompanhar, entradas antigas são sobrescritas (amostragem).
+    public void record(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        Buffer buffer = buffers[(int) Thread.currentThread().threadId() & (buffers.length - 1)];
+        long position = buffer.tail.getAndIncrement();
+        buffer.slots.lazySet((int) (position & BUFFER_MASK), shortCode);
+    }
+
+    public CachedUrl pinned(String shortCode) {
+        return pinned.get().get(shortCode);
+    }
+
+    public void evict(String shortCode) {
+        invalidated.add(shortCode);
+        pinned.updateAndGet(current -> current.containsKey(shortCode) ? without(current, shortCode)
+                : current);
+    }
+
+    public List<HotKey> hottest(int limit) {
+        List<HotKey> current = snapshot;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.hot-keys.refresh-interval:1s}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        double elapsedSeconds = Math.max(1e-3, (now - lastRefreshNanos) / 1e9);
+        lastRefreshNanos = now;
+
+        long offered = 0;
+        long drained = 0;
+        for (Buffer buffer : buffers) {
+            long tail = buffer.tail.get();
+            long from = Math.max(buffer.head, tail - BUFFER_CAPACITY);
+            offered += tail - buffer.head;
+            for (long position = from; position < tail; position++) {
+                String shortCode = buffer.slots.getAndSet((int) (position & BUFFER_MASK), null);
+                if (shortCode != null) {
+                    drained++;
+                    offer(shortCode, sketch.add(shortCode));
+                }
+            }
+            buffer.head = tail;
+        }
+
+        // Corrige a taxa pela fração de acessos perdidos no buffer
+        double sampling = drained == 0 ? 1.0 : (double) offered / drained;
+        double alpha = 1 - Math.exp(-elapsedSeconds / RATE_TIME_CONSTANT_SECONDS);
+        for (Entry entry : top.values()) {
+            double instant = entry.windowHits * sampling / elapsedSeconds;
+            entry.ratePerSecond += alpha * (instant - entry.ratePerSecond);
+            entry.windowHits = 0;
+        }
+
+        if (now - lastDecayNanos >= decayIntervalNanos) {
+            lastDecayNanos = now;
+            sketch.halve();
+            top.values().forEach(entry -> entry.estimatedHits >>>= 1);
+            minHits >>>= 1;
+        }
+
+        repin();
+    }
+
+    // Top-K: membros atualizam a contagem; um novo código só entra se superar o menor
+    private void offer(String shortCode, long estimate) {
+        Entry entry = top.get(shortCode);
+        if (entry == null) {
+            if (top.size() >= topK) {
+                if (estimate <= minHits) {
+                    return;
+                }
+                Entry min = top.values().stream()
+                        .min(Comparator.comparingLong(e -> e.estimatedHits)).orElseThrow();
+                minHits = min.estimatedHits;
+                if (estimate <= minHits) {
+                    return;
+                }
+                top.remove(min.shortCode);
+            }
+            entry = new Entry(shortCode);
+            top.put(shortCode, entry);
+        }
+        entry.estimatedHits = estimate;
+        entry.windowHits++;
+    }
+
+    private void repin() {
+        Set<String> applied = Set.copyOf(invalidated);
+        Map<String, CachedUrl> current = pinned.get();
+        Map<String, CachedUrl> loaded = new HashMap<>();
+        for (String shortCode : top.keySet()) {
+            CachedUrl url = current.get(shortCode);
+            if (url == null && !applied.contains(shortCode)) {
+                url = load(shortCode);
+            }
+            if (url != null && !url.isExpired()) {
+                loaded.put(shortCode, url);
+            }
+        }
+
+        // CAS contra evict(): uma invalidação concorrente força recalcular sem o código
+        Map<String, CachedUrl> next;
+        do {
+            current = pinned.get();
+            next = new HashMap<>(loaded);
+            next.keySet().removeAll(invalidated);
+        } while (!pinned.compareAndSet(current, Map.copyOf(next)));
+        invalidated.removeAll(applied);
+
+        Set<String> pinnedCodes = new HashSet<>(next.keySet());
+        List<HotKey> hottest = new ArrayList<>(top.size());
+        for (Entry entry : top.values()) {
+            hottest.add(new HotKey(entry.shortCode, entry.estimatedHits, entry.ratePerSecond,
+                    pinnedCodes.contains(entry.shortCode)));
+        }
+        hottest.sort(Comparator.comparingLong(HotKey::estimatedHits).reversed());
+        snapshot = List.copyOf(hottest);
+    }
+
+    private CachedUrl load(String shortCode) {
+        Optional<CachedUrl> cached = urlCache.get(shortCode);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return urlStore.findByShortCode(shortCode)
+                .map(CachedUrl::of)
+                .orElse(null);
+    }
+
+    private static Map<String, CachedUrl> without(Map<String, CachedUrl> map, String shortCode) {
+        Map<String, CachedUrl> copy = new HashMap<>(map);
+        copy.remove(shortCode);
+        return Map.copyOf(copy);
+    }
+}
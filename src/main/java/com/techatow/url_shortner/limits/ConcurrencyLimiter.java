@@ -0,0 +1,75 @@
+package com.techatow.url_shortner.limits;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Semáforo justo com espera limitada. Com virtual threads o número de requisições simultâneas
+// deixa de ser limitado pelo pool do Tomcat; este limite protege o recurso escasso por trás.
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final Timer waitTime;
+    private final Counter rejected;
+
+    public ConcurrencyLimiter(String name, int maxConcurrent, Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent deve ser positivo: " + maxConcurrent);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder("limiter.queue.depth", permits, Semaphore::getQueueLength).tag("name", name)
+                .description("Threads aguardando uma permissão").register(meterRegistry);
+        Gauge.builder("limiter.in.use", this, ConcurrencyLimiter::inUse).tag("name", name)
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("limiter.wait").tag("name", name)
+                .description("Tempo até obter a permissão").publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("limiter.rejected").tag("name", name)
+                .description("Requisições que excederam o tempo de espera")
+                .register(meterRegistry);
+    }
+
+    public void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    "Limite de concorrência excedido para " + name + "; tente novamente");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+}
@@ -0,0 +1,80 @@
+package com.techatow.url_shortner.limits;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+
+// Cada conexão emprestada segura uma permissão do limitador até o close(). Quem excede o tempo de
+// espera falha rápido em vez de se acumular na fila do pool.
+public class LimitedDataSource extends DelegatingDataSource {
+
+    private final ConcurrencyLimiter limiter;
+
+    public LimitedDataSource(DataSource targetDataSource, ConcurrencyLimiter limiter) {
+        super(targetDataSource);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            limiter.acquire();
+        } catch (ServiceOverloadedException e) {
+            throw new SQLTransientConnectionException(e.getMessage(), e);
+        }
+    }
+
+    private Connection limited(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Limited[" + target + "]";
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName())
+                                && released.compareAndSet(false, true)) {
+                            limiter.release();
+                        }
+                    }
+                });
+    }
+}
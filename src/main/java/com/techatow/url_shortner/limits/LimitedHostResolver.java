@@ -0,0 +1,29 @@
+package com.techatow.url_shortner.limits;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import com.techatow.url_shortner.utils.HostResolver;
+
+// A resolução do JDK é uma chamada nativa bloqueante que prende a carrier thread de uma virtual
+// thread; o limite impede que lookups lentos ocupem todas as carriers.
+public class LimitedHostResolver implements HostResolver {
+
+    private final HostResolver delegate;
+    private final ConcurrencyLimiter limiter;
+
+    public LimitedHostResolver(HostResolver delegate, ConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public List<InetAddress> resolve(String host) throws UnknownHostException {
+        limiter.acquire();
+        try {
+            return delegate.resolve(host);
+        } finally {
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.techatow.url_shortner.replicas;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Réplicas de leitura em round-robin. Uma réplica que falha ao entregar conexão sai do rodízio na
+// hora; a verificação periódica a devolve quando volta a responder.
+public class ReplicaPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaPool.class);
+
+    static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration validationTimeout;
+    private final Counter failures;
+
+    public ReplicaPool(Map<String, DataSource> replicas, Duration validationTimeout,
+            MeterRegistry meterRegistry) {
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.validationTimeout = validationTimeout;
+        this.failures = Counter.builder("datasource.replica.failures")
+                .description("Falhas ao obter conexão de uma réplica").register(meterRegistry);
+        Gauge.builder("datasource.replicas.healthy", this, ReplicaPool::healthyCount)
+                .register(meterRegistry);
+    }
+
+    public boolean isEmpty() {
+        return replicas.isEmpty();
+    }
+
+    public int healthyCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    // Conexão da próxima réplica saudável, ou null se nenhuma puder atender
+    public Connection getConnection() {
+        int size = replicas.size();
+        for (int attempt = 0; attempt < size; attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), size));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                failures.increment();
+                markDown(replica, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            String problem = null;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid((int) Math.max(1, validationTimeout.toSeconds()))) {
+                    problem = "conexão inválida";
+                }
+            } catch (SQLException e) {
+                problem = e.getMessage();
+            }
+            if (problem != null) {
+                markDown(replica, problem);
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                logger.info("Réplica {} de volta ao rodízio", replica.name);
+            }
+        }
+    }
+
+    private void markDown(Replica replica, String problem) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Réplica {} fora do rodízio: {}", replica.name, problem);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
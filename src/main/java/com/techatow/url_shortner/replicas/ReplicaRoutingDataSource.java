@@ -0,0 +1,58 @@
+package com.techatow.url_shortner.replicas;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Transações somente leitura vão para as réplicas; escritas, trechos sem transação e o caso de
+// nenhuma réplica saudável ficam no primário. A decisão usa o estado da transação na thread, então
+// este DataSource precisa de um LazyConnectionDataSourceProxy por fora: a conexão só é pedida no
+// primeiro comando, depois que a transação já foi marcada como somente leitura.
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final ReplicaPool replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicas) {
+        super(primary);
+        this.replicas = replicas;
+    }
+
+    // Para leituras que não toleram atraso de replicação
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    public static void onPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && PRIMARY_FORCED.get() == null) {
+            Connection replica = replicas.getConnection();
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return obtainTargetDataSource().getConnection();
+    }
+}
@@ -1,7 +1,18 @@
 package com.techatow.url_shortner.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import com.techatow.url_shortner.dtos.UrlExportRow;
 import com.techatow.url_shortner.entities.ShortenedUrl;
 
 public interface ShortenedUrlRepository extends JpaRepository<ShortenedUrl, Long> {
@@ -12,4 +23,39 @@ public interface ShortenedUrlRepository extends JpaRepository<ShortenedUrl, Long
     Optional<ShortenedUrl> findByShortCode(String shortCode);
 
     Optional<ShortenedUrl> findByOriginalUrl(String originalUrl);
+
+    Optional<ShortenedUrl> findByUrlDigest(String urlDigest);
+
+    boolean existsByUrlDigest(String urlDigest);
+
+    List<ShortenedUrl> findByUrlDigestIn(Collection<String> urlDigests);
+
+    List<ShortenedUrl> findByUrlDigestIsNullAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<ShortenedUrl> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    // Comparação de tupla: percorre o índice (created_at, id) a partir do cursor, sem OFFSET
+    @Query("select u from ShortenedUrl u where (u.createdAt, u.id) < (:createdAt, :id)"
+            + " order by u.createdAt desc, u.id desc")
+    List<ShortenedUrl> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Limit limit);
+
+    @Query("select u.shortCode from ShortenedUrl u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllShortCodes();
+
+    // Intervalos semiabertos [from, to); filtro nulo não restringe
+    @Query("select new com.techatow.url_shortner.dtos.UrlExportRow(u.id, u.shortCode,"
+            + " u.originalUrl, u.clicks, u.createdAt, u.lastAccessedAt, u.expiresAt)"
+            + " from ShortenedUrl u"
+            + " where (:createdFrom is null or u.createdAt >= :createdFrom)"
+            + " and (:createdTo is null or u.createdAt < :createdTo)"
+            + " and (:expiresFrom is null or u.expiresAt >= :expiresFrom)"
+            + " and (:expiresTo is null or u.expiresAt < :expiresTo)"
+            + " order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UrlExportRow> streamForExport(@Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            @Param("expiresFrom") LocalDateTime expiresFrom,
+            @Param("expiresTo") LocalDateTime expiresTo);
 }
@@ -0,0 +1,286 @@
+package com.techatow.url_shortner.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.blocklist.DomainBlocklist;
+import com.techatow.url_shortner.cache.InvalidationBus;
+import com.techatow.url_shortner.codes.ShortCodeAllocator;
+import com.techatow.url_shortner.dtos.BatchShortenResult;
+import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.CidrTrie;
+import com.techatow.url_shortner.utils.HostResolver;
+import com.techatow.url_shortner.utils.UrlDigest;
+import com.techatow.url_shortner.utils.UrlValidator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
+
+// Encurtamento em lote: lê a entrada (NDJSON ou array JSON) item a item, normaliza em paralelo e
+// grava em blocos de chunkSize. Só um bloco fica em memória, então o consumo não cresce com o
+// tamanho do lote.
+@Service
+public class BulkShortenService {
+
+    private static final int MAX_URL_LENGTH = 2048;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final UrlStore urlStore;
+    private final ShortenedUrlService urlService;
+    private final ShortCodeAllocator codeAllocator;
+    private final InvalidationBus createdCodesBus;
+    private final HostResolver hostResolver;
+    private final CidrTrie blockedRanges;
+    private final DomainBlocklist domainBlocklist;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate writeTransaction;
+
+    @Value("${app.base-url:http://localhost:8080/}")
+    private String baseUrl;
+
+    @Value("${app.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.batch.parallelism:8}")
+    private int parallelism;
+
+    @Value("${app.batch.max-items:1000000}")
+    private int maxItems;
+
+    @Value("${app.links.default-ttl:7d}")
+    private Duration defaultTtl;
+
+    public BulkShortenService(UrlStore urlStore,
+            ShortenedUrlService urlService, ShortCodeAllocator codeAllocator,
+            @Qualifier("createdCodesBus") InvalidationBus createdCodesBus,
+            HostResolver hostResolver, CidrTrie blockedRanges, DomainBlocklist domainBlocklist,
+            JsonMapper jsonMapper,
+            PlatformTransactionManager transactionManager) {
+        this.urlStore = urlStore;
+        this.urlService = urlService;
+        this.codeAllocator = codeAllocator;
+        this.createdCodesBus = createdCodesBus;
+        this.hostResolver = hostResolver;
+        this.blockedRanges = blockedRanges;
+        this.domainBlocklist = domainBlocklist;
+        this.jsonMapper = jsonMapper;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Item lido da entrada; a normalização (que resolve DNS) já roda enquanto os próximos são lidos
+    private record Item(int index, String url, String error, Future<String> normalized) {
+    }
+
+    public void shorten(InputStream input, OutputStream output) throws IOException {
+        OutputStream out = new BufferedOutputStream(output);
+        // O limitador de DNS já controla a concorrência global; o pool evita que um lote
+        // enfileire milhares de resoluções nele e estoure o tempo de espera
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofVirtual().name("bulk-normalize-", 0).factory());
+        try (MappingIterator<JsonNode> items =
+                jsonMapper.readerFor(JsonNode.class).readValues(input)) {
+            List<Item> chunk = new ArrayList<>(chunkSize);
+            int index = 0;
+            String abortError = null;
+            try {
+                while (items.hasNextValue()) {
+                    if (index >= maxItems) {
+                        abortError = "Lote excede o limite de " + maxItems + " itens";
+                        break;
+                    }
+                    chunk.add(read(index++, items.nextValue(), executor));
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(out, chunk);
+                        chunk.clear();
+                    }
+                }
+            } catch (JacksonException e) {
+                // Entrada malformada: não há como achar o próximo item com segurança
+                abortError = "JSON inválido: " + e.getOriginalMessage();
+            }
+            writeChunk(out, chunk);
+            if (abortError != null) {
+                write(out, BatchShortenResult.failure(index, null, abortError));
+            }
+        } finally {
+            executor.shutdownNow();
+            out.flush();
+        }
+    }
+
+    private Item read(int index, JsonNode node, ExecutorService executor) {
+        String url = node.isString() ? node.stringValue()
+                : node.path("url").isString() ? node.path("url").stringValue() : null;
+        if (url == null) {
+            return new Item(index, null, "Item deve ser uma string ou {\"url\": ...}", null);
+        }
+        if (url.length() > MAX_URL_LENGTH) {
+            return new Item(index, url, "URL muito longa", null);
+        }
+        return new Item(index, url, null, executor.submit(() -> UrlValidator.normalizeUrl(url,
+                hostResolver, blockedRanges, domainBlocklist::isBlocked)));
+    }
+
+    private void writeChunk(OutputStream out, List<Item> chunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (BatchShortenResult result : process(chunk)) {
+            write(out, result);
+        }
+        out.flush();
+    }
+
+    private void write(OutputStream out, BatchShortenResult result) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(result));
+        out.write(NEWLINE);
+    }
+
+    private List<BatchShortenResult> process(List<Item> chunk) {
+        BatchShortenResult[] results = new BatchShortenResult[chunk.size()];
+        int first = chunk.get(0).index();
+
+        // URLs repetidas dentro do bloco viram uma única linha
+        Map<String, List<Item>> byNormalized = new LinkedHashMap<>();
+        for (Item item : chunk) {
+            String error = item.error();
+            if (error == null) {
+                try {
+                    byNormalized.computeIfAbsent(item.normalized().get(), k -> new ArrayList<>())
+                            .add(item);
+                    continue;
+                } catch (ExecutionException e) {
+                    error = e.getCause().getMessage();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    error = "Processamento interrompido";
+                }
+            }
+            results[item.index() - first] = BatchShortenResult.failure(item.index(), item.url(),
+                    error);
+        }
+
+        if (!byNormalized.isEmpty()) {
+            try {
+                store(byNormalized, results, first);
+            } catch (ServiceOverloadedException e) {
+                failAll(byNormalized, results, first, e.getMessage());
+            } catch (DataAccessException | TransactionException e) {
+                failAll(byNormalized, results, first, "Falha ao gravar lote");
+            }
+        }
+        return List.of(results);
+    }
+
+    private void store(Map<String, List<Item>> byNormalized, BatchShortenResult[] results,
+            int first) {
+        Map<String, String> digests = byNormalized.keySet().stream()
+                .collect(Collectors.toMap(Function.identity(), UrlDigest::of));
+        Map<String, ShortenedUrl> existing = findExisting(digests);
+
+        List<String> fallback = new ArrayList<>();
+        List<ShortenedUrl> toInsert = new ArrayList<>();
+        List<String> expired = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(defaultTtl);
+        for (String normalized : byNormalized.keySet()) {
+            ShortenedUrl found = existing.get(digests.get(normalized));
+            if (found != null && found.isExpired()) {
+                // Link antigo já expirado: conta como ausente e o digest passa para o novo
+                expired.add(found.getShortCode());
+                found = null;
+            }
+            if (found == null) {
+                ShortenedUrl created = new ShortenedUrl(codeAllocator.nextCode(), normalized);
+                created.setExpiresAt(expiresAt);
+                toInsert.add(created);
+            } else if (found.getOriginalUrl().equals(normalized)) {
+                resolve(byNormalized.get(normalized), found.getShortCode(), false, results, first);
+            } else {
+                // Colisão de SHA-256: o caminho unitário grava sem digest
+                fallback.add(normalized);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            try {
+                writeTransaction.executeWithoutResult(status -> {
+                    if (!expired.isEmpty()) {
+                        urlStore.releaseExpiredDigests(expired, now);
+                    }
+                    urlStore.insertAll(toInsert);
+                });
+                for (ShortenedUrl created : toInsert) {
+                    createdCodesBus.publish(created.getShortCode());
+                    resolve(byNormalized.get(created.getOriginalUrl()), created.getShortCode(),
+                            true, results, first);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Corrida com outra requisição (mesma URL ou mesmo código): refaz item a item
+                toInsert.forEach(url -> fallback.add(url.getOriginalUrl()));
+            }
+        }
+
+        for (String normalized : fallback) {
+            List<Item> items = byNormalized.get(normalized);
+            try {
+                UrlDetailsResponse response = urlService.shortenNormalized(normalized);
+                resolve(items, response.shortCode(), true, results, first);
+            } catch (RuntimeException e) {
+                for (Item item : items) {
+                    results[item.index() - first] =
+                            BatchShortenResult.failure(item.index(), item.url(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Map<String, ShortenedUrl> findExisting(Map<String, String> digests) {
+        return urlStore.findByUrlDigestIn(digests.values()).stream()
+                .collect(Collectors.toMap(ShortenedUrl::getUrlDigest, Function.identity()));
+    }
+
+    private void resolve(List<Item> items, String shortCode, boolean created,
+            BatchShortenResult[] results, int first) {
+        for (Item item : items) {
+            // Só a primeira ocorrência de uma URL nova conta como criada
+            results[item.index() - first] = BatchShortenResult.success(item.index(), item.url(),
+                    shortCode, baseUrl + shortCode, created && item == items.get(0));
+        }
+    }
+
+    private void failAll(Map<String, List<Item>> byNormalized, BatchShortenResult[] results,
+            int first, String error) {
+        byNormalized.values().forEach(items -> items.forEach(item -> {
+            if (results[item.index() - first] == null) {
+                results[item.index() - first] =
+                        BatchShortenResult.failure(item.index(), item.url(), error);
+            }
+        }));
+    }
+}
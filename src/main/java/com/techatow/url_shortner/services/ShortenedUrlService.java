@@ -1,113 +1,431 @@
 package com.techatow.url_shortner.services;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.blocklist.DomainBlocklist;
+import com.techatow.url_shortner.cache.CachedUrl;
+import com.techatow.url_shortner.cache.InvalidationBus;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.ShortCodeFilter;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.clicks.ClickAggregator;
+import com.techatow.url_shortner.clicks.ClickGranularity;
+import com.techatow.url_shortner.clicks.ClickTimeSeries;
+import com.techatow.url_shortner.clicks.ExactClickCounter;
+import com.techatow.url_shortner.codes.ShortCodeAllocator;
+import com.techatow.url_shortner.dtos.ClickSeriesResponse;
+import com.techatow.url_shortner.dtos.CursorPage;
+import com.techatow.url_shortner.dtos.HotLinkResponse;
+import com.techatow.url_shortner.dtos.UniqueVisitorsResponse;
 import com.techatow.url_shortner.dtos.UrlDetailsResponse;
 import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.events.ClickEventLog;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
 import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
+import com.techatow.url_shortner.exceptions.UrlBlockedException;
 import com.techatow.url_shortner.exceptions.UrlExpiredException;
 import com.techatow.url_shortner.exceptions.UrlNotFoundException;
-import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
-import com.techatow.url_shortner.utils.ShortCodeGenerator;
+import com.techatow.url_shortner.expiry.LinkExpiry;
+import com.techatow.url_shortner.expiry.SlidingExpiryExtender;
+import com.techatow.url_shortner.hotkeys.HotKeyTracker;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.CidrTrie;
+import com.techatow.url_shortner.utils.HostResolver;
+import com.techatow.url_shortner.utils.PageCursor;
+import com.techatow.url_shortner.utils.SingleFlight;
+import com.techatow.url_shortner.utils.UrlDigest;
 import com.techatow.url_shortner.utils.UrlValidator;
+import com.techatow.url_shortner.visitors.UniqueVisitorTracker;
 
 @Service
 public class ShortenedUrlService {
 
-    private final ShortenedUrlRepository urlRepository;
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final long MAX_CLICK_BUCKETS = 10_000;
+    private static final int DEFAULT_VISITOR_DAYS = 30;
 
-    public ShortenedUrlService(ShortenedUrlRepository urlRepository) {
-        this.urlRepository = urlRepository;
+    private final UrlStore urlStore;
+    private final UrlCache urlCache;
+    private final LocalStatsCache statsCache;
+    private final ClickAggregator clickAggregator;
+    private final ClickTimeSeries clickTimeSeries;
+    private final UniqueVisitorTracker uniqueVisitors;
+    private final ClickEventLog clickEventLog;
+    // Só existe com app.clicks.mode=exact
+    private final ObjectProvider<ExactClickCounter> exactClickCounter;
+    private final ShortCodeFilter shortCodeFilter;
+    private final InvalidationBus createdCodesBus;
+    private final HostResolver hostResolver;
+    private final CidrTrie blockedRanges;
+    private final DomainBlocklist domainBlocklist;
+    private final HotKeyTracker hotKeys;
+    private final ShortCodeAllocator codeAllocator;
+    private final SlidingExpiryExtender slidingExpiry;
+    private final TransactionTemplate writeTransaction;
+
+    public ShortenedUrlService(UrlStore urlStore, UrlCache urlCache,
+            LocalStatsCache statsCache, ClickAggregator clickAggregator,
+            ClickTimeSeries clickTimeSeries, UniqueVisitorTracker uniqueVisitors,
+            ClickEventLog clickEventLog, ObjectProvider<ExactClickCounter> exactClickCounter,
+            ShortCodeFilter shortCodeFilter,
+            @Qualifier("createdCodesBus") InvalidationBus createdCodesBus,
+            HostResolver hostResolver, CidrTrie blockedRanges, DomainBlocklist domainBlocklist,
+            HotKeyTracker hotKeys, ShortCodeAllocator codeAllocator,
+            SlidingExpiryExtender slidingExpiry, PlatformTransactionManager transactionManager) {
+        this.urlStore = urlStore;
+        this.urlCache = urlCache;
+        this.statsCache = statsCache;
+        this.clickAggregator = clickAggregator;
+        this.clickTimeSeries = clickTimeSeries;
+        this.uniqueVisitors = uniqueVisitors;
+        this.clickEventLog = clickEventLog;
+        this.exactClickCounter = exactClickCounter;
+        this.shortCodeFilter = shortCodeFilter;
+        this.createdCodesBus = createdCodesBus;
+        this.hostResolver = hostResolver;
+        this.blockedRanges = blockedRanges;
+        this.domainBlocklist = domainBlocklist;
+        this.hotKeys = hotKeys;
+        this.codeAllocator = codeAllocator;
+        this.slidingExpiry = slidingExpiry;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
     @Value("${app.base-url:http://localhost:8080/}")
     private String baseUrl;
 
-    @Transactional
+    @Value("${app.clicks.mode:async}")
+    private String clickMode;
+
+    @Value("${app.cache.load-timeout:2s}")
+    private Duration loadTimeout;
+
+    @Value("${app.blocklist.check-on-redirect:false}")
+    private boolean checkOnRedirect;
+
+    @Value("${app.links.default-ttl:7d}")
+    private Duration defaultTtl;
+
+    @Value("${app.links.max-ttl:365d}")
+    private Duration maxTtl;
+
+    private final SingleFlight<String, CachedUrl> loads = new SingleFlight<>();
+
     public UrlDetailsResponse shortenUrl(String url) {
-        String normalizedUrl = UrlValidator.normalizeUrl(url);
+        return shortenUrl(url, null, null);
+    }
 
-        Optional<ShortenedUrl> optionalShortenedUrl =
-                urlRepository.findByOriginalUrl(normalizedUrl);
-        if (optionalShortenedUrl.isPresent()) {
-            ShortenedUrl shortenedUrl = optionalShortenedUrl.get();
-            return new UrlDetailsResponse(shortenedUrl.getId(), shortenedUrl.getShortCode(),
-                    shortenedUrl.getOriginalUrl(), baseUrl + shortenedUrl.getShortCode(),
-                    shortenedUrl.getClicks(), shortenedUrl.getCreatedAt(),
-                    shortenedUrl.getLastAccessedAt(), shortenedUrl.getExpiresAt(),
-                    shortenedUrl.isExpired());
+    // ttl em ISO-8601 (PT1H, P30D) ou "never"; nulo usa app.links.default-ttl
+    public UrlDetailsResponse shortenUrl(String url, String ttl, Boolean sliding) {
+        LinkExpiry expiry = LinkExpiry.parse(ttl, sliding, defaultTtl, maxTtl);
+        String normalizedUrl = UrlValidator.normalizeUrl(url, hostResolver, blockedRanges,
+                domainBlocklist::isBlocked);
+        if (ttl == null && !Boolean.TRUE.equals(sliding)) {
+            return shortenNormalized(normalizedUrl);
         }
+        // Política explícita: link próprio, sem reaproveitar o de outra requisição pelo digest
+        return insert(normalizedUrl, null, expiry, null);
+    }
+
+    // Para URLs já normalizadas pelo UrlValidator (usado também pelo encurtamento em lote)
+    public UrlDetailsResponse shortenNormalized(String normalizedUrl) {
+        String digest = UrlDigest.of(normalizedUrl);
+
+        // Busca pelo índice único do digest e confirma a URL completa
+        Optional<ShortenedUrl> byDigest = urlStore.findByUrlDigest(digest);
+        String expiredCode = null;
+        if (byDigest.isPresent()) {
+            if (byDigest.get().isExpired()) {
+                // Link antigo já expirado: conta como ausente e o digest passa para o novo
+                expiredCode = byDigest.get().getShortCode();
+            } else if (byDigest.get().getOriginalUrl().equals(normalizedUrl)) {
+                return toResponse(byDigest.get());
+            } else {
+                // Colisão de SHA-256: grava sem digest em vez de violar o índice
+                digest = null;
+            }
+        }
+        return insert(normalizedUrl, digest, LinkExpiry.fixed(defaultTtl), expiredCode);
+    }
+
+    private UrlDetailsResponse insert(String normalizedUrl, String digest, LinkExpiry expiry,
+            String expiredCode) {
+        String releasing = expiredCode;
+        for (int attempt = 0; attempt < MAX_INSERT_ATTEMPTS; attempt++) {
+            try {
+                String expired = releasing;
+                // Fora da transação: a reserva de um bloco não segura uma segunda conexão nem é
+                // desfeita junto com o insert
+                String shortCode = codeAllocator.nextCode();
+                ShortenedUrl created = writeTransaction.execute(
+                        status -> create(shortCode, normalizedUrl, digest, expiry, expired));
+                return toResponse(created);
+            } catch (DataIntegrityViolationException e) {
+                // Outra requisição gravou a mesma URL (ou o mesmo código) entre a busca e o insert
+                if (digest != null) {
+                    Optional<ShortenedUrl> winner = urlStore.findByUrlDigest(digest);
+                    if (winner.isPresent() && !winner.get().isExpired()) {
+                        return toResponse(winner.get());
+                    }
+                    releasing = winner.map(ShortenedUrl::getShortCode).orElse(null);
+                }
+            }
+        }
+        throw new ShortCodeGenerationException(
+                "Falha ao gravar URL após " + MAX_INSERT_ATTEMPTS + " tentativas");
+    }
 
-        final String shortCode = generateUniqueCode();
+    private ShortenedUrl create(String shortCode, String normalizedUrl, String urlDigest,
+            LinkExpiry expiry, String expiredCode) {
+        LocalDateTime now = LocalDateTime.now();
+        if (expiredCode != null) {
+            // Mesma transação do insert: o índice único só aceita o digest depois disso
+            urlStore.releaseExpiredDigests(List.of(expiredCode), now);
+        }
         ShortenedUrl shortenedUrl = new ShortenedUrl(shortCode, normalizedUrl);
-        urlRepository.save(shortenedUrl);
+        shortenedUrl.setUrlDigest(urlDigest);
+        expiry.applyTo(shortenedUrl, now);
+        // A violação do índice único (código ou digest repetido) aparece aqui
+        urlStore.insert(shortenedUrl);
+        afterCommit(() -> createdCodesBus.publish(shortCode));
+        return shortenedUrl;
+    }
 
+    private UrlDetailsResponse toResponse(ShortenedUrl shortenedUrl) {
         return new UrlDetailsResponse(shortenedUrl.getId(), shortenedUrl.getShortCode(),
                 shortenedUrl.getOriginalUrl(), baseUrl + shortenedUrl.getShortCode(),
                 shortenedUrl.getClicks(), shortenedUrl.getCreatedAt(),
                 shortenedUrl.getLastAccessedAt(), shortenedUrl.getExpiresAt(),
-                shortenedUrl.isExpired());
+                shortenedUrl.isExpired(), shortenedUrl.getSlidingTtlSeconds());
     }
 
-    @Transactional
+    // Falso só quando o código certamente não existe; nunca lança exceção
+    public boolean mightExist(String shortCode) {
+        return shortCodeFilter.mightExist(shortCode);
+    }
+
+    // Sem transação: o clique é agregado em memória e gravado em lote pelo ClickAggregator
     public String resolveShortCode(String shortCode) {
-        ShortenedUrl url = urlRepository.findByShortCode(shortCode).orElseThrow(
-                () -> new UrlNotFoundException("Short code não encontrado: " + shortCode));
+        if ("exact".equals(clickMode)) {
+            if (checkOnRedirect) {
+                // Antes do UPDATE: redirect bloqueado não pode ser contado como clique
+                checkBlocked(cachedOrLoad(shortCode).originalUrl());
+            }
+            String originalUrl = resolveExact(shortCode);
+            hotKeys.record(shortCode);
+            clickTimeSeries.record(shortCode);
+            return originalUrl;
+        }
 
+        CachedUrl url = cachedOrLoad(shortCode);
         if (url.isExpired()) {
             throw new UrlExpiredException("URL expirada");
         }
+        checkBlocked(url.originalUrl());
+        if (url.isSliding()) {
+            slidingExpiry.touch(shortCode, url);
+        }
 
-        url.setClicks(url.getClicks() + 1);
-        url.setLastAccessedAt(LocalDateTime.now());
-        urlRepository.save(url);
+        hotKeys.record(shortCode);
+        // No modo "log" o clique vai para o ClickEventLog em recordVisit, junto com os headers
+        if (!"log".equals(clickMode)) {
+            clickAggregator.record(shortCode);
+        }
+        clickTimeSeries.record(shortCode);
+        return url.originalUrl();
+    }
 
-        return url.getOriginalUrl();
+    // Chamado depois que o redirect foi resolvido: 404, 410 e bloqueios não contam como visita
+    public void recordVisit(String shortCode, String clientIp, String userAgent,
+            String referrer) {
+        uniqueVisitors.record(shortCode, clientIp, userAgent);
+        if ("log".equals(clickMode) && !clickEventLog.append(shortCode,
+                System.currentTimeMillis(), ClickEventLog.hash(referrer),
+                ClickEventLog.hash(userAgent))) {
+            // Log indisponível: o clique ainda é contado pelo caminho agregado
+            clickAggregator.record(shortCode);
+        }
     }
 
-    private String generateUniqueCode() {
-        int maxAttempts = 5;
+    // Links criados antes do domínio entrar na blocklist deixam de redirecionar
+    private String checkBlocked(String originalUrl) {
+        if (checkOnRedirect && domainBlocklist.isBlockedUrl(originalUrl)) {
+            throw new UrlBlockedException("URL bloqueada");
+        }
+        return originalUrl;
+    }
 
-        for (int attempt = 0; attempt < maxAttempts; attempt++) {
-            String code = ShortCodeGenerator.generateRandomCode();
-            if (!urlRepository.existsByShortCode(code)) {
-                return code;
-            }
+    private CachedUrl cachedOrLoad(String shortCode) {
+        // Códigos mais acessados ficam fixados em memória, fora da evicção dos caches
+        CachedUrl url = hotKeys.pinned(shortCode);
+        if (url != null) {
+            return url;
         }
-        throw new ShortCodeGenerationException(
-                "Falha ao gerar código único após " + maxAttempts + " tentativas");
+        // Misses concorrentes do mesmo código compartilham uma única consulta ao banco
+        return urlCache.get(shortCode)
+                .orElseGet(() -> loads.execute(shortCode, () -> load(shortCode), loadTimeout));
+    }
+
+    private CachedUrl load(String shortCode) {
+        ShortenedUrl url = urlStore.findByShortCode(shortCode)
+                .orElseThrow(() -> notFound(shortCode));
+
+        CachedUrl cached = CachedUrl.of(url);
+        if (!cached.isExpired()) {
+            urlCache.put(shortCode, cached);
+        }
+        return cached;
+    }
+
+    private String resolveExact(String shortCode) {
+        Optional<String> originalUrl = exactClickCounter.getObject()
+                .incrementAndResolve(shortCode, LocalDateTime.now());
+        if (originalUrl.isPresent()) {
+            return originalUrl.get();
+        }
+
+        // Caminho raro: descobrir se o código não existe ou se expirou
+        urlStore.findByShortCode(shortCode).orElseThrow(() -> notFound(shortCode));
+        throw new UrlExpiredException("URL expirada");
+    }
+
+    // Chegou ao banco e não existe: o filtro deixou passar um falso positivo
+    private UrlNotFoundException notFound(String shortCode) {
+        shortCodeFilter.recordFalsePositive();
+        return new UrlNotFoundException("Short code não encontrado: " + shortCode);
     }
 
     @Transactional(readOnly = true)
     public UrlDetailsResponse getStats(String shortCode) {
-        ShortenedUrl shortenedUrl = urlRepository.findByShortCode(shortCode).orElseThrow(
+        return statsCache.get(shortCode, this::loadStats);
+    }
+
+    private UrlDetailsResponse loadStats(String shortCode) {
+        ShortenedUrl shortenedUrl = urlStore.findByShortCode(shortCode).orElseThrow(
                 () -> new UrlNotFoundException("Url associada ao short code não encontrada"));
-        return new UrlDetailsResponse(shortenedUrl.getId(), shortenedUrl.getShortCode(),
-                shortenedUrl.getOriginalUrl(), baseUrl + shortenedUrl.getShortCode(),
-                shortenedUrl.getClicks(), shortenedUrl.getCreatedAt(),
-                shortenedUrl.getLastAccessedAt(), shortenedUrl.getExpiresAt(),
-                shortenedUrl.isExpired());
+        return toResponse(shortenedUrl);
     }
 
     @Transactional(readOnly = true)
     public Page<UrlDetailsResponse> listUrls(Pageable pageable) {
-        return urlRepository.findAll(pageable)
-                .map(url -> new UrlDetailsResponse(url.getId(), url.getShortCode(),
-                        url.getOriginalUrl(), baseUrl + url.getShortCode(), url.getClicks(),
-                        url.getCreatedAt(), url.getLastAccessedAt(), url.getExpiresAt(),
-                        url.isExpired()));
+        return urlStore.findAll(pageable).map(this::toResponse);
+    }
+
+    // Sem COUNT(*): busca um item além da página só para saber se existe a próxima
+    @Transactional(readOnly = true)
+    public CursorPage<UrlDetailsResponse> listUrls(String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        PageCursor after =
+                cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor);
+        List<ShortenedUrl> rows = urlStore.scan(after, pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            ShortenedUrl last = rows.getLast();
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(rows.stream().map(this::toResponse).toList(), nextCursor);
+    }
+
+    // Padrão: últimas 24 horas por hora. O início é alinhado à granularidade
+    public ClickSeriesResponse getClicks(String shortCode, LocalDateTime from, LocalDateTime to,
+            String granularity) {
+        ClickGranularity resolution = ClickGranularity.parse(granularity);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = resolution.truncate(from != null ? from : end.minusDays(1));
+        if (!start.isBefore(end)) {
+            throw new InvalidParameterException("Intervalo inválido: from deve ser anterior a to");
+        }
+        if (Duration.between(start, end).dividedBy(resolution.duration()) > MAX_CLICK_BUCKETS) {
+            throw new InvalidParameterException(
+                    "Intervalo excede " + MAX_CLICK_BUCKETS + " buckets nessa granularidade");
+        }
+        if (!urlStore.existsByShortCode(shortCode)) {
+            throw new UrlNotFoundException("Url associada ao short code não encontrada");
+        }
+
+        SortedMap<LocalDateTime, Long> buckets =
+                clickTimeSeries.query(shortCode, start, end, resolution);
+        long total = buckets.values().stream().mapToLong(Long::longValue).sum();
+        return new ClickSeriesResponse(shortCode, resolution, start, end, total,
+                buckets.entrySet().stream()
+                        .map(e -> new ClickSeriesResponse.Bucket(e.getKey(), e.getValue()))
+                        .toList());
+    }
+
+    // Padrão: últimos 30 dias, incluindo hoje
+    public UniqueVisitorsResponse getUniqueVisitors(String shortCode, LocalDate from,
+            LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_VISITOR_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new InvalidParameterException("Intervalo inválido: from deve ser até to");
+        }
+        if (!urlStore.existsByShortCode(shortCode)) {
+            throw new UrlNotFoundException("Url associada ao short code não encontrada");
+        }
+        return new UniqueVisitorsResponse(shortCode, start, end,
+                uniqueVisitors.estimate(shortCode, start, end));
+    }
+
+    public List<HotLinkResponse> getHotLinks(int limit) {
+        return hotKeys.hottest(limit).stream()
+                .map(hot -> new HotLinkResponse(hot.shortCode(), hot.estimatedHits(),
+                        hot.ratePerSecond(), hot.pinned()))
+                .toList();
     }
 
     @Transactional
     public void deleteUrl(String shortCode) {
-        ShortenedUrl url = urlRepository.findByShortCode(shortCode).orElseThrow(
-                () -> new UrlNotFoundException("Short code não encontrado: " + shortCode));
+        if (!urlStore.delete(shortCode)) {
+            throw new UrlNotFoundException("Short code não encontrado: " + shortCode);
+        }
+        clickTimeSeries.delete(shortCode);
+        uniqueVisitors.delete(shortCode);
+        evictAfterCommit(shortCode);
+    }
 
-        urlRepository.delete(url);
+    // Invalida já e de novo após o commit, para que uma leitura concorrente não recoloque a entrada
+    private void evictAfterCommit(String shortCode) {
+        Runnable evict = () -> {
+            urlCache.evict(shortCode);
+            statsCache.evict(shortCode);
+            hotKeys.evict(shortCode);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(evict);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.techatow.url_shortner.services;
+
+import java.time.Duration;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import com.techatow.url_shortner.utils.UrlDigest;
+
+// Migração das linhas criadas antes do digest: preenche url_digest em lotes, percorrendo por id.
+// Duplicatas antigas da mesma URL mantêm o digest só na primeira linha; as demais ficam nulas.
+// Links com política própria (ttl ou sliding) também ficam sem digest de propósito, então só
+// linhas com a expiração fixa de 7 dias de antes do digest são preenchidas.
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class UrlDigestBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(UrlDigestBackfill.class);
+
+    private static final int MAX_CONFLICTS = 10;
+
+    // Toda linha criada antes do digest expirava 7 dias depois de criada; construtor e
+    // @PrePersist liam o relógio em momentos diferentes, daí a tolerância
+    static final Duration LEGACY_TTL = Duration.ofDays(7);
+    private static final Duration LEGACY_TOLERANCE = Duration.ofMinutes(1);
+
+    private final ShortenedUrlRepository urlRepository;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public UrlDigestBackfill(ShortenedUrlRepository urlRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.url-digest.backfill.enabled:true}") boolean enabled,
+            @Value("${app.url-digest.backfill.batch-size:500}") int batchSize) {
+        this.urlRepository = urlRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        long lastId = 0;
+        long filled = 0;
+        long duplicates = 0;
+        long skipped = 0;
+        int conflicts = 0;
+        while (true) {
+            long from = lastId;
+            BatchResult result;
+            try {
+                result = transaction.execute(status -> backfillBatch(from));
+            } catch (DataIntegrityViolationException e) {
+                // A mesma URL foi encurtada durante o lote: refaz o lote, que agora a enxerga
+                if (++conflicts > MAX_CONFLICTS) {
+                    logger.warn("Backfill de url_digest interrompido após {} conflitos", conflicts);
+                    return;
+                }
+                continue;
+            } catch (DataAccessException e) {
+                logger.error("Backfill de url_digest interrompido; retoma no próximo início", e);
+                return;
+            }
+            if (result == null || result.scanned() == 0) {
+                break;
+            }
+            lastId = result.lastId();
+            filled += result.filled();
+            duplicates += result.scanned() - result.filled() - result.skipped();
+            skipped += result.skipped();
+        }
+        if (filled > 0 || duplicates > 0) {
+            logger.info("Backfill de url_digest: {} linhas preenchidas, {} duplicatas mantidas sem"
+                    + " digest, {} links com política própria ignorados", filled, duplicates,
+                    skipped);
+        }
+    }
+
+    record BatchResult(int scanned, int filled, int skipped, long lastId) {
+    }
+
+    private BatchResult backfillBatch(long afterId) {
+        List<ShortenedUrl> batch = urlRepository
+                .findByUrlDigestIsNullAndIdGreaterThanOrderByIdAsc(afterId, Limit.of(batchSize));
+        int filled = 0;
+        int skipped = 0;
+        long lastId = afterId;
+        for (ShortenedUrl url : batch) {
+            lastId = url.getId();
+            if (!isLegacy(url)) {
+                skipped++;
+                continue;
+            }
+            String digest = UrlDigest.of(url.getOriginalUrl());
+            // A consulta dispara o flush das linhas anteriores do mesmo lote
+            if (!urlRepository.existsByUrlDigest(digest)) {
+                url.setUrlDigest(digest);
+                filled++;
+            }
+        }
+        return new BatchResult(batch.size(), filled, skipped, lastId);
+    }
+
+    // Expirados ficam de fora: o digest foi liberado para um link novo da mesma URL
+    static boolean isLegacy(ShortenedUrl url) {
+        if (url.getSlidingTtlSeconds() != null || url.getExpiresAt() == null
+                || url.getCreatedAt() == null || url.isExpired()) {
+            return false;
+        }
+        Duration ttl = Duration.between(url.getCreatedAt(), url.getExpiresAt());
+        return ttl.minus(LEGACY_TTL).abs().compareTo(LEGACY_TOLERANCE) <= 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.techatow.url_shortner.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.dtos.UrlExportRow;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
+import com.techatow.url_shortner.storage.UrlStore;
+import tools.jackson.databind.json.JsonMapper;
+
+// Exportação completa dos links direto do cursor do UrlStore para a saída. Cada linha é escrita
+// e descartada antes da próxima, então o heap não cresce com o tamanho da tabela.
+@Service
+public class UrlExportService {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidParameterException("Formato de exportação inválido: " + value);
+        }
+    }
+
+    // Limites semiabertos [from, to); campos nulos não filtram
+    public record Filter(LocalDateTime createdFrom, LocalDateTime createdTo,
+            LocalDateTime expiresFrom, LocalDateTime expiresTo) {
+    }
+
+    private static final byte[] CSV_HEADER =
+            "id,shortCode,originalUrl,clicks,createdAt,lastAccessedAt,expiresAt\n"
+                    .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final UrlStore urlStore;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UrlExportService(UrlStore urlStore, JsonMapper jsonMapper,
+            PlatformTransactionManager transactionManager) {
+        this.urlStore = urlStore;
+        this.jsonMapper = jsonMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Devolve o número de linhas exportadas. A transação é necessária para o fetch size valer
+    // no PostgreSQL (sem ela o driver carrega o resultado inteiro)
+    public long export(Filter filter, Format format, OutputStream output) throws IOException {
+        OutputStream out = new BufferedOutputStream(output, 64 * 1024);
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+        }
+        Long exported;
+        try {
+            exported = readOnlyTransaction.execute(status -> {
+                try (Stream<UrlExportRow> rows = urlStore.streamForExport(
+                        filter.createdFrom(), filter.createdTo(), filter.expiresFrom(),
+                        filter.expiresTo())) {
+                    long count = 0;
+                    for (Iterator<UrlExportRow> it = rows.iterator(); it.hasNext(); count++) {
+                        write(out, it.next(), format);
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Cliente desconectou: a transação já foi desfeita e o cursor fechado
+            throw e.getCause();
+        }
+        out.flush();
+        return exported == null ? 0 : exported;
+    }
+
+    private void write(OutputStream out, UrlExportRow row, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            out.write(jsonMapper.writeValueAsBytes(row));
+            out.write(NEWLINE);
+            return;
+        }
+        StringBuilder line = new StringBuilder(128 + row.originalUrl().length());
+        line.append(row.id()).append(',').append(row.shortCode()).append(',');
+        appendCsv(line, row.originalUrl());
+        line.append(',').append(row.clicks()).append(',').append(row.createdAt()).append(',');
+        if (row.lastAccessedAt() != null) {
+            line.append(row.lastAccessedAt());
+        }
+        line.append(',');
+        if (row.expiresAt() != null) {
+            line.append(row.expiresAt());
+        }
+        line.append('\n');
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // RFC 4180: aspas só quando o valor tem separador, aspas ou quebra de linha
+    static void appendCsv(StringBuilder line, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
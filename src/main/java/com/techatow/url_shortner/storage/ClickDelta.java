@@ -0,0 +1,7 @@
+package com.techatow.url_shortner.storage;
+
+import java.time.LocalDateTime;
+
+// Cliques acumulados de um código desde o último flush e o acesso mais recente entre eles
+public record ClickDelta(String shortCode, long clicks, LocalDateTime lastAccessedAt) {
+}
@@ -0,0 +1,199 @@
+package com.techatow.url_shortner.storage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.dtos.UrlExportRow;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import com.techatow.url_shortner.utils.PageCursor;
+
+// Links em shortened_urls: leituras e inserts pelo repositório JPA, cliques e renovações em
+// UPDATEs JDBC em lote, sem carregar as entidades
+public class JpaUrlStore implements UrlStore {
+
+    public static final String INCREMENT_CLICKS_SQL = "update shortened_urls "
+            + "set clicks = clicks + ?, last_accessed_at = case when last_accessed_at is null "
+            + "or last_accessed_at < ? then ? else last_accessed_at end where short_code = ?";
+
+    static final String EXTEND_EXPIRY_SQL = "update shortened_urls set expires_at = ? "
+            + "where short_code = ? and sliding_ttl_seconds is not null and expires_at < ?";
+
+    static final String RELEASE_DIGEST_SQL = "update shortened_urls set url_digest = null "
+            + "where short_code = ? and expires_at < ?";
+
+    // Trava só as linhas do lote com SKIP LOCKED: vários nós dividem o trabalho em vez de
+    // esperar uns pelos outros
+    static final String SELECT_EXPIRED_SQL = "select id, short_code from shortened_urls "
+            + "where expires_at < ? order by expires_at limit ? for update skip locked";
+
+    static final String CREATE_ARCHIVE_SQL = "create table if not exists expired_urls ("
+            + "id bigint primary key, short_code varchar(6) not null, "
+            + "original_url varchar(2048) not null, clicks bigint not null, "
+            + "created_at timestamp, last_accessed_at timestamp, expires_at timestamp, "
+            + "archived_at timestamp not null)";
+
+    static final String ARCHIVE_SQL = "insert into expired_urls (id, short_code, original_url, "
+            + "clicks, created_at, last_accessed_at, expires_at, archived_at) "
+            + "select id, short_code, original_url, clicks, created_at, last_accessed_at, "
+            + "expires_at, ? from shortened_urls where id in (%s)";
+
+    static final String DELETE_SQL = "delete from shortened_urls where id in (%s)";
+
+    private record Expired(long id, String shortCode) {
+    }
+
+    private final ShortenedUrlRepository urlRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    private volatile boolean archiveInitialized;
+
+    public JpaUrlStore(ShortenedUrlRepository urlRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.urlRepository = urlRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        return urlRepository.findByShortCode(shortCode);
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        return urlRepository.existsByShortCode(shortCode);
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByUrlDigest(String urlDigest) {
+        return urlRepository.findByUrlDigest(urlDigest);
+    }
+
+    @Override
+    public List<ShortenedUrl> findByUrlDigestIn(Collection<String> urlDigests) {
+        return urlRepository.findByUrlDigestIn(urlDigests);
+    }
+
+    // Flush imediato para que a violação do índice único apareça na chamada
+    @Override
+    public ShortenedUrl insert(ShortenedUrl url) {
+        return urlRepository.saveAndFlush(url);
+    }
+
+    @Override
+    public void insertAll(List<ShortenedUrl> urls) {
+        urlRepository.saveAll(urls);
+        urlRepository.flush();
+    }
+
+    @Override
+    public void incrementClicks(List<ClickDelta> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (ClickDelta delta : deltas) {
+            Timestamp lastAccessedAt = Timestamp.valueOf(delta.lastAccessedAt());
+            rows.add(new Object[] {delta.clicks(), lastAccessedAt, lastAccessedAt,
+                    delta.shortCode()});
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_CLICKS_SQL, rows);
+    }
+
+    @Override
+    public void extendExpiry(Map<String, LocalDateTime> expiresAt) {
+        List<Object[]> rows = new ArrayList<>(expiresAt.size());
+        expiresAt.forEach((shortCode, extended) -> {
+            Timestamp timestamp = Timestamp.valueOf(extended);
+            rows.add(new Object[] {timestamp, shortCode, timestamp});
+        });
+        jdbcTemplate.batchUpdate(EXTEND_EXPIRY_SQL, rows);
+    }
+
+    // Na transação de quem chama, junto com o insert que reaproveita o digest
+    @Override
+    public void releaseExpiredDigests(Collection<String> shortCodes, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(shortCodes.size());
+        for (String shortCode : shortCodes) {
+            rows.add(new Object[] {shortCode, timestamp});
+        }
+        jdbcTemplate.batchUpdate(RELEASE_DIGEST_SQL, rows);
+    }
+
+    @Override
+    public boolean delete(String shortCode) {
+        Optional<ShortenedUrl> url = urlRepository.findByShortCode(shortCode);
+        url.ifPresent(urlRepository::delete);
+        return url.isPresent();
+    }
+
+    // Transação própria por lote, curta para o redirect nunca ficar atrás de um delete longo
+    @Override
+    public List<String> deleteExpired(LocalDateTime cutoff, int limit, boolean archive) {
+        if (archive && !archiveInitialized) {
+            jdbcTemplate.execute(CREATE_ARCHIVE_SQL);
+            archiveInitialized = true;
+        }
+        return transaction.execute(status -> {
+            List<Expired> rows = jdbcTemplate.query(SELECT_EXPIRED_SQL,
+                    (row, rowNum) -> new Expired(row.getLong(1), row.getString(2)),
+                    Timestamp.valueOf(cutoff), limit);
+            if (rows.isEmpty()) {
+                return List.of();
+            }
+            String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+            List<Object> ids = new ArrayList<>(rows.size() + 1);
+            rows.forEach(row -> ids.add(row.id()));
+            if (archive) {
+                List<Object> args = new ArrayList<>(ids.size() + 1);
+                args.add(Timestamp.valueOf(LocalDateTime.now()));
+                args.addAll(ids);
+                jdbcTemplate.update(String.format(ARCHIVE_SQL, placeholders), args.toArray());
+            }
+            jdbcTemplate.update(String.format(DELETE_SQL, placeholders), ids.toArray());
+            return rows.stream().map(Expired::shortCode).toList();
+        });
+    }
+
+    @Override
+    public long count() {
+        return urlRepository.count();
+    }
+
+    // Exige transação aberta: o cursor JDBC fica aberto enquanto a stream é consumida
+    @Override
+    public Stream<String> streamAllShortCodes() {
+        return urlRepository.streamAllShortCodes();
+    }
+
+    @Override
+    public List<ShortenedUrl> scan(PageCursor after, int limit) {
+        if (after == null) {
+            return urlRepository.findAllByOrderByCreatedAtDescIdDesc(Limit.of(limit));
+        }
+        return urlRepository.findPageBefore(after.createdAt(), after.id(), Limit.of(limit));
+    }
+
+    @Override
+    public Page<ShortenedUrl> findAll(Pageable pageable) {
+        return urlRepository.findAll(pageable);
+    }
+
+    @Override
+    public Stream<UrlExportRow> streamForExport(LocalDateTime createdFrom,
+            LocalDateTime createdTo, LocalDateTime expiresFrom, LocalDateTime expiresTo) {
+        return urlRepository.streamForExport(createdFrom, createdTo, expiresFrom, expiresTo);
+    }
+}
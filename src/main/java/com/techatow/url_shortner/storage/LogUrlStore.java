@@ -0,0 +1,756 @@
+package com.techatow.url_shortner.storage;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import com.techatow.url_shortner.dtos.UrlExportRow;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
+import com.techatow.url_shortner.utils.PageCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Motor embarcado para nós de borda e instalações sem Postgres. Toda escrita vira um registro
+// anexado ao log (urls-<geração>.wal) antes de mudar os índices em memória, que atendem todas
+// as leituras sem tocar o disco. Registro: [tamanho][crc32][tipo][n][n itens]; uma operação em
+// lote ocupa um único registro, então depois de uma queda ela vale inteira ou não vale.
+//
+// Na abertura o log é relido do início e o final truncado ou corrompido é cortado. A
+// compactação regrava só os links vivos numa geração nova e a promove com um rename atômico;
+// uma compactação interrompida deixa apenas um .tmp, descartado na próxima abertura.
+//
+// Um escritor por vez (monitor da instância); leituras não travam. O write() chega ao page
+// cache do sistema a cada operação, então uma queda do processo não perde nada; o fsync roda a
+// cada sync-interval, que limita o que uma queda da máquina pode levar.
+public class LogUrlStore implements UrlStore, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LogUrlStore.class);
+
+    static final String PREFIX = "urls-";
+    static final String SUFFIX = ".wal";
+    static final String TMP_SUFFIX = ".tmp";
+    static final int HEADER_SIZE = 8;
+    private static final int SNAPSHOT_CHUNK = 1_000;
+    private static final int READ_BUFFER = 1 << 20;
+
+    static final byte PUT = 1;
+    static final byte CLICKS = 2;
+    static final byte EXPIRY = 3;
+    static final byte DELETE = 4;
+
+    private static final Comparator<PageCursor> NEWEST_FIRST = Comparator
+            .comparing(PageCursor::createdAt).thenComparingLong(PageCursor::id).reversed();
+
+    private static final Sort CREATED_DESC = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    // Imutável: cada alteração troca a linha inteira no índice
+    record Row(long id, String shortCode, String originalUrl, String urlDigest, long clicks,
+            LocalDateTime createdAt, LocalDateTime lastAccessedAt, LocalDateTime expiresAt,
+            Long slidingTtlSeconds) {
+
+        static Row of(ShortenedUrl url) {
+            return new Row(url.getId(), url.getShortCode(), url.getOriginalUrl(),
+                    url.getUrlDigest(), url.getClicks(), url.getCreatedAt(),
+                    url.getLastAccessedAt(), url.getExpiresAt(), url.getSlidingTtlSeconds());
+        }
+
+        ShortenedUrl toEntity() {
+            ShortenedUrl url = new ShortenedUrl();
+            url.setId(id);
+            url.setShortCode(shortCode);
+            url.setOriginalUrl(originalUrl);
+            url.setUrlDigest(urlDigest);
+            url.setClicks(clicks);
+            url.setCreatedAt(createdAt);
+            url.setLastAccessedAt(lastAccessedAt);
+            url.setExpiresAt(expiresAt);
+            url.setSlidingTtlSeconds(slidingTtlSeconds);
+            return url;
+        }
+
+        PageCursor position() {
+            return new PageCursor(createdAt, id);
+        }
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final Path directory;
+    private final long compactionMinBytes;
+    private final double compactionRatio;
+    private final Map<String, Row> byCode = new ConcurrentHashMap<>();
+    private final Map<String, String> byDigest = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<PageCursor, String> byCreated =
+            new ConcurrentSkipListMap<>(NEWEST_FIRST);
+    private final Counter compactions;
+
+    // Alterados só com o monitor da instância
+    private long lastId;
+    private long generation;
+    private volatile FileChannel wal;
+    private volatile long walBytes;
+    private long compactedBytes;
+
+    private LogUrlStore(Path directory, long compactionMinBytes, double compactionRatio,
+            MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.compactionMinBytes = compactionMinBytes;
+        this.compactionRatio = compactionRatio;
+        this.compactions = meterRegistry == null ? null
+                : Counter.builder("storage.embedded.compactions").register(meterRegistry);
+        if (meterRegistry != null) {
+            Gauge.builder("storage.embedded.links", byCode, Map::size).register(meterRegistry);
+            Gauge.builder("storage.embedded.wal.bytes", this, store -> store.walBytes)
+                    .register(meterRegistry);
+        }
+    }
+
+    // Compacta quando o log passa de compactionMinBytes e de compactionRatio vezes o tamanho
+    // que tinha logo após a última compactação
+    public static LogUrlStore open(Path directory, long compactionMinBytes,
+            double compactionRatio, MeterRegistry meterRegistry) throws IOException {
+        Files.createDirectories(directory);
+        LogUrlStore store =
+                new LogUrlStore(directory, compactionMinBytes, compactionRatio, meterRegistry);
+        store.recover();
+        return store;
+    }
+
+    // -- Leituras --
+
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        return Optional.ofNullable(byCode.get(shortCode)).map(Row::toEntity);
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        return byCode.containsKey(shortCode);
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByUrlDigest(String urlDigest) {
+        String shortCode = byDigest.get(urlDigest);
+        return shortCode == null ? Optional.empty() : findByShortCode(shortCode);
+    }
+
+    @Override
+    public List<ShortenedUrl> findByUrlDigestIn(Collection<String> urlDigests) {
+        List<ShortenedUrl> found = new ArrayList<>();
+        for (String urlDigest : urlDigests) {
+            findByUrlDigest(urlDigest).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return byCode.size();
+    }
+
+    @Override
+    public Stream<String> streamAllShortCodes() {
+        return byCode.keySet().stream();
+    }
+
+    @Override
+    public List<ShortenedUrl> scan(PageCursor after, int limit) {
+        NavigableMap<PageCursor, String> view =
+                after == null ? byCreated : byCreated.tailMap(after, false);
+        List<ShortenedUrl> page = new ArrayList<>(Math.min(limit, 100));
+        for (String shortCode : view.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            Row row = byCode.get(shortCode);
+            if (row != null) {
+                page.add(row.toEntity());
+            }
+        }
+        return page;
+    }
+
+    // Cópia das linhas no momento da chamada: escritas durante a exportação não aparecem
+    @Override
+    public Stream<UrlExportRow> streamForExport(LocalDateTime createdFrom,
+            LocalDateTime createdTo, LocalDateTime expiresFrom, LocalDateTime expiresTo) {
+        return byCode.values().stream()
+                .filter(row -> within(row.createdAt(), createdFrom, createdTo)
+                        && within(row.expiresAt(), expiresFrom, expiresTo))
+                .sorted(Comparator.comparingLong(Row::id)).toList().stream()
+                .map(row -> new UrlExportRow(row.id(), row.shortCode(), row.originalUrl(),
+                        row.clicks(), row.createdAt(), row.lastAccessedAt(), row.expiresAt()));
+    }
+
+    // Como no SQL: com limite definido, valor nulo não passa no filtro
+    private static boolean within(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+        return (from == null || value != null && !value.isBefore(from))
+                && (to == null || value != null && value.isBefore(to));
+    }
+
+    // A ordenação padrão da listagem usa o índice por createdAt; as demais ordenam em memória
+    @Override
+    public Page<ShortenedUrl> findAll(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        Stream<Row> rows = sort.isUnsorted() || sort.equals(CREATED_DESC)
+                ? byCreated.values().stream().map(byCode::get).filter(Objects::nonNull)
+                : byCode.values().stream().sorted(comparator(sort));
+        if (pageable.isPaged()) {
+            rows = rows.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return new PageImpl<>(rows.map(Row::toEntity).toList(), pageable, byCode.size());
+    }
+
+    // -- Escritas --
+
+    @Override
+    public ShortenedUrl insert(ShortenedUrl url) {
+        insertAll(List.of(url));
+        return url;
+    }
+
+    @Override
+    public synchronized void insertAll(List<ShortenedUrl> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        List<Row> rows = prepare(urls);
+        append(encode(PUT, rows.size(), out -> {
+            for (Row row : rows) {
+                writeRow(out, row);
+            }
+        }));
+        rows.forEach(this::index);
+    }
+
+    @Override
+    public synchronized void incrementClicks(List<ClickDelta> deltas) {
+        List<ClickDelta> known =
+                deltas.stream().filter(delta -> byCode.containsKey(delta.shortCode())).toList();
+        if (known.isEmpty()) {
+            return;
+        }
+        append(encode(CLICKS, known.size(), out -> {
+            for (ClickDelta delta : known) {
+                out.writeUTF(delta.shortCode());
+                out.writeLong(delta.clicks());
+                writeTime(out, delta.lastAccessedAt());
+            }
+        }));
+        known.forEach(this::applyClicks);
+    }
+
+    @Override
+    public synchronized void extendExpiry(Map<String, LocalDateTime> expiresAt) {
+        Map<String, LocalDateTime> extended = new LinkedHashMap<>();
+        expiresAt.forEach((shortCode, candidate) -> {
+            Row row = byCode.get(shortCode);
+            if (row != null && row.slidingTtlSeconds() != null && row.expiresAt() != null
+                    && row.expiresAt().isBefore(candidate)) {
+                extended.put(shortCode, candidate);
+            }
+        });
+        if (extended.isEmpty()) {
+            return;
+        }
+        append(encode(EXPIRY, extended.size(), out -> {
+            for (Map.Entry<String, LocalDateTime> entry : extended.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeTime(out, entry.getValue());
+            }
+        }));
+        extended.forEach(this::applyExpiry);
+    }
+
+    // Regrava a linha sem digest: na releitura um PUT do mesmo código substitui o anterior
+    @Override
+    public synchronized void releaseExpiredDigests(Collection<String> shortCodes,
+            LocalDateTime now) {
+        List<Row> released = new ArrayList<>();
+        for (String shortCode : shortCodes) {
+            Row row = byCode.get(shortCode);
+            if (row != null && row.urlDigest() != null && row.expiresAt() != null
+                    && row.expiresAt().isBefore(now)) {
+                released.add(new Row(row.id(), shortCode, row.originalUrl(), null, row.clicks(),
+                        row.createdAt(), row.lastAccessedAt(), row.expiresAt(),
+                        row.slidingTtlSeconds()));
+            }
+        }
+        if (released.isEmpty()) {
+            return;
+        }
+        append(encodeRows(released));
+        released.forEach(this::index);
+    }
+
+    @Override
+    public synchronized boolean delete(String shortCode) {
+        Row row = byCode.get(shortCode);
+        if (row == null) {
+            return false;
+        }
+        append(encode(DELETE, 1, out -> out.writeUTF(shortCode)));
+        unindex(row);
+        return true;
+    }
+
+    // Sem índice por expiração: varre o mapa, o que cabe no intervalo do ExpiryReaper. Os
+    // removidos vão num só registro DELETE
+    @Override
+    public synchronized List<String> deleteExpired(LocalDateTime cutoff, int limit,
+            boolean archive) {
+        if (archive) {
+            throw new IllegalStateException("app.expiry.mode=archive exige app.storage.type=jpa");
+        }
+        List<Row> expired = byCode.values().stream()
+                .filter(row -> row.expiresAt() != null && row.expiresAt().isBefore(cutoff))
+                .sorted(Comparator.comparing(Row::expiresAt)).limit(limit).toList();
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+        append(encode(DELETE, expired.size(), out -> {
+            for (Row row : expired) {
+                out.writeUTF(row.shortCode());
+            }
+        }));
+        expired.forEach(this::unindex);
+        return expired.stream().map(Row::shortCode).toList();
+    }
+
+    // Mesmas garantias dos índices únicos do banco, conferidas antes de qualquer escrita
+    private List<Row> prepare(List<ShortenedUrl> urls) {
+        Set<String> codes = new HashSet<>();
+        Set<String> digests = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        long nextId = lastId;
+        List<Row> rows = new ArrayList<>(urls.size());
+        for (ShortenedUrl url : urls) {
+            if (byCode.containsKey(url.getShortCode()) || !codes.add(url.getShortCode())) {
+                throw new DataIntegrityViolationException(
+                        "Short code já existe: " + url.getShortCode());
+            }
+            String urlDigest = url.getUrlDigest();
+            if (urlDigest != null
+                    && (byDigest.containsKey(urlDigest) || !digests.add(urlDigest))) {
+                throw new DataIntegrityViolationException("Digest já existe: " + urlDigest);
+            }
+        }
+        for (ShortenedUrl url : urls) {
+            url.setId(++nextId);
+            if (url.getCreatedAt() == null) {
+                url.setCreatedAt(now);
+            }
+            rows.add(Row.of(url));
+        }
+        return rows;
+    }
+
+    // -- Manutenção --
+
+    @Scheduled(fixedDelayString = "${app.storage.embedded.sync-interval:1s}")
+    public void sync() {
+        try {
+            wal.force(false);
+        } catch (ClosedChannelException e) {
+            // Trocado pela compactação, que já sincronizou a geração nova
+        } catch (IOException e) {
+            logger.warn("Falha ao sincronizar o log do armazenamento: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.embedded.compaction-interval:1m}")
+    public synchronized boolean compactIfNeeded() {
+        if (walBytes < compactionMinBytes || walBytes < compactedBytes * compactionRatio) {
+            return false;
+        }
+        try {
+            compact();
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao compactar o log do armazenamento: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Escritores esperam a regravação; leituras continuam servidas pelos índices
+    public synchronized void compact() {
+        long started = System.nanoTime();
+        long next = generation + 1;
+        Path snapshot = directory.resolve(fileName(next) + TMP_SUFFIX);
+        try {
+            long written = 0;
+            try (FileChannel out = FileChannel.open(snapshot, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                List<Row> chunk = new ArrayList<>(SNAPSHOT_CHUNK);
+                for (Row row : byCode.values()) {
+                    chunk.add(row);
+                    if (chunk.size() == SNAPSHOT_CHUNK) {
+                        written += writeRecord(out, encodeRows(chunk));
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    written += writeRecord(out, encodeRows(chunk));
+                }
+                out.force(true);
+            }
+            Files.move(snapshot, file(next), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+
+            FileChannel previous = wal;
+            wal = FileChannel.open(file(next), READ, WRITE);
+            wal.position(written);
+            previous.close();
+            Files.deleteIfExists(file(generation));
+            long before = walBytes;
+            generation = next;
+            walBytes = written;
+            compactedBytes = written;
+            if (compactions != null) {
+                compactions.increment();
+            }
+            logger.info("Log do armazenamento compactado de {} para {} bytes em {} ms", before,
+                    written, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(snapshot);
+            } catch (IOException ignored) {
+                // A próxima abertura remove o .tmp
+            }
+            throw new DataAccessResourceFailureException("Falha ao compactar " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        wal.force(true);
+        wal.close();
+    }
+
+    // -- Log --
+
+    private void append(byte[] body) {
+        long start = walBytes;
+        try {
+            walBytes = start + writeRecord(wal, body);
+        } catch (IOException e) {
+            // Remove o registro parcial para que as próximas escritas não fiquem atrás dele
+            try {
+                wal.truncate(start);
+                wal.position(start);
+            } catch (IOException ignored) {
+                // A recuperação corta o log no registro inválido
+            }
+            throw new DataAccessResourceFailureException("Falha ao gravar em " + directory, e);
+        }
+    }
+
+    private static long writeRecord(FileChannel channel, byte[] body) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        buffer.putInt(body.length).putInt((int) crc.getValue()).put(body).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return buffer.limit();
+    }
+
+    private void recover() throws IOException {
+        long started = System.nanoTime();
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TMP_SUFFIX)) {
+                    // Compactação interrompida: a geração anterior continua valendo
+                    Files.delete(file);
+                } else if (name.endsWith(SUFFIX) && parseGeneration(name) > 0) {
+                    generations.add(parseGeneration(name));
+                }
+            }
+        }
+        generation = generations.stream().mapToLong(Long::longValue).max().orElse(1);
+        for (long older : generations) {
+            // Queda entre o rename da compactação e a remoção da geração anterior
+            if (older != generation) {
+                Files.deleteIfExists(file(older));
+            }
+        }
+
+        Path file = file(generation);
+        wal = FileChannel.open(file, CREATE, READ, WRITE);
+        long size = wal.size();
+        long valid = replay(wal, size);
+        if (valid < size) {
+            logger.warn("Log {} inválido a partir do byte {}; descartando {} bytes", file, valid,
+                    size - valid);
+            wal.truncate(valid);
+            wal.force(true);
+        }
+        wal.position(valid);
+        walBytes = valid;
+        compactedBytes = valid;
+        logger.info("Armazenamento embarcado aberto com {} links ({} bytes de log) em {} ms",
+                byCode.size(), valid, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    // Devolve o fim do último registro íntegro
+    private long replay(FileChannel channel, long size) throws IOException {
+        // O stream não é fechado: fecharia o canal usado para as escritas
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER));
+        CRC32 crc = new CRC32();
+        long offset = 0;
+        while (size - offset >= HEADER_SIZE) {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > size - offset - HEADER_SIZE) {
+                break;
+            }
+            byte[] body = new byte[length];
+            in.readFully(body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            apply(body);
+            offset += HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private void apply(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            switch (type) {
+                case PUT -> {
+                    Row row = readRow(in);
+                    lastId = Math.max(lastId, row.id());
+                    index(row);
+                }
+                case CLICKS -> applyClicks(
+                        new ClickDelta(in.readUTF(), in.readLong(), readTime(in)));
+                case EXPIRY -> applyExpiry(in.readUTF(), readTime(in));
+                case DELETE -> {
+                    Row row = byCode.get(in.readUTF());
+                    if (row != null) {
+                        unindex(row);
+                    }
+                }
+                default -> throw new IOException("Tipo de registro desconhecido: " + type);
+            }
+        }
+    }
+
+    // -- Índices --
+
+    private void index(Row row) {
+        Row previous = byCode.put(row.shortCode(), row);
+        if (previous != null) {
+            removeSecondary(previous);
+        }
+        if (row.urlDigest() != null) {
+            byDigest.put(row.urlDigest(), row.shortCode());
+        }
+        byCreated.put(row.position(), row.shortCode());
+        lastId = Math.max(lastId, row.id());
+    }
+
+    private void unindex(Row row) {
+        byCode.remove(row.shortCode(), row);
+        removeSecondary(row);
+    }
+
+    private void removeSecondary(Row row) {
+        if (row.urlDigest() != null) {
+            byDigest.remove(row.urlDigest(), row.shortCode());
+        }
+        byCreated.remove(row.position(), row.shortCode());
+    }
+
+    private void applyClicks(ClickDelta delta) {
+        byCode.computeIfPresent(delta.shortCode(), (shortCode, row) -> {
+            LocalDateTime lastAccessedAt = row.lastAccessedAt() == null
+                    || row.lastAccessedAt().isBefore(delta.lastAccessedAt())
+                            ? delta.lastAccessedAt()
+                            : row.lastAccessedAt();
+            return new Row(row.id(), shortCode, row.originalUrl(), row.urlDigest(),
+                    row.clicks() + delta.clicks(), row.createdAt(), lastAccessedAt,
+                    row.expiresAt(), row.slidingTtlSeconds());
+        });
+    }
+
+    private void applyExpiry(String shortCode, LocalDateTime expiresAt) {
+        byCode.computeIfPresent(shortCode,
+                (code, row) -> new Row(row.id(), code, row.originalUrl(), row.urlDigest(),
+                        row.clicks(), row.createdAt(), row.lastAccessedAt(), expiresAt,
+                        row.slidingTtlSeconds()));
+    }
+
+    private static Comparator<Row> comparator(Sort sort) {
+        Comparator<Row> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Row> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparingLong(Row::id);
+                case "shortCode" -> Comparator.comparing(Row::shortCode);
+                case "originalUrl" -> Comparator.comparing(Row::originalUrl);
+                case "clicks" -> Comparator.comparingLong(Row::clicks);
+                case "createdAt" -> Comparator.comparing(Row::createdAt);
+                case "lastAccessedAt" -> Comparator.comparing(Row::lastAccessedAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "expiresAt" -> Comparator.comparing(Row::expiresAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> throw new InvalidParameterException(
+                        "Ordenação não suportada: " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    // -- Codificação --
+
+    private static byte[] encode(byte type, int count, Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeInt(count);
+            body.write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao codificar registro", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeRows(List<Row> rows) {
+        return encode(PUT, rows.size(), out -> {
+            for (Row row : rows) {
+                writeRow(out, row);
+            }
+        });
+    }
+
+    private static void writeRow(DataOutputStream out, Row row) throws IOException {
+        out.writeLong(row.id());
+        out.writeUTF(row.shortCode());
+        out.writeUTF(row.originalUrl());
+        out.writeBoolean(row.urlDigest() != null);
+        if (row.urlDigest() != null) {
+            out.writeUTF(row.urlDigest());
+        }
+        out.writeLong(row.clicks());
+        writeTime(out, row.createdAt());
+        writeTime(out, row.lastAccessedAt());
+        writeTime(out, row.expiresAt());
+        out.writeLong(row.slidingTtlSeconds() == null ? -1 : row.slidingTtlSeconds());
+    }
+
+    private static Row readRow(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String shortCode = in.readUTF();
+        String originalUrl = in.readUTF();
+        String urlDigest = in.readBoolean() ? in.readUTF() : null;
+        long clicks = in.readLong();
+        LocalDateTime createdAt = readTime(in);
+        LocalDateTime lastAccessedAt = readTime(in);
+        LocalDateTime expiresAt = readTime(in);
+        long slidingTtlSeconds = in.readLong();
+        return new Row(id, shortCode, originalUrl, urlDigest, clicks, createdAt, lastAccessedAt,
+                expiresAt, slidingTtlSeconds < 0 ? null : slidingTtlSeconds);
+    }
+
+    // LocalDateTime sem fuso: o offset UTC serve só para representá-lo como número
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        if (time == null) {
+            out.writeLong(Long.MIN_VALUE);
+            return;
+        }
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        return seconds == Long.MIN_VALUE ? null
+                : LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+
+    // -- Arquivos --
+
+    private Path file(long generation) {
+        return directory.resolve(fileName(generation));
+    }
+
+    private static String fileName(long generation) {
+        return String.format("%s%020d%s", PREFIX, generation, SUFFIX);
+    }
+
+    private static long parseGeneration(String name) {
+        try {
+            return Long.parseLong(
+                    name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Torna o rename durável; nem todo sistema permite abrir o diretório
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Sem fsync do diretório {}: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.techatow.url_shortner.storage;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+// Gerenciador do armazenamento embarcado, que roda sem DataSource. Cada escrita do LogUrlStore
+// já é um único registro atômico no log; @Transactional e TransactionTemplate seguem funcionando,
+// só sem nada a confirmar ou desfazer.
+public class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.techatow.url_shortner.storage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import com.techatow.url_shortner.dtos.UrlExportRow;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.utils.PageCursor;
+
+// Armazenamento dos links usado pelos serviços. JpaUrlStore grava em shortened_urls pelo JPA;
+// LogUrlStore é o motor embarcado, com log de escrita em disco e índice em memória
+// (app.storage.type). Toda escrita passa por estes métodos, nunca por alterações nas entidades
+// devolvidas, que no motor embarcado são cópias.
+public interface UrlStore {
+
+    Optional<ShortenedUrl> findByShortCode(String shortCode);
+
+    boolean existsByShortCode(String shortCode);
+
+    Optional<ShortenedUrl> findByUrlDigest(String urlDigest);
+
+    List<ShortenedUrl> findByUrlDigestIn(Collection<String> urlDigests);
+
+    // Preenche id e createdAt. Short code ou digest repetido lança
+    // DataIntegrityViolationException, como o índice único do banco
+    ShortenedUrl insert(ShortenedUrl url);
+
+    // Tudo ou nada: um conflito descarta o lote inteiro
+    void insertAll(List<ShortenedUrl> urls);
+
+    // Soma os cliques e só avança lastAccessedAt; códigos inexistentes são ignorados
+    void incrementClicks(List<ClickDelta> deltas);
+
+    // Só renova links deslizantes e nunca encurta a expiração atual
+    void extendExpiry(Map<String, LocalDateTime> expiresAt);
+
+    // Tira o digest de links já expirados em now, para que a mesma URL ganhe um link novo sem
+    // violar o índice único; links ainda válidos (renovados no meio do caminho) ficam intactos
+    void releaseExpiredDigests(Collection<String> shortCodes, LocalDateTime now);
+
+    boolean delete(String shortCode);
+
+    // Um lote do ExpiryReaper: remove até limit links expirados antes de cutoff e devolve os
+    // códigos removidos. Com archive as linhas são copiadas antes para expired_urls
+    List<String> deleteExpired(LocalDateTime cutoff, int limit, boolean archive);
+
+    long count();
+
+    // Fechar a stream libera os recursos da varredura
+    Stream<String> streamAllShortCodes();
+
+    // Mais recentes primeiro (createdAt desc, id desc), depois do cursor quando não nulo
+    List<ShortenedUrl> scan(PageCursor after, int limit);
+
+    Page<ShortenedUrl> findAll(Pageable pageable);
+
+    // Ordem de id, intervalos semiabertos [from, to) e filtro nulo não restringe. Como
+    // streamAllShortCodes, exige transação aberta no JpaUrlStore
+    Stream<UrlExportRow> streamForExport(LocalDateTime createdFrom, LocalDateTime createdTo,
+            LocalDateTime expiresFrom, LocalDateTime expiresTo);
+}
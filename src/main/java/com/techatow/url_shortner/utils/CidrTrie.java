@@ -0,0 +1,95 @@
+package com.techatow.url_shortner.utils;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+
+// Conjunto de faixas CIDR em árvores binárias (uma para IPv4, outra para IPv6). A consulta
+// percorre os bits do endereço até achar uma faixa ou um ramo vazio: no máximo 32 ou 128 passos,
+// sem alocação.
+public final class CidrTrie {
+
+    private static final class Node {
+        Node zero;
+        Node one;
+        boolean terminal;
+    }
+
+    private final Node ipv4 = new Node();
+    private final Node ipv6 = new Node();
+
+    private CidrTrie() {
+    }
+
+    public static CidrTrie of(Collection<String> cidrs) {
+        CidrTrie trie = new CidrTrie();
+        cidrs.forEach(trie::add);
+        return trie;
+    }
+
+    public boolean contains(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        Node node = bytes.length == 4 ? ipv4 : ipv6;
+        int bits = bytes.length * 8;
+        for (int bit = 0; bit < bits; bit++) {
+            if (node.terminal) {
+                return true;
+            }
+            node = bitAt(bytes, bit) ? node.one : node.zero;
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.terminal;
+    }
+
+    private void add(String cidr) {
+        String value = cidr.trim();
+        int slash = value.indexOf('/');
+        String literal = slash < 0 ? value : value.substring(0, slash);
+        byte[] bytes = parseLiteral(literal, cidr);
+        int maxBits = bytes.length * 8;
+        int prefix;
+        try {
+            prefix = slash < 0 ? maxBits : Integer.parseInt(value.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Faixa CIDR inválida: " + cidr);
+        }
+        if (prefix < 0 || prefix > maxBits) {
+            throw new IllegalArgumentException("Prefixo fora do intervalo: " + cidr);
+        }
+
+        Node node = bytes.length == 4 ? ipv4 : ipv6;
+        for (int bit = 0; bit < prefix; bit++) {
+            if (bitAt(bytes, bit)) {
+                node = node.one != null ? node.one : (node.one = new Node());
+            } else {
+                node = node.zero != null ? node.zero : (node.zero = new Node());
+            }
+        }
+        node.terminal = true;
+    }
+
+    // Aceita só literais: InetAddress.getByName com um nome faria uma consulta DNS
+    private static byte[] parseLiteral(String literal, String cidr) {
+        boolean ipv6Literal = literal.indexOf(':') >= 0;
+        if (!ipv6Literal && !literal.matches("\\d{1,3}(\\.\\d{1,3}){3}")) {
+            throw new IllegalArgumentException("Faixa CIDR inválida: " + cidr);
+        }
+        try {
+            InetAddress address = InetAddress.getByName(literal);
+            // IPv4 mapeado em IPv6 (::ffff:a.b.c.d) vira Inet4Address e mudaria o prefixo
+            if (ipv6Literal && address instanceof Inet4Address) {
+                throw new IllegalArgumentException("Use a faixa IPv4 equivalente: " + cidr);
+            }
+            return address.getAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Faixa CIDR inválida: " + cidr);
+        }
+    }
+
+    private static boolean bitAt(byte[] bytes, int bit) {
+        return (bytes[bit >>> 3] & (0x80 >>> (bit & 7))) != 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.techatow.url_shortner.utils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Relógio em epoch millis atualizado por uma thread daemon a cada RESOLUTION_MILLIS. O redirect
+// compara expirações com uma leitura volátil em vez de montar um LocalDateTime por request; o
+// custo é servir um link até RESOLUTION_MILLIS depois de expirar.
+public final class CoarseClock {
+
+    public static final long RESOLUTION_MILLIS = 10;
+
+    private static volatile long millis = System.currentTimeMillis();
+
+    static {
+        Thread.ofPlatform().daemon().name("coarse-clock").start(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(RESOLUTION_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                millis = System.currentTimeMillis();
+            }
+        });
+    }
+
+    private CoarseClock() {
+    }
+
+    public static long millis() {
+        return millis;
+    }
+
+    // Mesmo fuso usado ao gravar createdAt/expiresAt (LocalDateTime.now())
+    public static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,82 @@
+package com.techatow.url_shortner.utils;
+
+// Count-min sketch com atualização conservadora: só incrementa as linhas que estão no mínimo,
+// o que reduz a superestimação. Não é thread-safe; pensado para um único escritor.
+public class CountMinSketch {
+
+    private final long[] counts;
+    private final int widthMask;
+    private final int depth;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Largura e profundidade devem ser positivas");
+        }
+        int roundedWidth = Integer.highestOneBit(width - 1) << 1;
+        this.widthMask = Math.max(1, roundedWidth) - 1;
+        this.depth = depth;
+        this.counts = new long[(widthMask + 1) * depth];
+    }
+
+    // Registra uma ocorrência e devolve a nova estimativa
+    public long add(CharSequence key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[index(row, h1, h2)]);
+        }
+        long updated = min + 1;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, h1, h2);
+            if (counts[index] < updated) {
+                counts[index] = updated;
+            }
+        }
+        return updated;
+    }
+
+    public long estimate(CharSequence key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[index(row, h1, h2)]);
+        }
+        return min;
+    }
+
+    // Envelhecimento: divide os contadores por dois para que a estimativa siga o tráfego atual
+    public void halve() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] >>>= 1;
+        }
+    }
+
+    public long memoryBytes() {
+        return (long) counts.length * Long.BYTES;
+    }
+
+    private int index(int row, long h1, long h2) {
+        return row * (widthMask + 1) + (int) ((h1 + row * h2) & widthMask);
+    }
+
+    private static long hash(CharSequence value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
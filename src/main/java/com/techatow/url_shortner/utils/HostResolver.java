@@ -0,0 +1,14 @@
+package com.techatow.url_shortner.utils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+@FunctionalInterface
+public interface HostResolver {
+
+    // Todos os endereços do host (A e AAAA), não só o primeiro
+    HostResolver SYSTEM = host -> List.of(InetAddress.getAllByName(host));
+
+    List<InetAddress> resolve(String host) throws UnknownHostException;
+}
@@ -0,0 +1,180 @@
+package com.techatow.url_shortner.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// HyperLogLog thread-safe: 2^precision registradores de 6 bits, dez por long, atualizados por CAS
+// sem alocação. Dois sketches de mesma precisão se unem pelo máximo de cada registrador, então
+// sketches de nós ou dias diferentes se combinam sem contar o mesmo visitante duas vezes.
+//
+// Serialização: versão, precisão e, conforme o que for menor, os registradores não zerados como
+// pares (índice, valor) ou o array denso empacotado.
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final int BITS = 6;
+    private static final int PER_WORD = 10;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final byte VERSION = 1;
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+
+    private final int precision;
+    private final int registerCount;
+    private final AtomicLongArray words;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precisão fora do intervalo: " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.words = new AtomicLongArray((registerCount + PER_WORD - 1) / PER_WORD);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // O bit sentinela limita o valor a 64 - precision + 1, que cabe em 6 bits
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        raise(index, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Precisões diferentes: " + other.precision
+                    + " e " + precision);
+        }
+        for (int i = 0; i < registerCount; i++) {
+            int value = other.register(i);
+            if (value > 0) {
+                raise(i, value);
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < registerCount; i++) {
+            int value = register(i);
+            sum += 1.0 / (1L << value);
+            if (value == 0) {
+                zeros++;
+            }
+        }
+        double m = registerCount;
+        double estimate = alpha(registerCount) * m * m / sum;
+        // Poucos elementos: contagem linear pelos registradores vazios é mais precisa
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log(m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < words.length(); i++) {
+            if (words.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (int i = 0; i < registerCount; i++) {
+            if (register(i) != 0) {
+                nonZero++;
+            }
+        }
+        int sparseSize = 5 + nonZero * 3;
+        int denseSize = 3 + words.length() * Long.BYTES;
+        if (sparseSize < denseSize) {
+            ByteBuffer buffer = ByteBuffer.allocate(sparseSize)
+                    .put(VERSION).put((byte) precision).put(SPARSE).putShort((short) nonZero);
+            for (int i = 0; i < registerCount; i++) {
+                int value = register(i);
+                if (value != 0) {
+                    buffer.putShort((short) i).put((byte) value);
+                }
+            }
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(denseSize)
+                .put(VERSION).put((byte) precision).put(DENSE);
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < 3 || buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Sketch HyperLogLog inválido");
+        }
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+        byte encoding = buffer.get();
+        if (encoding == SPARSE) {
+            int nonZero = Short.toUnsignedInt(buffer.getShort());
+            for (int i = 0; i < nonZero; i++) {
+                sketch.raise(Short.toUnsignedInt(buffer.getShort()), buffer.get());
+            }
+        } else {
+            for (int i = 0; i < sketch.words.length(); i++) {
+                sketch.words.set(i, buffer.getLong());
+            }
+        }
+        return sketch;
+    }
+
+    // Hash de 64 bits do par (a, b) sem concatenar as strings: FNV-1a seguido do SplitMix64
+    public static long hash(CharSequence a, CharSequence b) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < a.length(); i++) {
+            hash ^= a.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= 0xFFFF;
+        hash *= 0x100000001B3L;
+        for (int i = 0; i < b.length(); i++) {
+            hash ^= b.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    int register(int index) {
+        return (int) ((words.get(index / PER_WORD) >>> ((index % PER_WORD) * BITS)) & MASK);
+    }
+
+    private void raise(int index, int value) {
+        int word = index / PER_WORD;
+        int shift = (index % PER_WORD) * BITS;
+        long current;
+        do {
+            current = words.get(word);
+            if (((current >>> shift) & MASK) >= value) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current,
+                (current & ~(MASK << shift)) | ((long) value << shift)));
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
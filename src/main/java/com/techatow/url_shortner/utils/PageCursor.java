@@ -0,0 +1,32 @@
+package com.techatow.url_shortner.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import com.techatow.url_shortner.exceptions.InvalidCursorException;
+
+// Posição na listagem ordenada por (createdAt, id) decrescentes. O token é opaco para o cliente:
+// base64url de "createdAt|id", sem relação com número de página.
+public record PageCursor(LocalDateTime createdAt, long id) {
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new InvalidCursorException("Cursor inválido");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.techatow.url_shortner.utils;
+
+// Bijeção entre ids numéricos [0, 62^6) e short codes de 6 caracteres. Uma rede de Feistel de
+// 36 bits com chave secreta embaralha os ids (cycle-walking devolve o resultado ao domínio),
+// então ids consecutivos geram códigos sem relação aparente e nunca repetidos.
+public class PermutedBase62 {
+
+    // 62^6
+    public static final long CAPACITY = 56_800_235_584L;
+
+    private static final int HALF_BITS = 18;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public PermutedBase62(long secret) {
+        for (int round = 0; round < ROUNDS; round++) {
+            roundKeys[round] = mix(secret + round * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    public String encode(long id) {
+        if (id < 0 || id >= CAPACITY) {
+            throw new IllegalArgumentException("Id fora do espaço de short codes: " + id);
+        }
+        long value = id;
+        do {
+            value = permute(value);
+        } while (value >= CAPACITY);
+
+        char[] code = new char[ShortCodeGenerator.CODE_LENGTH];
+        int base = ShortCodeGenerator.ALPHABET.length();
+        for (int i = code.length - 1; i >= 0; i--) {
+            code[i] = ShortCodeGenerator.ALPHABET.charAt((int) (value % base));
+            value /= base;
+        }
+        return new String(code);
+    }
+
+    public long decode(String code) {
+        long value = 0;
+        int base = ShortCodeGenerator.ALPHABET.length();
+        for (int i = 0; i < code.length(); i++) {
+            int digit = ShortCodeGenerator.ALPHABET.indexOf(code.charAt(i));
+            if (digit < 0 || code.length() != ShortCodeGenerator.CODE_LENGTH) {
+                throw new IllegalArgumentException("Short code inválido: " + code);
+            }
+            value = value * base + digit;
+        }
+        do {
+            value = unpermute(value);
+        } while (value >= CAPACITY);
+        return value;
+    }
+
+    private long permute(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right ^ roundKeys[round]) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private long unpermute(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ (mix(left ^ roundKeys[round]) & HALF_MASK);
+            right = left;
+            left = previous;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -4,9 +4,9 @@ import java.security.SecureRandom;
 
 public class ShortCodeGenerator {
     private static final SecureRandom RANDOM = new SecureRandom();
-    private static final String ALPHABET =
+    static final String ALPHABET =
             "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
-    private static final int CODE_LENGTH = 6;
+    static final int CODE_LENGTH = 6;
 
     public static String generateRandomCode() {
         StringBuilder code = new StringBuilder(CODE_LENGTH);
@@ -0,0 +1,71 @@
+package com.techatow.url_shortner.utils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+
+// Chamadas concorrentes para a mesma chave compartilham uma única carga e seu resultado,
+// inclusive exceções. A carga roda numa virtual thread própria e todos, inclusive quem a
+// iniciou, esperam no máximo o timeout: quem desiste recebe ServiceOverloadedException (503) em
+// vez de carregar por conta própria, que multiplicaria as consultas justo com o banco lento. A
+// carga atrasada continua e, ao terminar, libera a chave para a próxima.
+public class SingleFlight<K, V> {
+
+    private static final Executor LOADERS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("single-flight-", 0).factory());
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader, Duration timeout) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            lead(key, flight, loader);
+            existing = flight;
+        }
+        try {
+            return existing.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceOverloadedException(
+                    "Carga de " + key + " excedeu " + timeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando carga de " + key, e);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private void lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        LOADERS.execute(() -> {
+            try {
+                flight.complete(loader.get());
+            } catch (Throwable e) {
+                flight.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        });
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
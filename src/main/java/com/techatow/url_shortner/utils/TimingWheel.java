@@ -0,0 +1,118 @@
+package com.techatow.url_shortner.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// Timing wheel hierárquica com hash: LEVELS rodas de 64 slots, cada nível 64 vezes mais largo
+// que o anterior (com tick de 1s, 64s, ~68min, ~3 dias e ~194 dias). Agendar é O(1) e não
+// trava: o timer entra numa fila e só é posicionado na roda pelo advance. A cada tick só o slot
+// corrente dispara, e os timers de um slot de nível superior descem de nível quando a roda de
+// baixo completa a volta, então o custo por tick é proporcional aos timers que vencem.
+//
+// Não há cancelamento: quem recebe o disparo confere se a chave ainda está vencida.
+public class TimingWheel<K> {
+
+    static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private record Timer<K>(K key, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final List<List<Timer<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final Queue<Timer<K>> inbox = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick deve ser positivo: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    // Arredonda para cima: um timer nunca dispara antes do prazo
+    public void schedule(K key, long deadlineMillis) {
+        inbox.add(new Timer<>(key, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis)));
+    }
+
+    // Avança a roda até nowMillis e entrega ao handler as chaves vencidas. Uma thread por vez
+    public synchronized int advance(long nowMillis, Consumer<K> handler) {
+        List<K> expired = new ArrayList<>();
+        drainInbox(expired);
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, expired);
+                }
+            }
+            List<Timer<K>> slot = slot(0, (int) (currentTick & SLOT_MASK));
+            for (Timer<K> timer : slot) {
+                expired.add(timer.key());
+            }
+            size -= slot.size();
+            slot.clear();
+        }
+        expired.forEach(handler);
+        return expired.size();
+    }
+
+    // Timers agendados ainda não disparados, incluindo os que aguardam posicionamento
+    public synchronized int size() {
+        return size + inbox.size();
+    }
+
+    private void drainInbox(List<K> expired) {
+        Timer<K> timer;
+        while ((timer = inbox.poll()) != null) {
+            place(timer, expired);
+        }
+    }
+
+    private void cascade(int level, List<K> expired) {
+        int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        List<Timer<K>> slot = slot(level, index);
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Timer<K>> timers = new ArrayList<>(slot);
+        size -= slot.size();
+        slot.clear();
+        for (Timer<K> timer : timers) {
+            place(timer, expired);
+        }
+    }
+
+    private void place(Timer<K> timer, List<K> expired) {
+        long delta = timer.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            expired.add(timer.key());
+            return;
+        }
+        // Além do alcance da roda: fica no último slot do nível mais alto e é reposicionado
+        // quando ele descer
+        long deadline = delta < MAX_SPAN ? timer.deadlineTick() : currentTick + MAX_SPAN - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && (deadline - currentTick) >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK)).add(timer);
+        size++;
+    }
+
+    private List<Timer<K>> slot(int level, int index) {
+        return slots.get(level * SLOTS + index);
+    }
+}
@@ -0,0 +1,22 @@
+package com.techatow.url_shortner.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// SHA-256 da URL normalizada em hex: 64 caracteres fixos, indexável no lugar da URL completa
+public class UrlDigest {
+
+    public static final int LENGTH = 64;
+
+    public static String of(String normalizedUrl) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of()
+                    .formatHex(sha256.digest(normalizedUrl.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
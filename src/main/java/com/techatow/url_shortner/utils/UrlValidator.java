@@ -4,31 +4,60 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 public class UrlValidator {
 
-    private static final Set<String> BLOCKED_DOMAINS = Set.of("localhost", "127.0.0.1", "0.0.0.0",
-            "::1", "169.254.169.254", "metadata.google.internal", "metadata", "::ffff:127.0.0.1");
+    private static final Set<String> BLOCKED_DOMAINS =
+            Set.of("localhost", "metadata.google.internal", "metadata");
+
+    // Faixas internas, reservadas e de multicast. IPv4 mapeado em IPv6 (::ffff:0:0/96) não entra:
+    // o JDK já converte esses endereços para Inet4Address.
+    public static final List<String> DEFAULT_BLOCKED_RANGES = List.of("0.0.0.0/8", "10.0.0.0/8",
+            "100.64.0.0/10", "127.0.0.0/8", "169.254.0.0/16", "172.16.0.0/12", "192.0.0.0/24",
+            "192.168.0.0/16", "198.18.0.0/15", "224.0.0.0/4", "240.0.0.0/4", "::/128", "::1/128",
+            "100::/64", "2001:db8::/32", "fc00::/7", "fe80::/10", "fec0::/10", "ff00::/8");
+
+    private static final CidrTrie DEFAULT_BLOCKED = CidrTrie.of(DEFAULT_BLOCKED_RANGES);
+
+    private static final String UNSUPPORTED_PROTOCOL = "Protocolo não suportado. Use http ou https";
 
     public static String normalizeUrl(String url) {
+        return normalizeUrl(url, HostResolver.SYSTEM);
+    }
+
+    public static String normalizeUrl(String url, HostResolver resolver) {
+        return normalizeUrl(url, resolver, DEFAULT_BLOCKED);
+    }
+
+    public static String normalizeUrl(String url, HostResolver resolver, CidrTrie blockedRanges) {
+        return normalizeUrl(url, resolver, blockedRanges, host -> false);
+    }
+
+    // blockedDomains recebe o host em minúsculas e é consultado antes da resolução DNS
+    public static String normalizeUrl(String url, HostResolver resolver, CidrTrie blockedRanges,
+            Predicate<String> blockedDomains) {
         if (url == null || url.isBlank()) {
             throw new IllegalArgumentException("URL vazia");
         }
 
         String normalized = url.trim();
 
-        if (normalized.matches("^[a-zA-Z][a-zA-Z0-9+.-]*://.*")) {
-            if (!normalized.matches("^https?://.*")) {
-                throw new IllegalArgumentException("Protocolo não suportado. Use http ou https");
-            }
-        } else if (normalized.matches("^[a-zA-Z][a-zA-Z0-9+.-]*:.*")) {
-            if (!normalized.matches("^[^:]+:\\d+.*")) {
-                throw new IllegalArgumentException("Protocolo não suportado. Use http ou https");
+        // Uma passada pelo esquema: "http://" e "https://" seguem, "host:porta" ganha https://,
+        // qualquer outro "esquema:" é recusado
+        int colon = schemeEnd(normalized);
+        if (colon < 0) {
+            normalized = "https://" + normalized;
+        } else if (normalized.startsWith("//", colon + 1)) {
+            if (!isHttpScheme(normalized, colon)) {
+                throw new IllegalArgumentException(UNSUPPORTED_PROTOCOL);
             }
+        } else if (colon + 1 < normalized.length() && isDigit(normalized.charAt(colon + 1))) {
             normalized = "https://" + normalized;
         } else {
-            normalized = "https://" + normalized;
+            throw new IllegalArgumentException(UNSUPPORTED_PROTOCOL);
         }
 
         try {
@@ -37,7 +66,7 @@ public class UrlValidator {
                 throw new IllegalArgumentException("URL malformada");
             }
 
-            validateSecurity(uri);
+            validateSecurity(uri, resolver, blockedRanges, blockedDomains);
 
             return normalized;
         } catch (URISyntaxException e) {
@@ -45,39 +74,85 @@ public class UrlValidator {
         }
     }
 
-    private static void validateSecurity(URI uri) {
+    // Posição do ':' que fecha um esquema válido ([a-zA-Z][a-zA-Z0-9+.-]*), ou -1
+    private static int schemeEnd(String url) {
+        if (url.isEmpty() || !isLetter(url.charAt(0))) {
+            return -1;
+        }
+        for (int i = 1; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return i;
+            }
+            if (!isLetter(c) && !isDigit(c) && c != '+' && c != '.' && c != '-') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isHttpScheme(String url, int colon) {
+        return (colon == 4 || colon == 5) && url.startsWith("http")
+                && (colon == 4 || url.charAt(4) == 's');
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void validateSecurity(URI uri, HostResolver resolver, CidrTrie blockedRanges,
+            Predicate<String> blockedDomains) {
         String host = uri.getHost().toLowerCase();
 
         // Verificar lista de bloqueio primeiro (antes de resolver DNS)
         if (BLOCKED_DOMAINS.contains(host)) {
             throw new IllegalArgumentException("URLs internas não são permitidas");
         }
+        if (blockedDomains.test(host)) {
+            throw new IllegalArgumentException("Domínio bloqueado");
+        }
 
         // Evitar credenciais na URL
         if (uri.getUserInfo() != null) {
             throw new IllegalArgumentException("URL com credenciais não permitida");
         }
 
-        // Tentar resolver DNS, mas não falhar se não existir
+        // Tentar resolver DNS, mas não falhar se não existir. IPs literais não consultam o DNS.
         try {
-            InetAddress address = InetAddress.getByName(host);
-            String resolvedIP = address.getHostAddress();
-
-            // Se resolveu, verificar se é IP privado
-            if (BLOCKED_DOMAINS.contains(resolvedIP) || isPrivateIP(resolvedIP)) {
-                throw new IllegalArgumentException("URLs internas não são permitidas");
+            InetAddress literal = literalAddress(host);
+            List<InetAddress> addresses =
+                    literal != null ? List.of(literal) : resolver.resolve(host);
+            // Um host com vários registros (A e AAAA) é bloqueado se qualquer um for interno
+            for (InetAddress address : addresses) {
+                if (blockedRanges.contains(address)) {
+                    throw new IllegalArgumentException("URLs internas não são permitidas");
+                }
             }
         } catch (UnknownHostException e) {
-            // Domínio não existe ou DNS falhou
-            // Permitir e deixar falhar no redirect (melhor UX)
-            // OU bloquear se preferir ser mais rigoroso
+            // Domínio não existe (NXDOMAIN): permitir e deixar falhar no redirect (melhor UX).
+            // Timeout do DNS não chega aqui: HostResolutionTimeoutException sobe como 503
         }
     }
 
-    private static boolean isPrivateIP(String ip) {
-        return ip.matches("^127\\..*")
-                || ip.matches("^(10|172\\.(1[6-9]|2[0-9]|3[01])|192\\.168)\\..*")
-                || ip.matches("^169\\.254\\..*") || ip.matches("^(fc00|fd00|fe80):.*");
+    // "[v6]" ou IPv4 com quatro octetos; o JDK converte literais sem consultar o DNS
+    private static InetAddress literalAddress(String host) throws UnknownHostException {
+        if (host.startsWith("[")) {
+            return InetAddress.getByName(host);
+        }
+        int dots = 0;
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (!isDigit(c)) {
+                return null;
+            }
+        }
+        return dots == 3 ? InetAddress.getByName(host) : null;
     }
 }
 // public class UrlValidator {
@@ -0,0 +1,241 @@
+package com.techatow.url_shortner.visitors;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.techatow.url_shortner.exceptions.FeatureUnavailableException;
+import com.techatow.url_shortner.utils.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+
+// Visitantes únicos estimados por short code. O redirect só atualiza por CAS o HyperLogLog
+// pendente do código com o hash de IP + user agent (nada identificável fica guardado); o flush
+// une os pendentes ao sketch do dia em visitor_sketches, e a consulta une os dias do intervalo.
+// Com app.storage.type=embedded não há banco: o StorageConfig registra unavailable().
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class UniqueVisitorTracker {
+    private static final Logger logger = LoggerFactory.getLogger(UniqueVisitorTracker.class);
+
+    static final String CREATE_SQL = "create table if not exists visitor_sketches ("
+            + "short_code varchar(6) not null, visit_date date not null, "
+            + "sketch bytea not null, primary key (short_code, visit_date))";
+
+    static final String INSERT_SQL =
+            "insert into visitor_sketches (short_code, visit_date, sketch) values (?, ?, ?)";
+
+    static final String UPDATE_SQL =
+            "update visitor_sketches set sketch = ? where short_code = ? and visit_date = ?";
+
+    static final String SELECT_RANGE_SQL = "select sketch from visitor_sketches "
+            + "where short_code = ? and visit_date >= ? and visit_date <= ?";
+
+    static final String DELETE_OLDER_SQL = "delete from visitor_sketches where visit_date < ?";
+
+    static final String DELETE_CODE_SQL = "delete from visitor_sketches where short_code = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int precision;
+    private final int batchSize;
+    private final Duration retention;
+    private final Function<String, HyperLogLog> newSketch;
+
+    private final Map<String, HyperLogLog> pending = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+
+    public UniqueVisitorTracker(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.visitors.enabled:true}") boolean enabled,
+            @Value("${app.visitors.precision:12}") int precision,
+            @Value("${app.clicks.batch-size:500}") int batchSize,
+            @Value("${app.visitors.retention:400d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.precision = precision;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        // Valida a precisão já na subida
+        new HyperLogLog(precision);
+        this.newSketch = shortCode -> new HyperLogLog(precision);
+    }
+
+    // Não guarda nada e recusa consultas, em vez de estimar zero visitantes
+    public static UniqueVisitorTracker unavailable() {
+        return new UniqueVisitorTracker(null, null, false, 12, 1, Duration.ZERO);
+    }
+
+    public void record(String shortCode, String clientIp, String userAgent) {
+        if (!enabled) {
+            return;
+        }
+        HyperLogLog sketch = pending.get(shortCode);
+        if (sketch == null) {
+            sketch = pending.computeIfAbsent(shortCode, newSketch);
+        }
+        sketch.add(HyperLogLog.hash(clientIp == null ? "" : clientIp,
+                userAgent == null ? "" : userAgent));
+    }
+
+    // O dia é o do flush: visitas dos últimos segundos antes da meia-noite contam no dia seguinte.
+    // Um registro concorrente com a remoção do sketch pode se perder, o que a estimativa absorve
+    @Scheduled(fixedDelayString = "${app.visitors.flush-interval:30s}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        LocalDate day = LocalDate.now();
+        Map<String, HyperLogLog> batch = new LinkedHashMap<>();
+        for (String shortCode : pending.keySet()) {
+            HyperLogLog sketch = pending.remove(shortCode);
+            if (sketch != null) {
+                batch.put(shortCode, sketch);
+            }
+            if (batch.size() == batchSize) {
+                apply(day, batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            apply(day, batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void apply(LocalDate day, Map<String, HyperLogLog> batch) {
+        Date date = Date.valueOf(day);
+        try {
+            initialize();
+            transaction.executeWithoutResult(status -> {
+                // Trava as linhas do dia: outro nó que grave os mesmos códigos espera e une
+                // sobre o resultado deste
+                String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+                List<Object> args = new ArrayList<>(batch.size() + 1);
+                args.add(date);
+                args.addAll(batch.keySet());
+                Map<String, HyperLogLog> stored = new HashMap<>();
+                jdbcTemplate.query("select short_code, sketch from visitor_sketches where "
+                        + "visit_date = ? and short_code in (" + placeholders + ") for update",
+                        row -> {
+                            stored.put(row.getString(1), HyperLogLog.fromBytes(row.getBytes(2)));
+                        }, args.toArray());
+
+                List<Object[]> updates = new ArrayList<>();
+                List<Object[]> inserts = new ArrayList<>();
+                batch.forEach((shortCode, sketch) -> {
+                    HyperLogLog current = stored.get(shortCode);
+                    if (current == null) {
+                        inserts.add(new Object[] {shortCode, date, sketch.toBytes()});
+                        return;
+                    }
+                    // Precisão alterada na configuração: o sketch do dia recomeça
+                    if (current.precision() == sketch.precision()) {
+                        sketch.merge(current);
+                    }
+                    updates.add(new Object[] {sketch.toBytes(), shortCode, date});
+                });
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            });
+        } catch (DataAccessException | IllegalArgumentException e) {
+            // Inclusive corrida de insert com outro nó: os sketches voltam e são regravados
+            logger.warn("Falha ao gravar {} sketches de visitantes: {}", batch.size(),
+                    e.getMessage());
+            batch.forEach((shortCode, sketch) -> pending.computeIfAbsent(shortCode, newSketch)
+                    .merge(sketch));
+        }
+    }
+
+    // Estimativa de visitantes distintos entre os dias from e to, inclusive
+    public long estimate(String shortCode, LocalDate from, LocalDate to) {
+        if (jdbcTemplate == null) {
+            throw new FeatureUnavailableException(
+                    "Visitantes únicos exigem app.storage.type=jpa");
+        }
+        if (!enabled) {
+            return 0;
+        }
+        initialize();
+        HyperLogLog union = new HyperLogLog(precision);
+        jdbcTemplate.query(SELECT_RANGE_SQL, row -> {
+            HyperLogLog sketch = HyperLogLog.fromBytes(row.getBytes(1));
+            if (sketch.precision() == precision) {
+                union.merge(sketch);
+            }
+        }, shortCode, Date.valueOf(from), Date.valueOf(to));
+
+        HyperLogLog unflushed = pending.get(shortCode);
+        if (unflushed != null && !to.isBefore(LocalDate.now())) {
+            union.merge(unflushed);
+        }
+        return union.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${app.visitors.cleanup-interval:6h}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            initialize();
+            int deleted = jdbcTemplate.update(DELETE_OLDER_SQL,
+                    Date.valueOf(LocalDate.now().minusDays(retention.toDays())));
+            if (deleted > 0) {
+                logger.info("{} sketches de visitantes expirados removidos", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao remover sketches de visitantes: {}", e.getMessage());
+        }
+    }
+
+    public void delete(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        pending.remove(shortCode);
+        initialize();
+        jdbcTemplate.update(DELETE_CODE_SQL, shortCode);
+    }
+
+    public void delete(Collection<String> shortCodes) {
+        if (!enabled || shortCodes.isEmpty()) {
+            return;
+        }
+        shortCodes.forEach(pending::remove);
+        initialize();
+        jdbcTemplate.batchUpdate(DELETE_CODE_SQL,
+                shortCodes.stream().map(shortCode -> new Object[] {shortCode}).toList());
+    }
+
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        jdbcTemplate.execute(CREATE_SQL);
+        initialized = true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.techatow.url_shortner.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import com.techatow.url_shortner.clicks.ClickAggregator;
+import com.techatow.url_shortner.events.ClickEventLog;
+
+// Anexação concorrente no log mapeado em memória (com rotação de segmentos) comparada ao
+// ClickAggregator, que só incrementa contadores em memória. Referrer e user agent já chegam
+// com hash para medir apenas o caminho de escrita.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ClickEventLogBenchmark {
+
+    private static final String[] CODES = {"abc123", "xyz789", "Q1w2E3", "hot001", "aaaaaa"};
+    private static final long REFERRER = ClickEventLog.hash("https://news.example/");
+    private static final long USER_AGENT = ClickEventLog.hash("Mozilla/5.0 (X11; Linux x86_64)");
+
+    private Path directory;
+    private ClickEventLog eventLog;
+    private ClickAggregator aggregator;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("click-event-log-bench");
+        eventLog = ClickEventLog.open(directory, 64L * 1024 * 1024, null);
+        aggregator = new ClickAggregator(null, 500, Duration.ofSeconds(1));
+    }
+
+    // Segmentos já escritos saem a cada iteração para o benchmark não encher o disco
+    @TearDown(Level.Iteration)
+    public void purgeSegments() {
+        eventLog.purge(Duration.ZERO, Long.MAX_VALUE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        eventLog.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public boolean append() {
+        String code = CODES[(int) (Thread.currentThread().threadId() % CODES.length)];
+        return eventLog.append(code, System.currentTimeMillis(), REFERRER, USER_AGENT);
+    }
+
+    @Benchmark
+    public void aggregate() {
+        aggregator.record(CODES[(int) (Thread.currentThread().threadId() % CODES.length)]);
+    }
+}
@@ -0,0 +1,100 @@
+package com.techatow.url_shortner.benchmarks;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.techatow.url_shortner.blocklist.DomainBlocklist;
+import com.techatow.url_shortner.cache.CachedUrl;
+import com.techatow.url_shortner.cache.InMemoryUrlCache;
+import com.techatow.url_shortner.cache.LocalInvalidationBus;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.ShortCodeFilter;
+import com.techatow.url_shortner.clicks.ClickAggregator;
+import com.techatow.url_shortner.clicks.ClickTimeSeries;
+import com.techatow.url_shortner.codes.BlockShortCodeAllocator;
+import com.techatow.url_shortner.codes.InMemoryBlockSource;
+import com.techatow.url_shortner.controllers.RedirectController;
+import com.techatow.url_shortner.controllers.RedirectFastPathFilter;
+import com.techatow.url_shortner.events.ClickEventLog;
+import com.techatow.url_shortner.hotkeys.HotKeyTracker;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+import com.techatow.url_shortner.utils.CidrTrie;
+import com.techatow.url_shortner.utils.HostResolver;
+import com.techatow.url_shortner.utils.PermutedBase62;
+import com.techatow.url_shortner.utils.UrlValidator;
+import com.techatow.url_shortner.visitors.UniqueVisitorTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+// Compara o redirect via DispatcherServlet/RedirectController com o RedirectFastPathFilter.
+// Ambos usam o mesmo serviço com cache quente, sem banco.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectBenchmark {
+
+    private static final String SHORT_CODE = "abc123";
+
+    private MockMvc controller;
+    private MockMvc fastPath;
+
+    @Setup
+    public void setUp() {
+        InMemoryUrlCache urlCache = new InMemoryUrlCache(Duration.ofHours(1));
+        urlCache.put(SHORT_CODE, new CachedUrl("https://google.com", null));
+
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        ShortCodeFilter shortCodeFilter =
+                new ShortCodeFilter(null, null, new SimpleMeterRegistry(), bus, false, 0.01);
+        ClickAggregator clickAggregator = new ClickAggregator(null, 500, Duration.ofSeconds(1));
+        ClickTimeSeries clickTimeSeries = new ClickTimeSeries(null, null,
+                new SimpleMeterRegistry(), true, 500, Duration.ofDays(2), Duration.ofDays(30));
+        ShortenedUrlService service = new ShortenedUrlService(null, urlCache,
+                new LocalStatsCache(100, Duration.ofSeconds(5)), clickAggregator,
+                clickTimeSeries,
+                new UniqueVisitorTracker(null, null, true, 12, 500, Duration.ofDays(400)),
+                ClickEventLog.disabled(), null, shortCodeFilter, bus, HostResolver.SYSTEM,
+                CidrTrie.of(UrlValidator.DEFAULT_BLOCKED_RANGES), DomainBlocklist.disabled(),
+                new HotKeyTracker(urlCache, null, bus, true, 100, Duration.ofMinutes(1)),
+                new BlockShortCodeAllocator(new InMemoryBlockSource(), 1000,
+                        new PermutedBase62(1L)),
+                null, null);
+        ReflectionTestUtils.setField(service, "clickMode", "async");
+        ReflectionTestUtils.setField(service, "loadTimeout", Duration.ofSeconds(2));
+
+        RedirectController redirectController = new RedirectController(service);
+        controller = MockMvcBuilders.standaloneSetup(redirectController).build();
+        fastPath = MockMvcBuilders.standaloneSetup(redirectController)
+                .addFilters(new RedirectFastPathFilter(service, JsonMapper.builder().build(),
+                        Set.of("api", "actuator", "error")))
+                .build();
+    }
+
+    @Benchmark
+    public MvcResult controller() throws Exception {
+        return controller.perform(get("/" + SHORT_CODE)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult fastPath() throws Exception {
+        return fastPath.perform(get("/" + SHORT_CODE)).andReturn();
+    }
+}
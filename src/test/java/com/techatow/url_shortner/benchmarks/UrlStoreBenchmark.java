@@ -0,0 +1,107 @@
+package com.techatow.url_shortner.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.techatow.url_shortner.UrlShortnerApplication;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.storage.LogUrlStore;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.UrlDigest;
+
+// Busca por short code e insert de um link no JpaUrlStore (Hibernate sobre H2 em memória, o
+// melhor caso do caminho JPA) e no LogUrlStore, que grava no log em disco e lê só do índice.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlStoreBenchmark {
+
+    private static final int LINKS = 10_000;
+
+    @Param({"jpa", "embedded"})
+    public String store;
+
+    private ConfigurableApplicationContext context;
+    private Path directory;
+    private UrlStore urlStore;
+    private final List<String> codes = new ArrayList<>(LINKS);
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        if (store.equals("jpa")) {
+            context = new SpringApplicationBuilder(UrlShortnerApplication.class)
+                    .web(WebApplicationType.NONE).profiles("test")
+                    .properties("spring.datasource.url=jdbc:h2:mem:url-store-bench",
+                            "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                    .run();
+            urlStore = context.getBean(UrlStore.class);
+        } else {
+            directory = Files.createTempDirectory("url-store-bench");
+            urlStore = LogUrlStore.open(directory, Long.MAX_VALUE, 2.0, null);
+        }
+
+        List<ShortenedUrl> seed = new ArrayList<>(LINKS);
+        for (int i = 0; i < LINKS; i++) {
+            seed.add(newUrl());
+            codes.add(seed.getLast().getShortCode());
+        }
+        urlStore.insertAll(seed);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+            return;
+        }
+        ((LogUrlStore) urlStore).close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private ShortenedUrl newUrl() {
+        long id = sequence.incrementAndGet();
+        String originalUrl = "https://example.com/page/" + id;
+        ShortenedUrl url = new ShortenedUrl(Long.toString(id, 36), originalUrl);
+        url.setUrlDigest(UrlDigest.of(originalUrl));
+        return url;
+    }
+
+    @Benchmark
+    public Optional<ShortenedUrl> findByShortCode() {
+        return urlStore.findByShortCode(codes.get(ThreadLocalRandom.current().nextInt(LINKS)));
+    }
+
+    @Benchmark
+    public ShortenedUrl insert() {
+        return urlStore.insert(newUrl());
+    }
+}
@@ -0,0 +1,134 @@
+package com.techatow.url_shortner.benchmarks;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.techatow.url_shortner.utils.HostResolver;
+import com.techatow.url_shortner.utils.UrlValidator;
+
+// Compara o UrlValidator atual (varredura única + CidrTrie) com a versão anterior baseada em
+// String.matches. O resolvedor é fixo para medir só a validação, sem DNS.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlValidatorBenchmark {
+
+    private static final String[] URLS = {"google.com", "https://www.example.com/a/b?c=d",
+            "http://api.example.com:8080/v1/items", "globo.com:8080",
+            "example.com/path/to/resource?param1=value1&param2=value2#section"};
+
+    private static final InetAddress PUBLIC_ADDRESS = address(new byte[] {8, 8, 8, 8});
+
+    private final HostResolver resolver = host -> List.of(PUBLIC_ADDRESS);
+    private final LegacyHostResolver legacyResolver = host -> PUBLIC_ADDRESS;
+
+    @Benchmark
+    public void current(Blackhole blackhole) {
+        for (String url : URLS) {
+            blackhole.consume(UrlValidator.normalizeUrl(url, resolver));
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (String url : URLS) {
+            blackhole.consume(LegacyUrlValidator.normalizeUrl(url, legacyResolver));
+        }
+    }
+
+    private static InetAddress address(byte[] bytes) {
+        try {
+            return InetAddress.getByAddress(bytes);
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface LegacyHostResolver {
+        InetAddress resolve(String host) throws UnknownHostException;
+    }
+
+    // Cópia da implementação anterior, mantida só como referência do benchmark
+    static final class LegacyUrlValidator {
+
+        private static final Set<String> BLOCKED_DOMAINS = Set.of("localhost", "127.0.0.1",
+                "0.0.0.0", "::1", "169.254.169.254", "metadata.google.internal", "metadata",
+                "::ffff:127.0.0.1");
+
+        static String normalizeUrl(String url, LegacyHostResolver resolver) {
+            if (url == null || url.isBlank()) {
+                throw new IllegalArgumentException("URL vazia");
+            }
+
+            String normalized = url.trim();
+
+            if (normalized.matches("^[a-zA-Z][a-zA-Z0-9+.-]*://.*")) {
+                if (!normalized.matches("^https?://.*")) {
+                    throw new IllegalArgumentException(
+                            "Protocolo não suportado. Use http ou https");
+                }
+            } else if (normalized.matches("^[a-zA-Z][a-zA-Z0-9+.-]*:.*")) {
+                if (!normalized.matches("^[^:]+:\\d+.*")) {
+                    throw new IllegalArgumentException(
+                            "Protocolo não suportado. Use http ou https");
+                }
+                normalized = "https://" + normalized;
+            } else {
+                normalized = "https://" + normalized;
+            }
+
+            try {
+                URI uri = new URI(normalized);
+                if (uri.getScheme() == null || uri.getHost() == null) {
+                    throw new IllegalArgumentException("URL malformada");
+                }
+                validateSecurity(uri, resolver);
+                return normalized;
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("URL inválida: " + e.getMessage());
+            }
+        }
+
+        private static void validateSecurity(URI uri, LegacyHostResolver resolver) {
+            String host = uri.getHost().toLowerCase();
+            if (BLOCKED_DOMAINS.contains(host)) {
+                throw new IllegalArgumentException("URLs internas não são permitidas");
+            }
+            if (uri.getUserInfo() != null) {
+                throw new IllegalArgumentException("URL com credenciais não permitida");
+            }
+            try {
+                String resolvedIP = resolver.resolve(host).getHostAddress();
+                if (BLOCKED_DOMAINS.contains(resolvedIP) || isPrivateIP(resolvedIP)) {
+                    throw new IllegalArgumentException("URLs internas não são permitidas");
+                }
+            } catch (UnknownHostException e) {
+                // Permitido, como na versão original
+            }
+        }
+
+        private static boolean isPrivateIP(String ip) {
+            return ip.matches("^127\\..*")
+                    || ip.matches("^(10|172\\.(1[6-9]|2[0-9]|3[01])|192\\.168)\\..*")
+                    || ip.matches("^169\\.254\\..*") || ip.matches("^(fc00|fd00|fe80):.*");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.techatow.url_shortner.blocklist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.net.IDN;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DomainBlocklistTest {
+
+    @TempDir
+    Path dir;
+
+    private DomainBlocklist load(String... lines) throws Exception {
+        Path source = dir.resolve("blocklist.txt");
+        Files.write(source, List.of(lines));
+        return DomainBlocklist.load(source, dir, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldBlockListedDomainAndItsSubdomains() throws Exception {
+        DomainBlocklist blocklist = load("evil.example", "phish.test");
+
+        assertThat(blocklist.isBlocked("evil.example")).isTrue();
+        assertThat(blocklist.isBlocked("login.EVIL.example")).isTrue();
+        assertThat(blocklist.isBlocked("a.b.phish.test.")).isTrue();
+        assertThat(blocklist.isBlocked("example")).isFalse();
+        assertThat(blocklist.isBlocked("notevil.example")).isFalse();
+        assertThat(blocklist.isBlocked("evil.example.com")).isFalse();
+    }
+
+    @Test
+    void shouldParseHostsFormatCommentsAndWildcards() throws Exception {
+        DomainBlocklist blocklist = load("# feed de exemplo", "", "0.0.0.0 ads.example # anúncio",
+                "127.0.0.1\tmalware.test", "*.tracker.test", "münchen-phish.test");
+
+        assertThat(blocklist.size()).isEqualTo(4);
+        assertThat(blocklist.isBlocked("ads.example")).isTrue();
+        assertThat(blocklist.isBlocked("malware.test")).isTrue();
+        assertThat(blocklist.isBlocked("x.tracker.test")).isTrue();
+        assertThat(blocklist.isBlocked(IDN.toASCII("münchen-phish.test"))).isTrue();
+        assertThat(blocklist.isBlocked("0.0.0.0")).isFalse();
+    }
+
+    @Test
+    void shouldDropSubdomainsCoveredByParentEntry() throws Exception {
+        DomainBlocklist blocklist =
+                load("a.evil.example", "evil.example", "b.c.evil.example", "evil.example");
+
+        assertThat(blocklist.size()).isEqualTo(1);
+        assertThat(blocklist.isBlocked("z.evil.example")).isTrue();
+    }
+
+    @Test
+    void shouldExtractHostFromStoredUrl() throws Exception {
+        DomainBlocklist blocklist = load("evil.example");
+
+        assertThat(blocklist.isBlockedUrl("https://www.evil.example:8443/path?q=1")).isTrue();
+        assertThat(blocklist.isBlockedUrl("https://good.example/evil.example")).isFalse();
+    }
+
+    @Test
+    void shouldReloadWhenFileChanges() throws Exception {
+        DomainBlocklist blocklist = load("evil.example");
+        Path source = dir.resolve("blocklist.txt");
+
+        Files.writeString(source, "other.example\nthird.example\n");
+        Files.setLastModifiedTime(source, FileTime.from(Instant.now().plusSeconds(5)));
+        blocklist.reloadIfChanged();
+
+        assertThat(blocklist.size()).isEqualTo(2);
+        assertThat(blocklist.isBlocked("evil.example")).isFalse();
+        assertThat(blocklist.isBlocked("www.other.example")).isTrue();
+        // Só o índice da versão atual fica no diretório
+        try (var files = Files.list(dir)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".idx"))).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldKeepCurrentIndexWhenSourceDisappears() throws Exception {
+        DomainBlocklist blocklist = load("evil.example");
+
+        Files.delete(dir.resolve("blocklist.txt"));
+        blocklist.reloadIfChanged();
+
+        assertThat(blocklist.isBlocked("evil.example")).isTrue();
+    }
+
+    @Test
+    void disabledShouldBlockNothing() {
+        DomainBlocklist blocklist = DomainBlocklist.disabled();
+
+        blocklist.reloadIfChanged();
+
+        assertThat(blocklist.size()).isZero();
+        assertThat(blocklist.isBlocked("evil.example")).isFalse();
+        assertThat(blocklist.isBlockedUrl("https://evil.example")).isFalse();
+    }
+}
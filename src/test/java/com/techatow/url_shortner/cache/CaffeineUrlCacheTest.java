@@ -0,0 +1,71 @@
+package com.techatow.url_shortner.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class CaffeineUrlCacheTest {
+
+    @Test
+    void shouldReturnCachedUrlAfterPut() {
+        CaffeineUrlCache cache = new CaffeineUrlCache(1024 * 1024, Duration.ofHours(1));
+        CachedUrl url = new CachedUrl("https://google.com", LocalDateTime.now().plusDays(7));
+
+        cache.put("abc123", url);
+
+        assertThat(cache.get("abc123")).contains(url);
+    }
+
+    @Test
+    void shouldNotCacheExpiredUrl() {
+        CaffeineUrlCache cache = new CaffeineUrlCache(1024 * 1024, Duration.ofHours(1));
+
+        cache.put("old123", new CachedUrl("https://google.com", LocalDateTime.now().minusDays(1)));
+
+        assertThat(cache.get("old123")).isEmpty();
+    }
+
+    @Test
+    void shouldExpireEntryWithLink() throws InterruptedException {
+        CaffeineUrlCache cache = new CaffeineUrlCache(1024 * 1024, Duration.ofHours(1));
+        cache.put("abc123",
+                new CachedUrl("https://google.com", LocalDateTime.now().plusNanos(50_000_000)));
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("abc123")).isEmpty();
+    }
+
+    @Test
+    void shouldStayWithinMemoryBound() {
+        CachedUrl url = new CachedUrl("https://example.com/" + "a".repeat(100), null);
+        int entryWeight = CaffeineUrlCache.weigh("abc123", url);
+        CaffeineUrlCache cache = new CaffeineUrlCache(entryWeight * 100L, Duration.ofHours(1));
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(String.format("%06d", i), url);
+        }
+
+        assertThat(cache.estimatedSize()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void shouldKeepFrequentlyReadEntriesUnderPressure() {
+        CachedUrl url = new CachedUrl("https://example.com/" + "a".repeat(100), null);
+        int entryWeight = CaffeineUrlCache.weigh("abc123", url);
+        CaffeineUrlCache cache =
+                new CaffeineUrlCache(entryWeight * 100L, Duration.ofHours(1), Runnable::run);
+        cache.put("hot001", url);
+        for (int i = 0; i < 50; i++) {
+            cache.get("hot001");
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(String.format("%06d", i), url);
+            cache.get("hot001");
+        }
+
+        assertThat(cache.get("hot001")).isPresent();
+    }
+}
@@ -0,0 +1,82 @@
+package com.techatow.url_shortner.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InMemoryUrlCacheTest {
+
+    private final InMemoryUrlCache cache = new InMemoryUrlCache(Duration.ofHours(1));
+
+    @Test
+    void shouldReturnCachedUrlAfterPut() {
+        CachedUrl url = new CachedUrl("https://google.com", LocalDateTime.now().plusDays(7));
+
+        cache.put("abc123", url);
+
+        assertThat(cache.get("abc123")).contains(url);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenMissing() {
+        assertThat(cache.get("noop00")).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheAlreadyExpiredUrl() {
+        cache.put("old123", new CachedUrl("https://google.com", LocalDateTime.now().minusDays(1)));
+
+        assertThat(cache.get("old123")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldExpireEntryWithLink() throws InterruptedException {
+        cache.put("abc123",
+                new CachedUrl("https://google.com", LocalDateTime.now().plusNanos(50_000_000)));
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("abc123")).isEmpty();
+    }
+
+    @Test
+    void shouldRemoveExpiredEntryOnWheelTickWithoutRead() throws InterruptedException {
+        ExpiryWheel wheel = new ExpiryWheel(Duration.ofMillis(10), new SimpleMeterRegistry());
+        InMemoryUrlCache wheeled = new InMemoryUrlCache(Duration.ofHours(1), wheel);
+        wheeled.put("abc123",
+                new CachedUrl("https://google.com", LocalDateTime.now().plusNanos(50_000_000)));
+        wheeled.put("def456", new CachedUrl("https://google.com", null));
+
+        Thread.sleep(100);
+        wheel.tick();
+
+        assertThat(wheeled.size()).isEqualTo(1);
+        assertThat(wheeled.get("def456")).isPresent();
+    }
+
+    @Test
+    void shouldKeepEntryRewrittenWithLaterDeadline() throws InterruptedException {
+        ExpiryWheel wheel = new ExpiryWheel(Duration.ofMillis(10), new SimpleMeterRegistry());
+        InMemoryUrlCache wheeled = new InMemoryUrlCache(Duration.ofHours(1), wheel);
+        wheeled.put("abc123",
+                new CachedUrl("https://google.com", LocalDateTime.now().plusNanos(50_000_000)));
+        wheeled.put("abc123", new CachedUrl("https://google.com", LocalDateTime.now().plusDays(1)));
+
+        Thread.sleep(100);
+        wheel.tick();
+
+        assertThat(wheeled.get("abc123")).isPresent();
+    }
+
+    @Test
+    void shouldEvictEntry() {
+        cache.put("abc123", new CachedUrl("https://google.com", null));
+
+        cache.evict("abc123");
+
+        assertThat(cache.get("abc123")).isEmpty();
+    }
+}
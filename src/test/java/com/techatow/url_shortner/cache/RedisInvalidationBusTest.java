@@ -0,0 +1,66 @@
+package com.techatow.url_shortner.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+class RedisInvalidationBusTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Test
+    void shouldRememberPublishedCodesForConfiguredWindow() {
+        RedisInvalidationBus bus = new RedisInvalidationBus(redisTemplate, listenerContainer,
+                "url-created", Duration.ofHours(1));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.hasKey("url-created:new001")).thenReturn(true);
+
+        bus.publish("new001");
+
+        verify(valueOperations).set("url-created:new001", "1", Duration.ofHours(1));
+        verify(redisTemplate).convertAndSend("url-created", "new001");
+        assertThat(bus.recentlyPublished("new001")).isTrue();
+        assertThat(bus.recentlyPublished("zzz999")).isFalse();
+    }
+
+    @Test
+    void shouldNotRecordWithoutWindow() {
+        RedisInvalidationBus bus =
+                new RedisInvalidationBus(redisTemplate, listenerContainer, "url-invalidations");
+
+        bus.publish("abc123");
+
+        assertThat(bus.recentlyPublished("abc123")).isFalse();
+        verify(redisTemplate, never()).opsForValue();
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    void shouldAssumeRecentWhenRedisIsDown() {
+        RedisInvalidationBus bus = new RedisInvalidationBus(redisTemplate, listenerContainer,
+                "url-created", Duration.ofHours(1));
+        when(redisTemplate.hasKey("url-created:abc123"))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(bus.recentlyPublished("abc123")).isTrue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.techatow.url_shortner.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class RedisUrlCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private RedisUrlCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RedisUrlCache(redisTemplate, Duration.ofHours(1));
+    }
+
+    @Test
+    void shouldEncodeAndDecodeRoundTrip() {
+        CachedUrl url = new CachedUrl("https://google.com/a|b",
+                LocalDateTime.of(2026, 2, 24, 10, 30, 0, 123_000_000));
+
+        assertThat(RedisUrlCache.decode(RedisUrlCache.encode(url))).isEqualTo(url);
+    }
+
+    @Test
+    void shouldEncodeAndDecodeUrlWithoutExpiry() {
+        CachedUrl url = new CachedUrl("https://google.com", null);
+
+        assertThat(RedisUrlCache.decode(RedisUrlCache.encode(url))).isEqualTo(url);
+    }
+
+    @Test
+    void shouldEncodeAndDecodeSlidingWindow() {
+        CachedUrl url = new CachedUrl("https://google.com/a;b",
+                LocalDateTime.of(2026, 2, 24, 10, 30), Duration.ofMinutes(30));
+
+        CachedUrl decoded = RedisUrlCache.decode(RedisUrlCache.encode(url));
+
+        assertThat(decoded).isEqualTo(url);
+        assertThat(decoded.isSliding()).isTrue();
+    }
+
+    @Test
+    void shouldReadEntryByShortCodeKey() {
+        CachedUrl url = new CachedUrl("https://google.com", null);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("url:abc123")).thenReturn(RedisUrlCache.encode(url));
+
+        assertThat(cache.get("abc123")).contains(url);
+    }
+
+    @Test
+    void shouldBoundTtlByLinkExpiry() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        cache.put("abc123", new CachedUrl("https://google.com", LocalDateTime.now().plusMinutes(5)));
+
+        verify(valueOperations).set(eq("url:abc123"), anyString(),
+                argThat((Duration ttl) -> ttl.compareTo(Duration.ofMinutes(5)) <= 0
+                        && ttl.compareTo(Duration.ofMinutes(4)) > 0));
+    }
+
+    @Test
+    void shouldCapTtlAtConfiguredMaximum() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        cache.put("abc123", new CachedUrl("https://google.com", LocalDateTime.now().plusDays(7)));
+
+        verify(valueOperations).set(eq("url:abc123"), anyString(), eq(Duration.ofHours(1)));
+    }
+
+    @Test
+    void shouldSkipExpiredUrl() {
+        cache.put("old123", new CachedUrl("https://google.com", LocalDateTime.now().minusDays(1)));
+
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void shouldTreatRedisFailureAsMiss() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(any()))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        assertThat(cache.get("abc123")).isEmpty();
+    }
+
+    @Test
+    void shouldDeleteKeyOnEvict() {
+        cache.evict("abc123");
+
+        verify(redisTemplate).delete("url:abc123");
+    }
+}
@@ -0,0 +1,135 @@
+package com.techatow.url_shortner.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.techatow.url_shortner.storage.UrlStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ShortCodeFilterTest {
+
+    @Mock
+    private UrlStore urlStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalInvalidationBus createdCodesBus = new LocalInvalidationBus();
+    private ShortCodeFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ShortCodeFilter(urlStore, transactionManager, meterRegistry,
+                createdCodesBus, true, 0.01);
+    }
+
+    @Test
+    void shouldAllowEverythingBeforeFirstBuild() {
+        assertThat(filter.mightExist("abc123")).isTrue();
+    }
+
+    @Test
+    void shouldRejectCodesMissingFromRepository() {
+        when(urlStore.count()).thenReturn(2L);
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.of("abc123", "def456"));
+
+        filter.rebuild();
+
+        assertThat(filter.mightExist("abc123")).isTrue();
+        assertThat(filter.mightExist("def456")).isTrue();
+        assertThat(filter.mightExist("zzz999")).isFalse();
+        assertThat(meterRegistry.counter("shortcode.filter.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAcceptCodesCreatedOnAnyNode() {
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        createdCodesBus.publish("new001");
+
+        assertThat(filter.mightExist("new001")).isTrue();
+    }
+
+    @Test
+    void shouldNotConfirmNegativesWhenCreationsArriveSynchronously() {
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        assertThat(filter.mightExist("zzz999")).isFalse();
+        verify(urlStore, never()).existsByShortCode("zzz999");
+    }
+
+    @Test
+    void shouldConfirmNegativesAgainstRecentCreationsWhenBusCanLag() {
+        // Mensagens do Redis podem atrasar ou se perder: o código criado em outro nó não chegou
+        InvalidationBus laggingBus = mock(InvalidationBus.class);
+        ShortCodeFilter lagging = new ShortCodeFilter(urlStore, transactionManager,
+                meterRegistry, laggingBus, true, 0.01);
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.empty());
+        lagging.rebuild();
+        when(laggingBus.recentlyPublished("new001")).thenReturn(true);
+
+        assertThat(lagging.mightExist("new001")).isTrue();
+        assertThat(lagging.mightExist("new001")).isTrue();
+        assertThat(lagging.mightExist("zzz999")).isFalse();
+
+        // Depois da primeira confirmação o código já está no filtro
+        verify(laggingBus).recentlyPublished("new001");
+        assertThat(meterRegistry.counter("shortcode.filter.stale").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("shortcode.filter.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepUnknownCodesOffTheStoreWhenBusCanLag() {
+        ShortCodeFilter lagging = new ShortCodeFilter(urlStore, transactionManager,
+                meterRegistry, mock(InvalidationBus.class), true, 0.01);
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.empty());
+        lagging.rebuild();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(lagging.mightExist("s" + i)).isFalse();
+        }
+
+        verify(urlStore, never()).existsByShortCode(anyString());
+        verify(urlStore, never()).findByShortCode(anyString());
+        assertThat(meterRegistry.counter("shortcode.filter.rejected").count()).isEqualTo(1_000);
+    }
+
+    @Test
+    void shouldShedDeletedCodesOnRebuild() {
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.of("abc123"))
+                .thenReturn(Stream.empty());
+        filter.rebuild();
+
+        filter.rebuild();
+
+        assertThat(filter.mightExist("abc123")).isFalse();
+    }
+
+    @Test
+    void shouldExposeMemoryAndFalsePositiveMetrics() {
+        when(urlStore.streamAllShortCodes()).thenReturn(Stream.of("abc123"));
+        filter.rebuild();
+        filter.mightExist("zzz999");
+        filter.recordFalsePositive();
+
+        assertThat(meterRegistry.get("shortcode.filter.memory").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("shortcode.filter.expected.fpp").gauge().value())
+                .isLessThan(0.01);
+        assertThat(meterRegistry.get("shortcode.filter.observed.fpp").gauge().value())
+                .isEqualTo(0.5);
+    }
+}
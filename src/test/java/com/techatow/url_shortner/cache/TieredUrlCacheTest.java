@@ -0,0 +1,52 @@
+package com.techatow.url_shortner.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TieredUrlCacheTest {
+
+    private final InMemoryUrlCache remote = new InMemoryUrlCache(Duration.ofHours(1));
+    private final LocalInvalidationBus bus = new LocalInvalidationBus();
+    private final CachedUrl url = new CachedUrl("https://google.com", null);
+
+    private CaffeineUrlCache newLocal() {
+        return new CaffeineUrlCache(1024 * 1024, Duration.ofHours(1));
+    }
+
+    @Test
+    void shouldPopulateLocalFromRemoteOnMiss() {
+        CaffeineUrlCache local = newLocal();
+        TieredUrlCache cache = new TieredUrlCache(local, remote, bus);
+        remote.put("abc123", url);
+
+        assertThat(cache.get("abc123")).contains(url);
+        assertThat(local.get("abc123")).contains(url);
+    }
+
+    @Test
+    void shouldServeFromLocalWhenRemoteLosesEntry() {
+        TieredUrlCache cache = new TieredUrlCache(newLocal(), remote, bus);
+        cache.put("abc123", url);
+
+        remote.evict("abc123");
+
+        assertThat(cache.get("abc123")).contains(url);
+    }
+
+    @Test
+    void shouldInvalidateLocalCacheOfEveryNode() {
+        CaffeineUrlCache localA = newLocal();
+        CaffeineUrlCache localB = newLocal();
+        TieredUrlCache nodeA = new TieredUrlCache(localA, remote, bus);
+        TieredUrlCache nodeB = new TieredUrlCache(localB, remote, bus);
+        nodeA.put("abc123", url);
+        nodeB.get("abc123");
+
+        nodeA.evict("abc123");
+
+        assertThat(localA.get("abc123")).isEmpty();
+        assertThat(localB.get("abc123")).isEmpty();
+        assertThat(nodeB.get("abc123")).isEmpty();
+    }
+}
@@ -0,0 +1,135 @@
+package com.techatow.url_shortner.clicks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import com.techatow.url_shortner.storage.ClickDelta;
+import com.techatow.url_shortner.storage.UrlStore;
+
+@ExtendWith(MockitoExtension.class)
+class ClickAggregatorTest {
+
+    @Mock
+    private UrlStore urlStore;
+
+    private ClickAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new ClickAggregator(urlStore, 2, Duration.ofSeconds(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ClickDelta> capturedRows(int batches) {
+        ArgumentCaptor<List<ClickDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(urlStore, times(batches)).incrementClicks(captor.capture());
+        List<ClickDelta> rows = new ArrayList<>();
+        captor.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+
+    private Map<String, Long> clicksByCode(List<ClickDelta> rows) {
+        Map<String, Long> clicks = new HashMap<>();
+        for (ClickDelta row : rows) {
+            clicks.merge(row.shortCode(), row.clicks(), Long::sum);
+        }
+        return clicks;
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWhenNoClicks() {
+        aggregator.flush();
+
+        verify(urlStore, never()).incrementClicks(anyList());
+    }
+
+    @Test
+    void shouldSumClicksPerCodeAndCoalesceLastAccess() {
+        aggregator.record("abc123", 1_000L);
+        aggregator.record("abc123", 3_000L);
+        aggregator.record("abc123", 2_000L);
+
+        aggregator.flush();
+
+        List<ClickDelta> rows = capturedRows(1);
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).clicks()).isEqualTo(3L);
+        assertThat(rows.get(0).lastAccessedAt().atZone(ZoneId.systemDefault()).toInstant()
+                .toEpochMilli()).isEqualTo(3_000L);
+        assertThat(rows.get(0).shortCode()).isEqualTo("abc123");
+    }
+
+    @Test
+    void shouldSplitUpdatesIntoBatches() {
+        aggregator.record("aaa111");
+        aggregator.record("bbb222");
+        aggregator.record("ccc333");
+
+        aggregator.flush();
+
+        assertThat(clicksByCode(capturedRows(2))).containsOnlyKeys("aaa111", "bbb222", "ccc333");
+    }
+
+    @Test
+    void shouldRetryDeltasAfterFailedFlush() {
+        doThrow(new QueryTimeoutException("timeout")).doNothing().when(urlStore)
+                .incrementClicks(anyList());
+        aggregator.record("abc123");
+        aggregator.record("abc123");
+
+        aggregator.flush();
+        assertThat(aggregator.pendingClicks()).isEqualTo(2);
+        aggregator.flush();
+
+        List<ClickDelta> rows = capturedRows(2);
+        assertThat(rows.get(1).clicks()).isEqualTo(2L);
+        assertThat(aggregator.pendingClicks()).isZero();
+    }
+
+    @Test
+    void shouldNotLoseClicksRecordedConcurrentlyWithFlush() throws InterruptedException {
+        int threads = 8;
+        int clicksPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < clicksPerThread; i++) {
+                    aggregator.record("hot001");
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.awaitTermination(10, TimeUnit.MILLISECONDS)) {
+            aggregator.flush();
+        }
+
+        aggregator.drainOnShutdown();
+
+        List<ClickDelta> rows = new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ClickDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(urlStore, atLeastOnce()).incrementClicks(captor.capture());
+        captor.getAllValues().forEach(rows::addAll);
+        assertThat(clicksByCode(rows).get("hot001")).isEqualTo((long) threads * clicksPerThread);
+    }
+}
@@ -0,0 +1,116 @@
+package com.techatow.url_shortner.clicks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.exceptions.UrlExpiredException;
+import com.techatow.url_shortner.exceptions.UrlNotFoundException;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:click-counting",
+        "app.clicks.mode=exact"})
+@ActiveProfiles("test")
+class ClickCountingIntegrationTest {
+
+    @Autowired
+    private ShortenedUrlService urlService;
+
+    @Autowired
+    private ShortenedUrlRepository urlRepository;
+
+    @Autowired
+    private ClickAggregator clickAggregator;
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCountEveryConcurrentRedirectExactly() throws Exception {
+        urlRepository.save(new ShortenedUrl("hot001", "https://google.com"));
+        int threads = 16;
+        int redirectsPerThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                for (int i = 0; i < redirectsPerThread; i++) {
+                    assertThat(urlService.resolveShortCode("hot001"))
+                            .isEqualTo("https://google.com");
+                }
+                return null;
+            });
+        }
+
+        for (Future<Void> result : executor.invokeAll(tasks)) {
+            result.get();
+        }
+        executor.shutdown();
+
+        ShortenedUrl url = urlRepository.findByShortCode("hot001").orElseThrow();
+        assertThat(url.getClicks()).isEqualTo((long) threads * redirectsPerThread);
+        assertThat(url.getLastAccessedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldNotCountExpiredOrUnknownCodes() {
+        ShortenedUrl expired = new ShortenedUrl("old123", "https://google.com");
+        expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+        urlRepository.save(expired);
+
+        assertThatThrownBy(() -> urlService.resolveShortCode("old123"))
+                .isInstanceOf(UrlExpiredException.class);
+        assertThatThrownBy(() -> urlService.resolveShortCode("noop00"))
+                .isInstanceOf(UrlNotFoundException.class);
+        assertThat(urlRepository.findByShortCode("old123").orElseThrow().getClicks()).isZero();
+    }
+
+    @Test
+    void shouldExtendSlidingExpiryInTheSameUpdate() {
+        LocalDateTime fixedExpiry = LocalDateTime.now().plusMinutes(5);
+        ShortenedUrl sliding = new ShortenedUrl("sld001", "https://google.com");
+        sliding.setExpiresAt(fixedExpiry);
+        sliding.setSlidingTtlSeconds(3600L);
+        urlRepository.save(sliding);
+        ShortenedUrl fixed = new ShortenedUrl("fix001", "https://google.com/fixed");
+        fixed.setExpiresAt(fixedExpiry);
+        urlRepository.save(fixed);
+
+        urlService.resolveShortCode("sld001");
+        urlService.resolveShortCode("fix001");
+
+        assertThat(urlRepository.findByShortCode("sld001").orElseThrow().getExpiresAt())
+                .isAfter(LocalDateTime.now().plusMinutes(59));
+        assertThat(urlRepository.findByShortCode("fix001").orElseThrow().getExpiresAt())
+                .isBefore(LocalDateTime.now().plusMinutes(6));
+    }
+
+    @Test
+    void shouldApplyAggregatedDeltasWithBatchedUpdate() {
+        urlRepository.save(new ShortenedUrl("abc123", "https://google.com"));
+        for (int i = 0; i < 42; i++) {
+            clickAggregator.record("abc123");
+        }
+
+        clickAggregator.flush();
+        clickAggregator.flush();
+
+        ShortenedUrl url = urlRepository.findByShortCode("abc123").orElseThrow();
+        assertThat(url.getClicks()).isEqualTo(42L);
+        assertThat(url.getLastAccessedAt()).isNotNull();
+    }
+}
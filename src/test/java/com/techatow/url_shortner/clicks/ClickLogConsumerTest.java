@@ -0,0 +1,153 @@
+package com.techatow.url_shortner.clicks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import com.techatow.url_shortner.events.ClickEventLog;
+import com.techatow.url_shortner.events.LogPosition;
+
+class ClickLogConsumerTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:click-log-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("create table shortened_urls (short_code varchar(6) primary key, "
+                + "clicks bigint not null, last_accessed_at timestamp)");
+        jdbcTemplate.update("insert into shortened_urls values ('abc123', 0, null)");
+        jdbcTemplate.update("insert into shortened_urls values ('def456', 0, null)");
+    }
+
+    private ClickEventLog openLog() throws IOException {
+        return ClickEventLog.open(directory, 1024, null);
+    }
+
+    private ClickLogConsumer consumer(ClickEventLog log) {
+        return new ClickLogConsumer(log, jdbcTemplate, transactionManager, "node-1", 7,
+                Duration.ofHours(24));
+    }
+
+    private long clicks(String shortCode) {
+        return jdbcTemplate.queryForObject(
+                "select clicks from shortened_urls where short_code = ?", Long.class, shortCode);
+    }
+
+    @Test
+    void shouldApplyLoggedClicksAndPersistOffset() throws IOException {
+        ClickEventLog log = openLog();
+        for (int i = 0; i < 30; i++) {
+            log.append(i % 3 == 0 ? "def456" : "abc123", 1_000L + i, 0, 0);
+        }
+
+        ClickLogConsumer consumer = consumer(log);
+        consumer.consume();
+
+        assertThat(clicks("abc123")).isEqualTo(20);
+        assertThat(clicks("def456")).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject(
+                "select last_accessed_at from shortened_urls where short_code = 'abc123'",
+                Timestamp.class)).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select segment_id from event_log_offsets "
+                + "where consumer = 'node-1:clicks'", Long.class))
+                .isEqualTo(consumer.position().segment());
+
+        consumer.consume();
+        assertThat(clicks("abc123")).isEqualTo(20);
+    }
+
+    @Test
+    void shouldReplayOnlyUnappliedEventsAfterRestart() throws IOException {
+        ClickEventLog log = openLog();
+        for (int i = 0; i < 10; i++) {
+            log.append("abc123", 1_000L + i, 0, 0);
+        }
+        consumer(log).consume();
+        for (int i = 0; i < 5; i++) {
+            log.append("abc123", 2_000L + i, 0, 0);
+        }
+        log.close();
+
+        // Reinício: cliques gravados no log e ainda não aplicados não se perdem nem duplicam
+        ClickEventLog reopened = openLog();
+        ClickLogConsumer restarted = consumer(reopened);
+        restarted.consume();
+
+        assertThat(clicks("abc123")).isEqualTo(15);
+        assertThat(restarted.position()).isGreaterThan(new LogPosition(1, 0));
+    }
+
+    @Test
+    void shouldRestartFromLogStartWhenStoredOffsetIsPastRecreatedLog() throws IOException {
+        ClickEventLog log = openLog();
+        for (int i = 0; i < 60; i++) {
+            log.append("abc123", 1_000L + i, 0, 0);
+        }
+        consumer(log).consume();
+        log.close();
+
+        // Diretório apagado: os segmentos recomeçam do 1, abaixo do offset salvo
+        ClickEventLog recreated = ClickEventLog.open(directory.resolve("novo"), 1024, null);
+        for (int i = 0; i < 5; i++) {
+            recreated.append("abc123", 2_000L + i, 0, 0);
+        }
+        ClickLogConsumer restarted = consumer(recreated);
+        restarted.consume();
+        restarted.purgeConsumed();
+
+        assertThat(clicks("abc123")).isEqualTo(65);
+        assertThat(restarted.position().segment()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select segment_id from event_log_offsets "
+                + "where consumer = 'node-1:clicks'", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepOffsetWhenApplyFails() throws IOException {
+        ClickEventLog log = openLog();
+        log.append("abc123", 1_000L, 0, 0);
+        ClickLogConsumer consumer = consumer(log);
+        consumer.consume();
+        LogPosition applied = consumer.position();
+
+        jdbcTemplate.execute("alter table shortened_urls rename to shortened_urls_old");
+        log.append("abc123", 2_000L, 0, 0);
+        consumer.consume();
+        assertThat(consumer.position()).isEqualTo(applied);
+
+        jdbcTemplate.execute("alter table shortened_urls_old rename to shortened_urls");
+        consumer.consume();
+        assertThat(clicks("abc123")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldUseConfiguredNodeIdOrFallBackToHostname() {
+        assertThat(ClickLogConsumer.nodeId(" node-2 ")).isEqualTo("node-2");
+        assertThat(ClickLogConsumer.nodeId("")).isNotBlank().isNotEqualTo("local");
+    }
+
+    @Test
+    void shouldDoNothingWhenLogDisabled() {
+        ClickLogConsumer consumer = consumer(ClickEventLog.disabled());
+
+        consumer.consume();
+        consumer.purgeConsumed();
+
+        assertThat(consumer.position()).isNull();
+    }
+}
@@ -0,0 +1,141 @@
+package com.techatow.url_shortner.clicks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClickTimeSeriesTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 10, 8, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ClickTimeSeries series;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:click-series-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        series = new ClickTimeSeries(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                meterRegistry, true, 2, Duration.ofDays(2), Duration.ofDays(30));
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private Map<LocalDateTime, Long> storedRows(String granularity) {
+        Map<LocalDateTime, Long> rows = new TreeMap<>();
+        jdbcTemplate.query("select bucket_start, clicks from click_buckets where granularity = ?",
+                row -> {
+                    rows.merge(row.getTimestamp(1).toLocalDateTime(), row.getLong(2), Long::sum);
+                }, granularity);
+        return rows;
+    }
+
+    @Test
+    void shouldPersistOneRowPerMinuteAndAddOnLaterFlushes() {
+        series.record("abc123", millis(BASE.plusSeconds(5)));
+        series.record("abc123", millis(BASE.plusSeconds(50)));
+        series.record("abc123", millis(BASE.plusMinutes(1)));
+        series.record("def456", millis(BASE));
+        series.flush();
+
+        series.record("abc123", millis(BASE.plusSeconds(30)));
+        series.flush();
+
+        assertThat(storedRows("minute")).containsEntry(BASE, 4L)
+                .containsEntry(BASE.plusMinutes(1), 1L);
+        assertThat(series.query("abc123", BASE, BASE.plusHours(1), ClickGranularity.MINUTE))
+                .containsExactly(Map.entry(BASE, 3L), Map.entry(BASE.plusMinutes(1), 1L));
+    }
+
+    @Test
+    void shouldIncludeClicksNotYetFlushedInQueries() {
+        series.record("abc123", millis(BASE));
+        series.flush();
+        series.record("abc123", millis(BASE.plusMinutes(20)));
+
+        assertThat(series.query("abc123", BASE, BASE.plusHours(1), ClickGranularity.HOUR))
+                .containsExactly(Map.entry(BASE, 2L));
+    }
+
+    @Test
+    void shouldNotLoseConcurrentClicks() throws Exception {
+        long now = millis(BASE);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    series.record("abc123", now + (i % 3) * 60_000L);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        series.flush();
+
+        assertThat(storedRows("minute").values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(80_000);
+    }
+
+    @Test
+    void shouldDropClicksOlderThanTheRing() {
+        series.record("abc123", millis(BASE.plusMinutes(64)));
+        series.record("abc123", millis(BASE));
+
+        assertThat(meterRegistry.counter("clicks.series.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRollMinutesIntoHoursAndHoursIntoDays() {
+        series.record("abc123", millis(BASE.plusMinutes(1)));
+        series.record("abc123", millis(BASE.plusMinutes(59)));
+        series.record("abc123", millis(BASE.plusHours(1)));
+        series.record("abc123", millis(BASE.plusHours(5)));
+        series.flush();
+
+        series.rollup(ClickGranularity.MINUTE, ClickGranularity.HOUR, BASE.plusHours(2));
+
+        assertThat(storedRows("minute")).containsOnlyKeys(BASE.plusHours(5));
+        assertThat(storedRows("hour")).containsExactly(Map.entry(BASE, 2L),
+                Map.entry(BASE.plusHours(1), 1L));
+
+        series.rollup(ClickGranularity.HOUR, ClickGranularity.DAY, BASE.plusDays(1).toLocalDate()
+                .atStartOfDay());
+
+        assertThat(storedRows("hour")).isEmpty();
+        assertThat(storedRows("day")).containsExactly(Map.entry(BASE.toLocalDate().atStartOfDay(),
+                3L));
+        assertThat(series.query("abc123", BASE.toLocalDate().atStartOfDay(), BASE.plusDays(1),
+                ClickGranularity.DAY)).containsExactly(
+                        Map.entry(BASE.toLocalDate().atStartOfDay(), 4L));
+    }
+
+    @Test
+    void shouldForgetDeletedCode() {
+        series.record("abc123", millis(BASE));
+        series.flush();
+        series.record("abc123", millis(BASE));
+
+        series.delete("abc123");
+
+        assertThat(series.query("abc123", BASE, BASE.plusHours(1), ClickGranularity.MINUTE))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package com.techatow.url_shortner.codes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
+import com.techatow.url_shortner.utils.PermutedBase62;
+
+class BlockShortCodeAllocatorTest {
+
+    private final PermutedBase62 encoder = new PermutedBase62(42L);
+
+    private static class CountingBlockSource extends InMemoryBlockSource {
+        final AtomicInteger leases = new AtomicInteger();
+
+        @Override
+        public long lease(int size) {
+            leases.incrementAndGet();
+            return super.lease(size);
+        }
+    }
+
+    @Test
+    void nextCode_shouldLeaseOneBlockPerBlockSizeCodes() {
+        CountingBlockSource source = new CountingBlockSource();
+        BlockShortCodeAllocator allocator = new BlockShortCodeAllocator(source, 10, encoder);
+
+        for (int i = 0; i < 25; i++) {
+            allocator.nextCode();
+        }
+
+        assertThat(source.leases).hasValue(3);
+    }
+
+    @Test
+    void nextCode_shouldEncodeLeasedIdsInOrder() {
+        BlockShortCodeAllocator allocator =
+                new BlockShortCodeAllocator(new InMemoryBlockSource(), 10, encoder);
+
+        assertThat(allocator.nextCode()).isEqualTo(encoder.encode(0));
+        assertThat(allocator.nextCode()).isEqualTo(encoder.encode(1));
+    }
+
+    @Test
+    void nextCode_shouldNotRepeatAcrossAllocatorsSharingSource() {
+        InMemoryBlockSource source = new InMemoryBlockSource();
+        BlockShortCodeAllocator first = new BlockShortCodeAllocator(source, 7, encoder);
+        BlockShortCodeAllocator second = new BlockShortCodeAllocator(source, 7, encoder);
+
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 100; i++) {
+            codes.add(first.nextCode());
+            codes.add(second.nextCode());
+        }
+
+        assertThat(codes).hasSize(200);
+    }
+
+    @Test
+    void nextCode_shouldNotRepeatUnderConcurrency() throws Exception {
+        CountingBlockSource source = new CountingBlockSource();
+        BlockShortCodeAllocator allocator = new BlockShortCodeAllocator(source, 50, encoder);
+        int threads = 8;
+        int perThread = 5_000;
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        codes.add(allocator.nextCode());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(codes).hasSize(threads * perThread);
+        assertThat(source.leases).hasValue(threads * perThread / 50);
+    }
+
+    @Test
+    void nextCode_shouldThrowWhenCodeSpaceIsExhausted() {
+        BlockSource exhausted = size -> PermutedBase62.CAPACITY;
+        BlockShortCodeAllocator allocator = new BlockShortCodeAllocator(exhausted, 10, encoder);
+
+        assertThatThrownBy(allocator::nextCode).isInstanceOf(ShortCodeGenerationException.class)
+                .hasMessageContaining("esgotado");
+    }
+}
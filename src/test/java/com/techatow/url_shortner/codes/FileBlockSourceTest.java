@@ -0,0 +1,24 @@
+package com.techatow.url_shortner.codes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileBlockSourceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldLeaseConsecutiveBlocksAndContinueAfterRestart() {
+        Path file = directory.resolve("urls").resolve("short-code-blocks");
+        FileBlockSource source = new FileBlockSource(file);
+
+        assertThat(source.lease(10)).isZero();
+        assertThat(source.lease(10)).isEqualTo(10);
+
+        assertThat(new FileBlockSource(file).lease(5)).isEqualTo(20);
+        assertThat(directory.resolve("urls")).isDirectoryNotContaining("glob:**.tmp");
+    }
+}
@@ -0,0 +1,44 @@
+package com.techatow.url_shortner.codes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
+import com.techatow.url_shortner.storage.UrlStore;
+
+@ExtendWith(MockitoExtension.class)
+class RandomShortCodeAllocatorTest {
+
+    @Mock
+    private UrlStore urlStore;
+
+    @InjectMocks
+    private RandomShortCodeAllocator allocator;
+
+    @Test
+    void nextCode_shouldReturnFirstUnusedCode() {
+        when(urlStore.existsByShortCode(any())).thenReturn(true, false);
+
+        assertThat(allocator.nextCode()).hasSize(6);
+        verify(urlStore, times(2)).existsByShortCode(any());
+    }
+
+    @Test
+    void nextCode_shouldThrowAfterMaxAttempts() {
+        when(urlStore.existsByShortCode(any())).thenReturn(true);
+
+        assertThatThrownBy(() -> allocator.nextCode())
+                .isInstanceOf(ShortCodeGenerationException.class)
+                .hasMessageContaining("Falha ao gerar código único");
+
+        verify(urlStore, times(5)).existsByShortCode(any());
+    }
+}
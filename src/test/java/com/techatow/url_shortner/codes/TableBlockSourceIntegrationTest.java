@@ -0,0 +1,78 @@
+package com.techatow.url_shortner.codes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:code-blocks")
+@ActiveProfiles("test")
+class TableBlockSourceIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void lease_shouldReturnConsecutiveBlocks() {
+        TableBlockSource source = new TableBlockSource(jdbcTemplate, transactionManager, "seq");
+
+        assertThat(source.lease(100)).isZero();
+        assertThat(source.lease(100)).isEqualTo(100);
+        assertThat(source.lease(10)).isEqualTo(200);
+    }
+
+    @Test
+    void lease_shouldKeepBlockWhenCallerTransactionRollsBack() {
+        TableBlockSource source = new TableBlockSource(jdbcTemplate, transactionManager, "tx");
+        source.lease(100);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(source.lease(100)).isEqualTo(100);
+            // Como o insert que viola o índice único no ShortenedUrlService
+            status.setRollbackOnly();
+        });
+
+        assertThat(source.lease(100)).isEqualTo(200);
+    }
+
+    @Test
+    void lease_shouldHandOutDisjointBlocksToConcurrentNodes() throws Exception {
+        Set<Long> starts = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int node = 0; node < 4; node++) {
+                TableBlockSource source =
+                        new TableBlockSource(jdbcTemplate, transactionManager, "concurrent");
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        starts.add(source.lease(10));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(starts).hasSize(100).allMatch(start -> start % 10 == 0)
+                .contains(0L, 990L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.techatow.url_shortner.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.techatow.url_shortner.codes.BlockShortCodeAllocator;
+import com.techatow.url_shortner.codes.ShortCodeAllocator;
+import com.techatow.url_shortner.storage.UrlStore;
+
+class ShortCodeConfigTest {
+
+    private final ShortCodeConfig config = new ShortCodeConfig();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(config, "strategy", "block");
+        ReflectionTestUtils.setField(config, "backend", "memory");
+        ReflectionTestUtils.setField(config, "blockSize", 10);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ShortCodeAllocator allocator() {
+        return config.shortCodeAllocator(mock(UrlStore.class), mock(ObjectProvider.class),
+                mock(ObjectProvider.class), mock(ObjectProvider.class));
+    }
+
+    @Test
+    void shouldRefuseToStartWithoutSecret() {
+        ReflectionTestUtils.setField(config, "secret", " ");
+
+        assertThatThrownBy(this::allocator).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SHORT_CODE_SECRET");
+    }
+
+    @Test
+    void shouldRejectNonNumericSecret() {
+        ReflectionTestUtils.setField(config, "secret", "segredo");
+
+        assertThatThrownBy(this::allocator).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.codes.secret inválido");
+    }
+
+    @Test
+    void shouldKeepTableCounterInFileWithEmbeddedStorage(@TempDir Path directory) {
+        ReflectionTestUtils.setField(config, "secret", "7340286919");
+        ReflectionTestUtils.setField(config, "backend", "table");
+        ReflectionTestUtils.setField(config, "storageType", "embedded");
+        ReflectionTestUtils.setField(config, "storageDir", directory.toString());
+
+        allocator().nextCode();
+
+        assertThat(directory.resolve("short-codes")).hasContent("10");
+    }
+
+    @Test
+    void shouldBuildBlockAllocatorWithConfiguredSecret() {
+        ReflectionTestUtils.setField(config, "secret", "7340286919");
+
+        assertThat(allocator()).isInstanceOf(BlockShortCodeAllocator.class);
+    }
+}
@@ -0,0 +1,167 @@
+package com.techatow.url_shortner.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import com.techatow.url_shortner.dtos.HotLinkResponse;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import com.techatow.url_shortner.limits.ConcurrencyLimiter;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+import com.techatow.url_shortner.services.UrlExportService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+@WebMvcTest(controllers = AdminController.class, properties = "app.export.request-timeout=45m")
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ShortenedUrlService urlService;
+
+    @MockitoBean
+    private UrlExportService exportService;
+
+    @MockitoBean(name = "exportLimiter")
+    private ConcurrencyLimiter exportLimiter;
+
+    @Test
+    void shouldReturnHotLinksWithEstimatedRates() throws Exception {
+        when(urlService.getHotLinks(5)).thenReturn(
+                List.of(new HotLinkResponse("hot001", 1200, 42.5, true),
+                        new HotLinkResponse("warm01", 300, 10.0, false)));
+
+        mockMvc.perform(get("/api/admin/hot-links").param("limit", "5"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$[0].shortCode").value("hot001"))
+                .andExpect(jsonPath("$[0].ratePerSecond").value(42.5))
+                .andExpect(jsonPath("$[0].pinned").value(true))
+                .andExpect(jsonPath("$[1].estimatedHits").value(300));
+    }
+
+    @Test
+    void shouldUseDefaultLimit() throws Exception {
+        when(urlService.getHotLinks(20)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/admin/hot-links")).andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    private void stubExport(String body) throws Exception {
+        doAnswer(inv -> {
+            OutputStream output = inv.getArgument(2);
+            output.write(body.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).export(any(), any(), any());
+    }
+
+    @Test
+    void shouldStreamNdjsonExportAndReleasePermit() throws Exception {
+        stubExport("{\"shortCode\":\"abc123\"}\n");
+
+        MvcResult result = mockMvc.perform(get("/api/admin/export")
+                .param("createdFrom", "2026-01-01T00:00:00")).andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofMinutes(45).toMillis());
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("{\"shortCode\":\"abc123\"}\n"));
+        verify(exportService).export(
+                eq(new UrlExportService.Filter(LocalDateTime.of(2026, 1, 1, 0, 0), null, null,
+                        null)),
+                eq(UrlExportService.Format.NDJSON), any());
+        verify(exportLimiter).acquire();
+        verify(exportLimiter).release();
+    }
+
+    @Test
+    void shouldGzipCsvExportWhenClientAcceptsIt() throws Exception {
+        stubExport("id,shortCode\n1,abc123\n");
+
+        MvcResult result = mockMvc.perform(get("/api/admin/export").param("format", "csv")
+                .header("Accept-Encoding", "gzip, deflate")).andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream unzipped = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(unzipped.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("id,shortCode\n1,abc123\n");
+        }
+    }
+
+    @Test
+    void shouldReleasePermitOnceWhenAsyncRequestEndsBeforeExportFinishes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(inv -> {
+            started.countDown();
+            finish.await();
+            return 0L;
+        }).when(exportService).export(any(), any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/admin/export")).andReturn();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+
+        verify(exportLimiter, times(1)).release();
+        finish.countDown();
+        verify(exportLimiter, timeout(5_000).times(1)).release();
+        verify(exportLimiter, after(200).times(1)).release();
+    }
+
+    @Test
+    void shouldRejectUnknownFormatAndInvalidDates() throws Exception {
+        mockMvc.perform(get("/api/admin/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/export").param("expiresTo", "amanhã"))
+                .andExpect(status().isBadRequest());
+        verify(exportLimiter, never()).acquire();
+    }
+
+    @Test
+    void shouldReturn503WhenAnotherExportIsRunning() throws Exception {
+        doThrow(new ServiceOverloadedException("Limite de concorrência excedido para export"))
+                .when(exportLimiter).acquire();
+
+        mockMvc.perform(get("/api/admin/export")).andExpect(status().isServiceUnavailable());
+        verify(exportService, never()).export(any(), any(), any());
+    }
+}
@@ -1,11 +1,15 @@
 package com.techatow.url_shortner.controllers;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -27,6 +31,11 @@ class RedirectControllerTest {
     @MockitoBean
     private ShortenedUrlService urlService;
 
+    @BeforeEach
+    void setUp() {
+        when(urlService.mightExist(any())).thenReturn(true);
+    }
+
     @Nested
     @DisplayName("Successful Redirects")
     class SuccessfulRedirects {
@@ -36,10 +45,14 @@ class RedirectControllerTest {
         void shouldRedirectToOriginalUrl() throws Exception {
             when(urlService.resolveShortCode("abc123")).thenReturn("https://google.com");
 
-            mockMvc.perform(get("/abc123")).andExpect(status().isFound())
+            mockMvc.perform(get("/abc123").header("User-Agent", "curl/8.0")
+                    .header("Referer", "https://news.example/"))
+                    .andExpect(status().isFound())
                     .andExpect(redirectedUrl("https://google.com"));
 
             verify(urlService).resolveShortCode("abc123");
+            verify(urlService).recordVisit("abc123", "127.0.0.1", "curl/8.0",
+                    "https://news.example/");
         }
     }
 
@@ -55,6 +68,19 @@ class RedirectControllerTest {
 
             mockMvc.perform(get("/noop00")).andExpect(status().isNotFound())
                     .andExpect(jsonPath("$.error").value("Short code não encontrado: noop00"));
+            verify(urlService, never()).recordVisit(any(), anyString(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return 404 without resolving when filter rejects the code")
+        void shouldReturn404WhenFilterRejectsShortCode() throws Exception {
+            when(urlService.mightExist("zzz999")).thenReturn(false);
+
+            mockMvc.perform(get("/zzz999")).andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.status").value(404))
+                    .andExpect(jsonPath("$.error").value("Short code não encontrado"));
+
+            verify(urlService, never()).resolveShortCode(any());
         }
 
         @Test
@@ -0,0 +1,140 @@
+package com.techatow.url_shortner.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import com.techatow.url_shortner.exceptions.UrlExpiredException;
+import com.techatow.url_shortner.exceptions.UrlNotFoundException;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectFastPathFilterTest {
+
+    @Mock
+    private ShortenedUrlService urlService;
+
+    private RedirectFastPathFilter filter;
+    private MockFilterChain chain;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RedirectFastPathFilter(urlService, JsonMapper.builder().findAndAddModules()
+                .build(), Set.of("api", "actuator", "error"));
+        chain = new MockFilterChain();
+        response = new MockHttpServletResponse();
+    }
+
+    private void perform(String method, String uri) throws Exception {
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+    }
+
+    @Nested
+    class Redirects {
+
+        @BeforeEach
+        void setUp() {
+            when(urlService.mightExist(any())).thenReturn(true);
+        }
+
+        @Test
+        void shouldWriteFoundWithLocationWithoutReachingMvc() throws Exception {
+            when(urlService.resolveShortCode("abc123")).thenReturn("https://google.com");
+
+            perform("GET", "/abc123");
+
+            assertThat(response.getStatus()).isEqualTo(302);
+            assertThat(response.getHeader("Location")).isEqualTo("https://google.com");
+            assertThat(chain.getRequest()).isNull();
+            verify(urlService).recordVisit("abc123", "127.0.0.1", null, null);
+        }
+
+        @Test
+        void shouldWriteNotFoundErrorBody() throws Exception {
+            when(urlService.resolveShortCode("noop00"))
+                    .thenThrow(new UrlNotFoundException("Short code não encontrado: noop00"));
+
+            perform("GET", "/noop00");
+
+            assertThat(response.getStatus()).isEqualTo(404);
+            assertThat(response.getContentAsString())
+                    .contains("\"error\":\"Short code não encontrado: noop00\"")
+                    .contains("\"path\":\"/noop00\"");
+        }
+
+        @Test
+        void shouldWriteGoneWhenExpired() throws Exception {
+            when(urlService.resolveShortCode("old123"))
+                    .thenThrow(new UrlExpiredException("URL expirada"));
+
+            perform("GET", "/old123");
+
+            assertThat(response.getStatus()).isEqualTo(410);
+            assertThat(response.getContentAsString()).contains("\"error\":\"URL expirada\"");
+        }
+
+        @Test
+        void shouldWriteServiceUnavailableWhenOverloaded() throws Exception {
+            when(urlService.resolveShortCode("abc123"))
+                    .thenThrow(new ServiceOverloadedException("Limite excedido"));
+
+            perform("GET", "/abc123");
+
+            assertThat(response.getStatus()).isEqualTo(503);
+        }
+
+        @Test
+        void shouldWriteInternalErrorOnUnexpectedFailure() throws Exception {
+            when(urlService.resolveShortCode("abc123")).thenThrow(new IllegalStateException());
+
+            perform("GET", "/abc123");
+
+            assertThat(response.getStatus()).isEqualTo(500);
+            assertThat(response.getContentAsString()).contains("Erro interno do servidor");
+        }
+    }
+
+    @Test
+    void shouldAnswerFilteredMissWithPreallocatedBody() throws Exception {
+        when(urlService.mightExist("zzz999")).thenReturn(false);
+
+        perform("GET", "/zzz999");
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getContentAsString()).contains("Short code não encontrado");
+        verify(urlService, never()).resolveShortCode(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/", "/api/urls", "/api", "/actuator", "/favicon.ico",
+            "/abc123/extra", "/abcdefghijklmnopq"})
+    void shouldFallThroughForNonRedirectPaths(String uri) throws Exception {
+        perform("GET", uri);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verify(urlService, never()).mightExist(any());
+    }
+
+    @Test
+    void shouldFallThroughForNonGetMethods() throws Exception {
+        perform("POST", "/abc123");
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+}
@@ -1,17 +1,27 @@
 package com.techatow.url_shortner.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.Nested;
@@ -26,11 +36,19 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import com.techatow.url_shortner.clicks.ClickGranularity;
+import com.techatow.url_shortner.dtos.ClickSeriesResponse;
+import com.techatow.url_shortner.dtos.CursorPage;
+import com.techatow.url_shortner.dtos.UniqueVisitorsResponse;
 import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+import com.techatow.url_shortner.exceptions.InvalidCursorException;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
 import com.techatow.url_shortner.exceptions.UrlNotFoundException;
+import com.techatow.url_shortner.services.BulkShortenService;
 import com.techatow.url_shortner.services.ShortenedUrlService;
 
-@WebMvcTest(UrlController.class)
+@WebMvcTest(controllers = UrlController.class, properties = "app.batch.request-timeout=90m")
 class UrlControllerTest {
 
     @Autowired
@@ -39,10 +57,13 @@ class UrlControllerTest {
     @MockitoBean
     private ShortenedUrlService urlService;
 
+    @MockitoBean
+    private BulkShortenService bulkShortenService;
+
     private UrlDetailsResponse buildResponse(String shortCode, String originalUrl) {
         return new UrlDetailsResponse(1L, shortCode, originalUrl,
                 "http://localhost:8080/" + shortCode, 0L, LocalDateTime.now(), null,
-                LocalDateTime.now().plusDays(7), false);
+                LocalDateTime.now().plusDays(7), false, null);
     }
 
     @Nested
@@ -51,7 +72,7 @@ class UrlControllerTest {
         @Test
         void shouldReturn201WithShortUrl() throws Exception {
             UrlDetailsResponse response = buildResponse("abc123", "https://google.com");
-            when(urlService.shortenUrl("https://google.com")).thenReturn(response);
+            when(urlService.shortenUrl("https://google.com", null, null)).thenReturn(response);
 
             mockMvc.perform(post("/api/urls").contentType(MediaType.APPLICATION_JSON)
                     .content("{\"url\":\"https://google.com\"}")).andExpect(status().isCreated())
@@ -78,6 +99,34 @@ class UrlControllerTest {
         }
     }
 
+    @Nested
+    class ShortenBatch {
+
+        @Test
+        void shouldStreamServiceOutputAsNdjson() throws Exception {
+            doAnswer(inv -> {
+                InputStream input = inv.getArgument(0);
+                OutputStream output = inv.getArgument(1);
+                output.write(input.readAllBytes());
+                return null;
+            }).when(bulkShortenService).shorten(any(), any());
+
+            MvcResult result = mockMvc
+                    .perform(post("/api/urls/batch").contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"url\":\"https://google.com\"}\n"))
+                    .andReturn();
+
+            assertThat(result.getRequest().getAsyncContext().getTimeout())
+                    .isEqualTo(Duration.ofMinutes(90).toMillis());
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type",
+                            MediaType.APPLICATION_NDJSON_VALUE))
+                    .andExpect(content().bytes(
+                            "{\"url\":\"https://google.com\"}\n"
+                                    .getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
     @Nested
     class GetStats {
 
@@ -100,6 +149,87 @@ class UrlControllerTest {
         }
     }
 
+    @Nested
+    class GetClicks {
+
+        @Test
+        void shouldReturn200WithBuckets() throws Exception {
+            LocalDateTime from = LocalDateTime.of(2026, 3, 10, 8, 0);
+            LocalDateTime to = LocalDateTime.of(2026, 3, 10, 12, 0);
+            when(urlService.getClicks("abc123", from, to, "hour"))
+                    .thenReturn(new ClickSeriesResponse("abc123", ClickGranularity.HOUR, from, to,
+                            5, List.of(new ClickSeriesResponse.Bucket(from, 5))));
+
+            mockMvc.perform(get("/api/urls/abc123/clicks").param("from", "2026-03-10T08:00:00")
+                    .param("to", "2026-03-10T12:00:00")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.granularity").value("HOUR"))
+                    .andExpect(jsonPath("$.total").value(5))
+                    .andExpect(jsonPath("$.buckets[0].start").value("2026-03-10T08:00:00"))
+                    .andExpect(jsonPath("$.buckets[0].clicks").value(5));
+        }
+
+        @Test
+        void shouldReturn400ForInvalidGranularity() throws Exception {
+            when(urlService.getClicks("abc123", null, null, "week"))
+                    .thenThrow(new InvalidParameterException("Granularidade inválida: week"));
+
+            mockMvc.perform(get("/api/urls/abc123/clicks").param("granularity", "week"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class GetUniqueVisitors {
+
+        @Test
+        void shouldReturn200WithEstimate() throws Exception {
+            LocalDate from = LocalDate.of(2026, 3, 1);
+            LocalDate to = LocalDate.of(2026, 3, 31);
+            when(urlService.getUniqueVisitors("abc123", from, to))
+                    .thenReturn(new UniqueVisitorsResponse("abc123", from, to, 1234));
+
+            mockMvc.perform(get("/api/urls/abc123/visitors").param("from", "2026-03-01")
+                    .param("to", "2026-03-31")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.from").value("2026-03-01"))
+                    .andExpect(jsonPath("$.uniqueVisitors").value(1234));
+        }
+
+        @Test
+        void shouldReturn404WhenShortCodeNotFound() throws Exception {
+            when(urlService.getUniqueVisitors("noop00", null, null))
+                    .thenThrow(new UrlNotFoundException("Short code não encontrado: noop00"));
+
+            mockMvc.perform(get("/api/urls/noop00/visitors")).andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    class ListUrlsByCursor {
+
+        @Test
+        void shouldUseCursorModeWhenCursorParamIsPresent() throws Exception {
+            UrlDetailsResponse response = buildResponse("abc123", "https://google.com");
+            when(urlService.listUrls("", 50))
+                    .thenReturn(new CursorPage<>(List.of(response), "bmV4dA"));
+
+            mockMvc.perform(get("/api/urls").param("cursor", "").param("size", "50"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].shortCode").value("abc123"))
+                    .andExpect(jsonPath("$.nextCursor").value("bmV4dA"))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+            verify(urlService, never()).listUrls(any(Pageable.class));
+        }
+
+        @Test
+        void shouldReturn400ForInvalidCursor() throws Exception {
+            when(urlService.listUrls("lixo", 20))
+                    .thenThrow(new InvalidCursorException("Cursor inválido"));
+
+            mockMvc.perform(get("/api/urls").param("cursor", "lixo"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     class ListUrls {
 
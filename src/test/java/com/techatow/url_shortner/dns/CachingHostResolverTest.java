@@ -0,0 +1,147 @@
+package com.techatow.url_shortner.dns;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import com.techatow.url_shortner.exceptions.HostResolutionTimeoutException;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import com.techatow.url_shortner.utils.HostResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingHostResolverTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private CachingHostResolver resolver(HostResolver delegate) {
+        return new CachingHostResolver(delegate, Duration.ofSeconds(60), Duration.ofSeconds(10),
+                Duration.ofMillis(200), 100, new SimpleMeterRegistry(), now::get);
+    }
+
+    private HostResolver counting(HostResolver delegate) {
+        return host -> {
+            lookups.incrementAndGet();
+            return delegate.resolve(host);
+        };
+    }
+
+    private static InetAddress address(int last) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[] {8, 8, 8, (byte) last});
+    }
+
+    @Test
+    void shouldCacheAllAddressesUntilPositiveTtl() throws Exception {
+        CachingHostResolver resolver =
+                resolver(counting(host -> List.of(address(1), address(2))));
+
+        assertThat(resolver.resolve("example.com")).containsExactly(address(1), address(2));
+        assertThat(resolver.resolve("EXAMPLE.com")).containsExactly(address(1), address(2));
+        assertThat(lookups).hasValue(1);
+
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+        resolver.resolve("example.com");
+
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldCacheUnknownHostsForNegativeTtl() throws Exception {
+        CachingHostResolver resolver = resolver(counting(host -> {
+            throw new UnknownHostException(host);
+        }));
+
+        assertThatThrownBy(() -> resolver.resolve("missing.example"))
+                .isInstanceOf(UnknownHostException.class);
+        assertThatThrownBy(() -> resolver.resolve("missing.example"))
+                .isInstanceOf(UnknownHostException.class);
+        assertThat(lookups).hasValue(1);
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertThatThrownBy(() -> resolver.resolve("missing.example"))
+                .isInstanceOf(UnknownHostException.class);
+
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheResolverFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CachingHostResolver resolver = resolver(host -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ServiceOverloadedException("Serviço sobrecarregado");
+            }
+            return List.of(address(1));
+        });
+
+        assertThatThrownBy(() -> resolver.resolve("example.com"))
+                .isInstanceOf(ServiceOverloadedException.class);
+
+        assertThat(resolver.resolve("example.com")).containsExactly(address(1));
+    }
+
+    @Test
+    void shouldGiveUpAfterTimeoutAndKeepLateResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CachingHostResolver resolver = resolver(counting(host -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(address(1));
+        }));
+
+        assertThatThrownBy(() -> resolver.resolve("slow.example"))
+                .isInstanceOf(HostResolutionTimeoutException.class)
+                .hasMessageContaining("Tempo esgotado");
+
+        release.countDown();
+        assertThat(resolver.resolve("slow.example")).containsExactly(address(1));
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void shouldMergeConcurrentLookupsOfSameHost() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CachingHostResolver resolver = resolver(counting(host -> {
+            started.countDown();
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(address(1));
+        }));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<InetAddress>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> resolver.resolve("popular.example")));
+            }
+            started.await();
+            Thread.sleep(20);
+            release.countDown();
+            for (Future<List<InetAddress>> result : results) {
+                assertThat(result.get()).containsExactly(address(1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(lookups).hasValue(1);
+    }
+}
@@ -0,0 +1,162 @@
+package com.techatow.url_shortner.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClickEventLogTest {
+
+    private static final int SEGMENT_RECORDS = 10;
+
+    @TempDir
+    Path directory;
+
+    private ClickEventLog open() throws IOException {
+        return ClickEventLog.open(directory,
+                (long) SEGMENT_RECORDS * ClickEventLog.RECORD_SIZE + 7, new SimpleMeterRegistry());
+    }
+
+    private static List<ClickEvent> readAll(ClickEventLog log, LogPosition from) {
+        List<ClickEvent> events = new ArrayList<>();
+        log.read(from, Integer.MAX_VALUE, events::add);
+        return events;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void shouldReadBackAppendedEventsInOrder() throws IOException {
+        ClickEventLog log = open();
+        long userAgent = ClickEventLog.hash("curl/8.0");
+
+        assertThat(log.append("abc123", 1_000L, 0, userAgent)).isTrue();
+        assertThat(log.append("x", 2_000L, ClickEventLog.hash("https://news.example/"), 0))
+                .isTrue();
+
+        assertThat(readAll(log, LogPosition.START)).containsExactly(
+                new ClickEvent("abc123", 1_000L, 0, userAgent),
+                new ClickEvent("x", 2_000L, ClickEventLog.hash("https://news.example/"), 0));
+    }
+
+    @Test
+    void shouldResumeFromReturnedPosition() throws IOException {
+        ClickEventLog log = open();
+        for (int i = 0; i < 25; i++) {
+            log.append("c" + i, i, 0, 0);
+        }
+
+        List<ClickEvent> first = new ArrayList<>();
+        LogPosition position = log.read(LogPosition.START, 12, first::add);
+        List<ClickEvent> rest = readAll(log, position);
+
+        assertThat(first).hasSize(12);
+        assertThat(rest).hasSize(13);
+        assertThat(rest.getFirst().shortCode()).isEqualTo("c12");
+        LogPosition end = log.read(position, 100, event -> {
+        });
+        assertThat(readAll(log, end)).isEmpty();
+    }
+
+    @Test
+    void shouldRotateSegmentsWhenFull() throws IOException {
+        ClickEventLog log = open();
+        for (int i = 0; i < SEGMENT_RECORDS * 3 + 1; i++) {
+            assertThat(log.append("abc123", i, 0, 0)).isTrue();
+        }
+
+        assertThat(segmentFiles()).isEqualTo(4);
+        assertThat(readAll(log, LogPosition.START)).extracting(ClickEvent::timestampMillis)
+                .containsExactlyElementsOf(
+                        Stream.iterate(0L, i -> i + 1).limit(SEGMENT_RECORDS * 3 + 1).toList());
+    }
+
+    @Test
+    void shouldNotLoseConcurrentAppends() throws Exception {
+        ClickEventLog log = open();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            String code = "code0" + t;
+            executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    log.append(code, i, 0, 0);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        Map<String, Integer> counts = new HashMap<>();
+        readAll(log, LogPosition.START)
+                .forEach(event -> counts.merge(event.shortCode(), 1, Integer::sum));
+        assertThat(counts).hasSize(8).allSatisfy((code, count) -> assertThat(count)
+                .isEqualTo(1_000));
+    }
+
+    @Test
+    void shouldReplayEventsAfterReopen() throws IOException {
+        ClickEventLog log = open();
+        for (int i = 0; i < 15; i++) {
+            log.append("abc123", i, 0, 0);
+        }
+        List<ClickEvent> consumed = new ArrayList<>();
+        LogPosition position = log.read(LogPosition.START, 5, consumed::add);
+        log.close();
+
+        // Simula a queda: um novo processo reabre o diretório e continua do offset salvo
+        ClickEventLog reopened = open();
+        reopened.append("def456", 99, 0, 0);
+
+        List<ClickEvent> replayed = readAll(reopened, position);
+        assertThat(replayed).hasSize(11);
+        assertThat(replayed.getFirst().timestampMillis()).isEqualTo(5);
+        assertThat(replayed.getLast().shortCode()).isEqualTo("def456");
+    }
+
+    @Test
+    void shouldPurgeOnlyOldConsumedSegments() throws IOException {
+        ClickEventLog log = open();
+        for (int i = 0; i < SEGMENT_RECORDS * 3; i++) {
+            log.append("abc123", i, 0, 0);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.setLastModifiedTime(file,
+                        FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+            }
+        }
+
+        assertThat(log.purge(Duration.ofHours(1), 2)).isEqualTo(1);
+        assertThat(segmentFiles()).isEqualTo(2);
+        assertThat(readAll(log, LogPosition.START)).hasSize(SEGMENT_RECORDS * 2);
+        assertThat(log.purge(Duration.ofHours(3), Long.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void shouldIgnoreAppendsWhenDisabled() {
+        ClickEventLog log = ClickEventLog.disabled();
+
+        assertThat(log.isEnabled()).isFalse();
+        assertThat(log.append("abc123", 1, 0, 0)).isFalse();
+        assertThat(log.read(LogPosition.START, 10, event -> {
+        })).isEqualTo(LogPosition.START);
+    }
+}
@@ -15,6 +15,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import com.techatow.url_shortner.dtos.ShortenUrlRequest;
+import com.techatow.url_shortner.exceptions.FeatureUnavailableException;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
 import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
 import com.techatow.url_shortner.exceptions.UrlExpiredException;
 import com.techatow.url_shortner.exceptions.UrlNotFoundException;
@@ -45,6 +47,16 @@ class GlobalExceptionHandlerTest {
                 throw new ShortCodeGenerationException("Falha ao gerar");
             }
 
+            @GetMapping("/test/overloaded")
+            void overloaded() {
+                throw new ServiceOverloadedException("Limite de concorrência excedido");
+            }
+
+            @GetMapping("/test/unavailable")
+            void unavailable() {
+                throw new FeatureUnavailableException("Indisponível");
+            }
+
             @PostMapping("/test/validation")
             void validation(@Valid @RequestBody ShortenUrlRequest request) {}
 
@@ -74,6 +86,18 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.status").value(503));
     }
 
+    @Test
+    void shouldReturn503WhenServiceOverloaded() throws Exception {
+        mockMvc.perform(get("/test/overloaded")).andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Limite de concorrência excedido"));
+    }
+
+    @Test
+    void shouldReturn501WhenFeatureUnavailable() throws Exception {
+        mockMvc.perform(get("/test/unavailable")).andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.error").value("Indisponível"));
+    }
+
     @Test
     void shouldReturn400WhenValidationFails() throws Exception {
         mockMvc.perform(post("/test/validation").contentType(MediaType.APPLICATION_JSON)
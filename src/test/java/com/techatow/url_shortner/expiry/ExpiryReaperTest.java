@@ -0,0 +1,156 @@
+package com.techatow.url_shortner.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.clicks.ClickTimeSeries;
+import com.techatow.url_shortner.hotkeys.HotKeyTracker;
+import com.techatow.url_shortner.storage.JpaUrlStore;
+import com.techatow.url_shortner.visitors.UniqueVisitorTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiryReaperTest {
+
+    @Mock
+    private UrlCache urlCache;
+
+    @Mock
+    private LocalStatsCache statsCache;
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private ClickTimeSeries clickTimeSeries;
+    private UniqueVisitorTracker uniqueVisitors;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:expiry-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("create table shortened_urls (id bigint primary key, "
+                + "short_code varchar(6) not null, original_url varchar(2048) not null, "
+                + "clicks bigint not null, created_at timestamp, last_accessed_at timestamp, "
+                + "expires_at timestamp)");
+        clickTimeSeries = new ClickTimeSeries(jdbcTemplate, transactionManager, meterRegistry,
+                true, 500, Duration.ofDays(2), Duration.ofDays(30));
+        uniqueVisitors = new UniqueVisitorTracker(jdbcTemplate, transactionManager, true, 12,
+                500, Duration.ofDays(400));
+    }
+
+    private ExpiryReaper reaper(String mode, Duration grace, int batchSize) {
+        return new ExpiryReaper(new JpaUrlStore(null, jdbcTemplate, transactionManager), urlCache,
+                statsCache, hotKeys, clickTimeSeries, uniqueVisitors, meterRegistry, true, mode,
+                grace, batchSize, 100, Duration.ZERO);
+    }
+
+    private void insert(long id, String shortCode, LocalDateTime expiresAt) {
+        jdbcTemplate.update("insert into shortened_urls values (?, ?, ?, 3, ?, null, ?)", id,
+                shortCode, "https://example.com/" + id, Timestamp.valueOf(now.minusDays(8)),
+                expiresAt == null ? null : Timestamp.valueOf(expiresAt));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    @Test
+    void shouldDeleteOnlyExpiredLinksAcrossBatches() {
+        for (int i = 0; i < 7; i++) {
+            insert(i, "exp00" + i, now.minusHours(i + 1));
+        }
+        insert(10, "live01", now.plusDays(1));
+        insert(11, "live02", null);
+
+        int removed = reaper("delete", Duration.ZERO, 3).reap();
+
+        assertThat(removed).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForList("select short_code from shortened_urls "
+                + "order by id", String.class)).containsExactly("live01", "live02");
+        assertThat(meterRegistry.counter("expiry.reclaimed").count()).isEqualTo(7);
+        verify(urlCache).evict("exp003");
+        verify(statsCache).evict("exp003");
+        verify(hotKeys).evict("exp003");
+        verify(urlCache, never()).evict("live01");
+    }
+
+    @Test
+    void shouldDropClickSeriesAndVisitorsOfReapedLinks() {
+        insert(1, "old001", now.minusHours(1));
+        insert(2, "live01", now.plusDays(1));
+        for (String shortCode : List.of("old001", "live01")) {
+            clickTimeSeries.record(shortCode);
+            uniqueVisitors.record(shortCode, "10.0.0.1", "Mozilla/5.0");
+        }
+        clickTimeSeries.flush();
+        uniqueVisitors.flush();
+
+        assertThat(reaper("delete", Duration.ZERO, 500).reap()).isEqualTo(1);
+
+        for (String table : List.of("click_buckets", "visitor_sketches")) {
+            assertThat(jdbcTemplate.queryForList("select short_code from " + table,
+                    String.class)).containsExactly("live01");
+        }
+    }
+
+    @Test
+    void shouldKeepLinksWithinGracePeriod() {
+        insert(1, "old001", now.minusDays(3));
+        insert(2, "new001", now.minusHours(1));
+
+        assertThat(reaper("delete", Duration.ofDays(1), 500).reap()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("select short_code from shortened_urls",
+                String.class)).containsExactly("new001");
+    }
+
+    @Test
+    void shouldArchiveBeforeDeleting() {
+        insert(1, "old001", now.minusDays(1));
+        insert(2, "live01", now.plusDays(1));
+
+        assertThat(reaper("archive", Duration.ZERO, 500).reap()).isEqualTo(1);
+
+        assertThat(count("shortened_urls")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select original_url from expired_urls "
+                + "where short_code = 'old001'", String.class))
+                .isEqualTo("https://example.com/1");
+    }
+
+    @Test
+    void shouldDoNothingWithoutExpiredLinks() {
+        insert(1, "live01", now.plusDays(1));
+
+        assertThat(reaper("delete", Duration.ZERO, 500).reap()).isZero();
+        verify(urlCache, never()).evict(any());
+    }
+
+    @Test
+    void shouldRejectUnknownMode() {
+        assertThatThrownBy(() -> reaper("truncate", Duration.ZERO, 500))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.expiry.mode");
+    }
+}
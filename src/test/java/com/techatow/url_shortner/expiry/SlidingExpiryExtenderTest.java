@@ -0,0 +1,135 @@
+package com.techatow.url_shortner.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import com.techatow.url_shortner.cache.CachedUrl;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.hotkeys.HotKeyTracker;
+import com.techatow.url_shortner.storage.JpaUrlStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SlidingExpiryExtenderTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(30);
+
+    @Mock
+    private UrlCache urlCache;
+
+    @Mock
+    private LocalStatsCache statsCache;
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    private JdbcTemplate jdbcTemplate;
+    private SlidingExpiryExtender extender;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:sliding-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table shortened_urls (short_code varchar(6) primary key, "
+                + "expires_at timestamp, sliding_ttl_seconds bigint)");
+        extender = new SlidingExpiryExtender(new JpaUrlStore(null, jdbcTemplate, null), urlCache,
+                statsCache, hotKeys, meterRegistry, 0.5);
+    }
+
+    private CachedUrl insert(String shortCode, LocalDateTime expiresAt, Duration sliding) {
+        jdbcTemplate.update("insert into shortened_urls values (?, ?, ?)", shortCode, expiresAt,
+                sliding == null ? null : sliding.toSeconds());
+        return new CachedUrl("https://google.com", expiresAt,
+                sliding == null ? Duration.ZERO : sliding);
+    }
+
+    private LocalDateTime expiresAt(String shortCode) {
+        return jdbcTemplate.queryForObject(
+                "select expires_at from shortened_urls where short_code = ?",
+                LocalDateTime.class, shortCode);
+    }
+
+    @Test
+    void shouldSkipLinksWithMostOfTheWindowLeft() {
+        CachedUrl fresh = insert("fre001", LocalDateTime.now().plusMinutes(25), WINDOW);
+
+        extender.touch("fre001", fresh);
+
+        assertThat(extender.pending()).isZero();
+        assertThat(extender.flush()).isZero();
+    }
+
+    @Test
+    void shouldCoalesceRepeatedHitsIntoOneUpdate() {
+        LocalDateTime original = LocalDateTime.now().plusMinutes(5);
+        CachedUrl url = insert("sld001", original, WINDOW);
+
+        for (int i = 0; i < 1_000; i++) {
+            extender.touch("sld001", url);
+        }
+
+        assertThat(extender.pending()).isEqualTo(1);
+        assertThat(extender.flush()).isEqualTo(1);
+        assertThat(expiresAt("sld001")).isCloseTo(LocalDateTime.now().plus(WINDOW),
+                within(5, ChronoUnit.SECONDS));
+        assertThat(extender.pending()).isZero();
+        assertThat(meterRegistry.counter("links.sliding.extended").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefreshCachesAfterFlush() {
+        CachedUrl url = insert("sld001", LocalDateTime.now().plusMinutes(5), WINDOW);
+
+        extender.touch("sld001", url);
+        extender.flush();
+
+        verify(urlCache).evict("sld001");
+        verify(urlCache).put(any(), any());
+        verify(statsCache).evict("sld001");
+        verify(hotKeys).evict("sld001");
+    }
+
+    @Test
+    void shouldNeverShortenOrTouchFixedLinks() {
+        LocalDateTime later = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        CachedUrl stale = insert("sld001", LocalDateTime.now().plusMinutes(5), WINDOW);
+        jdbcTemplate.update("update shortened_urls set expires_at = ?", later);
+        LocalDateTime fixed = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+        jdbcTemplate.update("insert into shortened_urls values ('fix001', ?, null)", fixed);
+
+        extender.touch("sld001", stale);
+        extender.touch("fix001", new CachedUrl("https://google.com", fixed, WINDOW));
+        extender.flush();
+
+        assertThat(expiresAt("sld001")).isEqualTo(later);
+        assertThat(expiresAt("fix001")).isEqualTo(fixed);
+    }
+
+    @Test
+    void shouldKeepPendingWhenDatabaseFails() {
+        CachedUrl url = insert("sld001", LocalDateTime.now().plusMinutes(5), WINDOW);
+        jdbcTemplate.execute("drop table shortened_urls");
+
+        extender.touch("sld001", url);
+
+        assertThat(extender.flush()).isZero();
+        assertThat(extender.pending()).isEqualTo(1);
+        verify(urlCache, never()).evict(any());
+    }
+}
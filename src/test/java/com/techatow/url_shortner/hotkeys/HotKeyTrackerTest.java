@@ -0,0 +1,147 @@
+package com.techatow.url_shortner.hotkeys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.techatow.url_shortner.cache.CachedUrl;
+import com.techatow.url_shortner.cache.LocalInvalidationBus;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.storage.UrlStore;
+
+@ExtendWith(MockitoExtension.class)
+class HotKeyTrackerTest {
+
+    @Mock
+    private UrlCache urlCache;
+
+    @Mock
+    private UrlStore urlStore;
+
+    private LocalInvalidationBus invalidationBus;
+    private HotKeyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        invalidationBus = new LocalInvalidationBus();
+        tracker = new HotKeyTracker(urlCache, urlStore, invalidationBus, true, 3,
+                Duration.ofMinutes(1));
+        lenient().when(urlCache.get(anyString())).thenAnswer(invocation -> Optional.of(
+                new CachedUrl("https://" + invocation.getArgument(0) + ".com",
+                        LocalDateTime.now().plusDays(1))));
+    }
+
+    private void hit(String shortCode, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(shortCode);
+        }
+    }
+
+    @Test
+    void shouldRankHottestCodesAndPinThem() {
+        hit("hot001", 300);
+        hit("warm01", 200);
+        hit("mild01", 100);
+        for (int i = 0; i < 50; i++) {
+            hit("cold" + i, 1);
+        }
+
+        tracker.refresh();
+
+        List<HotKey> hottest = tracker.hottest(10);
+        assertThat(hottest).extracting(HotKey::shortCode).containsExactly("hot001", "warm01",
+                "mild01");
+        assertThat(hottest).allMatch(HotKey::pinned);
+        assertThat(hottest.get(0).ratePerSecond()).isPositive();
+        assertThat(tracker.pinned("hot001").originalUrl()).isEqualTo("https://hot001.com");
+        assertThat(tracker.pinned("cold1")).isNull();
+    }
+
+    @Test
+    void shouldReplaceMinimumWhenNewCodeOvertakesIt() {
+        hit("aaa001", 50);
+        hit("bbb001", 40);
+        hit("ccc001", 30);
+        tracker.refresh();
+
+        hit("ddd001", 100);
+        tracker.refresh();
+
+        assertThat(tracker.hottest(3)).extracting(HotKey::shortCode).containsExactly("ddd001",
+                "aaa001", "bbb001");
+        assertThat(tracker.pinned("ccc001")).isNull();
+    }
+
+    @Test
+    void shouldUnpinOnInvalidationFromAnyNode() {
+        hit("hot001", 10);
+        tracker.refresh();
+        assertThat(tracker.pinned("hot001")).isNotNull();
+
+        invalidationBus.publish("hot001");
+        assertThat(tracker.pinned("hot001")).isNull();
+
+        // O próximo refresh não recoloca o pino a partir do valor antigo
+        when(urlCache.get("hot001")).thenReturn(Optional.empty());
+        when(urlStore.findByShortCode("hot001")).thenReturn(Optional.empty());
+        hit("hot001", 10);
+        tracker.refresh();
+        tracker.refresh();
+        assertThat(tracker.pinned("hot001")).isNull();
+    }
+
+    @Test
+    void shouldNotPinExpiredUrls() {
+        when(urlCache.get("old123")).thenReturn(Optional
+                .of(new CachedUrl("https://old.com", LocalDateTime.now().minusMinutes(1))));
+        hit("old123", 10);
+
+        tracker.refresh();
+
+        assertThat(tracker.pinned("old123")).isNull();
+        assertThat(tracker.hottest(1).get(0).pinned()).isFalse();
+    }
+
+    @Test
+    void shouldKeepHeavyHitterUnderConcurrentRecording() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    tracker.record(i % 2 == 0 ? "hot001" : "tail" + thread + "-" + i);
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.awaitTermination(5, TimeUnit.MILLISECONDS)) {
+            tracker.refresh();
+        }
+        tracker.refresh();
+
+        assertThat(tracker.hottest(1)).extracting(HotKey::shortCode).containsExactly("hot001");
+    }
+
+    @Test
+    void shouldIgnoreRecordsWhenDisabled() {
+        HotKeyTracker disabled = new HotKeyTracker(urlCache, urlStore, invalidationBus,
+                false, 3, Duration.ofMinutes(1));
+        disabled.record("hot001");
+
+        disabled.refresh();
+
+        assertThat(disabled.hottest(10)).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.techatow.url_shortner.limits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldRejectAfterTimeoutWhenAllPermitsAreInUse() {
+        ConcurrencyLimiter limiter =
+                new ConcurrencyLimiter("database", 2, Duration.ofMillis(20), meterRegistry);
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(limiter.inUse()).isEqualTo(2);
+        assertThat(meterRegistry.get("limiter.rejected").tag("name", "database").counter()
+                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldHandPermitToWaiterOnRelease() throws Exception {
+        ConcurrencyLimiter limiter =
+                new ConcurrencyLimiter("database", 1, Duration.ofSeconds(5), meterRegistry);
+        limiter.acquire();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> waiter = executor.submit(() -> {
+            started.countDown();
+            limiter.acquire();
+            return null;
+        });
+        started.await();
+        while (limiter.queueLength() == 0) {
+            Thread.onSpinWait();
+        }
+        assertThat(meterRegistry.get("limiter.queue.depth").tag("name", "database").gauge()
+                .value()).isEqualTo(1.0);
+
+        limiter.release();
+        waiter.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(limiter.inUse()).isEqualTo(1);
+        assertThat(meterRegistry.get("limiter.wait").tag("name", "database").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectNonPositiveLimit() {
+        assertThatThrownBy(
+                () -> new ConcurrencyLimiter("dns", 0, Duration.ofSeconds(1), meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
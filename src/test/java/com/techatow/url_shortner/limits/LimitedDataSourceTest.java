@@ -0,0 +1,69 @@
+package com.techatow.url_shortner.limits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimiter limiter;
+    private LimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ConcurrencyLimiter("database", 1, Duration.ofMillis(20),
+                new SimpleMeterRegistry());
+        dataSource = new LimitedDataSource(target, limiter);
+    }
+
+    @Test
+    void shouldHoldPermitUntilConnectionIsClosed() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection borrowed = dataSource.getConnection();
+        assertThat(limiter.inUse()).isEqualTo(1);
+
+        borrowed.close();
+        borrowed.close();
+
+        verify(connection, times(2)).close();
+        assertThat(limiter.inUse()).isZero();
+    }
+
+    @Test
+    void shouldFailFastWhenLimitIsReached() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool esgotado"));
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThat(limiter.inUse()).isZero();
+    }
+}
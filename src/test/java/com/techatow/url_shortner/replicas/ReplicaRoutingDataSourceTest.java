@@ -0,0 +1,112 @@
+package com.techatow.url_shortner.replicas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replicaA = mock(DataSource.class);
+    private final DataSource replicaB = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection connectionA = mock(Connection.class);
+    private final Connection connectionB = mock(Connection.class);
+
+    private ReplicaPool pool;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replicaA);
+        replicas.put("replica-2", replicaB);
+        pool = new ReplicaPool(replicas, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        routing = new ReplicaRoutingDataSource(primary, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void shouldUsePrimaryOutsideReadOnlyTransactions() throws Exception {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(replicaA, never()).getConnection();
+    }
+
+    @Test
+    void shouldRoundRobinReadOnlyTransactionsAcrossReplicas() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getConnection()).isSameAs(connectionA);
+        assertThat(routing.getConnection()).isSameAs(connectionB);
+        assertThat(routing.getConnection()).isSameAs(connectionA);
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void shouldSkipFailingReplicaUntilHealthCheckRestoresIt() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenThrow(new SQLException("connection refused"))
+                .thenReturn(connectionA);
+
+        assertThat(routing.getConnection()).isSameAs(connectionB);
+        assertThat(routing.getConnection()).isSameAs(connectionB);
+        assertThat(pool.healthyCount()).isEqualTo(1);
+
+        when(connectionA.isValid(1)).thenReturn(true);
+        when(connectionB.isValid(1)).thenReturn(true);
+        pool.checkHealth();
+
+        assertThat(pool.healthyCount()).isEqualTo(2);
+        assertThat(routing.getConnection()).isSameAs(connectionA);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenNoReplicaIsHealthy() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenThrow(new SQLException("down"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        // Fora do rodízio: a segunda leitura nem tenta as réplicas
+        verify(replicaA, times(1)).getConnection();
+        verify(replicaB, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldHonorPrimaryOverrideInsideReadOnlyTransaction() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Connection connection = ReplicaRoutingDataSource.onPrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(connectionA);
+    }
+}
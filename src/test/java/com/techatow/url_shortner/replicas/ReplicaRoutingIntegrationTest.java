@@ -0,0 +1,74 @@
+package com.techatow.url_shortner.replicas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import com.techatow.url_shortner.exceptions.UrlNotFoundException;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+
+// Dois bancos H2: o primário do contexto e uma "réplica" com o mesmo esquema e dados próprios,
+// para que a origem de cada leitura fique visível
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "app.datasource.replicas.urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private ShortenedUrlService urlService;
+
+    @Autowired
+    private ShortenedUrlRepository urlRepository;
+
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"));
+
+    @BeforeEach
+    void setUp() {
+        replica.execute("create table if not exists shortened_urls (id bigint primary key,"
+                + " short_code varchar(6) not null unique, original_url varchar(2048) not null,"
+                + " url_digest varchar(64) unique, clicks bigint not null,"
+                + " created_at timestamp(6) not null, last_accessed_at timestamp(6),"
+                + " expires_at timestamp(6), sliding_ttl_seconds bigint)");
+        replica.update("insert into shortened_urls (id, short_code, original_url, clicks,"
+                + " created_at, expires_at) values (900, 'repl01', 'https://8.8.8.8/replica', 3,"
+                + " current_timestamp, dateadd('DAY', 7, current_timestamp))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.update("delete from shortened_urls");
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void shouldServeReadOnlyStatsFromReplica() {
+        assertThat(urlService.getStats("repl01").originalUrl())
+                .isEqualTo("https://8.8.8.8/replica");
+    }
+
+    @Test
+    void shouldKeepRedirectsOnPrimary() {
+        assertThatThrownBy(() -> urlService.resolveShortCode("repl01"))
+                .isInstanceOf(UrlNotFoundException.class);
+    }
+
+    @Test
+    void shouldWriteToPrimaryOnly() {
+        String shortCode = urlService.shortenUrl("https://8.8.8.8/primary").shortCode();
+
+        assertThat(urlService.resolveShortCode(shortCode)).isEqualTo("https://8.8.8.8/primary");
+        assertThat(replica.queryForObject("select count(*) from shortened_urls"
+                + " where short_code = ?", Integer.class, shortCode)).isZero();
+        // A réplica deste teste não replica: o link novo não aparece nas estatísticas
+        assertThatThrownBy(() -> urlService.getStats(shortCode))
+                .isInstanceOf(UrlNotFoundException.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.techatow.url_shortner.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:bulk-shorten",
+        "app.batch.chunk-size=100"})
+@ActiveProfiles("test")
+class BulkShortenIntegrationTest {
+
+    @Autowired
+    private BulkShortenService bulkShortenService;
+
+    @Autowired
+    private ShortenedUrlService urlService;
+
+    @Autowired
+    private ShortenedUrlRepository urlRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAll();
+    }
+
+    private List<JsonNode> shorten(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkShortenService.shorten(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                output);
+        return output.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> jsonMapper.readTree(line)).toList();
+    }
+
+    @Test
+    void shouldStoreNdjsonAcrossChunksAndReportInInputOrder() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            body.append("{\"url\":\"https://8.8.8.8/bulk/").append(i).append("\"}\n");
+        }
+
+        List<JsonNode> results = shorten(body.toString());
+
+        assertThat(results).hasSize(250);
+        assertThat(results.get(249).get("index").asInt()).isEqualTo(249);
+        assertThat(results).allMatch(result -> result.get("created").asBoolean());
+        assertThat(urlRepository.count()).isEqualTo(250);
+        assertThat(urlService.getStats(results.get(7).get("shortCode").asString()).originalUrl())
+                .isEqualTo("https://8.8.8.8/bulk/7");
+    }
+
+    @Test
+    void shouldDeduplicateWithinBatchAndAgainstStore() throws Exception {
+        String existing = urlService.shortenUrl("https://8.8.8.8/existing").shortCode();
+
+        List<JsonNode> results = shorten("[\"https://8.8.8.8/existing\", \"https://8.8.8.8/new\","
+                + " \"8.8.8.8/new\"]");
+
+        assertThat(results.get(0).get("shortCode").asString()).isEqualTo(existing);
+        assertThat(results.get(0).get("created").asBoolean()).isFalse();
+        assertThat(results.get(1).get("created").asBoolean()).isTrue();
+        assertThat(results.get(2).get("shortCode").asString())
+                .isEqualTo(results.get(1).get("shortCode").asString());
+        assertThat(results.get(2).get("created").asBoolean()).isFalse();
+        assertThat(urlRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReportInvalidItemsWithoutFailingTheBatch() throws Exception {
+        List<JsonNode> results = shorten("""
+                {"url":"ftp://8.8.8.8/file"}
+                {"url":"https://localhost/admin"}
+                {"link":"https://8.8.8.8/x"}
+                {"url":"https://8.8.8.8/ok"}
+                """);
+
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).get("error").asString()).contains("Protocolo não suportado");
+        assertThat(results.get(1).get("error").asString())
+                .isEqualTo("URLs internas não são permitidas");
+        assertThat(results.get(2).has("error")).isTrue();
+        assertThat(results.get(3).has("error")).isFalse();
+        assertThat(urlRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepProcessedItemsAndStopAtMalformedInput() throws Exception {
+        List<JsonNode> results = shorten("{\"url\":\"https://8.8.8.8/before\"}\n{\"url\": oops}\n");
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get("created").asBoolean()).isTrue();
+        assertThat(results.get(1).get("error").asString()).startsWith("JSON inválido");
+        assertThat(urlRepository.count()).isEqualTo(1);
+    }
+}
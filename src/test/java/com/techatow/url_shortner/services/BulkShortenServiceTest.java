@@ -0,0 +1,151 @@
+package com.techatow.url_shortner.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.techatow.url_shortner.blocklist.DomainBlocklist;
+import com.techatow.url_shortner.cache.InvalidationBus;
+import com.techatow.url_shortner.codes.ShortCodeAllocator;
+import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.CidrTrie;
+import com.techatow.url_shortner.utils.HostResolver;
+import com.techatow.url_shortner.utils.UrlValidator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class BulkShortenServiceTest {
+
+    @Mock
+    private UrlStore urlStore;
+
+    @Mock
+    private ShortenedUrlService urlService;
+
+    @Mock
+    private ShortCodeAllocator codeAllocator;
+
+    @Mock
+    private InvalidationBus createdCodesBus;
+
+    @Mock
+    private HostResolver hostResolver;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private BulkShortenService bulkShortenService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bulkShortenService = new BulkShortenService(urlStore, urlService, codeAllocator,
+                createdCodesBus, hostResolver, CidrTrie.of(UrlValidator.DEFAULT_BLOCKED_RANGES),
+                DomainBlocklist.disabled(), jsonMapper, transactionManager);
+        ReflectionTestUtils.setField(bulkShortenService, "baseUrl", "http://localhost:8080/");
+        ReflectionTestUtils.setField(bulkShortenService, "chunkSize", 10);
+        ReflectionTestUtils.setField(bulkShortenService, "parallelism", 2);
+        ReflectionTestUtils.setField(bulkShortenService, "maxItems", 3);
+        ReflectionTestUtils.setField(bulkShortenService, "defaultTtl", Duration.ofDays(7));
+        lenient().when(hostResolver.resolve(anyString()))
+                .thenReturn(List.of(InetAddress.getByAddress(new byte[] {8, 8, 8, 8})));
+        lenient().when(codeAllocator.nextCode()).thenReturn("gen001", "gen002");
+    }
+
+    private List<JsonNode> shorten(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkShortenService.shorten(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                output);
+        return output.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> jsonMapper.readTree(line)).toList();
+    }
+
+    private UrlDetailsResponse response(String shortCode, String originalUrl) {
+        return new UrlDetailsResponse(1L, shortCode, originalUrl,
+                "http://localhost:8080/" + shortCode, 0L, LocalDateTime.now(), null, null, false,
+                null);
+    }
+
+    @Test
+    void shouldInsertNewUrlsInOneBatchAndPublishCodes() throws Exception {
+        when(urlStore.findByUrlDigestIn(any())).thenReturn(List.of());
+
+        List<JsonNode> results = shorten("[\"google.com\", \"github.com\"]");
+
+        assertThat(results).extracting(result -> result.get("shortCode").asString())
+                .containsExactly("gen001", "gen002");
+        assertThat(results.get(0).get("shortUrl").asString())
+                .isEqualTo("http://localhost:8080/gen001");
+        verify(urlStore).insertAll(any());
+        verify(createdCodesBus).publish("gen001");
+        verify(createdCodesBus).publish("gen002");
+    }
+
+    @Test
+    void shouldFallBackToSingleInsertsWhenBatchViolatesConstraint() throws Exception {
+        when(urlStore.findByUrlDigestIn(any())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("uk_url_digest")).when(urlStore)
+                .insertAll(any());
+        when(urlService.shortenNormalized("https://google.com"))
+                .thenReturn(response("win001", "https://google.com"));
+        when(urlService.shortenNormalized("https://github.com"))
+                .thenThrow(new ServiceOverloadedException("Serviço sobrecarregado"));
+
+        List<JsonNode> results = shorten("[\"google.com\", \"github.com\"]");
+
+        assertThat(results.get(0).get("shortCode").asString()).isEqualTo("win001");
+        assertThat(results.get(1).get("error").asString()).isEqualTo("Serviço sobrecarregado");
+        verify(createdCodesBus, never()).publish(any());
+    }
+
+    @Test
+    void shouldTreatExpiredMatchAsAbsentAndReleaseItsDigest() throws Exception {
+        ShortenedUrl expired = new ShortenedUrl("old001", "https://google.com");
+        expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+        when(urlStore.findByUrlDigestIn(any())).thenReturn(List.of(expired));
+
+        List<JsonNode> results = shorten("[\"google.com\"]");
+
+        assertThat(results.get(0).get("shortCode").asString()).isEqualTo("gen001");
+        InOrder inOrder = inOrder(urlStore);
+        inOrder.verify(urlStore).releaseExpiredDigests(eq(List.of("old001")), any());
+        inOrder.verify(urlStore).insertAll(any());
+    }
+
+    @Test
+    void shouldRejectItemsBeyondLimit() throws Exception {
+        when(urlStore.findByUrlDigestIn(any())).thenReturn(List.of());
+
+        List<JsonNode> results = shorten("\"a.com\"\n\"b.com\"\n\"c.com\"\n\"d.com\"\n");
+
+        assertThat(results).hasSize(4);
+        assertThat(results.get(3).get("error").asString()).contains("limite de 3 itens");
+    }
+}
@@ -0,0 +1,77 @@
+package com.techatow.url_shortner.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import com.techatow.url_shortner.dtos.CursorPage;
+import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cursor-pagination")
+@ActiveProfiles("test")
+class CursorPaginationIntegrationTest {
+
+    @Autowired
+    private ShortenedUrlService urlService;
+
+    @Autowired
+    private ShortenedUrlRepository urlRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void shouldWalkAllRowsInOrderWithoutGapsOrRepeats() {
+        for (int i = 0; i < 23; i++) {
+            urlService.shortenUrl("https://8.8.8.8/cursor/" + i);
+        }
+        // Vários registros com o mesmo createdAt: o id desempata
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 12, 0);
+        jdbcTemplate.update("update shortened_urls set created_at = case when mod(id, 3) = 0"
+                + " then ? else ? end", base, base.minusHours(1));
+
+        List<UrlDetailsResponse> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPage<UrlDetailsResponse> page = urlService.listUrls(cursor, 5);
+            seen.addAll(page.content());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(5);
+        assertThat(seen).hasSize(23);
+        assertThat(seen).extracting(UrlDetailsResponse::id).doesNotHaveDuplicates();
+        for (int i = 1; i < seen.size(); i++) {
+            UrlDetailsResponse previous = seen.get(i - 1);
+            UrlDetailsResponse current = seen.get(i);
+            assertThat(current.createdAt()).isBeforeOrEqualTo(previous.createdAt());
+            if (current.createdAt().equals(previous.createdAt())) {
+                assertThat(current.id()).isLessThan(previous.id());
+            }
+        }
+    }
+
+    @Test
+    void shouldCreateSupportingIndex() {
+        Integer indexes = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes"
+                        + " where index_name = 'IDX_SHORTENED_URLS_CREATED_AT_ID'",
+                Integer.class);
+
+        assertThat(indexes).isEqualTo(1);
+    }
+}
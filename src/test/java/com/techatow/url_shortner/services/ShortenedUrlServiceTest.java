@@ -3,45 +3,149 @@ package com.techatow.url_shortner.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.techatow.url_shortner.blocklist.DomainBlocklist;
+import com.techatow.url_shortner.cache.CachedUrl;
+import com.techatow.url_shortner.cache.InvalidationBus;
+import com.techatow.url_shortner.cache.LocalStatsCache;
+import com.techatow.url_shortner.cache.ShortCodeFilter;
+import com.techatow.url_shortner.cache.UrlCache;
+import com.techatow.url_shortner.clicks.ClickAggregator;
+import com.techatow.url_shortner.clicks.ClickGranularity;
+import com.techatow.url_shortner.clicks.ClickTimeSeries;
+import com.techatow.url_shortner.clicks.ExactClickCounter;
+import com.techatow.url_shortner.codes.ShortCodeAllocator;
+import com.techatow.url_shortner.dtos.ClickSeriesResponse;
+import com.techatow.url_shortner.dtos.CursorPage;
+import com.techatow.url_shortner.dtos.UniqueVisitorsResponse;
 import com.techatow.url_shortner.dtos.UrlDetailsResponse;
 import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.events.ClickEventLog;
+import com.techatow.url_shortner.exceptions.InvalidCursorException;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
 import com.techatow.url_shortner.exceptions.ShortCodeGenerationException;
+import com.techatow.url_shortner.exceptions.UrlBlockedException;
 import com.techatow.url_shortner.exceptions.UrlExpiredException;
 import com.techatow.url_shortner.exceptions.UrlNotFoundException;
-import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import com.techatow.url_shortner.expiry.SlidingExpiryExtender;
+import com.techatow.url_shortner.hotkeys.HotKeyTracker;
+import com.techatow.url_shortner.storage.UrlStore;
+import com.techatow.url_shortner.utils.CidrTrie;
+import com.techatow.url_shortner.utils.HostResolver;
+import com.techatow.url_shortner.utils.PageCursor;
+import com.techatow.url_shortner.utils.UrlDigest;
+import com.techatow.url_shortner.utils.UrlValidator;
+import com.techatow.url_shortner.visitors.UniqueVisitorTracker;
 
 @ExtendWith(MockitoExtension.class)
 class ShortenedUrlServiceTest {
 
     @Mock
-    private ShortenedUrlRepository urlRepository;
+    private UrlStore urlStore;
+
+    @Mock
+    private UrlCache urlCache;
+
+    @Mock
+    private ClickAggregator clickAggregator;
+
+    @Mock
+    private ClickTimeSeries clickTimeSeries;
+
+    @Mock
+    private UniqueVisitorTracker uniqueVisitors;
+
+    @Mock
+    private ClickEventLog clickEventLog;
+
+    @Mock
+    private ExactClickCounter exactClickCounter;
+
+    @Mock
+    private ObjectProvider<ExactClickCounter> exactClickCounters;
+
+    @Mock
+    private ShortCodeFilter shortCodeFilter;
+
+    @Mock
+    private InvalidationBus createdCodesBus;
+
+    @Mock
+    private HostResolver hostResolver;
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    @Mock
+    private ShortCodeAllocator codeAllocator;
+
+    @Mock
+    private SlidingExpiryExtender slidingExpiry;
+
+    @Mock
+    private DomainBlocklist domainBlocklist;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private CidrTrie blockedRanges = CidrTrie.of(UrlValidator.DEFAULT_BLOCKED_RANGES);
+
+    @Spy
+    private LocalStatsCache statsCache = new LocalStatsCache(100, Duration.ofSeconds(5));
 
     @InjectMocks
     private ShortenedUrlService urlService;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         ReflectionTestUtils.setField(urlService, "baseUrl", "http://localhost:8080/");
+        ReflectionTestUtils.setField(urlService, "clickMode", "async");
+        ReflectionTestUtils.setField(urlService, "loadTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(urlService, "defaultTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(urlService, "maxTtl", Duration.ofDays(365));
+        lenient().when(hostResolver.resolve(anyString()))
+                .thenReturn(List.of(InetAddress.getByAddress(new byte[] {8, 8, 8, 8})));
     }
 
     // -- Helpers --
@@ -50,6 +154,7 @@ class ShortenedUrlServiceTest {
         ShortenedUrl url = new ShortenedUrl(shortCode, originalUrl);
         ReflectionTestUtils.setField(url, "id", 1L);
         ReflectionTestUtils.setField(url, "createdAt", LocalDateTime.now());
+        url.setExpiresAt(LocalDateTime.now().plusDays(7));
         return url;
     }
 
@@ -67,28 +172,107 @@ class ShortenedUrlServiceTest {
         @Test
         void shouldReturnExistingUrlWhenAlreadyShortened() {
             ShortenedUrl existing = buildUrl("abc123", "https://google.com");
-            when(urlRepository.findByOriginalUrl("https://google.com"))
+            when(urlStore.findByUrlDigest(UrlDigest.of("https://google.com")))
                     .thenReturn(Optional.of(existing));
 
             UrlDetailsResponse response = urlService.shortenUrl("google.com");
 
             assertThat(response.shortCode()).isEqualTo("abc123");
             assertThat(response.shortUrl()).isEqualTo("http://localhost:8080/abc123");
-            verify(urlRepository, never()).save(any());
+            verify(urlStore, never()).insert(any());
         }
 
         @Test
         void shouldCreateNewShortenedUrl() {
-            when(urlRepository.findByOriginalUrl(any())).thenReturn(Optional.empty());
-            when(urlRepository.existsByShortCode(any())).thenReturn(false);
-            when(urlRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(urlStore.findByUrlDigest(any())).thenReturn(Optional.empty());
+            when(codeAllocator.nextCode()).thenReturn("gen001");
+            when(urlStore.insert(any())).thenAnswer(inv -> inv.getArgument(0));
 
             UrlDetailsResponse response = urlService.shortenUrl("google.com");
 
             assertThat(response.originalUrl()).isEqualTo("https://google.com");
             assertThat(response.shortUrl()).startsWith("http://localhost:8080/");
             assertThat(response.shortCode()).hasSize(6);
-            verify(urlRepository).save(any(ShortenedUrl.class));
+            verify(urlStore).insert(argThat(
+                    saved -> UrlDigest.of("https://google.com").equals(saved.getUrlDigest())));
+            verify(createdCodesBus).publish(response.shortCode());
+        }
+
+        @Test
+        void shouldConvergeOnRowInsertedConcurrentlyForSameUrl() {
+            ShortenedUrl winner = buildUrl("win001", "https://google.com");
+            when(urlStore.findByUrlDigest(UrlDigest.of("https://google.com")))
+                    .thenReturn(Optional.empty(), Optional.of(winner));
+            when(codeAllocator.nextCode()).thenReturn("gen001");
+            when(urlStore.insert(any()))
+                    .thenThrow(new DataIntegrityViolationException("uk_url_digest"));
+
+            UrlDetailsResponse response = urlService.shortenUrl("google.com");
+
+            assertThat(response.shortCode()).isEqualTo("win001");
+            verify(urlStore, times(1)).insert(any());
+            verify(createdCodesBus, never()).publish(any());
+        }
+
+        @Test
+        void shouldRetryWithNewCodeWhenShortCodeCollides() {
+            when(urlStore.findByUrlDigest(any())).thenReturn(Optional.empty());
+            when(codeAllocator.nextCode()).thenReturn("old001", "new001");
+            when(urlStore.insert(any()))
+                    .thenThrow(new DataIntegrityViolationException("uk_short_code"))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            UrlDetailsResponse response = urlService.shortenUrl("google.com");
+
+            assertThat(response.originalUrl()).isEqualTo("https://google.com");
+            assertThat(response.shortCode()).isEqualTo("new001");
+            verify(urlStore, times(2)).insert(any());
+        }
+
+        @Test
+        void shouldReplaceExpiredLinkForSameUrlAndReleaseItsDigest() {
+            ShortenedUrl expired = buildExpiredUrl("old001", "https://google.com");
+            when(urlStore.findByUrlDigest(UrlDigest.of("https://google.com")))
+                    .thenReturn(Optional.of(expired));
+            when(codeAllocator.nextCode()).thenReturn("gen001");
+            when(urlStore.insert(any())).thenAnswer(inv -> inv.getArgument(0));
+
+            UrlDetailsResponse response = urlService.shortenUrl("google.com");
+
+            assertThat(response.shortCode()).isEqualTo("gen001");
+            InOrder inOrder = inOrder(urlStore);
+            inOrder.verify(urlStore).releaseExpiredDigests(eq(List.of("old001")), any());
+            inOrder.verify(urlStore).insert(argThat(
+                    saved -> UrlDigest.of("https://google.com").equals(saved.getUrlDigest())));
+        }
+
+        @Test
+        void shouldNotConvergeOnExpiredWinnerAfterConflict() {
+            ShortenedUrl expired = buildExpiredUrl("old001", "https://google.com");
+            when(urlStore.findByUrlDigest(UrlDigest.of("https://google.com")))
+                    .thenReturn(Optional.empty(), Optional.of(expired));
+            when(codeAllocator.nextCode()).thenReturn("gen001", "gen002");
+            when(urlStore.insert(any()))
+                    .thenThrow(new DataIntegrityViolationException("uk_url_digest"))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            UrlDetailsResponse response = urlService.shortenUrl("google.com");
+
+            assertThat(response.shortCode()).isEqualTo("gen002");
+            verify(urlStore).releaseExpiredDigests(eq(List.of("old001")), any());
+        }
+
+        @Test
+        void shouldStoreWithoutDigestOnHashCollision() {
+            ShortenedUrl other = buildUrl("abc123", "https://other.com");
+            when(urlStore.findByUrlDigest(any())).thenReturn(Optional.of(other));
+            when(codeAllocator.nextCode()).thenReturn("gen001");
+            when(urlStore.insert(any())).thenAnswer(inv -> inv.getArgument(0));
+
+            UrlDetailsResponse response = urlService.shortenUrl("google.com");
+
+            assertThat(response.shortCode()).isNotEqualTo("abc123");
+            verify(urlStore).insert(argThat(saved -> saved.getUrlDigest() == null));
         }
 
         @Test
@@ -105,15 +289,91 @@ class ShortenedUrlServiceTest {
         }
 
         @Test
-        void shouldThrowShortCodeGenerationExceptionAfterMaxAttempts() {
-            when(urlRepository.findByOriginalUrl(any())).thenReturn(Optional.empty());
-            when(urlRepository.existsByShortCode(any())).thenReturn(true);
+        void shouldPropagateAllocatorFailure() {
+            when(urlStore.findByUrlDigest(any())).thenReturn(Optional.empty());
+            when(codeAllocator.nextCode())
+                    .thenThrow(new ShortCodeGenerationException("Espaço de short codes esgotado"));
 
             assertThatThrownBy(() -> urlService.shortenUrl("google.com"))
                     .isInstanceOf(ShortCodeGenerationException.class)
-                    .hasMessageContaining("Falha ao gerar código único");
+                    .hasMessageContaining("esgotado");
+
+            verify(urlStore, never()).insert(any());
+        }
+    }
+
+    @Nested
+    class ShortenUrlWithExpiry {
+
+        @BeforeEach
+        void setUp() {
+            when(codeAllocator.nextCode()).thenReturn("gen001");
+            when(urlStore.insert(any())).thenAnswer(inv -> inv.getArgument(0));
+        }
+
+        @Test
+        void shouldApplyDefaultTtlWhenNoneGiven() {
+            when(urlStore.findByUrlDigest(any())).thenReturn(Optional.empty());
+
+            UrlDetailsResponse response = urlService.shortenUrl("google.com", null, null);
+
+            assertThat(response.expiresAt()).isBetween(LocalDateTime.now().plusHours(167),
+                    LocalDateTime.now().plusDays(7));
+            assertThat(response.slidingTtlSeconds()).isNull();
+        }
+
+        @Test
+        void shouldApplyFixedTtlWithoutReusingExistingLink() {
+            UrlDetailsResponse response = urlService.shortenUrl("google.com", "PT1H", null);
+
+            assertThat(response.expiresAt()).isBetween(LocalDateTime.now().plusMinutes(59),
+                    LocalDateTime.now().plusHours(1));
+            assertThat(response.slidingTtlSeconds()).isNull();
+            verify(urlStore, never()).findByUrlDigest(any());
+            verify(urlStore).insert(argThat(saved -> saved.getUrlDigest() == null));
+        }
+
+        @Test
+        void shouldStoreSlidingWindow() {
+            UrlDetailsResponse response = urlService.shortenUrl("google.com", "PT30M", true);
 
-            verify(urlRepository, times(5)).existsByShortCode(any());
+            assertThat(response.slidingTtlSeconds()).isEqualTo(1800L);
+            assertThat(response.expiresAt()).isBetween(LocalDateTime.now().plusMinutes(29),
+                    LocalDateTime.now().plusMinutes(30));
+        }
+
+        @Test
+        void shouldCreateLinkThatNeverExpires() {
+            UrlDetailsResponse response = urlService.shortenUrl("google.com", "never", null);
+
+            assertThat(response.expiresAt()).isNull();
+            assertThat(response.expired()).isFalse();
+        }
+    }
+
+    @Nested
+    class InvalidExpiry {
+
+        @Test
+        void shouldRejectMalformedTtl() {
+            assertThatThrownBy(() -> urlService.shortenUrl("google.com", "7 dias", null))
+                    .isInstanceOf(InvalidParameterException.class)
+                    .hasMessage("TTL inválido: 7 dias");
+            verify(urlStore, never()).insert(any());
+        }
+
+        @Test
+        void shouldRejectTtlAboveMaximum() {
+            assertThatThrownBy(() -> urlService.shortenUrl("google.com", "P400D", null))
+                    .isInstanceOf(InvalidParameterException.class)
+                    .hasMessageContaining("TTL deve estar entre");
+        }
+
+        @Test
+        void shouldRejectSlidingLinkThatNeverExpires() {
+            assertThatThrownBy(() -> urlService.shortenUrl("google.com", "never", true))
+                    .isInstanceOf(InvalidParameterException.class)
+                    .hasMessageContaining("TTL finito");
         }
     }
 
@@ -123,37 +383,254 @@ class ShortenedUrlServiceTest {
     class ResolveShortCode {
 
         @Test
-        void shouldReturnOriginalUrlAndIncrementClicks() {
+        void shouldReturnOriginalUrlAndRecordClickWithoutWriting() {
             ShortenedUrl url = buildUrl("abc123", "https://google.com");
-            when(urlRepository.findByShortCode("abc123")).thenReturn(Optional.of(url));
-            when(urlRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(urlStore.findByShortCode("abc123")).thenReturn(Optional.of(url));
 
             String result = urlService.resolveShortCode("abc123");
 
             assertThat(result).isEqualTo("https://google.com");
-            assertThat(url.getClicks()).isEqualTo(1L);
-            assertThat(url.getLastAccessedAt()).isNotNull();
-            verify(urlRepository).save(url);
+            verify(clickAggregator).record("abc123");
+            verify(clickTimeSeries).record("abc123");
+            verify(urlStore, never()).incrementClicks(any());
+            verify(urlCache).put("abc123", new CachedUrl("https://google.com", url.getExpiresAt()));
+        }
+
+        @Test
+        void shouldServeFromCacheWithoutLoadingEntity() {
+            when(urlCache.get("abc123")).thenReturn(Optional
+                    .of(new CachedUrl("https://google.com", LocalDateTime.now().plusDays(1))));
+
+            String result = urlService.resolveShortCode("abc123");
+
+            assertThat(result).isEqualTo("https://google.com");
+            verify(urlStore, never()).findByShortCode(any());
+            verify(clickAggregator).record("abc123");
+        }
+
+        @Test
+        void shouldTouchSlidingLinkWithoutWriting() {
+            CachedUrl sliding = new CachedUrl("https://google.com",
+                    LocalDateTime.now().plusMinutes(10), Duration.ofMinutes(30));
+            when(urlCache.get("sld001")).thenReturn(Optional.of(sliding));
+
+            urlService.resolveShortCode("sld001");
+
+            verify(slidingExpiry).touch("sld001", sliding);
+            verify(urlStore, never()).incrementClicks(any());
+        }
+
+        @Test
+        void shouldNotTouchFixedLink() {
+            when(urlCache.get("abc123")).thenReturn(Optional
+                    .of(new CachedUrl("https://google.com", LocalDateTime.now().plusDays(1))));
+
+            urlService.resolveShortCode("abc123");
+
+            verify(slidingExpiry, never()).touch(any(), any());
+        }
+
+        @Test
+        void shouldServePinnedHotKeyWithoutTouchingCaches() {
+            when(hotKeys.pinned("hot001")).thenReturn(
+                    new CachedUrl("https://google.com", LocalDateTime.now().plusDays(1)));
+
+            String result = urlService.resolveShortCode("hot001");
+
+            assertThat(result).isEqualTo("https://google.com");
+            verify(urlCache, never()).get(any());
+            verify(hotKeys).record("hot001");
+            verify(clickAggregator).record("hot001");
+        }
+
+        @Test
+        void shouldRefuseRedirectToBlockedDomainWhenCheckEnabled() {
+            ReflectionTestUtils.setField(urlService, "checkOnRedirect", true);
+            when(urlCache.get("bad001")).thenReturn(Optional
+                    .of(new CachedUrl("https://evil.example", LocalDateTime.now().plusDays(1))));
+            when(domainBlocklist.isBlockedUrl("https://evil.example")).thenReturn(true);
+
+            assertThatThrownBy(() -> urlService.resolveShortCode("bad001"))
+                    .isInstanceOf(UrlBlockedException.class).hasMessage("URL bloqueada");
+            verify(clickAggregator, never()).record(any());
+        }
+
+        @Test
+        void shouldNotConsultBlocklistOnRedirectByDefault() {
+            when(urlCache.get("abc123")).thenReturn(Optional
+                    .of(new CachedUrl("https://google.com", LocalDateTime.now().plusDays(1))));
+
+            urlService.resolveShortCode("abc123");
+
+            verify(domainBlocklist, never()).isBlockedUrl(any());
+        }
+
+        @Test
+        void shouldThrowUrlExpiredExceptionWhenCachedUrlIsExpired() {
+            when(urlCache.get("old123")).thenReturn(Optional
+                    .of(new CachedUrl("https://google.com", LocalDateTime.now().minusDays(1))));
+
+            assertThatThrownBy(() -> urlService.resolveShortCode("old123"))
+                    .isInstanceOf(UrlExpiredException.class);
+            verify(clickAggregator, never()).record(any());
         }
 
         @Test
         void shouldThrowUrlNotFoundExceptionWhenCodeDoesNotExist() {
-            when(urlRepository.findByShortCode("noop00")).thenReturn(Optional.empty());
+            when(urlStore.findByShortCode("noop00")).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> urlService.resolveShortCode("noop00"))
                     .isInstanceOf(UrlNotFoundException.class).hasMessageContaining("noop00");
+            verify(shortCodeFilter).recordFalsePositive();
+        }
+
+        @Test
+        void shouldShareOneDatabaseLoadBetweenConcurrentMisses() throws Exception {
+            ShortenedUrl url = buildUrl("abc123", "https://google.com");
+            CountDownLatch release = new CountDownLatch(1);
+            when(urlStore.findByShortCode("abc123")).thenAnswer(inv -> {
+                release.await();
+                return Optional.of(url);
+            });
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> urlService.resolveShortCode("abc123")));
+            }
+
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("https://google.com");
+            }
+            executor.shutdown();
+            verify(urlStore, times(1)).findByShortCode("abc123");
+            verify(clickAggregator, times(8)).record("abc123");
+        }
+
+        @Test
+        void shouldDelegateExistenceCheckToFilter() {
+            when(shortCodeFilter.mightExist("abc123")).thenReturn(true);
+
+            assertThat(urlService.mightExist("abc123")).isTrue();
+            assertThat(urlService.mightExist("zzz999")).isFalse();
         }
 
         @Test
         void shouldThrowUrlExpiredExceptionWhenUrlIsExpired() {
             ShortenedUrl expired = buildExpiredUrl("old123", "https://google.com");
-            when(urlRepository.findByShortCode("old123")).thenReturn(Optional.of(expired));
+            when(urlStore.findByShortCode("old123")).thenReturn(Optional.of(expired));
+
+            assertThatThrownBy(() -> urlService.resolveShortCode("old123"))
+                    .isInstanceOf(UrlExpiredException.class).hasMessage("URL expirada");
+            verify(clickAggregator, never()).record(any());
+        }
+    }
+
+    @Nested
+    class ResolveShortCodeExactMode {
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(urlService, "clickMode", "exact");
+            lenient().when(exactClickCounters.getObject()).thenReturn(exactClickCounter);
+        }
+
+        @Test
+        void shouldResolveWithSingleAtomicUpdate() {
+            when(exactClickCounter.incrementAndResolve(eq("abc123"), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of("https://google.com"));
+
+            String result = urlService.resolveShortCode("abc123");
+
+            assertThat(result).isEqualTo("https://google.com");
+            verify(urlStore, never()).findByShortCode(any());
+            verify(urlCache, never()).get(any());
+            verify(clickAggregator, never()).record(any());
+            verify(clickTimeSeries).record("abc123");
+        }
+
+        @Test
+        void shouldRejectBlockedUrlBeforeCountingTheClick() {
+            ReflectionTestUtils.setField(urlService, "checkOnRedirect", true);
+            when(urlCache.get("abc123")).thenReturn(Optional
+                    .of(new CachedUrl("https://evil.example", LocalDateTime.now().plusDays(1))));
+            when(domainBlocklist.isBlockedUrl("https://evil.example")).thenReturn(true);
+
+            assertThatThrownBy(() -> urlService.resolveShortCode("abc123"))
+                    .isInstanceOf(UrlBlockedException.class);
+
+            verify(exactClickCounter, never()).incrementAndResolve(any(), any());
+            verify(clickTimeSeries, never()).record(any());
+        }
+
+        @Test
+        void shouldCountClickWhenUrlIsNotBlocked() {
+            ReflectionTestUtils.setField(urlService, "checkOnRedirect", true);
+            when(urlCache.get("abc123")).thenReturn(Optional
+                    .of(new CachedUrl("https://google.com", LocalDateTime.now().plusDays(1))));
+            when(exactClickCounter.incrementAndResolve(eq("abc123"), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of("https://google.com"));
+
+            assertThat(urlService.resolveShortCode("abc123")).isEqualTo("https://google.com");
+            verify(domainBlocklist).isBlockedUrl("https://google.com");
+        }
+
+        @Test
+        void shouldThrowUrlNotFoundExceptionWhenNothingUpdated() {
+            when(urlStore.findByShortCode("noop00")).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> urlService.resolveShortCode("noop00"))
+                    .isInstanceOf(UrlNotFoundException.class).hasMessageContaining("noop00");
+        }
+
+        @Test
+        void shouldThrowUrlExpiredExceptionWhenRowExistsButWasNotUpdated() {
+            ShortenedUrl expired = buildExpiredUrl("old123", "https://google.com");
+            when(urlStore.findByShortCode("old123")).thenReturn(Optional.of(expired));
 
             assertThatThrownBy(() -> urlService.resolveShortCode("old123"))
                     .isInstanceOf(UrlExpiredException.class).hasMessage("URL expirada");
         }
     }
 
+    @Nested
+    class ResolveShortCodeLogMode {
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(urlService, "clickMode", "log");
+        }
+
+        @Test
+        void shouldAppendClickToEventLogInsteadOfAggregator() {
+            when(urlCache.get("abc123"))
+                    .thenReturn(Optional.of(new CachedUrl("https://google.com", null)));
+            when(clickEventLog.append(eq("abc123"), anyLong(), anyLong(), anyLong()))
+                    .thenReturn(true);
+
+            urlService.resolveShortCode("abc123");
+            urlService.recordVisit("abc123", "127.0.0.1", "curl/8.0", "https://news.example/");
+
+            verify(clickEventLog).append(eq("abc123"), anyLong(),
+                    eq(ClickEventLog.hash("https://news.example/")),
+                    eq(ClickEventLog.hash("curl/8.0")));
+            verify(clickAggregator, never()).record(any());
+            verify(uniqueVisitors).record("abc123", "127.0.0.1", "curl/8.0");
+        }
+
+        @Test
+        void shouldFallBackToAggregatorWhenAppendFails() {
+            when(clickEventLog.append(eq("abc123"), anyLong(), anyLong(), anyLong()))
+                    .thenReturn(false);
+
+            urlService.recordVisit("abc123", "127.0.0.1", null, null);
+
+            verify(clickAggregator).record("abc123");
+        }
+    }
+
     // -- getStats --
 
     @Nested
@@ -162,7 +639,7 @@ class ShortenedUrlServiceTest {
         @Test
         void shouldReturnUrlDetails() {
             ShortenedUrl url = buildUrl("abc123", "https://google.com");
-            when(urlRepository.findByShortCode("abc123")).thenReturn(Optional.of(url));
+            when(urlStore.findByShortCode("abc123")).thenReturn(Optional.of(url));
 
             UrlDetailsResponse response = urlService.getStats("abc123");
 
@@ -171,15 +648,111 @@ class ShortenedUrlServiceTest {
             assertThat(response.shortUrl()).isEqualTo("http://localhost:8080/abc123");
         }
 
+        @Test
+        void shouldServeRepeatedLookupsFromLocalCache() {
+            ShortenedUrl url = buildUrl("abc123", "https://google.com");
+            when(urlStore.findByShortCode("abc123")).thenReturn(Optional.of(url));
+
+            urlService.getStats("abc123");
+            urlService.getStats("abc123");
+
+            verify(urlStore, times(1)).findByShortCode("abc123");
+        }
+
         @Test
         void shouldThrowWhenShortCodeNotFound() {
-            when(urlRepository.findByShortCode("noop00")).thenReturn(Optional.empty());
+            when(urlStore.findByShortCode("noop00")).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> urlService.getStats("noop00"))
                     .isInstanceOf(UrlNotFoundException.class);
         }
     }
 
+    // -- getClicks --
+
+    @Nested
+    class GetClicks {
+
+        private final LocalDateTime from = LocalDateTime.of(2026, 3, 10, 8, 30);
+        private final LocalDateTime to = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+        @Test
+        void shouldAlignStartAndSumBuckets() {
+            LocalDateTime eight = LocalDateTime.of(2026, 3, 10, 8, 0);
+            LocalDateTime ten = LocalDateTime.of(2026, 3, 10, 10, 0);
+            when(urlStore.existsByShortCode("abc123")).thenReturn(true);
+            when(clickTimeSeries.query("abc123", eight, to, ClickGranularity.HOUR))
+                    .thenReturn(new TreeMap<>(Map.of(eight, 3L, ten, 4L)));
+
+            ClickSeriesResponse response = urlService.getClicks("abc123", from, to, "hour");
+
+            assertThat(response.from()).isEqualTo(eight);
+            assertThat(response.total()).isEqualTo(7);
+            assertThat(response.buckets()).containsExactly(
+                    new ClickSeriesResponse.Bucket(eight, 3),
+                    new ClickSeriesResponse.Bucket(ten, 4));
+        }
+
+        @Test
+        void shouldRejectUnknownGranularity() {
+            assertThatThrownBy(() -> urlService.getClicks("abc123", from, to, "week"))
+                    .isInstanceOf(InvalidParameterException.class);
+        }
+
+        @Test
+        void shouldRejectEmptyOrTooWideRange() {
+            assertThatThrownBy(() -> urlService.getClicks("abc123", to, from, "hour"))
+                    .isInstanceOf(InvalidParameterException.class);
+            assertThatThrownBy(() -> urlService.getClicks("abc123", from.minusYears(1), to,
+                    "minute")).isInstanceOf(InvalidParameterException.class);
+            verify(clickTimeSeries, never()).query(any(), any(), any(), any());
+        }
+
+        @Test
+        void shouldThrowWhenShortCodeNotFound() {
+            when(urlStore.existsByShortCode("noop00")).thenReturn(false);
+
+            assertThatThrownBy(() -> urlService.getClicks("noop00", from, to, "hour"))
+                    .isInstanceOf(UrlNotFoundException.class);
+        }
+    }
+
+    // -- getUniqueVisitors --
+
+    @Nested
+    class GetUniqueVisitors {
+
+        @Test
+        void shouldDefaultToLastThirtyDays() {
+            LocalDate today = LocalDate.now();
+            when(urlStore.existsByShortCode("abc123")).thenReturn(true);
+            when(uniqueVisitors.estimate("abc123", today.minusDays(29), today)).thenReturn(42L);
+
+            UniqueVisitorsResponse response = urlService.getUniqueVisitors("abc123", null, null);
+
+            assertThat(response.from()).isEqualTo(today.minusDays(29));
+            assertThat(response.to()).isEqualTo(today);
+            assertThat(response.uniqueVisitors()).isEqualTo(42);
+        }
+
+        @Test
+        void shouldRejectInvertedRange() {
+            LocalDate today = LocalDate.now();
+
+            assertThatThrownBy(() -> urlService.getUniqueVisitors("abc123", today,
+                    today.minusDays(1))).isInstanceOf(InvalidParameterException.class);
+        }
+
+        @Test
+        void shouldThrowWhenShortCodeNotFound() {
+            when(urlStore.existsByShortCode("noop00")).thenReturn(false);
+
+            assertThatThrownBy(() -> urlService.getUniqueVisitors("noop00", null, null))
+                    .isInstanceOf(UrlNotFoundException.class);
+            verify(uniqueVisitors, never()).estimate(any(), any(), any());
+        }
+    }
+
     // -- listUrls --
 
     @Nested
@@ -190,7 +763,7 @@ class ShortenedUrlServiceTest {
             Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
             ShortenedUrl url = buildUrl("abc123", "https://google.com");
             Page<ShortenedUrl> page = new PageImpl<>(List.of(url), pageable, 1);
-            when(urlRepository.findAll(pageable)).thenReturn(page);
+            when(urlStore.findAll(pageable)).thenReturn(page);
 
             Page<UrlDetailsResponse> result = urlService.listUrls(pageable);
 
@@ -201,7 +774,7 @@ class ShortenedUrlServiceTest {
         @Test
         void shouldReturnEmptyPageWhenNoUrls() {
             Pageable pageable = PageRequest.of(0, 20);
-            when(urlRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
+            when(urlStore.findAll(pageable)).thenReturn(Page.empty(pageable));
 
             Page<UrlDetailsResponse> result = urlService.listUrls(pageable);
 
@@ -209,6 +782,58 @@ class ShortenedUrlServiceTest {
         }
     }
 
+    // -- listUrls (cursor) --
+
+    @Nested
+    class ListUrlsByCursor {
+
+        private ShortenedUrl buildUrlWithId(long id, LocalDateTime createdAt) {
+            ShortenedUrl url = buildUrl("c" + id, "https://google.com/" + id);
+            ReflectionTestUtils.setField(url, "id", id);
+            ReflectionTestUtils.setField(url, "createdAt", createdAt);
+            return url;
+        }
+
+        @Test
+        void shouldReturnNextCursorFromLastItemWhenMoreRowsExist() {
+            LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 0);
+            when(urlStore.scan(null, 3)).thenReturn(
+                    List.of(buildUrlWithId(9, now), buildUrlWithId(8, now),
+                            buildUrlWithId(7, now.minusMinutes(1))));
+
+            CursorPage<UrlDetailsResponse> page = urlService.listUrls("", 2);
+
+            assertThat(page.content()).extracting(UrlDetailsResponse::id).containsExactly(9L, 8L);
+            assertThat(PageCursor.decode(page.nextCursor())).isEqualTo(new PageCursor(now, 8));
+        }
+
+        @Test
+        void shouldContinueAfterCursorAndStopOnLastPage() {
+            LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 0);
+            when(urlStore.scan(new PageCursor(now, 8), 3))
+                    .thenReturn(List.of(buildUrlWithId(7, now.minusMinutes(1))));
+
+            CursorPage<UrlDetailsResponse> page =
+                    urlService.listUrls(new PageCursor(now, 8).encode(), 2);
+
+            assertThat(page.content()).extracting(UrlDetailsResponse::id).containsExactly(7L);
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        void shouldClampPageSize() {
+            urlService.listUrls(null, 10_000);
+
+            verify(urlStore).scan(null, 101);
+        }
+
+        @Test
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> urlService.listUrls("não-é-cursor", 20))
+                    .isInstanceOf(InvalidCursorException.class).hasMessage("Cursor inválido");
+        }
+    }
+
     // -- deleteUrl --
 
     @Nested
@@ -216,22 +841,25 @@ class ShortenedUrlServiceTest {
 
         @Test
         void shouldDeleteExistingUrl() {
-            ShortenedUrl url = buildUrl("abc123", "https://google.com");
-            when(urlRepository.findByShortCode("abc123")).thenReturn(Optional.of(url));
+            when(urlStore.delete("abc123")).thenReturn(true);
 
             urlService.deleteUrl("abc123");
 
-            verify(urlRepository).delete(url);
+            verify(clickTimeSeries).delete("abc123");
+            verify(uniqueVisitors).delete("abc123");
+            verify(urlCache).evict("abc123");
+            verify(statsCache).evict("abc123");
+            verify(hotKeys).evict("abc123");
         }
 
         @Test
         void shouldThrowWhenShortCodeNotFound() {
-            when(urlRepository.findByShortCode("noop00")).thenReturn(Optional.empty());
+            when(urlStore.delete("noop00")).thenReturn(false);
 
             assertThatThrownBy(() -> urlService.deleteUrl("noop00"))
                     .isInstanceOf(UrlNotFoundException.class).hasMessageContaining("noop00");
 
-            verify(urlRepository, never()).delete(any());
+            verify(urlCache, never()).evict(any());
         }
     }
 }
@@ -0,0 +1,124 @@
+package com.techatow.url_shortner.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import com.techatow.url_shortner.utils.UrlDigest;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:url-dedup")
+@ActiveProfiles("test")
+class UrlDeduplicationIntegrationTest {
+
+    @Autowired
+    private ShortenedUrlService urlService;
+
+    @Autowired
+    private ShortenedUrlRepository urlRepository;
+
+    @Autowired
+    private UrlDigestBackfill backfill;
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void shouldConvergeConcurrentShortensOfSameUrlOnOneRow() throws Exception {
+        int threads = 16;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<UrlDetailsResponse>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                barrier.await();
+                return urlService.shortenUrl("https://8.8.8.8/dedup");
+            });
+        }
+
+        List<String> codes = new ArrayList<>();
+        for (Future<UrlDetailsResponse> response : executor.invokeAll(tasks)) {
+            codes.add(response.get().shortCode());
+        }
+        executor.shutdown();
+
+        assertThat(codes).containsOnly(codes.get(0));
+        assertThat(urlRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void backfillShouldFillLegacyRowsAndKeepDuplicatesWithoutDigest() {
+        ShortenedUrl first = legacy("old001", "https://8.8.8.8/legacy");
+        ShortenedUrl duplicate = legacy("old002", "https://8.8.8.8/legacy");
+        ShortenedUrl other = legacy("old003", "https://8.8.8.8/other");
+
+        backfill.run();
+
+        assertThat(urlRepository.findById(first.getId()).orElseThrow().getUrlDigest())
+                .isEqualTo(UrlDigest.of("https://8.8.8.8/legacy"));
+        assertThat(urlRepository.findById(duplicate.getId()).orElseThrow().getUrlDigest())
+                .isNull();
+        assertThat(urlRepository.findById(other.getId()).orElseThrow().getUrlDigest())
+                .isEqualTo(UrlDigest.of("https://8.8.8.8/other"));
+        assertThat(urlService.shortenUrl("https://8.8.8.8/legacy").shortCode())
+                .isEqualTo("old001");
+    }
+
+    @Test
+    void backfillShouldLeaveLinksWithOwnExpiryPolicyWithoutDigest() {
+        String sliding = urlService.shortenUrl("https://8.8.8.8/sliding", "PT1H", true)
+                .shortCode();
+        String custom = urlService.shortenUrl("https://8.8.8.8/custom", "P1D", false)
+                .shortCode();
+        String never = urlService.shortenUrl("https://8.8.8.8/never", "never", false)
+                .shortCode();
+
+        // Próxima subida
+        backfill.run();
+
+        for (String shortCode : List.of(sliding, custom, never)) {
+            assertThat(urlRepository.findByShortCode(shortCode).orElseThrow().getUrlDigest())
+                    .isNull();
+        }
+        assertThat(urlService.shortenUrl("https://8.8.8.8/sliding").shortCode())
+                .isNotEqualTo(sliding);
+        assertThat(urlService.shortenUrl("https://8.8.8.8/never").shortCode())
+                .isNotEqualTo(never);
+    }
+
+    @Test
+    void shouldGiveExpiredUrlANewLinkAndReleaseTheOldDigest() {
+        ShortenedUrl expired = new ShortenedUrl("exp001", "https://8.8.8.8/expired");
+        expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+        urlRepository.save(expired);
+
+        String shortCode = urlService.shortenUrl("https://8.8.8.8/expired").shortCode();
+
+        assertThat(shortCode).isNotEqualTo("exp001");
+        assertThat(urlRepository.findByShortCode("exp001").orElseThrow().getUrlDigest())
+                .isNull();
+        assertThat(urlService.shortenUrl("https://8.8.8.8/expired").shortCode())
+                .isEqualTo(shortCode);
+    }
+
+    private ShortenedUrl legacy(String shortCode, String originalUrl) {
+        ShortenedUrl url = new ShortenedUrl(shortCode, originalUrl);
+        url.setUrlDigest(null);
+        url.setExpiresAt(LocalDateTime.now().plus(UrlDigestBackfill.LEGACY_TTL));
+        return urlRepository.save(url);
+    }
+}
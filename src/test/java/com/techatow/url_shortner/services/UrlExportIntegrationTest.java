@@ -0,0 +1,138 @@
+package com.techatow.url_shortner.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import com.techatow.url_shortner.repositories.ShortenedUrlRepository;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:url-export")
+@ActiveProfiles("test")
+class UrlExportIntegrationTest {
+
+    private static final int LARGE_ROWS = 100_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    private UrlExportService exportService;
+
+    @Autowired
+    private ShortenedUrlRepository urlRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    // Conta linhas sem guardar a saída, como faria a resposta HTTP
+    private static final class CountingOutputStream extends OutputStream {
+        long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+
+    // Um registro por minuto a partir de BASE; metade sem data de expiração
+    private void insertRows(int count) {
+        jdbcTemplate.batchUpdate("insert into shortened_urls (id, short_code, original_url, clicks,"
+                + " created_at, expires_at) values (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        LocalDateTime createdAt = BASE.plusMinutes(i);
+                        ps.setLong(1, i + 1);
+                        ps.setString(2, String.format("e%05d", i));
+                        ps.setString(3, "https://8.8.8.8/export/" + i
+                                + (i == 0 ? "?a=1,b=\"2\"" : ""));
+                        ps.setLong(4, i % 7);
+                        ps.setTimestamp(5, Timestamp.valueOf(createdAt));
+                        ps.setTimestamp(6, i % 2 == 0 ? Timestamp.valueOf(createdAt.plusDays(7))
+                                : null);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count;
+                    }
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldExportWholeTableAsNdjson() throws Exception {
+        insertRows(LARGE_ROWS);
+        CountingOutputStream output = new CountingOutputStream();
+
+        long exported = exportService.export(new UrlExportService.Filter(null, null, null, null),
+                UrlExportService.Format.NDJSON, output);
+
+        assertThat(exported).isEqualTo(LARGE_ROWS);
+        assertThat(output.lines).isEqualTo(LARGE_ROWS);
+    }
+
+    @Test
+    void shouldExportCsvWithHeaderAndEscaping() throws Exception {
+        insertRows(30);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.export(new UrlExportService.Filter(null, BASE.plusMinutes(2), null, null),
+                UrlExportService.Format.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).containsExactly(
+                "id,shortCode,originalUrl,clicks,createdAt,lastAccessedAt,expiresAt",
+                "1,e00000,\"https://8.8.8.8/export/0?a=1,b=\"\"2\"\"\",0,2026-01-01T00:00,,"
+                        + "2026-01-08T00:00",
+                "2,e00001,https://8.8.8.8/export/1,1,2026-01-01T00:01,,");
+    }
+
+    @Test
+    void shouldApplyCreatedAndExpiresFilters() throws Exception {
+        insertRows(30);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = exportService.export(new UrlExportService.Filter(BASE.plusMinutes(10),
+                BASE.plusMinutes(20), BASE.plusDays(7).plusMinutes(14), null),
+                UrlExportService.Format.NDJSON, output);
+
+        // Minutos 14 a 19 com expiração: 14, 16 e 18
+        assertThat(exported).isEqualTo(3);
+        List<JsonNode> rows = output.toString(StandardCharsets.UTF_8).lines()
+                .map(jsonMapper::readTree).toList();
+        assertThat(rows).extracting(row -> row.get("shortCode").asString())
+                .containsExactly("e00014", "e00016", "e00018");
+        assertThat(rows.get(0).get("createdAt").asString()).isEqualTo("2026-01-01T00:14:00");
+    }
+}
@@ -0,0 +1,109 @@
+package com.techatow.url_shortner.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import com.techatow.url_shortner.clicks.ClickAggregator;
+import com.techatow.url_shortner.dtos.UrlDetailsResponse;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.exceptions.FeatureUnavailableException;
+import com.techatow.url_shortner.exceptions.UrlNotFoundException;
+import com.techatow.url_shortner.expiry.ExpiryReaper;
+import com.techatow.url_shortner.services.ShortenedUrlService;
+import com.techatow.url_shortner.services.UrlExportService;
+
+// Sem banco nenhum: o perfil de teste aponta para o H2, mas o DataSource nem é criado
+@SpringBootTest(properties = "app.storage.type=embedded")
+@ActiveProfiles("test")
+class EmbeddedStorageIntegrationTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storageDir(DynamicPropertyRegistry registry) {
+        registry.add("app.storage.embedded.dir", directory::toString);
+    }
+
+    @Autowired
+    private ShortenedUrlService urlService;
+
+    @Autowired
+    private ClickAggregator clickAggregator;
+
+    @Autowired
+    private UrlStore urlStore;
+
+    @Autowired
+    private ExpiryReaper expiryReaper;
+
+    @Autowired
+    private UrlExportService exportService;
+
+    @Autowired
+    private ObjectProvider<DataSource> dataSource;
+
+    @Test
+    void shouldServeLinksFromEmbeddedLogWithoutTouchingTheTable() {
+        UrlDetailsResponse created = urlService.shortenUrl("https://8.8.8.8/embedded");
+
+        assertThat(urlService.shortenUrl("https://8.8.8.8/embedded").shortCode())
+                .isEqualTo(created.shortCode());
+        assertThat(urlService.resolveShortCode(created.shortCode()))
+                .isEqualTo("https://8.8.8.8/embedded");
+        clickAggregator.flush();
+
+        assertThat(urlStore).isInstanceOf(LogUrlStore.class);
+        assertThat(urlStore.findByShortCode(created.shortCode()).orElseThrow().getClicks())
+                .isEqualTo(1);
+        assertThat(urlService.listUrls(null, 10).content()).extracting(
+                UrlDetailsResponse::shortCode).contains(created.shortCode());
+        assertThat(dataSource.getIfAvailable()).isNull();
+
+        urlService.deleteUrl(created.shortCode());
+
+        assertThatThrownBy(() -> urlService.resolveShortCode(created.shortCode()))
+                .isInstanceOf(UrlNotFoundException.class);
+    }
+
+    @Test
+    void shouldReapAndExportFromEmbeddedLog() throws IOException {
+        ShortenedUrl expired = new ShortenedUrl("exp001", "https://8.8.8.8/expired");
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        urlStore.insert(expired);
+        UrlDetailsResponse live = urlService.shortenUrl("https://8.8.8.8/export");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(expiryReaper.reap()).isGreaterThanOrEqualTo(1);
+        exportService.export(new UrlExportService.Filter(null, null, null, null),
+                UrlExportService.Format.CSV, output);
+
+        assertThat(urlStore.existsByShortCode("exp001")).isFalse();
+        assertThat(output.toString(StandardCharsets.UTF_8)).contains(live.shortCode())
+                .doesNotContain("exp001");
+    }
+
+    @Test
+    void shouldRefuseClickSeriesAndVisitorsWithoutDatabase() {
+        UrlDetailsResponse created = urlService.shortenUrl("https://8.8.8.8/series");
+
+        assertThatThrownBy(() -> urlService.getClicks(created.shortCode(), null, null, "hour"))
+                .isInstanceOf(FeatureUnavailableException.class)
+                .hasMessageContaining("app.storage.type=jpa");
+        assertThatThrownBy(() -> urlService.getUniqueVisitors(created.shortCode(), null, null))
+                .isInstanceOf(FeatureUnavailableException.class);
+    }
+}
@@ -0,0 +1,391 @@
+package com.techatow.url_shortner.storage;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import com.techatow.url_shortner.dtos.UrlExportRow;
+import com.techatow.url_shortner.entities.ShortenedUrl;
+import com.techatow.url_shortner.exceptions.InvalidParameterException;
+import com.techatow.url_shortner.utils.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LogUrlStoreTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    private LogUrlStore open() throws IOException {
+        return LogUrlStore.open(directory, 0, 2.0, new SimpleMeterRegistry());
+    }
+
+    private static ShortenedUrl url(String shortCode, String digest) {
+        ShortenedUrl url = new ShortenedUrl();
+        url.setShortCode(shortCode);
+        url.setOriginalUrl("https://google.com/" + shortCode);
+        url.setUrlDigest(digest);
+        url.setExpiresAt(NOW.plusDays(7));
+        return url;
+    }
+
+    private static ShortenedUrl sliding(String shortCode, LocalDateTime expiresAt) {
+        ShortenedUrl url = url(shortCode, null);
+        url.setExpiresAt(expiresAt);
+        url.setSlidingTtlSeconds(1_800L);
+        return url;
+    }
+
+    private Path wal() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(LogUrlStore.SUFFIX))
+                    .findFirst().orElseThrow();
+        }
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static List<String> codes(List<ShortenedUrl> urls) {
+        return urls.stream().map(ShortenedUrl::getShortCode).toList();
+    }
+
+    @Test
+    void shouldAssignIdsAndServeReadsFromIndex() throws IOException {
+        try (LogUrlStore store = open()) {
+            ShortenedUrl saved = store.insert(url("abc123", "d1"));
+
+            assertThat(saved.getId()).isEqualTo(1L);
+            assertThat(saved.getCreatedAt()).isNotNull();
+            assertThat(store.findByShortCode("abc123")).get()
+                    .extracting(ShortenedUrl::getOriginalUrl)
+                    .isEqualTo("https://google.com/abc123");
+            assertThat(store.findByUrlDigest("d1")).get().extracting(ShortenedUrl::getShortCode)
+                    .isEqualTo("abc123");
+            assertThat(store.existsByShortCode("abc123")).isTrue();
+            assertThat(store.existsByShortCode("noop00")).isFalse();
+        }
+    }
+
+    @Test
+    void shouldRebuildIndexesFromLogOnReopen() throws IOException {
+        try (LogUrlStore store = open()) {
+            store.insertAll(List.of(url("aaa111", "d1"), url("bbb222", "d2"),
+                    sliding("sld001", NOW.plusMinutes(5))));
+            store.incrementClicks(List.of(new ClickDelta("aaa111", 3, NOW),
+                    new ClickDelta("aaa111", 2, NOW.minusHours(1)),
+                    new ClickDelta("noop00", 9, NOW)));
+            store.extendExpiry(Map.of("sld001", NOW.plusMinutes(30)));
+            store.delete("bbb222");
+        }
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.count()).isEqualTo(2);
+            ShortenedUrl clicked = store.findByShortCode("aaa111").orElseThrow();
+            assertThat(clicked.getClicks()).isEqualTo(5);
+            assertThat(clicked.getLastAccessedAt()).isEqualTo(NOW);
+            assertThat(store.findByShortCode("sld001").orElseThrow().getExpiresAt())
+                    .isEqualTo(NOW.plusMinutes(30));
+            assertThat(store.findByShortCode("bbb222")).isEmpty();
+            assertThat(store.findByUrlDigest("d2")).isEmpty();
+            assertThat(store.findByUrlDigestIn(List.of("d1", "d2"))).extracting(
+                    ShortenedUrl::getShortCode).containsExactly("aaa111");
+
+            // Ids continuam depois do maior já gravado
+            assertThat(store.insert(url("ccc333", null)).getId()).isEqualTo(4L);
+        }
+    }
+
+    @Test
+    void shouldKeepEverythingWrittenWhenProcessDiesWithoutClosing() throws IOException {
+        LogUrlStore crashed = open();
+        crashed.insert(url("abc123", "d1"));
+        crashed.incrementClicks(List.of(new ClickDelta("abc123", 1, NOW)));
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.findByShortCode("abc123").orElseThrow().getClicks()).isEqualTo(1);
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void shouldDiscardTornTailAndKeepAppending() throws IOException {
+        try (LogUrlStore store = open()) {
+            store.insert(url("aaa111", null));
+            store.insert(url("bbb222", null));
+        }
+        Path wal = wal();
+        long size = Files.size(wal);
+        try (FileChannel channel = FileChannel.open(wal, WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.count()).isEqualTo(1);
+            assertThat(store.existsByShortCode("aaa111")).isTrue();
+            store.insert(url("ccc333", null));
+        }
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.streamAllShortCodes()).containsExactlyInAnyOrder("aaa111",
+                    "ccc333");
+        }
+    }
+
+    @Test
+    void shouldStopReplayAtCorruptedRecord() throws IOException {
+        long firstRecord;
+        try (LogUrlStore store = open()) {
+            store.insert(url("aaa111", null));
+            firstRecord = Files.size(wal());
+            store.insert(url("bbb222", null));
+            store.insert(url("ccc333", null));
+        }
+        // Um byte trocado no corpo do segundo registro invalida o CRC
+        try (FileChannel channel = FileChannel.open(wal(), WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}),
+                    firstRecord + LogUrlStore.HEADER_SIZE + 10);
+        }
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.streamAllShortCodes()).containsExactly("aaa111");
+            assertThat(Files.size(wal())).isEqualTo(firstRecord);
+        }
+    }
+
+    @Test
+    void shouldApplyBatchAsSingleRecord() throws IOException {
+        try (LogUrlStore store = open()) {
+            store.insertAll(List.of(url("aaa111", null), url("bbb222", null)));
+        }
+        try (FileChannel channel = FileChannel.open(wal(), WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.count()).isZero();
+        }
+    }
+
+    @Test
+    void shouldCompactToLiveRowsAndSurviveReopen() throws IOException {
+        try (LogUrlStore store = open()) {
+            for (int i = 0; i < 50; i++) {
+                store.insert(url("del" + i, null));
+                store.delete("del" + i);
+            }
+            store.insert(url("abc123", "d1"));
+            for (int i = 0; i < 50; i++) {
+                store.incrementClicks(List.of(new ClickDelta("abc123", 1, NOW.plusSeconds(i))));
+            }
+            long before = Files.size(wal());
+
+            assertThat(store.compactIfNeeded()).isTrue();
+
+            assertThat(files()).hasSize(1);
+            assertThat(Files.size(wal())).isLessThan(before / 10);
+            // Logo após compactar, o log ainda não cresceu o suficiente para outra rodada
+            assertThat(store.compactIfNeeded()).isFalse();
+            store.incrementClicks(List.of(new ClickDelta("abc123", 1, NOW.plusDays(1))));
+        }
+
+        try (LogUrlStore store = open()) {
+            ShortenedUrl url = store.findByShortCode("abc123").orElseThrow();
+            assertThat(store.count()).isEqualTo(1);
+            assertThat(url.getClicks()).isEqualTo(51);
+            assertThat(url.getLastAccessedAt()).isEqualTo(NOW.plusDays(1));
+            assertThat(store.findByUrlDigest("d1")).isPresent();
+        }
+    }
+
+    @Test
+    void shouldIgnoreSnapshotLeftByInterruptedCompaction() throws IOException {
+        try (LogUrlStore store = open()) {
+            store.insert(url("abc123", null));
+        }
+        Path leftover = directory.resolve(
+                wal().getFileName().toString().replace("0001.wal", "0002.wal") + ".tmp");
+        Files.write(leftover, new byte[] {1, 2, 3});
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.existsByShortCode("abc123")).isTrue();
+            assertThat(leftover).doesNotExist();
+        }
+    }
+
+    @Test
+    void shouldPreferNewestGenerationAndRemoveOlderOnes() throws IOException {
+        try (LogUrlStore store = open()) {
+            store.insert(url("old001", null));
+        }
+        Path older = wal();
+        byte[] stale = Files.readAllBytes(older);
+        try (LogUrlStore store = open()) {
+            store.insert(url("new001", null));
+            store.compact();
+        }
+        // Queda entre o rename da compactação e a remoção da geração anterior
+        Files.write(older, stale);
+
+        try (LogUrlStore store = open()) {
+            assertThat(store.streamAllShortCodes()).containsExactlyInAnyOrder("old001",
+                    "new001");
+            assertThat(files()).hasSize(1).doesNotContain(older.getFileName().toString());
+        }
+    }
+
+    @Test
+    void shouldRejectDuplicatesWithoutWritingAnything() throws IOException {
+        try (LogUrlStore store = open()) {
+            store.insert(url("abc123", "d1"));
+
+            assertThatThrownBy(() -> store.insert(url("abc123", null)))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThatThrownBy(() -> store.insert(url("def456", "d1")))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThatThrownBy(
+                    () -> store.insertAll(List.of(url("new001", "d2"), url("new002", "d2"))))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+
+            assertThat(store.count()).isEqualTo(1);
+            assertThat(store.existsByShortCode("new001")).isFalse();
+        }
+        try (LogUrlStore store = open()) {
+            assertThat(store.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldReleaseDigestOnlyOfExpiredLinks() throws IOException {
+        try (LogUrlStore store = open()) {
+            ShortenedUrl expired = url("old001", "d1");
+            expired.setExpiresAt(NOW.minusDays(1));
+            store.insertAll(List.of(expired, url("live01", "d2")));
+
+            store.releaseExpiredDigests(List.of("old001", "live01", "noop00"), NOW);
+
+            assertThat(store.findByUrlDigest("d1")).isEmpty();
+            assertThat(store.findByUrlDigest("d2")).isPresent();
+            store.insert(url("new001", "d1"));
+        }
+        try (LogUrlStore store = open()) {
+            assertThat(store.findByUrlDigest("d1")).get().extracting(ShortenedUrl::getShortCode)
+                    .isEqualTo("new001");
+            assertThat(store.findByShortCode("old001").orElseThrow().getUrlDigest()).isNull();
+        }
+    }
+
+    @Test
+    void shouldDeleteExpiredInBatchesOldestFirst() throws IOException {
+        try (LogUrlStore store = open()) {
+            for (int i = 0; i < 3; i++) {
+                ShortenedUrl expired = url("old00" + i, null);
+                expired.setExpiresAt(NOW.minusDays(i + 1));
+                store.insert(expired);
+            }
+            store.insert(url("live01", null));
+
+            assertThat(store.deleteExpired(NOW, 2, false)).containsExactly("old002", "old001");
+            assertThat(store.deleteExpired(NOW, 2, false)).containsExactly("old000");
+            assertThat(store.deleteExpired(NOW, 2, false)).isEmpty();
+            assertThatThrownBy(() -> store.deleteExpired(NOW, 2, true))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("app.expiry.mode=archive");
+        }
+        try (LogUrlStore store = open()) {
+            assertThat(store.streamAllShortCodes()).containsExactly("live01");
+        }
+    }
+
+    @Test
+    void shouldExportFilteredRowsInIdOrder() throws IOException {
+        try (LogUrlStore store = open()) {
+            for (int i = 0; i < 4; i++) {
+                ShortenedUrl url = url("c" + i, null);
+                url.setCreatedAt(NOW.plusDays(i));
+                store.insert(url);
+            }
+            ShortenedUrl permanent = url("perm01", null);
+            permanent.setCreatedAt(NOW.plusDays(1));
+            permanent.setExpiresAt(null);
+            store.insert(permanent);
+
+            assertThat(store.streamForExport(NOW.plusDays(1), NOW.plusDays(3), null, null)
+                    .map(UrlExportRow::shortCode)).containsExactly("c1", "c2", "perm01");
+            assertThat(store.streamForExport(null, null, NOW, null)
+                    .map(UrlExportRow::shortCode)).containsExactly("c0", "c1", "c2", "c3");
+        }
+    }
+
+    @Test
+    void shouldOnlyExtendSlidingLinksForward() throws IOException {
+        try (LogUrlStore store = open()) {
+            store.insert(sliding("sld001", NOW.plusMinutes(30)));
+            store.insert(url("fix001", null));
+
+            store.extendExpiry(Map.of("sld001", NOW.plusMinutes(10), "fix001", NOW.plusYears(1)));
+
+            assertThat(store.findByShortCode("sld001").orElseThrow().getExpiresAt())
+                    .isEqualTo(NOW.plusMinutes(30));
+            assertThat(store.findByShortCode("fix001").orElseThrow().getExpiresAt())
+                    .isEqualTo(NOW.plusDays(7));
+        }
+    }
+
+    @Test
+    void shouldScanNewestFirstFromCursor() throws IOException {
+        try (LogUrlStore store = open()) {
+            for (int i = 0; i < 5; i++) {
+                ShortenedUrl url = url("c" + i, null);
+                url.setCreatedAt(NOW.plusMinutes(i / 2));
+                store.insert(url);
+            }
+
+            List<ShortenedUrl> first = store.scan(null, 2);
+            ShortenedUrl last = first.getLast();
+            List<ShortenedUrl> rest =
+                    store.scan(new PageCursor(last.getCreatedAt(), last.getId()), 10);
+
+            assertThat(codes(first)).containsExactly("c4", "c3");
+            assertThat(codes(rest)).containsExactly("c2", "c1", "c0");
+        }
+    }
+
+    @Test
+    void shouldPageAndSortInMemory() throws IOException {
+        try (LogUrlStore store = open()) {
+            IntStream.range(0, 5).forEach(i -> store.insert(url("c" + i, null)));
+            store.incrementClicks(List.of(new ClickDelta("c2", 10, NOW),
+                    new ClickDelta("c0", 5, NOW)));
+
+            Page<ShortenedUrl> page =
+                    store.findAll(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "clicks")));
+
+            assertThat(page.getTotalElements()).isEqualTo(5);
+            assertThat(codes(page.getContent())).containsExactly("c2", "c0");
+            assertThatThrownBy(() -> store.findAll(PageRequest.of(0, 2, Sort.by("urlDigest"))))
+                    .isInstanceOf(InvalidParameterException.class)
+                    .hasMessageContaining("urlDigest");
+        }
+    }
+}
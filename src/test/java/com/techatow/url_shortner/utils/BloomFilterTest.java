@@ -0,0 +1,54 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_shouldNeverReturnFalseForInsertedValues() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("code" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("code" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_shouldKeepFalsePositiveRateNearConfiguredValue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("code" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void mightContain_shouldReturnFalseOnEmptyFilter() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        assertThat(filter.mightContain("abc123")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    void memoryBytes_shouldMatchSizingFormula() {
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+        // ~9,6 bits por elemento para 1% de falso positivo
+        assertThat(filter.memoryBytes()).isBetween(1_190_000L, 1_210_000L);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,51 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.net.InetAddress;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CidrTrieTest {
+
+    private final CidrTrie defaults = CidrTrie.of(UrlValidator.DEFAULT_BLOCKED_RANGES);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"127.0.0.1", "10.1.2.3", "172.16.0.1", "172.31.255.255",
+            "192.168.1.1", "169.254.169.254", "100.64.0.1", "0.0.0.0", "224.0.0.1", "::1", "::",
+            "fd12:3456::1", "fc00::1", "fe80::1", "ff02::1", "2001:db8::1"})
+    void contains_shouldMatchDefaultBlockedAddresses(String ip) throws Exception {
+        assertThat(defaults.contains(InetAddress.getByName(ip))).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"8.8.8.8", "172.15.255.255", "172.32.0.1", "192.169.0.1",
+            "100.128.0.1", "2001:4860:4860::8888", "2606:4700::1111"})
+    void contains_shouldNotMatchPublicAddresses(String ip) throws Exception {
+        assertThat(defaults.contains(InetAddress.getByName(ip))).isFalse();
+    }
+
+    @Test
+    void contains_shouldTreatIpv4MappedIpv6AsIpv4() throws Exception {
+        assertThat(defaults.contains(InetAddress.getByName("::ffff:127.0.0.1"))).isTrue();
+    }
+
+    @Test
+    void of_shouldAcceptSingleAddressesAndExactPrefixes() throws Exception {
+        CidrTrie trie = CidrTrie.of(List.of("203.0.113.7", "198.51.100.0/31"));
+
+        assertThat(trie.contains(InetAddress.getByName("203.0.113.7"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("203.0.113.8"))).isFalse();
+        assertThat(trie.contains(InetAddress.getByName("198.51.100.1"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("198.51.100.2"))).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"example.com/24", "10.0.0.0/33", "10.0.0.0/x", "::ffff:0:0/96"})
+    void of_shouldRejectInvalidRanges(String cidr) {
+        assertThatThrownBy(() -> CidrTrie.of(List.of(cidr)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimate_shouldNeverUnderestimate() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 5_000; i++) {
+            for (int hits = 0; hits <= i % 7; hits++) {
+                sketch.add("code" + i);
+            }
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(sketch.estimate("code" + i)).isGreaterThanOrEqualTo(i % 7 + 1);
+        }
+    }
+
+    @Test
+    void estimate_shouldSeparateHeavyHitterFromLongTail() {
+        CountMinSketch sketch = new CountMinSketch(4096, 4);
+        for (int i = 0; i < 50_000; i++) {
+            sketch.add("tail" + i);
+            if (i % 10 == 0) {
+                sketch.add("hot001");
+            }
+        }
+
+        assertThat(sketch.estimate("hot001")).isBetween(5_000L, 5_100L);
+        assertThat(sketch.estimate("tail42")).isLessThan(100);
+    }
+
+    @Test
+    void halve_shouldAgeAllCounters() {
+        CountMinSketch sketch = new CountMinSketch(64, 2);
+        for (int i = 0; i < 10; i++) {
+            sketch.add("abc123");
+        }
+
+        sketch.halve();
+
+        assertThat(sketch.estimate("abc123")).isEqualTo(5);
+        assertThat(sketch.estimate("never0")).isZero();
+    }
+}
@@ -0,0 +1,79 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog sketchOf(int precision, int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = from; i < to; i++) {
+            sketch.add(HyperLogLog.hash("10.0.0." + i, "Mozilla/5.0"));
+        }
+        return sketch;
+    }
+
+    @Test
+    void estimate_shouldStayWithinExpectedError() {
+        HyperLogLog sketch = sketchOf(12, 0, 100_000);
+        for (int i = 0; i < 100_000; i += 3) {
+            sketch.add(HyperLogLog.hash("10.0.0." + i, "Mozilla/5.0"));
+        }
+
+        // Erro padrão de 1,04 / sqrt(4096) = 1,6%; tolera três desvios
+        assertThat(sketch.estimate()).isBetween(95_000L, 105_000L);
+    }
+
+    @Test
+    void estimate_shouldBeExactForFewVisitors() {
+        assertThat(new HyperLogLog(12).estimate()).isZero();
+        assertThat(sketchOf(12, 0, 10).estimate()).isEqualTo(10);
+    }
+
+    @Test
+    void merge_shouldCountOverlapOnce() {
+        HyperLogLog monday = sketchOf(12, 0, 30_000);
+        HyperLogLog tuesday = sketchOf(12, 20_000, 50_000);
+
+        monday.merge(tuesday);
+
+        assertThat(monday.estimate()).isBetween(47_500L, 52_500L);
+    }
+
+    @Test
+    void merge_shouldRejectDifferentPrecision() {
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void toBytes_shouldUseSparseEncodingForSmallSketches() {
+        HyperLogLog sketch = sketchOf(12, 0, 50);
+
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes.length).isLessThanOrEqualTo(5 + 50 * 3);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void toBytes_shouldRoundTripDenseSketches() {
+        HyperLogLog sketch = sketchOf(12, 0, 20_000);
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertThat(bytes.length).isEqualTo(3 + 410 * Long.BYTES);
+        for (int i = 0; i < 4096; i++) {
+            assertThat(restored.register(i)).isEqualTo(sketch.register(i));
+        }
+    }
+
+    @Test
+    void hash_shouldDependOnBothParts() {
+        assertThat(HyperLogLog.hash("ab", "c")).isNotEqualTo(HyperLogLog.hash("a", "bc"));
+        assertThat(HyperLogLog.hash("1.2.3.4", "curl")).isEqualTo(
+                HyperLogLog.hash("1.2.3.4", "curl"));
+    }
+}
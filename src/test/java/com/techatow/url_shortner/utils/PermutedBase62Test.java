@@ -0,0 +1,56 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PermutedBase62Test {
+
+    private final PermutedBase62 encoder = new PermutedBase62(42L);
+
+    @Test
+    void encode_shouldProduceSixAlphanumericCharacters() {
+        assertThat(encoder.encode(0)).hasSize(6).matches("[a-zA-Z0-9]+");
+        assertThat(encoder.encode(PermutedBase62.CAPACITY - 1)).hasSize(6)
+                .matches("[a-zA-Z0-9]+");
+    }
+
+    @Test
+    void encode_shouldBeInvertibleByDecode() {
+        for (long id : new long[] {0, 1, 2, 999, 1_000_000, PermutedBase62.CAPACITY - 1}) {
+            assertThat(encoder.decode(encoder.encode(id))).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void encode_shouldNeverRepeatCodesForDistinctIds() {
+        Set<String> codes = new HashSet<>();
+        for (long id = 0; id < 100_000; id++) {
+            codes.add(encoder.encode(id));
+        }
+
+        assertThat(codes).hasSize(100_000);
+    }
+
+    @Test
+    void encode_shouldNotRevealSequentialIds() {
+        String first = encoder.encode(1000);
+        String second = encoder.encode(1001);
+
+        assertThat(first.substring(0, 5)).isNotEqualTo(second.substring(0, 5));
+    }
+
+    @Test
+    void encode_shouldDependOnSecret() {
+        assertThat(new PermutedBase62(1L).encode(7)).isNotEqualTo(new PermutedBase62(2L).encode(7));
+    }
+
+    @Test
+    void encode_shouldRejectIdsOutsideCapacity() {
+        assertThatThrownBy(() -> encoder.encode(PermutedBase62.CAPACITY))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> encoder.encode(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
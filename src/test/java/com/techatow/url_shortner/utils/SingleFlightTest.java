@@ -0,0 +1,139 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import com.techatow.url_shortner.exceptions.ServiceOverloadedException;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<Future<String>> submitConcurrently(int callers, Duration timeout,
+            Supplier<String> loader) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("abc123", loader, timeout)));
+        }
+        return results;
+    }
+
+    @Test
+    void execute_shouldShareSingleLoadBetweenConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(16, Duration.ofSeconds(5), () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "https://google.com";
+        });
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("https://google.com");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void execute_shouldShareFailureWithWaiters() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(8, Duration.ofSeconds(5), () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new IllegalArgumentException("não encontrado");
+        });
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void execute_shouldLoadAgainAfterPreviousFlightCompletes() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("abc123", () -> "v" + loads.incrementAndGet(),
+                Duration.ofSeconds(1));
+        String second = singleFlight.execute("abc123", () -> "v" + loads.incrementAndGet(),
+                Duration.ofSeconds(1));
+
+        assertThat(second).isEqualTo("v2");
+    }
+
+    @Test
+    void execute_shouldFailWaitersOfStuckLoadInsteadOfLoadingAgain() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> singleFlight.execute("abc123", () -> {
+            loads.incrementAndGet();
+            await(stuck);
+            return "stuck";
+        }, Duration.ofSeconds(5)));
+        Thread.sleep(100);
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> singleFlight.execute("abc123", () -> {
+            loads.incrementAndGet();
+            return "fresh";
+        }, Duration.ofMillis(100))).isInstanceOf(ServiceOverloadedException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt))
+                .isLessThan(Duration.ofSeconds(2));
+        assertThat(loads).hasValue(1);
+        stuck.countDown();
+        assertThat(leader.get()).isEqualTo("stuck");
+    }
+
+    @Test
+    void execute_shouldBoundLeaderWaitAndReleaseKeyWhenLoadFinishes() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> singleFlight.execute("abc123", () -> {
+            await(stuck);
+            return "slow";
+        }, Duration.ofMillis(100))).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+
+        stuck.countDown();
+        while (singleFlight.inFlightCount() > 0) {
+            Thread.sleep(10);
+        }
+        assertThat(singleFlight.execute("abc123", () -> "fresh", Duration.ofSeconds(1)))
+                .isEqualTo("fresh");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(1_000, START);
+
+    private List<String> advance(long nowMillis) {
+        List<String> fired = new ArrayList<>();
+        wheel.advance(nowMillis, fired::add);
+        return fired;
+    }
+
+    @Test
+    void shouldFireOnlyAfterDeadline() {
+        wheel.schedule("abc123", START + 2_500);
+
+        assertThat(advance(START + 2_000)).isEmpty();
+        assertThat(advance(START + 2_999)).isEmpty();
+        assertThat(advance(START + 3_000)).containsExactly("abc123");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldFirePastDeadlinesOnNextAdvance() {
+        wheel.schedule("old123", START - 5_000);
+
+        assertThat(advance(START)).containsExactly("old123");
+    }
+
+    @Test
+    void shouldCascadeTimersFromUpperLevels() {
+        // Um por nível: 30s, ~1h, ~1 dia e ~30 dias
+        long[] delays = {30_000L, 3_600_000L, 86_400_000L, 30L * 86_400_000L};
+        for (int i = 0; i < delays.length; i++) {
+            wheel.schedule("code0" + i, START + delays[i]);
+        }
+
+        for (int i = 0; i < delays.length; i++) {
+            assertThat(advance(START + delays[i] - 1_000)).isEmpty();
+            assertThat(advance(START + delays[i])).containsExactly("code0" + i);
+        }
+    }
+
+    @Test
+    void shouldHoldDeadlinesBeyondWheelSpan() {
+        long far = START + 400L * 86_400_000L;
+        wheel.schedule("far001", far);
+
+        assertThat(advance(far - 1_000)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(advance(far)).containsExactly("far001");
+    }
+
+    @Test
+    void shouldFireEveryTimerExactlyOnceAtItsTick() {
+        Random random = new Random(42);
+        Map<String, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = START + 1_000L * random.nextInt(300_000);
+            deadlines.put("k" + i, deadline);
+            wheel.schedule("k" + i, deadline);
+        }
+
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= START + 300_000_000L; now += 7_000) {
+            long tick = now;
+            wheel.advance(now, key -> assertThat(firedAt.put(key, tick)).isNull());
+        }
+
+        assertThat(firedAt).hasSameSizeAs(deadlines);
+        firedAt.forEach((key, tick) -> assertThat(tick)
+                .isBetween(deadlines.get(key), deadlines.get(key) + 6_999));
+    }
+
+    @Test
+    void shouldRejectNonPositiveTick() {
+        assertThatThrownBy(() -> new TimingWheel<String>(0, START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,22 @@
+package com.techatow.url_shortner.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class UrlDigestTest {
+
+    @Test
+    void of_shouldReturnFixedWidthLowercaseHex() {
+        String digest = UrlDigest.of("https://google.com");
+
+        assertThat(digest).hasSize(UrlDigest.LENGTH).matches("[0-9a-f]+");
+        assertThat(digest)
+                .isEqualTo("05046f26c83e8c88b3ddab2eab63d0d16224ac1e564535fc75cdceee47a0938d");
+    }
+
+    @Test
+    void of_shouldDistinguishUrlsDifferingOnlyInPath() {
+        assertThat(UrlDigest.of("https://google.com/a"))
+                .isNotEqualTo(UrlDigest.of("https://google.com/b"));
+    }
+}
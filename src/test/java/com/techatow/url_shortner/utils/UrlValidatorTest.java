@@ -2,10 +2,14 @@ package com.techatow.url_shortner.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
+import com.techatow.url_shortner.exceptions.HostResolutionTimeoutException;
 
 // todo: fazer testes com dominios proibidos
 // todo: pensar sobre se portas
@@ -105,4 +109,97 @@ class UrlValidatorTest {
 
         assertThat(result).isEqualTo("https://site123.com");
     }
+
+    @Test
+    void normalizeUrl_shouldBlockHostResolvingToPrivateIp() {
+        HostResolver resolver =
+                host -> List.of(InetAddress.getByAddress(host, new byte[] {10, 0, 0, 5}));
+
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl("intranet.example.com", resolver))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("URLs internas não são permitidas");
+    }
+
+    @Test
+    void normalizeUrl_shouldBlockWhenAnyResolvedAddressIsInternal() {
+        HostResolver resolver = host -> List.of(
+                InetAddress.getByAddress(host, new byte[] {8, 8, 8, 8}),
+                InetAddress.getByName("fd12:3456::1"));
+
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl("dual-stack.example", resolver))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("URLs internas não são permitidas");
+    }
+
+    @Test
+    void normalizeUrl_shouldBlockIpv6LoopbackLiteral() {
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl("http://[::1]:8080/admin"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("URLs internas não são permitidas");
+    }
+
+    @Test
+    void normalizeUrl_shouldBlockPrivateIpLiteralWithoutResolving() {
+        HostResolver resolver = host -> {
+            throw new AssertionError("IP literal não deveria ser resolvido");
+        };
+
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl("http://192.168.0.10/admin", resolver))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("URLs internas não são permitidas");
+    }
+
+    @Test
+    void normalizeUrl_shouldBlockConfiguredRanges() {
+        HostResolver resolver =
+                host -> List.of(InetAddress.getByAddress(host, new byte[] {(byte) 203, 0, 113, 9}));
+        CidrTrie blocked = CidrTrie.of(List.of("203.0.113.0/24"));
+
+        assertThat(UrlValidator.normalizeUrl("partner.example", resolver))
+                .isEqualTo("https://partner.example");
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl("partner.example", resolver, blocked))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("URLs internas não são permitidas");
+    }
+
+    @Test
+    void normalizeUrl_shouldRejectBlockedDomainBeforeResolving() {
+        HostResolver resolver = host -> {
+            throw new AssertionError("Domínio bloqueado não deveria ser resolvido");
+        };
+        CidrTrie ranges = CidrTrie.of(UrlValidator.DEFAULT_BLOCKED_RANGES);
+
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl("https://Login.Evil.example/x",
+                resolver, ranges, host -> host.endsWith("evil.example")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Domínio bloqueado");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"HTTP://example.com", "mailto:someone@example.com", "localhost:abc"})
+    void normalizeUrl_shouldKeepRejectingNonHttpSchemes(String input) {
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl(input))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Protocolo não suportado. Use http ou https");
+    }
+
+    @Test
+    void normalizeUrl_shouldAllowHostThatDoesNotResolve() {
+        HostResolver resolver = host -> {
+            throw new UnknownHostException(host);
+        };
+
+        String result = UrlValidator.normalizeUrl("does-not-exist.example", resolver);
+
+        assertThat(result).isEqualTo("https://does-not-exist.example");
+    }
+
+    @Test
+    void normalizeUrl_shouldRejectHostWhoseLookupTimedOut() {
+        HostResolver resolver = host -> {
+            throw new HostResolutionTimeoutException("Tempo esgotado resolvendo " + host);
+        };
+
+        assertThatThrownBy(() -> UrlValidator.normalizeUrl("slow.example", resolver))
+                .isInstanceOf(HostResolutionTimeoutException.class);
+    }
 }
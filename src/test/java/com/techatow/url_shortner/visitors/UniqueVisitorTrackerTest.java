@@ -0,0 +1,105 @@
+package com.techatow.url_shortner.visitors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class UniqueVisitorTrackerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private UniqueVisitorTracker tracker;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:visitors-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        tracker = new UniqueVisitorTracker(jdbcTemplate, transactionManager, true, 12, 2,
+                Duration.ofDays(400));
+    }
+
+    private void visit(UniqueVisitorTracker target, String shortCode, int from, int to) {
+        for (int i = from; i < to; i++) {
+            target.record(shortCode, "10.0.0." + i, "Mozilla/5.0");
+        }
+    }
+
+    @Test
+    void shouldCountRepeatedVisitorOnce() {
+        for (int i = 0; i < 100; i++) {
+            tracker.record("abc123", "10.0.0.1", "Mozilla/5.0");
+        }
+        tracker.record("abc123", "10.0.0.1", "curl/8.0");
+
+        assertThat(tracker.estimate("abc123", today, today)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMergeFlushesAndUnflushedVisitors() {
+        visit(tracker, "abc123", 0, 300);
+        visit(tracker, "def456", 0, 10);
+        visit(tracker, "ghi789", 0, 10);
+        tracker.flush();
+        visit(tracker, "abc123", 200, 500);
+
+        assertThat(tracker.estimate("abc123", today, today)).isBetween(480L, 520L);
+        tracker.flush();
+        assertThat(tracker.estimate("abc123", today, today)).isBetween(480L, 520L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from visitor_sketches",
+                Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldMergeSketchesFromOtherNodesAndDays() {
+        UniqueVisitorTracker otherNode = new UniqueVisitorTracker(jdbcTemplate,
+                transactionManager, true, 12, 2, Duration.ofDays(400));
+        visit(tracker, "abc123", 0, 1_000);
+        visit(otherNode, "abc123", 500, 1_500);
+        tracker.flush();
+        otherNode.flush();
+        byte[] yesterday = jdbcTemplate.queryForObject(
+                "select sketch from visitor_sketches where short_code = 'abc123'", byte[].class);
+        jdbcTemplate.update("insert into visitor_sketches values ('abc123', ?, ?)",
+                Date.valueOf(today.minusDays(1)), yesterday);
+
+        assertThat(tracker.estimate("abc123", today, today)).isBetween(1_450L, 1_550L);
+        assertThat(tracker.estimate("abc123", today.minusDays(1), today))
+                .isBetween(1_450L, 1_550L);
+        assertThat(tracker.estimate("abc123", today.minusDays(1), today.minusDays(1)))
+                .isBetween(1_450L, 1_550L);
+    }
+
+    @Test
+    void shouldPurgeSketchesOlderThanRetention() {
+        visit(tracker, "abc123", 0, 10);
+        tracker.flush();
+        jdbcTemplate.update("update visitor_sketches set visit_date = ?",
+                Date.valueOf(today.minusDays(401)));
+
+        tracker.purgeExpired();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from visitor_sketches",
+                Long.class)).isZero();
+    }
+
+    @Test
+    void shouldForgetDeletedCode() {
+        visit(tracker, "abc123", 0, 10);
+        tracker.flush();
+        visit(tracker, "abc123", 10, 20);
+
+        tracker.delete("abc123");
+
+        assertThat(tracker.estimate("abc123", today.minusDays(30), today)).isZero();
+    }
+}